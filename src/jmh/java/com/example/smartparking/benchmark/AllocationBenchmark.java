@@ -0,0 +1,141 @@
+package com.example.smartparking.benchmark;
+
+import com.example.smartparking.availability.SpotAvailabilityIndex;
+import com.example.smartparking.domain.Entrance;
+import com.example.smartparking.domain.Floor;
+import com.example.smartparking.domain.Spot;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.domain.strategy.SpotAllocationStrategy.AllocationRequest;
+import com.example.smartparking.domain.strategy.SpotAllocationStrategy.AllocationResult;
+import com.example.smartparking.observability.ParkingMetrics;
+import com.example.smartparking.repository.EntranceRepository;
+import com.example.smartparking.repository.EntranceRepository.SpotDistance;
+import com.example.smartparking.repository.FloorRepository;
+import com.example.smartparking.repository.SpotRepository;
+import com.example.smartparking.strategy.EntranceNearestSpotAllocationStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * EntranceNearestSpotAllocationStrategy over an in-memory repository stand-in.
+ * The lot is split into floors of 1000 spots; the first 90% of spots in allocation
+ * order start out occupied. Each invocation claims the nearest free spot and releases
+ * a random occupied one, so the lot stays 90% full while the free spots move around
+ * and every claim and release reorders the heaps. With entrances, each invocation
+ * comes in through a random entrance and every free spot sits in one heap per entrance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AllocationBenchmark {
+
+    private static final int SPOTS_PER_FLOOR = 1000;
+    private static final double OCCUPIED_SHARE = 0.9;
+
+    @Param({"10000", "100000", "1000000"})
+    int spots;
+
+    // 0 allocates by floor order only
+    @Param({"0", "4"})
+    int entrances;
+
+    private SpotAvailabilityIndex index;
+    private EntranceNearestSpotAllocationStrategy strategy;
+    private AllocationRequest[] requests;
+    private UUID lotId;
+    // ids of the occupied spots; a released one is replaced by the spot just claimed
+    private UUID[] occupiedIds;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lotId = UUID.randomUUID();
+        random = new SplittableRandom(42);
+        List<Floor> floors = new ArrayList<>();
+        Map<UUID, List<Spot>> spotsByFloor = new HashMap<>();
+        List<Spot> allSpots = new ArrayList<>(spots);
+        int occupied = (int) (spots * OCCUPIED_SHARE);
+        occupiedIds = new UUID[occupied];
+        for (int i = 0; i < spots; i++) {
+            if (i % SPOTS_PER_FLOOR == 0) {
+                Floor floor = new Floor(UUID.randomUUID(), lotId, "F" + floors.size(), floors.size());
+                floors.add(floor);
+                spotsByFloor.put(floor.getId(), new ArrayList<>(SPOTS_PER_FLOOR));
+            }
+            UUID floorId = floors.get(floors.size() - 1).getId();
+            Spot spot = new Spot(UUID.randomUUID(), floorId, String.format("S%07d", i),
+                    SpotSize.MEDIUM, i < occupied ? SpotStatus.OCCUPIED : SpotStatus.AVAILABLE);
+            spotsByFloor.get(floorId).add(spot);
+            allSpots.add(spot);
+            if (i < occupied) {
+                occupiedIds[i] = spot.getId();
+            }
+        }
+
+        // entrances spread over the floors; a spot is 100 per floor away plus a tenth of its place on the floor
+        List<Entrance> entranceRows = new ArrayList<>();
+        List<SpotDistance> distances = new ArrayList<>(spots * entrances);
+        for (int e = 0; e < entrances; e++) {
+            int entranceFloor = e * floors.size() / entrances;
+            Entrance entrance = new Entrance(UUID.randomUUID(), lotId, floors.get(entranceFloor).getId(), "E" + e);
+            entranceRows.add(entrance);
+            for (int i = 0; i < spots; i++) {
+                int place = (i + e * SPOTS_PER_FLOOR / entrances) % SPOTS_PER_FLOOR;
+                int distance = Math.abs(i / SPOTS_PER_FLOOR - entranceFloor) * 100 + place / 10;
+                distances.add(new Distance(entrance.getId(), allSpots.get(i).getId(), distance));
+            }
+        }
+
+        index = new SpotAvailabilityIndex(
+                repository(FloorRepository.class, Map.of("findByLotIdOrderByOrderingAsc", args -> floors)),
+                repository(SpotRepository.class, Map.of("findByFloorId", args -> spotsByFloor.get((UUID) args[0]))),
+                repository(EntranceRepository.class, Map.of(
+                        "findByLotId", args -> entranceRows,
+                        "findDistancesByLotId", args -> distances)), 0L);
+        strategy = new EntranceNearestSpotAllocationStrategy(index, new ParkingMetrics(new SimpleMeterRegistry()));
+        requests = entranceRows.isEmpty()
+                ? new AllocationRequest[]{request(UUID.randomUUID())}
+                : entranceRows.stream().map(entrance -> request(entrance.getId())).toArray(AllocationRequest[]::new);
+        // load the lot outside the measurement
+        index.warmUp(lotId);
+    }
+
+    @Benchmark
+    public UUID claimAndRelease() {
+        AllocationRequest request = requests[random.nextInt(requests.length)];
+        AllocationResult result = strategy.allocateSpot(request).orElseThrow();
+        int released = random.nextInt(occupiedIds.length);
+        // no transaction is active, so the spot is returned immediately
+        index.markAvailable(lotId, occupiedIds[released]);
+        occupiedIds[released] = result.spotId();
+        return result.spotId();
+    }
+
+    private AllocationRequest request(UUID entranceId) {
+        return new AllocationRequest(lotId, entranceId, SpotSize.MEDIUM, Optional.empty(), Instant.now());
+    }
+
+    private record Distance(UUID getEntranceId, UUID getSpotId, int getDistance) implements SpotDistance {}
+
+    // Repository stand-in answering the given finders from memory; any other call fails
+    @SuppressWarnings("unchecked")
+    private static <R> R repository(Class<R> type, Map<String, Function<Object[], Object>> finders) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = finders.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
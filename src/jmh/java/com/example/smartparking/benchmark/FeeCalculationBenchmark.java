@@ -0,0 +1,54 @@
+package com.example.smartparking.benchmark;
+
+import com.example.smartparking.domain.strategy.FeeCalculationStrategy.FeeBreakdown;
+import com.example.smartparking.domain.strategy.FeeCalculationStrategy.FeeRequest;
+import com.example.smartparking.strategy.DegressiveDayNightWeekendFeeStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DegressiveDayNightWeekendFeeStrategy.calculate over grace, short, overstay and week-long stays.
+ * The strategy resolves day/night and weekend in the JVM default zone, so each zone runs
+ * with that zone as the default.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeeCalculationBenchmark {
+
+    @Param({"5", "95", "780", "10080"})
+    long stayMinutes;
+
+    @Param({"Asia/Kolkata", "UTC", "America/New_York"})
+    String zone;
+
+    private final DegressiveDayNightWeekendFeeStrategy strategy = new DegressiveDayNightWeekendFeeStrategy();
+    private FeeRequest request;
+    private TimeZone previousDefault;
+
+    @Setup
+    public void setUp() {
+        previousDefault = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone(zone));
+        Instant exit = Instant.parse("2025-06-07T18:30:00Z");
+        request = new FeeRequest(UUID.randomUUID(), UUID.randomUUID(),
+                exit.minusSeconds(stayMinutes * 60), exit, "INR");
+    }
+
+    @TearDown
+    public void tearDown() {
+        TimeZone.setDefault(previousDefault);
+    }
+
+    @Benchmark
+    public FeeBreakdown calculate() {
+        return strategy.calculate(request);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.smartparking.benchmark;
+
+import com.example.smartparking.domain.strategy.IdGenerator;
+import com.example.smartparking.strategy.RandomIdGenerator;
+import com.example.smartparking.strategy.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random (v4) against time-ordered (v7) primary keys.
+ * insertBatch writes batches of ticket-sized rows into a table keyed by uuid in a scratch
+ * schema of the database given by -Dbench.jdbcUrl (default: the local profile's database);
+ * the table is preloaded with existingRows rows of the same kind, so random keys hit pages
+ * all over the primary key index while time-ordered keys append to its right edge. Make
+ * existingRows large against shared_buffers to see the cache effect. newId measures
+ * generation alone, on four threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdInsertBenchmark {
+
+    private static final String SCHEMA = "bench_ids";
+    private static final int BATCH = 1000;
+
+    public enum KeyKind { RANDOM, TIME_ORDERED }
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    KeyKind keys;
+
+    @Param({"2000000"})
+    int existingRows;
+
+    private IdGenerator generator;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        generator = keys == KeyKind.RANDOM ? new RandomIdGenerator() : new TimeOrderedIdGenerator();
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbcUrl", "jdbc:postgresql://localhost:5432/parkinglot"),
+                System.getProperty("bench.user", "parking"),
+                System.getProperty("bench.password", "parking"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("CREATE TABLE " + SCHEMA + ".row (id UUID PRIMARY KEY, lot_id UUID NOT NULL, "
+                    + "entry_at TIMESTAMPTZ NOT NULL DEFAULT NOW(), payload VARCHAR(64))");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO " + SCHEMA + ".row (id, lot_id, payload) VALUES (?, ?, ?)");
+        for (int loaded = 0; loaded < existingRows; loaded += BATCH) {
+            insertBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        connection.close();
+    }
+
+    // Rows per second are this score times 1000
+    @Benchmark
+    public int insertBatch() throws SQLException {
+        UUID lotId = generator.newId();
+        for (int i = 0; i < BATCH; i++) {
+            insert.setObject(1, generator.newId());
+            insert.setObject(2, lotId);
+            insert.setString(3, "ticket");
+            insert.addBatch();
+        }
+        int rows = insert.executeBatch().length;
+        connection.commit();
+        return rows;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID newId() {
+        return generator.newId();
+    }
+}
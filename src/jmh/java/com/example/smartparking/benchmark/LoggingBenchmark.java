@@ -0,0 +1,98 @@
+package com.example.smartparking.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.example.smartparking.config.LoggingProperties;
+import com.example.smartparking.observability.AsyncLogAppender;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-side cost of one check-in log line written to a JSON-like file line, directly
+ * (SYNC, as before AsyncLogPipeline) or through AsyncLogAppender (ASYNC). The async score
+ * is what a request thread pays; with neverBlock the writer thread falling behind shows
+ * up as dropped lines instead of latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    public enum Pipeline { SYNC, ASYNC }
+
+    @Param({"SYNC", "ASYNC"})
+    Pipeline pipeline;
+
+    private LoggerContext context;
+    private Logger logger;
+    private Path file;
+    private AsyncLogAppender async;
+    private final UUID ticketId = UUID.randomUUID();
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID spotId = UUID.randomUUID();
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        file = Files.createTempFile("logging-benchmark", ".log");
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("{\"@timestamp\":\"%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX}\",\"log.level\":\"%level\","
+                + "\"log.logger\":\"%logger\",\"thread\":\"%thread\",\"message\":\"%msg\"}%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName("FILE");
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (pipeline == Pipeline.ASYNC) {
+            LoggingProperties properties = new LoggingProperties();
+            properties.setNeverBlock(true);
+            async = new AsyncLogAppender(List.of(fileAppender), properties);
+            async.setContext(context);
+            async.start();
+            appender = async;
+        }
+        logger = context.getLogger("com.example.smartparking.application.ParkingSessionServiceImpl");
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() throws IOException {
+        if (async != null) {
+            System.out.printf("%nwritten=%d discarded=%d dropped=%d%n", async.written(), async.discarded(),
+                    async.droppedFull());
+        }
+        context.stop();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void checkInSuccessLine() {
+        logger.info("Check-in success ticketId={} lotId={} spotId={} spotCode={} plate={}",
+                ticketId, lotId, spotId, "G-M1", "MH12AB1234");
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.smartparking.benchmark;
+
+import com.example.smartparking.application.ParkingQueryService.SpotSummary;
+import com.example.smartparking.application.ParkingSessionService.CheckInResult;
+import com.example.smartparking.application.ParkingSessionService.CheckOutResult;
+import com.example.smartparking.application.mapper.AvailabilityEventMapper;
+import com.example.smartparking.application.mapper.ParkingQueryMapper;
+import com.example.smartparking.application.mapper.ParkingSessionMapper;
+import com.example.smartparking.domain.*;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.AvailabilityEvent;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.EventType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// DTO and event mapping done on every check-in, check-out and spot listing
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final ParkingQueryMapper queryMapper = new ParkingQueryMapper();
+    private final ParkingSessionMapper sessionMapper = new ParkingSessionMapper();
+    private final AvailabilityEventMapper eventMapper = new AvailabilityEventMapper();
+
+    private Spot spot;
+    private Ticket openTicket;
+    private Ticket closedTicket;
+    private Payment payment;
+    private Instant at;
+
+    @Setup
+    public void setUp() {
+        at = Instant.parse("2025-06-07T10:00:00Z");
+        UUID lotId = UUID.randomUUID();
+        spot = new Spot(UUID.randomUUID(), UUID.randomUUID(), "G-M1", SpotSize.MEDIUM, SpotStatus.OCCUPIED);
+        openTicket = new Ticket(UUID.randomUUID(), spot.getId(), UUID.randomUUID(), lotId, at);
+        closedTicket = new Ticket(UUID.randomUUID(), spot.getId(), UUID.randomUUID(), lotId, at);
+        closedTicket.close(at.plusSeconds(5400));
+        payment = new Payment(UUID.randomUUID(), closedTicket.getId(), closedTicket.getEntryAt(), 6500L, "INR", PaymentMethod.CASH);
+    }
+
+    @Benchmark
+    public SpotSummary toSpotSummary() {
+        return queryMapper.toSpotSummary(spot);
+    }
+
+    @Benchmark
+    public CheckInResult toCheckInResult() {
+        return sessionMapper.toCheckInResult(openTicket, spot);
+    }
+
+    @Benchmark
+    public CheckOutResult toCheckOutResult() {
+        return sessionMapper.toCheckOutResult(closedTicket, payment);
+    }
+
+    @Benchmark
+    public AvailabilityEvent toEvent() {
+        return eventMapper.toEvent(EventType.SPOT_OCCUPIED, openTicket.getLotId(), spot.getFloorId(), spot, at);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.smartparking.benchmark;
+
+import com.example.smartparking.domain.Spot;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Spot.isCompatible for every spot size against every vehicle size
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpotCompatibilityBenchmark {
+
+    private static final SpotSize[] SIZES = SpotSize.values();
+
+    private Spot[] spots;
+
+    @Setup
+    public void setUp() {
+        spots = new Spot[SIZES.length];
+        for (int i = 0; i < SIZES.length; i++) {
+            spots[i] = new Spot(UUID.randomUUID(), UUID.randomUUID(), "S" + i, SIZES[i], SpotStatus.AVAILABLE);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(25)
+    public void allPairs(Blackhole bh) {
+        for (Spot spot : spots) {
+            for (SpotSize vehicle : SIZES) {
+                bh.consume(spot.isCompatible(vehicle));
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.smartparking.benchmark;
+
+import com.example.smartparking.config.PermitLimitedDataSource;
+import com.example.smartparking.observability.ParkingMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Load test of the two request execution modes against a 10-connection pool stand-in.
+ * Each request blocks for ioMillis outside the database (remote calls, client I/O),
+ * then holds a connection for queryMillis. PLATFORM runs requests on a 200-thread
+ * pool, like Tomcat's default; VIRTUAL starts one virtual thread per request and
+ * reaches the pool through PermitLimitedDataSource. Score is the time to drain a
+ * burst of {@code requests} concurrent requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final int PLATFORM_THREADS = 200;
+
+    public enum ExecutionMode { PLATFORM, VIRTUAL }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    ExecutionMode mode;
+
+    @Param({"5000"})
+    int requests;
+
+    @Param({"0", "20"})
+    int ioMillis;
+
+    @Param({"1"})
+    int queryMillis;
+
+    private ExecutorService executor;
+    private DataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DataSource pool = pool(new Semaphore(POOL_SIZE, true));
+        if (mode == ExecutionMode.VIRTUAL) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            dataSource = new PermitLimitedDataSource(pool, POOL_SIZE, 30_000,
+                    new ParkingMetrics(new SimpleMeterRegistry()));
+        } else {
+            executor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+            dataSource = pool;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int drainBurst() throws Exception {
+        List<Future<?>> pending = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            pending.add(executor.submit(this::handleRequest));
+        }
+        for (Future<?> future : pending) {
+            future.get();
+        }
+        return pending.size();
+    }
+
+    private Void handleRequest() throws Exception {
+        if (ioMillis > 0) {
+            Thread.sleep(ioMillis);
+        }
+        try (Connection ignored = dataSource.getConnection()) {
+            Thread.sleep(queryMillis);
+        }
+        return null;
+    }
+
+    // Pool stand-in: a connection is a permit of a fair semaphore, returned on close
+    private static DataSource pool(Semaphore connections) {
+        Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        connections.release();
+                    }
+                    return null;
+                });
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getConnection")) {
+                        connections.acquire();
+                        return connection;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.smartparking.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticket lookups of the check-in/check-out path against a real PostgreSQL, with the
+ * ticket table laid out as before V8 (PLAIN: one table, partial unique indexes on OPEN rows)
+ * and as after it (PARTITIONED: ticket_open plus monthly ticket_closed partitions).
+ * Each layout lives in its own schema of the database given by -Dbench.jdbcUrl
+ * (default: the local profile's database) and is loaded with historicalTickets CLOSED
+ * tickets spread over the last {@code months} months plus openTickets OPEN ones. A schema
+ * already loaded with the same parameters is reused, so the 100M-ticket run
+ * ({@code -p historicalTickets=100000000}, roughly 25 GB and an hour of loading per layout)
+ * only pays for the load once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketLookupBenchmark {
+
+    private static final int LOTS = 4;
+    private static final int VEHICLES = 2_000_000;
+    private static final long LOAD_CHUNK = 5_000_000;
+
+    public enum Layout { PLAIN, PARTITIONED }
+
+    @Param({"PLAIN", "PARTITIONED"})
+    Layout layout;
+
+    @Param({"1000000"})
+    long historicalTickets;
+
+    @Param({"24"})
+    int months;
+
+    @Param({"10000"})
+    int openTickets;
+
+    private Connection connection;
+    private PreparedStatement openByVehicleLot;
+    private PreparedStatement openById;
+    private PreparedStatement byId;
+    private final List<UUID[]> openKeys = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbcUrl", "jdbc:postgresql://localhost:5432/parkinglot"),
+                System.getProperty("bench.user", "parking"),
+                System.getProperty("bench.password", "parking"));
+        String schema = "bench_ticket_" + layout.name().toLowerCase();
+        if (!loaded(schema)) {
+            load(schema);
+        }
+        openByVehicleLot = connection.prepareStatement("SELECT id FROM " + schema
+                + ".ticket WHERE vehicle_id = ? AND lot_id = ? AND status = 'OPEN'");
+        openById = connection.prepareStatement("SELECT id, spot_id, entry_at FROM " + schema
+                + ".ticket WHERE id = ? AND status = 'OPEN'");
+        byId = connection.prepareStatement("SELECT id, spot_id, entry_at FROM " + schema
+                + ".ticket WHERE id = ?");
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, vehicle_id, lot_id FROM " + schema
+                     + ".ticket WHERE status = 'OPEN'")) {
+            while (rs.next()) {
+                openKeys.add(new UUID[]{rs.getObject(1, UUID.class), rs.getObject(2, UUID.class),
+                        rs.getObject(3, UUID.class)});
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    // check-in: findByVehicleIdAndLotIdAndStatus(vehicle, lot, OPEN)
+    @Benchmark
+    public boolean openTicketByVehicleAndLot() throws SQLException {
+        UUID[] key = randomOpenKey();
+        openByVehicleLot.setObject(1, key[1]);
+        openByVehicleLot.setObject(2, key[2]);
+        try (ResultSet rs = openByVehicleLot.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    // check-out: findByIdAndStatus(ticket, OPEN)
+    @Benchmark
+    public boolean openTicketById() throws SQLException {
+        openById.setObject(1, randomOpenKey()[0]);
+        try (ResultSet rs = openById.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    // findById without the status: every partition's index is probed
+    @Benchmark
+    public boolean ticketById() throws SQLException {
+        byId.setObject(1, randomOpenKey()[0]);
+        try (ResultSet rs = byId.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    private UUID[] randomOpenKey() {
+        return openKeys.get(ThreadLocalRandom.current().nextInt(openKeys.size()));
+    }
+
+    private boolean loaded(String schema) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("""
+                SELECT EXISTS (SELECT 1 FROM information_schema.tables
+                                WHERE table_schema = ? AND table_name = 'loaded')
+                """)) {
+            ps.setString(1, schema);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                if (!rs.getBoolean(1)) {
+                    return false;
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT historical, months, open FROM " + schema + ".loaded")) {
+            return rs.next() && rs.getLong(1) == historicalTickets && rs.getInt(2) == months
+                    && rs.getInt(3) == openTickets;
+        }
+    }
+
+    private void load(String schema) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            statement.execute("CREATE SCHEMA " + schema);
+            createTicketTable(statement, schema);
+
+            // Deterministic ids so both layouts hold the same rows
+            for (long from = 1; from <= historicalTickets; from += LOAD_CHUNK) {
+                long to = Math.min(historicalTickets, from + LOAD_CHUNK - 1);
+                statement.execute("INSERT INTO " + schema + ".ticket "
+                        + "(id, lot_id, spot_id, vehicle_id, entry_at, exit_at, status) "
+                        + "SELECT md5('t' || g)::uuid, md5('l' || g % " + LOTS + ")::uuid, "
+                        + "md5('s' || g % 10000)::uuid, md5('v' || g % " + VEHICLES + ")::uuid, "
+                        + "e, e + INTERVAL '2 hours', 'CLOSED' "
+                        + "FROM generate_series(" + from + "::bigint, " + to + "::bigint) g, "
+                        + "LATERAL (SELECT NOW() - INTERVAL '1 day' - make_interval(mins => ((g * 7919) % ("
+                        + months + " * 43200))::int) AS e) entry");
+                System.out.printf("%s: loaded %d of %d historical tickets%n", schema, to, historicalTickets);
+            }
+            statement.execute("INSERT INTO " + schema + ".ticket "
+                    + "(id, lot_id, spot_id, vehicle_id, entry_at, status) "
+                    + "SELECT md5('ot' || g)::uuid, md5('l' || g % " + LOTS + ")::uuid, md5('os' || g)::uuid, "
+                    + "md5('v' || g)::uuid, NOW() - make_interval(mins => g % 600), 'OPEN' "
+                    + "FROM generate_series(1, " + openTickets + ") g");
+
+            createIndexes(statement, schema);
+            statement.execute("ANALYZE " + schema + ".ticket");
+            statement.execute("CREATE TABLE " + schema + ".loaded (historical BIGINT, months INT, open INT)");
+            statement.execute("INSERT INTO " + schema + ".loaded VALUES (" + historicalTickets + ", "
+                    + months + ", " + openTickets + ")");
+        }
+    }
+
+    private void createTicketTable(Statement statement, String schema) throws SQLException {
+        String columns = """
+                (id UUID NOT NULL, lot_id UUID NOT NULL, spot_id UUID NOT NULL, vehicle_id UUID NOT NULL,
+                 entry_at TIMESTAMPTZ NOT NULL, exit_at TIMESTAMPTZ, status ticket_status NOT NULL,
+                 created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(), updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW())
+                """;
+        if (layout == Layout.PLAIN) {
+            statement.execute("CREATE TABLE " + schema + ".ticket " + columns);
+            return;
+        }
+        statement.execute("CREATE TABLE " + schema + ".ticket " + columns + " PARTITION BY LIST (status)");
+        statement.execute("CREATE TABLE " + schema + ".ticket_open PARTITION OF " + schema
+                + ".ticket FOR VALUES IN ('OPEN')");
+        statement.execute("CREATE TABLE " + schema + ".ticket_closed PARTITION OF " + schema
+                + ".ticket FOR VALUES IN ('CLOSED') PARTITION BY RANGE (entry_at)");
+        statement.execute("CREATE TABLE " + schema + ".ticket_closed_default PARTITION OF " + schema
+                + ".ticket_closed DEFAULT");
+        statement.execute("""
+                DO $$
+                DECLARE
+                    month TIMESTAMPTZ := date_trunc('month', NOW() - INTERVAL '%d months' - INTERVAL '1 month');
+                BEGIN
+                    WHILE month <= date_trunc('month', NOW()) LOOP
+                        EXECUTE format('CREATE TABLE %%I.%%I PARTITION OF %%I.ticket_closed FOR VALUES FROM (%%L) TO (%%L)',
+                                       '%s', 'ticket_closed_' || to_char(month, 'YYYY_MM'), '%s',
+                                       month, month + INTERVAL '1 month');
+                        month := month + INTERVAL '1 month';
+                    END LOOP;
+                END $$
+                """.formatted(months, schema, schema));
+    }
+
+    // Same indexes as V1 (PLAIN) and V8 (PARTITIONED)
+    private void createIndexes(Statement statement, String schema) throws SQLException {
+        if (layout == Layout.PLAIN) {
+            statement.execute("ALTER TABLE " + schema + ".ticket ADD PRIMARY KEY (id)");
+            statement.execute("CREATE UNIQUE INDEX ON " + schema + ".ticket(spot_id) WHERE status = 'OPEN'");
+            statement.execute("CREATE UNIQUE INDEX ON " + schema
+                    + ".ticket(vehicle_id, lot_id) WHERE status = 'OPEN'");
+        } else {
+            statement.execute("ALTER TABLE " + schema + ".ticket ADD PRIMARY KEY (id, status, entry_at)");
+            statement.execute("CREATE UNIQUE INDEX ON " + schema + ".ticket_open(spot_id)");
+            statement.execute("CREATE UNIQUE INDEX ON " + schema + ".ticket_open(vehicle_id, lot_id)");
+        }
+        statement.execute("CREATE INDEX ON " + schema + ".ticket(vehicle_id)");
+    }
+}
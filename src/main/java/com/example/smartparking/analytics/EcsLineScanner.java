@@ -0,0 +1,222 @@
+package com.example.smartparking.analytics;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Walks the ECS JSON lines of a byte range in place. Lines are never parsed as a whole or
+ * copied: the scanner only locates the @timestamp, message and correlationId values inside
+ * the line and decodes the few pieces a caller asks for. Relies on the field names the
+ * ECS encoder writes, not on full JSON; a line without the expected fields is skipped.
+ */
+final class EcsLineScanner {
+
+    private static final byte[] TIMESTAMP = ascii("\"@timestamp\":\"");
+    private static final byte[] MESSAGE = ascii("\"message\":\"");
+    private static final byte[] CORRELATION_ID = ascii("\"correlationId\":\"");
+
+    private final byte[] buf;
+    private final int end;
+    private int next;
+
+    private int lineStart;
+    private int lineEnd;
+    private int messageStart;
+    private int messageEnd;
+
+    EcsLineScanner(byte[] buf, int from, int to) {
+        this.buf = buf;
+        this.next = from;
+        this.end = to;
+    }
+
+    // Moves to the next non-empty line; false at the end of the range
+    boolean nextLine() {
+        while (next < end) {
+            lineStart = next;
+            int newline = indexOf(buf, (byte) '\n', lineStart, end);
+            lineEnd = newline < 0 ? end : newline;
+            next = lineEnd + 1;
+            if (lineEnd > lineStart) {
+                messageStart = -1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean messageStartsWith(byte[] prefix) {
+        if (!findMessage()) {
+            return false;
+        }
+        if (messageEnd - messageStart < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buf[messageStart + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Value of a key=value pair of the message, up to the next space; null if absent
+    String messageValue(byte[] keyEquals) {
+        if (!findMessage()) {
+            return null;
+        }
+        int at = messageStart;
+        while (true) {
+            int found = indexOf(buf, keyEquals, at, messageEnd);
+            if (found < 0) {
+                return null;
+            }
+            if (found == messageStart || buf[found - 1] == ' ') {
+                int valueStart = found + keyEquals.length;
+                int valueEnd = indexOf(buf, (byte) ' ', valueStart, messageEnd);
+                return decode(valueStart, valueEnd < 0 ? messageEnd : valueEnd);
+            }
+            at = found + 1;
+        }
+    }
+
+    // The message text before its first key=value pair, e.g. "Check-out ticket not found"
+    String messageHead() {
+        if (!findMessage()) {
+            return null;
+        }
+        int wordStart = messageStart;
+        for (int i = messageStart; i < messageEnd; i++) {
+            byte b = buf[i];
+            if (b == ' ') {
+                wordStart = i + 1;
+            } else if (b == '=') {
+                int headEnd = wordStart;
+                while (headEnd > messageStart && (buf[headEnd - 1] == ' ' || buf[headEnd - 1] == ':')) {
+                    headEnd--;
+                }
+                return decode(messageStart, headEnd);
+            }
+        }
+        return decode(messageStart, messageEnd);
+    }
+
+    String correlationId() {
+        int start = valueStart(CORRELATION_ID);
+        return start < 0 ? null : decode(start, stringEnd(start));
+    }
+
+    // Epoch microseconds of @timestamp; Long.MIN_VALUE if the line has none
+    long timestampMicros() {
+        int start = valueStart(TIMESTAMP);
+        if (start < 0) {
+            return Long.MIN_VALUE;
+        }
+        int stop = stringEnd(start);
+        if (stop - start < 20 || buf[stop - 1] != 'Z') {
+            return parseOffsetTimestamp(start, stop);
+        }
+        long days = daysFromCivil(digits(start, 4), digits(start + 5, 2), digits(start + 8, 2));
+        long seconds = days * 86_400 + digits(start + 11, 2) * 3_600L + digits(start + 14, 2) * 60L
+                + digits(start + 17, 2);
+        long micros = 0;
+        int scale = 100_000;
+        for (int i = start + 20; i < stop - 1 && scale > 0; i++, scale /= 10) {
+            micros += (buf[i] - '0') * scale;
+        }
+        return seconds * 1_000_000 + micros;
+    }
+
+    private boolean findMessage() {
+        if (messageStart == -1) {
+            int start = valueStart(MESSAGE);
+            if (start < 0) {
+                messageStart = -2;
+                return false;
+            }
+            messageStart = start;
+            messageEnd = stringEnd(start);
+        }
+        return messageStart >= 0;
+    }
+
+    private int valueStart(byte[] field) {
+        int found = indexOf(buf, field, lineStart, lineEnd);
+        return found < 0 ? -1 : found + field.length;
+    }
+
+    // Closing quote of a JSON string value, skipping escaped characters
+    private int stringEnd(int from) {
+        for (int i = from; i < lineEnd; i++) {
+            if (buf[i] == '\\') {
+                i++;
+            } else if (buf[i] == '"') {
+                return i;
+            }
+        }
+        return lineEnd;
+    }
+
+    private long parseOffsetTimestamp(int start, int stop) {
+        try {
+            OffsetDateTime time = OffsetDateTime.parse(decode(start, stop));
+            return ChronoUnit.MICROS.between(java.time.Instant.EPOCH, time.toInstant());
+        } catch (RuntimeException ex) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            value = value * 10 + (buf[i] - '0');
+        }
+        return value;
+    }
+
+    private String decode(int from, int to) {
+        return new String(buf, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    // Days since 1970-01-01 of a proleptic Gregorian date (H. Hinnant's days_from_civil)
+    static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    static int indexOf(byte[] buf, byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static int indexOf(byte[] buf, byte[] pattern, int from, int to) {
+        byte first = pattern[0];
+        int last = to - pattern.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (buf[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < pattern.length; j++) {
+                if (buf[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.smartparking.analytics;
+
+import com.example.smartparking.analytics.SessionStats.Lot;
+import com.example.smartparking.analytics.SessionStats.LongList;
+import com.example.smartparking.analytics.SessionStats.Operation;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Offline report over smart-parking.log and its rotated .gz archives: per-lot throughput,
+ * check-in inter-arrival times, rejection reasons and request latencies rebuilt from the
+ * correlation id of each request's first and last line.
+ * <p>
+ * Each file is streamed (gzip is inflated in memory, never to disk) into chunks of whole
+ * lines; reader threads work on files in parallel and hand every chunk, without copying
+ * it, to a pool of scanner threads. At most two chunks per core are in flight.
+ * <pre>
+ *   mvn -q compile exec:java -Dexec.mainClass=com.example.smartparking.analytics.LogAnalytics \
+ *       -Dexec.args="smart-parking.log.2025-11-*.gz"
+ * </pre>
+ * Arguments are files, directories (every smart-parking.log* inside) or globs.
+ */
+public final class LogAnalytics {
+
+    static final int DEFAULT_CHUNK_BYTES = 4 << 20;
+    private static final int IO_BUFFER_BYTES = 1 << 16;
+    private static final long MICROS_PER_SECOND = 1_000_000;
+
+    private final int threads;
+    private final int chunkBytes;
+
+    LogAnalytics(int threads, int chunkBytes) {
+        this.threads = Math.max(1, threads);
+        this.chunkBytes = chunkBytes;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("usage: LogAnalytics <file|dir|glob>...");
+            System.exit(2);
+        }
+        List<Path> files = expand(args);
+        if (files.isEmpty()) {
+            System.err.println("No log files found");
+            System.exit(1);
+        }
+        long started = System.nanoTime();
+        SessionStats stats = new LogAnalytics(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_BYTES)
+                .analyze(files);
+        report(stats, files.size(), (System.nanoTime() - started) / 1_000_000, System.out);
+    }
+
+    SessionStats analyze(List<Path> files) throws InterruptedException {
+        ExecutorService scanners = Executors.newFixedThreadPool(threads);
+        ExecutorService readers = Executors.newFixedThreadPool(Math.min(files.size(), threads));
+        Semaphore inFlight = new Semaphore(threads * 2);
+        ConcurrentLinkedQueue<Future<SessionStats>> chunks = new ConcurrentLinkedQueue<>();
+        try {
+            List<Future<?>> reads = new ArrayList<>();
+            for (Path file : files) {
+                reads.add(readers.submit(() -> {
+                    read(file, scanners, inFlight, chunks);
+                    return null;
+                }));
+            }
+            for (Future<?> read : reads) {
+                read.get();
+            }
+            SessionStats total = new SessionStats();
+            for (Future<SessionStats> chunk : chunks) {
+                total.merge(chunk.get());
+            }
+            return total;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            throw cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+        } finally {
+            readers.shutdownNow();
+            scanners.shutdownNow();
+        }
+    }
+
+    // Cuts the stream into chunks ending at a newline; a line longer than a chunk grows it
+    private void read(Path file, ExecutorService scanners, Semaphore inFlight,
+                      ConcurrentLinkedQueue<Future<SessionStats>> chunks) throws IOException, InterruptedException {
+        try (InputStream in = open(file)) {
+            byte[] buffer = new byte[chunkBytes];
+            int filled = 0;
+            while (true) {
+                filled += in.readNBytes(buffer, filled, buffer.length - filled);
+                boolean eof = filled < buffer.length;
+                int cut = eof ? filled : lastNewline(buffer, filled) + 1;
+                if (cut == 0 && !eof) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    continue;
+                }
+                if (cut > 0) {
+                    byte[] chunk = buffer;
+                    int length = cut;
+                    inFlight.acquire();
+                    chunks.add(scanners.submit(() -> {
+                        try {
+                            return SessionStats.scan(chunk, 0, length);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                }
+                if (eof) {
+                    return;
+                }
+                byte[] next = new byte[Math.max(chunkBytes, filled - cut)];
+                System.arraycopy(buffer, cut, next, 0, filled - cut);
+                filled -= cut;
+                buffer = next;
+            }
+        }
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), IO_BUFFER_BYTES);
+        return file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in, IO_BUFFER_BYTES) : in;
+    }
+
+    private static int lastNewline(byte[] buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static List<Path> expand(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            Path path = Path.of(arg);
+            if (Files.isDirectory(path)) {
+                try (DirectoryStream<Path> dir = Files.newDirectoryStream(path, "smart-parking.log*")) {
+                    dir.forEach(files::add);
+                }
+            } else if (arg.contains("*") || arg.contains("?")) {
+                Path parent = path.getParent() == null ? Path.of(".") : path.getParent();
+                try (DirectoryStream<Path> dir = Files.newDirectoryStream(parent, path.getFileName().toString())) {
+                    dir.forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        files.removeIf(file -> !Files.isRegularFile(file));
+        files.sort(null);
+        return files;
+    }
+
+    static void report(SessionStats stats, int files, long elapsedMs, PrintStream out) {
+        out.printf("files=%d lines=%d bytes=%d elapsedMs=%d%n", files, stats.lines, stats.bytes, elapsedMs);
+
+        out.printf("%nPer-lot throughput%n");
+        out.printf("  %-36s %9s %9s %9s %10s  %-20s %-20s%n",
+                "lot", "check-ins", "check-outs", "rejected", "peak/min", "first", "last");
+        stats.lots.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    Lot lot = entry.getValue();
+                    out.printf("  %-36s %9d %9d %9d %10d  %-20s %-20s%n", entry.getKey(), lot.checkIns,
+                            lot.checkOuts, lot.rejected, peakPerMinute(lot.arrivals.sorted()),
+                            instant(lot.firstMicros), instant(lot.lastMicros));
+                });
+
+        out.printf("%nCheck-in inter-arrival (seconds)%n");
+        out.printf("  %-36s %9s %9s %9s %9s %9s   <1s  <10s   <1m  <10m   <1h  >=1h%n",
+                "lot", "gaps", "p50", "p90", "p99", "max");
+        stats.lots.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    long[] gaps = gaps(entry.getValue().arrivals.sorted());
+                    int[] buckets = new int[6];
+                    for (long gap : gaps) {
+                        buckets[bucket(gap)]++;
+                    }
+                    out.printf("  %-36s %9d %9s %9s %9s %9s %5d %5d %5d %5d %5d %5d%n", entry.getKey(), gaps.length,
+                            seconds(percentile(gaps, 50)), seconds(percentile(gaps, 90)),
+                            seconds(percentile(gaps, 99)), seconds(percentile(gaps, 100)),
+                            buckets[0], buckets[1], buckets[2], buckets[3], buckets[4], buckets[5]);
+                });
+
+        out.printf("%nRejection reasons%n");
+        stats.rejections.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> out.printf("  %9d  %s%n", entry.getValue(), entry.getKey()));
+
+        out.printf("%nRequest latency by correlation id (ms)%n");
+        out.printf("  %-10s %9s %9s %9s %9s %9s%n", "operation", "requests", "p50", "p90", "p99", "max");
+        for (Operation operation : Operation.values()) {
+            LongList values = stats.latencies.get(operation);
+            long[] sorted = values == null ? new long[0] : values.sorted();
+            out.printf("  %-10s %9d %9s %9s %9s %9s%n", operation, sorted.length,
+                    millis(percentile(sorted, 50)), millis(percentile(sorted, 90)),
+                    millis(percentile(sorted, 99)), millis(percentile(sorted, 100)));
+        }
+        out.printf("  unmatched: starts=%d outcomes=%d%n", stats.unmatchedStarts(), stats.unmatchedOutcomes());
+    }
+
+    // Most check-ins of the lot within one minute, over sorted arrival times
+    static int peakPerMinute(long[] arrivals) {
+        int peak = 0;
+        int first = 0;
+        for (int last = 0; last < arrivals.length; last++) {
+            while (arrivals[last] - arrivals[first] >= 60 * MICROS_PER_SECOND) {
+                first++;
+            }
+            peak = Math.max(peak, last - first + 1);
+        }
+        return peak;
+    }
+
+    static long[] gaps(long[] arrivals) {
+        long[] gaps = new long[Math.max(0, arrivals.length - 1)];
+        for (int i = 1; i < arrivals.length; i++) {
+            gaps[i - 1] = arrivals[i] - arrivals[i - 1];
+        }
+        Arrays.sort(gaps);
+        return gaps;
+    }
+
+    // Nearest-rank percentile of sorted values; -1 when there are none
+    static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return -1;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static int bucket(long gapMicros) {
+        long seconds = gapMicros / MICROS_PER_SECOND;
+        if (seconds < 1) {
+            return 0;
+        } else if (seconds < 10) {
+            return 1;
+        } else if (seconds < 60) {
+            return 2;
+        } else if (seconds < 600) {
+            return 3;
+        } else if (seconds < 3_600) {
+            return 4;
+        }
+        return 5;
+    }
+
+    private static String seconds(long micros) {
+        return micros < 0 ? "-" : String.format("%.1f", micros / 1e6);
+    }
+
+    private static String millis(long micros) {
+        return micros < 0 ? "-" : String.format("%.1f", micros / 1e3);
+    }
+
+    private static String instant(long micros) {
+        if (micros == Long.MAX_VALUE || micros == Long.MIN_VALUE) {
+            return "-";
+        }
+        return Instant.EPOCH.plusNanos(micros * 1_000).toString().substring(0, 19);
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.example.smartparking.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Check-in/check-out figures of one chunk of log lines, mergeable with those of other
+ * chunks. Requests are followed by correlation id from their "started" line to their
+ * outcome line (success, rejection or no spot); pairs found within the chunk become
+ * latencies right away, the rest wait in pending maps until merge finds their other half.
+ */
+final class SessionStats {
+
+    enum Operation { CHECK_IN, CHECK_OUT }
+
+    private static final byte[] CHECK_IN_STARTED = EcsLineScanner.ascii("Check-in started ");
+    private static final byte[] CHECK_OUT_STARTED = EcsLineScanner.ascii("Check-out started ");
+    private static final byte[] CHECK_IN_SUCCESS = EcsLineScanner.ascii("Check-in success ");
+    private static final byte[] CHECK_OUT_SUCCESS = EcsLineScanner.ascii("Check-out success ");
+    private static final byte[] CHECK_IN_REJECTED = EcsLineScanner.ascii("Check-in rejected");
+    private static final byte[] CHECK_OUT_REJECTED = EcsLineScanner.ascii("Check-out rejected");
+    private static final byte[] CHECK_OUT_NOT_FOUND = EcsLineScanner.ascii("Check-out ticket not found");
+    private static final byte[] NO_SPOT = EcsLineScanner.ascii("No suitable spot available");
+    private static final byte[] LOT_ID = EcsLineScanner.ascii("lotId=");
+
+    // Throughput figures of one lot
+    static final class Lot {
+        long checkIns;
+        long checkOuts;
+        long rejected;
+        long firstMicros = Long.MAX_VALUE;
+        long lastMicros = Long.MIN_VALUE;
+        final LongList arrivals = new LongList();
+
+        private void seen(long micros) {
+            firstMicros = Math.min(firstMicros, micros);
+            lastMicros = Math.max(lastMicros, micros);
+        }
+
+        private void merge(Lot other) {
+            checkIns += other.checkIns;
+            checkOuts += other.checkOuts;
+            rejected += other.rejected;
+            firstMicros = Math.min(firstMicros, other.firstMicros);
+            lastMicros = Math.max(lastMicros, other.lastMicros);
+            arrivals.addAll(other.arrivals);
+        }
+    }
+
+    private record Mark(Operation operation, long micros) {}
+
+    long lines;
+    long bytes;
+    final Map<String, Lot> lots = new HashMap<>();
+    final Map<String, Long> rejections = new TreeMap<>();
+    final Map<Operation, LongList> latencies = new HashMap<>();
+    private final Map<String, Mark> pendingStarts = new HashMap<>();
+    private final Map<String, Mark> pendingOutcomes = new HashMap<>();
+
+    // Figures of the lines in buf[from, to)
+    static SessionStats scan(byte[] buf, int from, int to) {
+        SessionStats stats = new SessionStats();
+        stats.bytes = to - from;
+        EcsLineScanner line = new EcsLineScanner(buf, from, to);
+        while (line.nextLine()) {
+            stats.lines++;
+            stats.accept(line);
+        }
+        return stats;
+    }
+
+    private void accept(EcsLineScanner line) {
+        if (line.messageStartsWith(CHECK_IN_STARTED)) {
+            started(line, Operation.CHECK_IN);
+        } else if (line.messageStartsWith(CHECK_OUT_STARTED)) {
+            started(line, Operation.CHECK_OUT);
+        } else if (line.messageStartsWith(CHECK_IN_SUCCESS)) {
+            Lot lot = outcome(line, Operation.CHECK_IN, false);
+            if (lot != null) {
+                lot.checkIns++;
+                lot.arrivals.add(line.timestampMicros());
+            }
+        } else if (line.messageStartsWith(CHECK_OUT_SUCCESS)) {
+            Lot lot = outcome(line, Operation.CHECK_OUT, false);
+            if (lot != null) {
+                lot.checkOuts++;
+            }
+        } else if (line.messageStartsWith(CHECK_IN_REJECTED) || line.messageStartsWith(NO_SPOT)) {
+            outcome(line, Operation.CHECK_IN, true);
+        } else if (line.messageStartsWith(CHECK_OUT_REJECTED) || line.messageStartsWith(CHECK_OUT_NOT_FOUND)) {
+            outcome(line, Operation.CHECK_OUT, true);
+        }
+    }
+
+    private void started(EcsLineScanner line, Operation operation) {
+        String correlationId = line.correlationId();
+        long micros = line.timestampMicros();
+        if (correlationId == null || micros == Long.MIN_VALUE) {
+            return;
+        }
+        Mark outcome = pendingOutcomes.remove(correlationId);
+        if (outcome != null) {
+            pair(operation, micros, outcome.micros());
+        } else {
+            pendingStarts.put(correlationId, new Mark(operation, micros));
+        }
+    }
+
+    private Lot outcome(EcsLineScanner line, Operation operation, boolean rejected) {
+        long micros = line.timestampMicros();
+        if (rejected) {
+            rejections.merge(line.messageHead(), 1L, Long::sum);
+        }
+        String correlationId = line.correlationId();
+        if (correlationId != null && micros != Long.MIN_VALUE) {
+            Mark start = pendingStarts.remove(correlationId);
+            if (start != null) {
+                pair(start.operation(), start.micros(), micros);
+            } else {
+                pendingOutcomes.put(correlationId, new Mark(operation, micros));
+            }
+        }
+        String lotId = line.messageValue(LOT_ID);
+        if (lotId == null || micros == Long.MIN_VALUE) {
+            return null;
+        }
+        Lot lot = lots.computeIfAbsent(lotId, id -> new Lot());
+        lot.seen(micros);
+        if (rejected) {
+            lot.rejected++;
+        }
+        return lot;
+    }
+
+    // A start after its outcome means two requests shared a correlation id; ignored
+    private void pair(Operation operation, long startMicros, long endMicros) {
+        if (endMicros >= startMicros) {
+            latencies.computeIfAbsent(operation, op -> new LongList()).add(endMicros - startMicros);
+        }
+    }
+
+    void merge(SessionStats other) {
+        lines += other.lines;
+        bytes += other.bytes;
+        other.lots.forEach((id, lot) -> lots.computeIfAbsent(id, key -> new Lot()).merge(lot));
+        other.rejections.forEach((reason, count) -> rejections.merge(reason, count, Long::sum));
+        other.latencies.forEach((op, values) -> latencies.computeIfAbsent(op, key -> new LongList()).addAll(values));
+        // Requests whose lines fell into different chunks or files
+        for (Iterator<Map.Entry<String, Mark>> it = other.pendingStarts.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Mark> start = it.next();
+            Mark outcome = pendingOutcomes.remove(start.getKey());
+            if (outcome != null) {
+                pair(start.getValue().operation(), start.getValue().micros(), outcome.micros());
+                it.remove();
+            }
+        }
+        for (Map.Entry<String, Mark> outcome : other.pendingOutcomes.entrySet()) {
+            Mark start = pendingStarts.remove(outcome.getKey());
+            if (start != null) {
+                pair(start.operation(), start.micros(), outcome.getValue().micros());
+            } else {
+                pendingOutcomes.put(outcome.getKey(), outcome.getValue());
+            }
+        }
+        pendingStarts.putAll(other.pendingStarts);
+    }
+
+    // Requests with a start line but no outcome line, e.g. failed with an unexpected error
+    int unmatchedStarts() {
+        return pendingStarts.size();
+    }
+
+    int unmatchedOutcomes() {
+        return pendingOutcomes.size();
+    }
+
+    // Growable array of primitive longs
+    static final class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LongList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.smartparking.api;
+
+import com.example.smartparking.application.ParkingQueryService;
+import com.example.smartparking.application.ParkingQueryService.FloorSizeAvailability;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.AvailabilityEvent;
+import com.example.smartparking.domain.strategy.AvailabilityEventSink;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans availability out to SSE subscribers per lot.
+ * A subscriber gets one "snapshot" of free/total counts per (floor, size), then "delta"
+ * events carrying the new counts of the pairs that changed. Events are folded into
+ * in-memory counters as they arrive and flushed once per coalescing window, so each
+ * window costs one serialization per lot regardless of the number of subscribers.
+ * <p>
+ * Emitters are held as async responses; no thread is parked per client. Frames are queued
+ * per subscriber and written by a small sender pool, so the scheduler thread never blocks
+ * on a socket. A subscriber with more than max-pending-frames unsent frames is too slow
+ * to keep up and is disconnected; its client reconnects and starts from a fresh snapshot.
+ */
+@Component
+public class AvailabilityStreamHub implements AvailabilityEventSink {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(AvailabilityStreamHub.class);
+
+    private final ParkingQueryService parkingQueryService;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final Executor sender;
+    private final int maxPendingFrames;
+    private final Map<UUID, LotStream> lots = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AvailabilityStreamHub(ParkingQueryService parkingQueryService,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.parking.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                                 @Value("${app.parking.stream.sender-threads:4}") int senderThreads,
+                                 @Value("${app.parking.stream.max-pending-frames:32}") int maxPendingFrames) {
+        this(parkingQueryService, objectMapper, emitterTimeoutMs, senderPool(senderThreads), maxPendingFrames);
+    }
+
+    AvailabilityStreamHub(ParkingQueryService parkingQueryService,
+                          ObjectMapper objectMapper,
+                          long emitterTimeoutMs,
+                          Executor sender,
+                          int maxPendingFrames) {
+        this.parkingQueryService = parkingQueryService;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.sender = sender;
+        this.maxPendingFrames = maxPendingFrames;
+    }
+
+    private static ExecutorService senderPool(int threads) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "availability-sse-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sender instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    public SseEmitter subscribe(UUID lotId) {
+        return subscribe(lotId, new SseEmitter(emitterTimeoutMs));
+    }
+
+    SseEmitter subscribe(UUID lotId, SseEmitter emitter) {
+        LotStream stream = lots.computeIfAbsent(lotId, LotStream::new);
+        // Counters went unsynced while nobody listened: buffer events until the reload lands
+        boolean load = stream.beginLoad(true);
+        List<FloorSizeAvailability> counts;
+        try {
+            // Throws NotFoundException for unknown lots before anything is registered
+            counts = parkingQueryService.countAvailabilityByLot(lotId);
+        } catch (RuntimeException ex) {
+            if (load) {
+                stream.endLoad(null);
+            }
+            forgetIfUnused(stream);
+            throw ex;
+        }
+
+        Subscriber subscriber = new Subscriber(stream, emitter);
+        emitter.onCompletion(() -> remove(stream, subscriber));
+        emitter.onTimeout(() -> remove(stream, subscriber));
+        emitter.onError(ex -> remove(stream, subscriber));
+        String snapshot;
+        stream.lock.lock();
+        try {
+            if (load) {
+                stream.endLoad(counts);
+            }
+            try {
+                snapshot = objectMapper.writeValueAsString(stream.snapshot());
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Could not serialize availability snapshot", ex);
+            }
+            // Queued before the subscriber is visible to flush, so the snapshot goes out first
+            subscriber.offer("snapshot", snapshot);
+            stream.subscribers.add(subscriber);
+        } finally {
+            stream.lock.unlock();
+        }
+        return emitter;
+    }
+
+    int subscriberCount(UUID lotId) {
+        LotStream stream = lots.get(lotId);
+        return stream == null ? 0 : stream.subscribers.size();
+    }
+
+    @Override
+    public void accept(List<AvailabilityEvent> batch) {
+        for (AvailabilityEvent event : batch) {
+            LotStream stream = lots.get(event.lotId());
+            if (stream != null) {
+                stream.apply(event);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.parking.stream.coalesce-window-ms:250}")
+    public void flush() {
+        for (LotStream stream : lots.values()) {
+            List<Counts> changed;
+            List<Subscriber> targets;
+            stream.lock.lock();
+            try {
+                changed = stream.drainDirty();
+                targets = List.copyOf(stream.subscribers);
+            } finally {
+                stream.lock.unlock();
+            }
+            if (changed.isEmpty() || targets.isEmpty()) {
+                continue;
+            }
+            String payload;
+            try {
+                payload = objectMapper.writeValueAsString(new Frame(stream.lotId, Instant.now(), changed));
+            } catch (JsonProcessingException ex) {
+                log.warn("Could not serialize availability delta for lot={}", stream.lotId, ex);
+                continue;
+            }
+            for (Subscriber subscriber : targets) {
+                subscriber.offer("delta", payload);
+            }
+        }
+    }
+
+    // Counters follow events only approximately (duplicate or out-of-order events); re-read them now and then
+    @Scheduled(fixedDelayString = "${app.parking.stream.resync-interval-ms:60000}")
+    public void resync() {
+        for (LotStream stream : lots.values()) {
+            if (stream.subscribers.isEmpty() || !stream.beginLoad(false)) {
+                continue;
+            }
+            List<FloorSizeAvailability> counts = null;
+            try {
+                counts = parkingQueryService.countAvailabilityByLot(stream.lotId);
+            } catch (RuntimeException ex) {
+                log.warn("Availability resync failed for lot={}", stream.lotId, ex);
+            } finally {
+                stream.endLoad(counts);
+            }
+        }
+    }
+
+    // Lot counters stay registered (one entry per lot) so a resubscribe only needs a resync
+    private void remove(LotStream stream, Subscriber subscriber) {
+        subscriber.closed = true;
+        stream.subscribers.remove(subscriber);
+    }
+
+    private void forgetIfUnused(LotStream stream) {
+        stream.lock.lock();
+        try {
+            if (stream.subscribers.isEmpty() && stream.loaders == 0) {
+                lots.remove(stream.lotId, stream);
+            }
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    record Counts(UUID floorId, SpotSize size, long free, long total) {}
+
+    record Frame(UUID lotId, Instant at, List<Counts> counts) {}
+
+    private record Key(UUID floorId, SpotSize size) {}
+
+    private record Outgoing(String name, String payload) {}
+
+    // One client: its unsent frames and at most one sender task draining them
+    private final class Subscriber {
+        private final LotStream stream;
+        private final SseEmitter emitter;
+        private final Queue<Outgoing> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(LotStream stream, SseEmitter emitter) {
+            this.stream = stream;
+            this.emitter = emitter;
+        }
+
+        void offer(String name, String payload) {
+            if (closed) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPendingFrames) {
+                log.info("Disconnecting slow availability subscriber of lot={}, {} frames unsent",
+                        stream.lotId, maxPendingFrames);
+                remove(stream, this);
+            } else {
+                pending.add(new Outgoing(name, payload));
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                // Shutting down
+                sending.set(false);
+                remove(stream, this);
+            }
+        }
+
+        private void drain() {
+            try {
+                Outgoing next;
+                while (!closed && (next = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(SseEmitter.event().name(next.name()).data(next.payload(), MediaType.APPLICATION_JSON));
+                }
+                if (closed) {
+                    // Completed here, not by whoever closed it: complete() waits for a send in progress
+                    pending.clear();
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away; the container completes the async request
+                remove(stream, this);
+            } finally {
+                sending.set(false);
+            }
+            if (!closed && !pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Counters of one lot. The lock orders event application, drains, reloads and
+     * subscriber registration; it is never held across I/O. While a reload query runs,
+     * events are buffered and replayed onto the reloaded counts, so none are lost in the
+     * window between query and reload; an event already reflected in the query result is
+     * counted twice until the next resync.
+     */
+    private static final class LotStream {
+        private final UUID lotId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final Map<Key, AtomicLong> free = new ConcurrentHashMap<>();
+        private final Map<Key, Long> total = new ConcurrentHashMap<>();
+        private final Set<Key> dirty = ConcurrentHashMap.newKeySet();
+        private final List<AvailabilityEvent> buffered = new ArrayList<>();
+        private int loaders;
+
+        LotStream(UUID lotId) {
+            this.lotId = lotId;
+        }
+
+        boolean beginLoad(boolean onlyWithoutSubscribers) {
+            lock.lock();
+            try {
+                if (onlyWithoutSubscribers && !subscribers.isEmpty()) {
+                    return false;
+                }
+                loaders++;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // counts is null when the query failed
+        void endLoad(List<FloorSizeAvailability> counts) {
+            lock.lock();
+            try {
+                if (counts != null) {
+                    // Subscribers still have to hear about changed pairs; otherwise start clean
+                    reload(counts, !subscribers.isEmpty());
+                }
+                if (--loaders == 0) {
+                    buffered.forEach(this::applyLocked);
+                    buffered.clear();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void apply(AvailabilityEvent event) {
+            lock.lock();
+            try {
+                if (loaders > 0) {
+                    buffered.add(event);
+                } else {
+                    applyLocked(event);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void applyLocked(AvailabilityEvent event) {
+            Key key = new Key(event.floorId(), SpotSize.valueOf(event.spotSize()));
+            AtomicLong counter = free.get(key);
+            if (counter == null) {
+                // Spot added after the snapshot; the next resync picks it up
+                return;
+            }
+            long max = total.getOrDefault(key, Long.MAX_VALUE);
+            switch (event.type()) {
+                case SPOT_RELEASED -> counter.updateAndGet(v -> Math.min(max, v + 1));
+                case SPOT_OCCUPIED, SPOT_RESERVED, SPOT_OUT_OF_SERVICE -> counter.updateAndGet(v -> Math.max(0, v - 1));
+            }
+            dirty.add(key);
+        }
+
+        private void reload(List<FloorSizeAvailability> counts, boolean publishChanges) {
+            if (!publishChanges) {
+                dirty.clear();
+            }
+            for (FloorSizeAvailability count : counts) {
+                Key key = new Key(count.floorId(), count.size());
+                total.put(key, count.total());
+                AtomicLong counter = free.computeIfAbsent(key, k -> new AtomicLong(-1));
+                if (counter.getAndSet(count.free()) != count.free() && publishChanges) {
+                    dirty.add(key);
+                }
+            }
+        }
+
+        List<Counts> drainDirty() {
+            List<Counts> changed = new ArrayList<>();
+            Iterator<Key> keys = dirty.iterator();
+            while (keys.hasNext()) {
+                Key key = keys.next();
+                keys.remove();
+                changed.add(counts(key));
+            }
+            return changed;
+        }
+
+        Frame snapshot() {
+            List<Counts> all = new ArrayList<>(free.size());
+            free.keySet().forEach(key -> all.add(counts(key)));
+            return new Frame(lotId, Instant.now(), all);
+        }
+
+        private Counts counts(Key key) {
+            return new Counts(key.floorId(), key.size(), free.get(key).get(), total.getOrDefault(key, 0L));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.smartparking.api;
 
+import com.example.smartparking.domain.strategy.IdGenerator;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +10,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
 
 @Component
 public class CorrelationIdFilter extends OncePerRequestFilter {
@@ -17,6 +17,12 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
     private static final String HEADER_NAME = "X-Correlation-Id";
     private static final String MDC_KEY = "correlationId";
 
+    private final IdGenerator idGenerator;
+
+    public CorrelationIdFilter(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -26,7 +32,7 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
 
         String cid = request.getHeader(HEADER_NAME);
         if (cid == null || cid.isBlank()) {
-            cid = UUID.randomUUID().toString();
+            cid = idGenerator.newId().toString();
         }
 
         MDC.put(MDC_KEY, cid);
@@ -3,9 +3,22 @@ package com.example.smartparking.api;
 import com.example.smartparking.application.ParkingQueryService;
 import com.example.smartparking.application.ParkingQueryService.*;
 import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.metadata.ResourceVersions;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,26 +28,82 @@ import java.util.UUID;
 public class ParkingQueryController {
 
     private final ParkingQueryService parkingQueryService;
+    private final AvailabilityStreamHub availabilityStreamHub;
+    private final ObjectMapper objectMapper;
+    private final ResourceVersions versions;
 
-    public ParkingQueryController(ParkingQueryService parkingQueryService) {
+    public ParkingQueryController(ParkingQueryService parkingQueryService,
+                                  AvailabilityStreamHub availabilityStreamHub,
+                                  ObjectMapper objectMapper,
+                                  ResourceVersions versions) {
         this.parkingQueryService = parkingQueryService;
+        this.availabilityStreamHub = availabilityStreamHub;
+        this.objectMapper = objectMapper;
+        this.versions = versions;
     }
 
+    // The version is the ETag; a matching If-None-Match gets 304 without a query.
+    // The tag is taken before the query runs, so it never claims newer rows than it has.
     @GetMapping("/lots")
-    public List<LotSummary> listLots() {
+    public List<LotSummary> listLots(WebRequest request) {
+        if (request.checkNotModified(versions.lotsTag())) {
+            return null;
+        }
         return parkingQueryService.listLots();
     }
 
     @GetMapping("/lots/{lotId}/floors")
-    public List<FloorSummary> listFloors(@PathVariable UUID lotId) {
+    public List<FloorSummary> listFloors(@PathVariable UUID lotId, WebRequest request) {
+        if (request.checkNotModified(versions.floorsTag(lotId))) {
+            return null;
+        }
         return parkingQueryService.listFloors(lotId);
     }
 
+    // Snapshot of free counts per floor and size, then coalesced deltas
+    @GetMapping(path = "/lots/{lotId}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(@PathVariable UUID lotId) {
+        return availabilityStreamHub.subscribe(lotId);
+    }
+
     @GetMapping("/floors/{floorId}/spots")
-    public List<SpotSummary> listSpotsByFloor(@PathVariable UUID floorId) {
+    public List<SpotSummary> listSpotsByFloor(@PathVariable UUID floorId, WebRequest request) {
+        if (request.checkNotModified(versions.spotsTag(floorId))) {
+            return null;
+        }
         return parkingQueryService.listSpotsByFloor(floorId);
     }
 
+    // Spots ordered by code; pass nextAfter back as after to get the following page
+    @GetMapping("/floors/{floorId}/spots/page")
+    public SpotPage listSpotsByFloorPage(
+            @PathVariable UUID floorId,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "100") @Min(1) @Max(1000) int limit
+    ) {
+        return parkingQueryService.listSpotsByFloorPage(floorId, after, limit);
+    }
+
+    // The same array as /spots, written row by row as the cursor is read, so memory does
+    // not grow with the floor. Holds a connection until the client has read the last row.
+    @GetMapping(path = "/floors/{floorId}/spots/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSpotsByFloor(@PathVariable UUID floorId) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.createGenerator(out)) {
+                json.writeStartArray();
+                parkingQueryService.streamSpotsByFloor(floorId, spot -> {
+                    try {
+                        json.writeObject(spot);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping("/floors/{floorId}/available")
     public List<SpotSummary> listAvailableByFloorAndSize(
             @PathVariable UUID floorId,
@@ -43,6 +112,24 @@ public class ParkingQueryController {
         return parkingQueryService.listAvailableSpotsByFloor(floorId, size);
     }
 
+    @GetMapping("/floors/{floorId}/count")
+    public SpotCount countByFloor(
+            @PathVariable UUID floorId,
+            @RequestParam("size") SpotSize size,
+            @RequestParam(value = "status", defaultValue = "AVAILABLE") SpotStatus status
+    ) {
+        return parkingQueryService.countSpotsByFloor(floorId, size, status);
+    }
+
+    @GetMapping("/lots/{lotId}/count")
+    public SpotCount countByLot(
+            @PathVariable UUID lotId,
+            @RequestParam("size") SpotSize size,
+            @RequestParam(value = "status", defaultValue = "AVAILABLE") SpotStatus status
+    ) {
+        return parkingQueryService.countSpotsByLot(lotId, size, status);
+    }
+
     @GetMapping("/lots/{lotId}/active-ticket")
     public Optional<ActiveTicketSummary> findActiveTicket(
             @PathVariable UUID lotId,
@@ -1,17 +1,23 @@
 package com.example.smartparking.api;
 
+import com.example.smartparking.application.ParkingSessionBatchService;
+import com.example.smartparking.application.ParkingSessionBatchService.BatchResult;
 import com.example.smartparking.application.ParkingSessionService;
 import com.example.smartparking.application.ParkingSessionService.CheckInCommand;
 import com.example.smartparking.application.ParkingSessionService.CheckInResult;
 import com.example.smartparking.application.ParkingSessionService.CheckOutCommand;
 import com.example.smartparking.application.ParkingSessionService.CheckOutResult;
 import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.idempotency.IdempotencyStore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,10 +25,18 @@ import java.util.UUID;
 @RequestMapping("/api")
 public class ParkingSessionController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final ParkingSessionService parkingSessionService;
+    private final ParkingSessionBatchService parkingSessionBatchService;
+    private final IdempotencyStore idempotencyStore;
 
-    public ParkingSessionController(ParkingSessionService parkingSessionService) {
+    public ParkingSessionController(ParkingSessionService parkingSessionService,
+                                    ParkingSessionBatchService parkingSessionBatchService,
+                                    IdempotencyStore idempotencyStore) {
         this.parkingSessionService = parkingSessionService;
+        this.parkingSessionBatchService = parkingSessionBatchService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     // ---------- Check-in ----------
@@ -37,13 +51,14 @@ public class ParkingSessionController {
                 message = "licensePlate must be 3-20 chars, uppercase letters, digits, space or dash")
         public String licensePlate;
         public SpotSize vehicleSize;
-        @NotNull
+        // optional: claims the spot held by this reservation
         public UUID reservationId;
     }
 
     @PostMapping("/sessions/check-in")
     @ResponseStatus(HttpStatus.CREATED)
-    public CheckInResult checkIn(@RequestBody CheckInRequest body) {
+    public CheckInResult checkIn(@RequestBody CheckInRequest body,
+                                 @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         CheckInCommand command = new CheckInCommand(
                 body.lotId,
                 body.entranceId,
@@ -52,7 +67,14 @@ public class ParkingSessionController {
                 Optional.ofNullable(body.reservationId),
                 Instant.now()
         );
-        return parkingSessionService.checkIn(command);
+        if (idempotencyKey == null) {
+            return parkingSessionService.checkIn(command);
+        }
+        // A retry with the same key gets the first response back instead of a conflict
+        String fingerprint = String.join("|", String.valueOf(body.lotId), String.valueOf(body.entranceId),
+                body.licensePlate, String.valueOf(body.vehicleSize), String.valueOf(body.reservationId));
+        return idempotencyStore.execute("check-in", idempotencyKey, fingerprint, CheckInResult.class,
+                () -> parkingSessionService.checkIn(command));
     }
 
     // ---------- Check-out ----------
@@ -65,12 +87,55 @@ public class ParkingSessionController {
     }
 
     @PostMapping("/sessions/check-out")
-    public CheckOutResult checkOut(@RequestBody CheckOutRequest body) {
+    public CheckOutResult checkOut(@RequestBody CheckOutRequest body,
+                                   @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         CheckOutCommand command = new CheckOutCommand(
                 body.lotId,
                 body.ticketId,
                 Instant.now()
         );
-        return parkingSessionService.checkOut(command);
+        if (idempotencyKey == null) {
+            return parkingSessionService.checkOut(command);
+        }
+        String fingerprint = body.lotId + "|" + body.ticketId;
+        return idempotencyStore.execute("check-out", idempotencyKey, fingerprint, CheckOutResult.class,
+                () -> parkingSessionService.checkOut(command));
+    }
+
+    // ---------- Batch ----------
+
+    public static final class CheckInBatchRequest {
+        @NotEmpty
+        public List<@NotNull CheckInRequest> items;
+    }
+
+    public static final class CheckOutBatchRequest {
+        @NotEmpty
+        public List<@NotNull CheckOutRequest> items;
+    }
+
+    // Per-item results; one failed item does not fail the others
+    @PostMapping("/sessions/check-in:batch")
+    public BatchResult<CheckInResult> checkInBatch(@Valid @RequestBody CheckInBatchRequest body) {
+        Instant now = Instant.now();
+        List<CheckInCommand> commands = body.items.stream()
+                .map(item -> new CheckInCommand(
+                        item.lotId,
+                        item.entranceId,
+                        item.licensePlate,
+                        item.vehicleSize,
+                        Optional.ofNullable(item.reservationId),
+                        now))
+                .toList();
+        return parkingSessionBatchService.checkIn(commands);
+    }
+
+    @PostMapping("/sessions/check-out:batch")
+    public BatchResult<CheckOutResult> checkOutBatch(@Valid @RequestBody CheckOutBatchRequest body) {
+        Instant now = Instant.now();
+        List<CheckOutCommand> commands = body.items.stream()
+                .map(item -> new CheckOutCommand(item.lotId, item.ticketId, now))
+                .toList();
+        return parkingSessionBatchService.checkOut(commands);
     }
-}
\ No newline at end of file
+}
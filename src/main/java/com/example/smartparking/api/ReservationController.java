@@ -0,0 +1,63 @@
+package com.example.smartparking.api;
+
+import com.example.smartparking.application.ReservationService;
+import com.example.smartparking.application.ReservationService.CreateReservationCommand;
+import com.example.smartparking.application.ReservationService.ReservationResult;
+import com.example.smartparking.domain.SpotSize;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    public ReservationController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    public static final class CreateReservationRequest {
+        @NotNull
+        public UUID lotId;
+        public UUID entranceId;
+        @NotNull
+        @Pattern(regexp = "^[A-Z0-9\\- ]{3,20}$",
+                message = "licensePlate must be 3-20 chars, uppercase letters, digits, space or dash")
+        public String licensePlate;
+        public SpotSize vehicleSize;
+        // defaults to app.parking.reservation.default-ttl-seconds
+        public Integer ttlSeconds;
+    }
+
+    // The hold is claimed by checking in with its reservationId
+    @PostMapping("/reservations")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ReservationResult create(@RequestBody CreateReservationRequest body) {
+        CreateReservationCommand command = new CreateReservationCommand(
+                body.lotId,
+                body.entranceId,
+                body.licensePlate,
+                body.vehicleSize,
+                body.ttlSeconds == null ? null : Duration.ofSeconds(body.ttlSeconds),
+                Instant.now()
+        );
+        return reservationService.create(command);
+    }
+
+    @GetMapping("/reservations/{reservationId}")
+    public ReservationResult get(@PathVariable UUID reservationId) {
+        return reservationService.get(reservationId);
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    public ReservationResult cancel(@PathVariable UUID reservationId) {
+        return reservationService.cancel(reservationId);
+    }
+}
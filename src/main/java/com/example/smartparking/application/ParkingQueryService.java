@@ -6,6 +6,7 @@ import com.example.smartparking.domain.SpotStatus;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 // Read-side application service for querying lots, floors, and spots.
 public interface ParkingQueryService {
@@ -26,6 +27,11 @@ public interface ParkingQueryService {
             SpotSize size,
             SpotStatus status
     ){}
+    // nextAfter is the code to pass as after for the following page, null on the last page
+    record SpotPage(
+            List<SpotSummary> spots,
+            String nextAfter
+    ){}
     record ActiveTicketSummary(
             UUID ticketId,
             UUID lotId,
@@ -33,9 +39,27 @@ public interface ParkingQueryService {
             String spotCode,
             SpotSize spotSize
     ){}
+    record FloorSizeAvailability(
+            UUID floorId,
+            SpotSize size,
+            long free,
+            long total
+    ){}
+    record SpotCount(
+            UUID scopeId,
+            SpotSize size,
+            SpotStatus status,
+            long count
+    ){}
     List<LotSummary> listLots();
     List<FloorSummary> listFloors(UUID lotId);
     List<SpotSummary> listSpotsByFloor(UUID floorId);
+    SpotPage listSpotsByFloorPage(UUID floorId, String after, int limit);
+    // Hands every spot of the floor to sink in code order while the cursor is open
+    void streamSpotsByFloor(UUID floorId, Consumer<SpotSummary> sink);
     List<SpotSummary> listAvailableSpotsByFloor(UUID floorId, SpotSize size);
     Optional<ActiveTicketSummary> findActiveTicketByVehicle(UUID lotId, String licensePlate);
+    List<FloorSizeAvailability> countAvailabilityByLot(UUID lotId);
+    SpotCount countSpotsByFloor(UUID floorId, SpotSize size, SpotStatus status);
+    SpotCount countSpotsByLot(UUID lotId, SpotSize size, SpotStatus status);
 }
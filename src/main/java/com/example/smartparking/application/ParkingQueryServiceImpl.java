@@ -1,17 +1,24 @@
 package com.example.smartparking.application;
 
 import com.example.smartparking.application.mapper.ParkingQueryMapper;
+import com.example.smartparking.availability.SpotStatusCounters;
+import com.example.smartparking.domain.NotFoundException;
 import com.example.smartparking.domain.SpotSize;
 import com.example.smartparking.domain.SpotStatus;
 import com.example.smartparking.domain.TicketStatus;
+import com.example.smartparking.metadata.ParkingMetadataCache;
 import com.example.smartparking.repository.*;
+import com.example.smartparking.repository.SpotRepository.SpotRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,46 +27,64 @@ import org.slf4j.LoggerFactory;
 public class ParkingQueryServiceImpl implements ParkingQueryService {
     private static final Logger log =
             LoggerFactory.getLogger(ParkingQueryServiceImpl.class);
-    private final LotRepository lotRepository;
-    private final FloorRepository floorRepository;
     private final SpotRepository spotRepository;
     private final VehicleRepository vehicleRepository;
     private final TicketRepository ticketRepository;
     private final ParkingQueryMapper mapper;
+    private final SpotStatusCounters statusCounters;
+    private final ParkingMetadataCache metadataCache;
 
-    public ParkingQueryServiceImpl(LotRepository lotRepository,
-                                   FloorRepository floorRepository,
-                                   SpotRepository spotRepository,
+    public ParkingQueryServiceImpl(SpotRepository spotRepository,
                                    VehicleRepository vehicleRepository,
                                    TicketRepository ticketRepository,
-                                   ParkingQueryMapper parkingQueryMapper) {
-        this.lotRepository = lotRepository;
-        this.floorRepository = floorRepository;
+                                   ParkingQueryMapper parkingQueryMapper,
+                                   SpotStatusCounters statusCounters,
+                                   ParkingMetadataCache metadataCache) {
         this.spotRepository = spotRepository;
         this.vehicleRepository = vehicleRepository;
         this.ticketRepository = ticketRepository;
         this.mapper = parkingQueryMapper;
+        this.statusCounters = statusCounters;
+        this.metadataCache = metadataCache;
     }
 
     public List<LotSummary> listLots() {
-        return lotRepository.findAll()
+        return metadataCache.allLots()
                 .stream()
                 .map(mapper::toLotSummary)
                 .collect(Collectors.toList());
     }
 
     public List<FloorSummary> listFloors(UUID lotId) {
-        return floorRepository.findByLotIdOrderByOrderingAsc(lotId)
+        return metadataCache.floors(lotId)
                 .stream()
                 .map(mapper::toFloorSummary)
                 .collect(Collectors.toList());
     }
 
+    // Projected rows, so no entities or dirty-checking snapshots are kept
     public List<SpotSummary> listSpotsByFloor(UUID floorId) {
-        return spotRepository.findByFloorId(floorId)
-                .stream()
+        try (Stream<SpotRow> rows = spotRepository.streamRowsByFloorId(floorId)) {
+            return rows.map(mapper::toSpotSummary).collect(Collectors.toList());
+        }
+    }
+
+    public SpotPage listSpotsByFloorPage(UUID floorId, String after, int limit) {
+        // One extra row tells whether another page follows
+        List<SpotRow> rows = spotRepository.findRowsByFloorIdAfter(
+                floorId, after == null ? "" : after, Limit.of(limit + 1));
+        boolean more = rows.size() > limit;
+        List<SpotSummary> spots = rows.stream()
+                .limit(limit)
                 .map(mapper::toSpotSummary)
                 .collect(Collectors.toList());
+        return new SpotPage(spots, more ? spots.get(spots.size() - 1).code() : null);
+    }
+
+    public void streamSpotsByFloor(UUID floorId, Consumer<SpotSummary> sink) {
+        try (Stream<SpotRow> rows = spotRepository.streamRowsByFloorId(floorId)) {
+            rows.forEach(row -> sink.accept(mapper.toSpotSummary(row)));
+        }
     }
 
     public List<SpotSummary> listAvailableSpotsByFloor(UUID floorId, SpotSize size) {
@@ -82,8 +107,33 @@ public class ParkingQueryServiceImpl implements ParkingQueryService {
                         )
                 )
                 .flatMap(ticket ->
-                        spotRepository.findById(ticket.getSpotId())
-                                .map(spot -> mapper.toActiveTicketSummary(ticket, spot))
+                        metadataCache.spot(ticket.getSpotId())
+                                .map(spot -> mapper.toActiveTicketSummary(ticket, spot.toSpot(SpotStatus.OCCUPIED)))
                 );
     }
+
+    public List<FloorSizeAvailability> countAvailabilityByLot(UUID lotId) {
+        if (metadataCache.lot(lotId).isEmpty()) {
+            throw new NotFoundException("Lot not found");
+        }
+        return spotRepository.countByLotGroupedByFloorAndSize(lotId)
+                .stream()
+                .map(mapper::toFloorSizeAvailability)
+                .collect(Collectors.toList());
+    }
+
+    // Served from the materialized counters, no spot rows are read
+    public SpotCount countSpotsByFloor(UUID floorId, SpotSize size, SpotStatus status) {
+        if (metadataCache.floor(floorId).isEmpty()) {
+            throw new NotFoundException("Floor not found");
+        }
+        return new SpotCount(floorId, size, status, statusCounters.countByFloor(floorId, size, status));
+    }
+
+    public SpotCount countSpotsByLot(UUID lotId, SpotSize size, SpotStatus status) {
+        if (metadataCache.lot(lotId).isEmpty()) {
+            throw new NotFoundException("Lot not found");
+        }
+        return new SpotCount(lotId, size, status, statusCounters.countByLot(lotId, size, status));
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.smartparking.application;
+
+import com.example.smartparking.application.ParkingSessionService.CheckInCommand;
+import com.example.smartparking.application.ParkingSessionService.CheckInResult;
+import com.example.smartparking.application.ParkingSessionService.CheckOutCommand;
+import com.example.smartparking.application.ParkingSessionService.CheckOutResult;
+
+import java.util.List;
+
+// Replays buffered gate reads: many check-ins/check-outs per call, one result per item.
+public interface ParkingSessionBatchService {
+    /**
+     * Outcome of one batch item, in request order.
+     * errorCode follows the error codes of the single-item endpoints
+     * (not_found, conflict, no_spot_available, ticket_closed, ...).
+     */
+    record BatchItemResult<T>(
+            int index,
+            boolean succeeded,
+            T result,
+            String errorCode,
+            String message
+    ){}
+    record BatchResult<T>(
+            int succeeded,
+            int failed,
+            List<BatchItemResult<T>> items
+    ){}
+
+    /**
+     * Items are committed in chunks; a chunk that fails as a whole is replayed
+     * item by item, so one bad item never rolls back the others.
+     * Throws BusinessRuleException if the batch exceeds the configured maximum.
+     */
+    BatchResult<CheckInResult> checkIn(List<CheckInCommand> commands);
+
+    BatchResult<CheckOutResult> checkOut(List<CheckOutCommand> commands);
+}
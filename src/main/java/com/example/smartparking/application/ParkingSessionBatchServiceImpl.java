@@ -0,0 +1,380 @@
+package com.example.smartparking.application;
+
+import com.example.smartparking.application.ParkingSessionService.CheckInCommand;
+import com.example.smartparking.application.ParkingSessionService.CheckInResult;
+import com.example.smartparking.application.ParkingSessionService.CheckOutCommand;
+import com.example.smartparking.application.ParkingSessionService.CheckOutResult;
+import com.example.smartparking.application.mapper.AvailabilityEventMapper;
+import com.example.smartparking.application.mapper.ParkingSessionMapper;
+import com.example.smartparking.availability.SpotTransitions;
+import com.example.smartparking.config.SessionBatchProperties;
+import com.example.smartparking.domain.*;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher;
+import com.example.smartparking.domain.strategy.FeeCalculationStrategy;
+import com.example.smartparking.domain.strategy.IdGenerator;
+import com.example.smartparking.metadata.ParkingMetadataCache;
+import com.example.smartparking.observability.ParkingMetrics;
+import com.example.smartparking.repository.SessionBatchRepository;
+import com.example.smartparking.repository.SessionBatchRepository.ClaimedSpot;
+import com.example.smartparking.repository.SessionBatchRepository.ClosedTicket;
+import com.example.smartparking.repository.SessionBatchRepository.NewPayment;
+import com.example.smartparking.repository.SessionBatchRepository.NewTicket;
+import com.example.smartparking.repository.SpotRepository;
+import com.example.smartparking.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Batch check-in/check-out on top of the single-item use cases.
+ * Each chunk runs in one transaction: lots come from the metadata cache, vehicles and
+ * open tickets are resolved with one query each, spots are claimed per (lot, entrance, size)
+ * group, and tickets/payments are written as JDBC batches. Unknown vehicles are registered
+ * only for items that got a spot. Events are published inside the chunk
+ * transaction; index, counter and metric updates run after the chunk commits. If a chunk
+ * still fails (e.g. a concurrent check-in of the same vehicle), it is rolled back and its
+ * items are replayed one by one through ParkingSessionService. Check-ins against a
+ * reservation always take that single-item path once their chunk has committed.
+ */
+@Service
+public class ParkingSessionBatchServiceImpl implements ParkingSessionBatchService {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ParkingSessionBatchServiceImpl.class);
+
+    private static final String DEFAULT_CURRENCY = "INR";
+
+    private final ParkingSessionService parkingSessionService;
+    private final ParkingMetadataCache metadataCache;
+    private final TicketRepository ticketRepository;
+    private final SpotRepository spotRepository;
+    private final SessionBatchRepository batchRepository;
+    private final FeeCalculationStrategy feeStrategy;
+    private final AvailabilityEventPublisher availabilityPublisher;
+    private final AvailabilityEventMapper availabilityEventMapper;
+    private final ParkingSessionMapper sessionMapper;
+    private final ParkingMetrics parkingMetrics;
+    private final SpotTransitions spotTransitions;
+    private final IdGenerator idGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public ParkingSessionBatchServiceImpl(
+            ParkingSessionService parkingSessionService,
+            ParkingMetadataCache metadataCache,
+            TicketRepository ticketRepository,
+            SpotRepository spotRepository,
+            SessionBatchRepository batchRepository,
+            FeeCalculationStrategy feeStrategy,
+            AvailabilityEventPublisher availabilityPublisher,
+            AvailabilityEventMapper availabilityEventMapper,
+            ParkingSessionMapper sessionMapper,
+            ParkingMetrics parkingMetrics,
+            SpotTransitions spotTransitions,
+            IdGenerator idGenerator,
+            PlatformTransactionManager transactionManager,
+            SessionBatchProperties properties
+    ) {
+        this.parkingSessionService = parkingSessionService;
+        this.metadataCache = metadataCache;
+        this.ticketRepository = ticketRepository;
+        this.spotRepository = spotRepository;
+        this.batchRepository = batchRepository;
+        this.feeStrategy = feeStrategy;
+        this.availabilityPublisher = availabilityPublisher;
+        this.availabilityEventMapper = availabilityEventMapper;
+        this.sessionMapper = sessionMapper;
+        this.parkingMetrics = parkingMetrics;
+        this.spotTransitions = spotTransitions;
+        this.idGenerator = idGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, properties.getChunkSize());
+        this.maxItems = properties.getMaxItems();
+    }
+
+    // ---------- Check-in ----------
+
+    @Override
+    public BatchResult<CheckInResult> checkIn(List<CheckInCommand> commands) {
+        requireWithinLimit(commands.size());
+        log.info("Batch check-in started items={} chunkSize={}", commands.size(), chunkSize);
+        return runInChunks(commands, this::stageCheckIns, parkingSessionService::checkIn);
+    }
+
+    private void stageCheckIns(Chunk<CheckInCommand, CheckInResult> chunk) {
+        Map<Integer, CheckInCommand> pending = new LinkedHashMap<>();
+        chunk.items.forEach((index, command) -> {
+            if (command.lotId() == null || command.licensePlate() == null
+                    || command.licensePlate().isBlank() || command.vehicleSize() == null) {
+                chunk.fail(index, "bad_request", "lotId, licensePlate and vehicleSize are required");
+            } else if (command.reservationId().isPresent()) {
+                // the held spot is claimed by id, not allocated
+                chunk.replaySingly(index);
+            } else {
+                pending.put(index, command);
+            }
+        });
+
+        // Lots come from the metadata cache
+        pending.entrySet().removeIf(entry -> {
+            if (metadataCache.lot(entry.getValue().lotId()).isPresent()) {
+                return false;
+            }
+            chunk.fail(entry.getKey(), new NotFoundException("Lot not found"));
+            return true;
+        });
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Open tickets can only belong to registered vehicles; unknown plates are registered
+        // further down, and only for items that get a spot
+        Map<String, UUID> vehicleIds = batchRepository.findVehicles(
+                pending.values().stream().map(CheckInCommand::licensePlate).distinct().toList());
+        Set<List<UUID>> openTickets = batchRepository.findOpenTickets(vehicleIds.values());
+
+        Set<List<Object>> checkingIn = new HashSet<>();
+        Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+        pending.forEach((index, command) -> {
+            UUID vehicleId = vehicleIds.get(command.licensePlate());
+            // also catches the same plate twice in one batch
+            if ((vehicleId != null && openTickets.contains(List.of(vehicleId, command.lotId())))
+                    || !checkingIn.add(List.of(command.licensePlate(), command.lotId()))) {
+                chunk.fail(index, new ConflictException("Vehicle already has an active ticket in this lot"));
+                chunk.afterCommit(parkingMetrics::onCheckInConflict);
+                return;
+            }
+            groups.computeIfAbsent(Arrays.asList(command.lotId(), command.entranceId(), command.vehicleSize()),
+                    k -> new ArrayList<>()).add(index);
+        });
+
+        // Allocation: one claim per (lot, entrance, size), handed out in request order
+        Map<Integer, ClaimedSpot> claims = new LinkedHashMap<>();
+        groups.forEach((key, indexes) -> {
+            List<ClaimedSpot> claimed = batchRepository.claimAvailable(
+                    (UUID) key.get(0), (UUID) key.get(1), (SpotSize) key.get(2), indexes.size());
+            for (int i = 0; i < indexes.size(); i++) {
+                if (i < claimed.size()) {
+                    claims.put(indexes.get(i), claimed.get(i));
+                } else {
+                    chunk.fail(indexes.get(i), new BusinessRuleException("No suitable spot available", "no_spot_available"));
+                    chunk.afterCommit(parkingMetrics::onNoSpotAvailable);
+                }
+            }
+        });
+        if (claims.isEmpty()) {
+            return;
+        }
+
+        Map<String, SpotSize> unknownPlates = new LinkedHashMap<>();
+        claims.keySet().stream().map(pending::get)
+                .filter(command -> !vehicleIds.containsKey(command.licensePlate()))
+                .forEach(command -> unknownPlates.putIfAbsent(command.licensePlate(), command.vehicleSize()));
+        if (!unknownPlates.isEmpty()) {
+            vehicleIds.putAll(batchRepository.upsertVehicles(unknownPlates));
+        }
+
+        List<NewTicket> tickets = new ArrayList<>();
+        claims.forEach((index, claim) -> {
+            CheckInCommand command = pending.get(index);
+            UUID lotId = command.lotId();
+            Spot spot = new Spot(claim.spotId(), claim.floorId(), claim.code(), claim.size(), SpotStatus.OCCUPIED);
+            Ticket ticket = new Ticket(idGenerator.newId(), spot.getId(),
+                    vehicleIds.get(command.licensePlate()), lotId, command.requestedAt());
+            tickets.add(new NewTicket(ticket.getId(), lotId, spot.getId(), ticket.getVehicleId(), ticket.getEntryAt()));
+            chunk.succeed(index, sessionMapper.toCheckInResult(ticket, spot));
+            // Publishers defer delivery to commit (or write the outbox row in this transaction)
+            availabilityPublisher.publish(availabilityEventMapper.toEvent(
+                    AvailabilityEventPublisher.EventType.SPOT_OCCUPIED,
+                    lotId, spot.getFloorId(), spot, ticket.getEntryAt()));
+            spotTransitions.apply(lotId, spot, SpotStatus.AVAILABLE, SpotStatus.OCCUPIED);
+            chunk.afterCommit(parkingMetrics::onCheckInSuccess);
+        });
+        batchRepository.insertTickets(tickets);
+    }
+
+    // ---------- Check-out ----------
+
+    @Override
+    public BatchResult<CheckOutResult> checkOut(List<CheckOutCommand> commands) {
+        requireWithinLimit(commands.size());
+        log.info("Batch check-out started items={} chunkSize={}", commands.size(), chunkSize);
+        return runInChunks(commands, this::stageCheckOuts, parkingSessionService::checkOut);
+    }
+
+    private void stageCheckOuts(Chunk<CheckOutCommand, CheckOutResult> chunk) {
+        Map<Integer, CheckOutCommand> pending = new LinkedHashMap<>();
+        chunk.items.forEach((index, command) -> {
+            if (command.ticketId() == null || command.exitAt() == null) {
+                chunk.fail(index, "bad_request", "ticketId is required");
+            } else {
+                pending.put(index, command);
+            }
+        });
+
+        Map<UUID, Ticket> tickets = new HashMap<>();
+        ticketRepository.findAllById(pending.values().stream().map(CheckOutCommand::ticketId).distinct().toList())
+                .forEach(ticket -> tickets.put(ticket.getId(), ticket));
+        Map<UUID, Spot> spots = new HashMap<>();
+        spotRepository.findAllById(tickets.values().stream().map(Ticket::getSpotId).distinct().toList())
+                .forEach(spot -> spots.put(spot.getId(), spot));
+
+        List<ClosedTicket> closed = new ArrayList<>();
+        List<NewPayment> payments = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        pending.forEach((index, command) -> {
+            Ticket loaded = tickets.get(command.ticketId());
+            if (loaded == null) {
+                chunk.fail(index, new NotFoundException("Ticket not found"));
+                return;
+            }
+            if (!loaded.isOpen() || !seen.add(loaded.getId())) {
+                chunk.fail(index, new BusinessRuleException("Ticket already closed", "ticket_closed"));
+                return;
+            }
+            Spot spot = spots.get(loaded.getSpotId());
+            if (spot == null) {
+                chunk.fail(index, new NotFoundException("Spot not found for ticket"));
+                return;
+            }
+            try {
+                // Detached copy: the managed entity stays untouched, rows are written by JDBC
+                Ticket ticket = new Ticket(loaded.getId(), loaded.getSpotId(), loaded.getVehicleId(),
+                        loaded.getLotId(), loaded.getEntryAt());
+                ticket.close(command.exitAt());
+
+                FeeCalculationStrategy.FeeBreakdown breakdown = feeStrategy.calculate(
+                        new FeeCalculationStrategy.FeeRequest(
+                                ticket.getLotId(),
+                                ticket.getId(),
+                                ticket.getEntryAt(),
+                                command.exitAt(),
+                                DEFAULT_CURRENCY,
+                                spot.getFloorId(),
+                                spot.getSize()
+                        ));
+                Payment payment = new Payment(idGenerator.newId(), ticket.getId(), ticket.getEntryAt(),
+                        breakdown.totalAmountMinor(), breakdown.currency(), PaymentMethod.CASH);
+                payment.succeed("PAY-" + ticket.getId(), command.exitAt());
+
+                closed.add(new ClosedTicket(ticket.getId(), spot.getId(), command.exitAt()));
+                payments.add(new NewPayment(payment.getId(), ticket.getId(), ticket.getEntryAt(), payment.getAmountMinor(),
+                        payment.getCurrency(), payment.getPaidAt(), payment.getReference()));
+                chunk.succeed(index, sessionMapper.toCheckOutResult(ticket, payment));
+
+                SpotStatus before = spot.getStatus();
+                Spot released = new Spot(spot.getId(), spot.getFloorId(), spot.getCode(),
+                        spot.getSize(), SpotStatus.AVAILABLE);
+                availabilityPublisher.publish(availabilityEventMapper.toEvent(
+                        AvailabilityEventPublisher.EventType.SPOT_RELEASED,
+                        ticket.getLotId(), released.getFloorId(), released, command.exitAt()));
+                spotTransitions.apply(ticket.getLotId(), released, before, SpotStatus.AVAILABLE);
+                chunk.afterCommit(parkingMetrics::onCheckOutSuccess);
+            } catch (BusinessRuleException | ConflictException ex) {
+                chunk.fail(index, ex);
+            }
+        });
+
+        if (closed.isEmpty()) {
+            return;
+        }
+        if (!batchRepository.closeTickets(closed)) {
+            // Rolls the chunk back; the replay reports the concurrently closed ticket
+            throw new ConflictException("Ticket closed concurrently");
+        }
+        batchRepository.insertPayments(payments);
+    }
+
+    // ---------- Chunking ----------
+
+    private <C, R> BatchResult<R> runInChunks(List<C> commands,
+                                              java.util.function.Consumer<Chunk<C, R>> stage,
+                                              Function<C, R> single) {
+        List<BatchItemResult<R>> results = new ArrayList<>(Collections.nCopies(commands.size(), null));
+        for (int from = 0; from < commands.size(); from += chunkSize) {
+            Chunk<C, R> chunk = new Chunk<>();
+            for (int index = from; index < Math.min(from + chunkSize, commands.size()); index++) {
+                chunk.items.put(index, commands.get(index));
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> stage.accept(chunk));
+            } catch (RuntimeException ex) {
+                log.warn("Batch chunk of {} items rolled back, replaying items one by one: {}",
+                        chunk.items.size(), ex.getMessage());
+                chunk.items.forEach((index, command) -> results.set(index, replay(index, command, single)));
+                continue;
+            }
+            chunk.afterCommit.forEach(Runnable::run);
+            chunk.results.forEach(results::set);
+            chunk.single.forEach(index -> results.set(index, replay(index, chunk.items.get(index), single)));
+        }
+
+        int succeeded = (int) results.stream().filter(BatchItemResult::succeeded).count();
+        log.info("Batch finished items={} succeeded={} failed={}",
+                results.size(), succeeded, results.size() - succeeded);
+        return new BatchResult<>(succeeded, results.size() - succeeded, results);
+    }
+
+    private <C, R> BatchItemResult<R> replay(int index, C command, Function<C, R> single) {
+        try {
+            return new BatchItemResult<>(index, true, single.apply(command), null, null);
+        } catch (RuntimeException ex) {
+            return failure(index, ex);
+        }
+    }
+
+    private void requireWithinLimit(int items) {
+        if (items > maxItems) {
+            throw new BusinessRuleException(
+                    "Batch of " + items + " items exceeds the maximum of " + maxItems, "batch_too_large");
+        }
+    }
+
+    private static <R> BatchItemResult<R> failure(int index, RuntimeException ex) {
+        String errorCode = switch (ex) {
+            case NotFoundException e -> "not_found";
+            case ConflictException e -> "conflict";
+            case BusinessRuleException e -> e.errorCode() != null ? e.errorCode() : "business_rule_violation";
+            default -> null;
+        };
+        if (errorCode == null) {
+            log.error("Batch item {} failed unexpectedly", index, ex);
+            return new BatchItemResult<>(index, false, null, "internal_server_error", "Unexpected error");
+        }
+        return new BatchItemResult<>(index, false, null, errorCode, ex.getMessage());
+    }
+
+    // Items of one chunk with their staged results, post-commit actions and items left to the single-item path
+    private static final class Chunk<C, R> {
+        private final Map<Integer, C> items = new LinkedHashMap<>();
+        private final Map<Integer, BatchItemResult<R>> results = new HashMap<>();
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private final List<Integer> single = new ArrayList<>();
+
+        void succeed(int index, R result) {
+            results.put(index, new BatchItemResult<>(index, true, result, null, null));
+        }
+
+        void fail(int index, RuntimeException ex) {
+            results.put(index, failure(index, ex));
+        }
+
+        void fail(int index, String errorCode, String message) {
+            results.put(index, new BatchItemResult<>(index, false, null, errorCode, message));
+        }
+
+        void afterCommit(Runnable action) {
+            afterCommit.add(action);
+        }
+
+        void replaySingly(int index) {
+            single.add(index);
+        }
+    }
+}
@@ -12,11 +12,13 @@ public interface ParkingSessionService {
      * Checks a vehicle into the lot:
      *  - finds or registers the vehicle,
      *  - allocates a compatible spot using the configured strategy,
+     *    or claims the spot held by reservationId when one is given,
      *  - creates an OPEN ticket,
      *  - publishes availability events.
      *
      * Throws:
-     *  - NotFoundException if lot/entrance not found,
+     *  - NotFoundException if lot/entrance/reservation not found,
+     *  - BusinessRuleException if the reservation is not held, expired or for another vehicle or lot,
      *  - BusinessRuleException if no suitable spot is available,
      *  - ConflictException if the vehicle already has an OPEN ticket in this lot.
      */
@@ -2,13 +2,23 @@ package com.example.smartparking.application;
 
 import com.example.smartparking.application.mapper.AvailabilityEventMapper;
 import com.example.smartparking.application.mapper.ParkingSessionMapper;
+import com.example.smartparking.availability.SpotAvailabilityIndex;
+import com.example.smartparking.availability.SpotTransitions;
+import com.example.smartparking.config.ParkingStrategyProperties;
+import com.example.smartparking.config.ParkingStrategyProperties.CheckInPipeline;
 import com.example.smartparking.domain.*;
 import com.example.smartparking.domain.strategy.AvailabilityEventPublisher;
+import com.example.smartparking.domain.strategy.ConcurrencyPolicy;
 import com.example.smartparking.domain.strategy.FeeCalculationStrategy;
+import com.example.smartparking.domain.strategy.IdGenerator;
 import com.example.smartparking.domain.strategy.SpotAllocationStrategy;
+import com.example.smartparking.metadata.ParkingMetadataCache;
 import com.example.smartparking.repository.*;
 import com.example.smartparking.observability.ParkingMetrics;
+import com.example.smartparking.reservation.ReservationExpiryWheel;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,61 +35,88 @@ public class ParkingSessionServiceImpl implements ParkingSessionService {
             LoggerFactory.getLogger(ParkingSessionServiceImpl.class);
 
     private static final String DEFAULT_CURRENCY = "INR";
+    // Allocation may hand out a spot that another node has just taken
+    private static final int MAX_ALLOCATION_ATTEMPTS = 3;
 
-    private final LotRepository lotRepository;
+    private final ParkingMetadataCache metadataCache;
     private final VehicleRepository vehicleRepository;
     private final SpotRepository spotRepository;
     private final TicketRepository ticketRepository;
     private final PaymentRepository paymentRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationExpiryWheel reservationExpiryWheel;
     private final SpotAllocationStrategy allocationStrategy;
     private final FeeCalculationStrategy feeStrategy;
     private final AvailabilityEventPublisher availabilityPublisher;
     private final ParkingSessionMapper sessionMapper;
     private final AvailabilityEventMapper availabilityEventMapper;
     private final ParkingMetrics parkingMetrics;
+    private final SpotAvailabilityIndex availabilityIndex;
+    private final SpotTransitions spotTransitions;
+    private final ConcurrencyPolicy concurrencyPolicy;
+    private final IdGenerator idGenerator;
+    private final CheckInPipeline checkInPipeline;
 
     public ParkingSessionServiceImpl(
-            LotRepository lotRepository,
+            ParkingMetadataCache metadataCache,
             VehicleRepository vehicleRepository,
             SpotRepository spotRepository,
             TicketRepository ticketRepository,
             PaymentRepository paymentRepository,
+            ReservationRepository reservationRepository,
+            ReservationExpiryWheel reservationExpiryWheel,
             SpotAllocationStrategy allocationStrategy,
             FeeCalculationStrategy feeStrategy,
             AvailabilityEventPublisher availabilityPublisher,
             ParkingSessionMapper sessionMapper,
             AvailabilityEventMapper availabilityEventMapper,
-            ParkingMetrics parkingMetrics
+            ParkingMetrics parkingMetrics,
+            SpotAvailabilityIndex availabilityIndex,
+            SpotTransitions spotTransitions,
+            ConcurrencyPolicy concurrencyPolicy,
+            IdGenerator idGenerator,
+            ParkingStrategyProperties strategyProperties
     ) {
-        this.lotRepository = lotRepository;
+        this.metadataCache = metadataCache;
         this.vehicleRepository = vehicleRepository;
         this.spotRepository = spotRepository;
         this.ticketRepository = ticketRepository;
         this.paymentRepository = paymentRepository;
+        this.reservationRepository = reservationRepository;
+        this.reservationExpiryWheel = reservationExpiryWheel;
         this.allocationStrategy = allocationStrategy;
         this.feeStrategy = feeStrategy;
         this.availabilityPublisher = availabilityPublisher;
         this.sessionMapper = sessionMapper;
         this.availabilityEventMapper = availabilityEventMapper;
         this.parkingMetrics = parkingMetrics;
+        this.availabilityIndex = availabilityIndex;
+        this.spotTransitions = spotTransitions;
+        this.concurrencyPolicy = concurrencyPolicy;
+        this.idGenerator = idGenerator;
+        this.checkInPipeline = strategyProperties.getCheckInPipeline();
     }
 
     // ---------- Check-in ----------
 
+    // Timed end to end, commit included, by TimedParkingSessionService
     @Override
     @Transactional
     public CheckInResult checkIn(CheckInCommand command) {
         log.info("Check-in started lotId={} entranceId={} plate={} size={} reservationId={}",
                 command.lotId(), command.entranceId(), command.licensePlate(),
                 command.vehicleSize(), command.reservationId().orElse(null));
-        // Ensure lot exists
-        Lot lot = lotRepository.findById(command.lotId())
+        if (checkInPipeline == CheckInPipeline.SINGLE_STATEMENT && command.reservationId().isEmpty()) {
+            return checkInInOneStatement(command);
+        }
+        // Ensure lot exists (served from the metadata cache)
+        Lot lot = metadataCache.lot(command.lotId())
                 .orElseThrow(() -> new NotFoundException("Lot not found"));
         // Find or create vehicle
         Vehicle vehicle = vehicleRepository.findByLicensePlate(command.licensePlate())
                 .orElseGet(() -> {
                     Vehicle v = new Vehicle(
-                            UUID.randomUUID(),
+                            idGenerator.newId(),
                             command.licensePlate(),
                             command.vehicleSize()
                     );
@@ -104,38 +141,21 @@ public class ParkingSessionServiceImpl implements ParkingSessionService {
             throw new ConflictException("Vehicle already has an active ticket in this lot");
         }
 
-        // Delegate to allocation strategy
-        SpotAllocationStrategy.AllocationRequest allocationRequest =
-                new SpotAllocationStrategy.AllocationRequest(
-                        command.lotId(),
-                        command.entranceId(),
-                        command.vehicleSize(),
-                        command.reservationId(),
-                        command.requestedAt()
-                );
-
-        SpotAllocationStrategy.AllocationResult allocationResult =
-                allocationStrategy.allocateSpot(allocationRequest)
-                        .orElseThrow(() -> {
-                            log.info("No suitable spot available lotId={} plate={} size={}",
-                                    command.lotId(), command.licensePlate(), command.vehicleSize());
-                            return new BusinessRuleException(
-                                    "No suitable spot available",
-                                    "no_spot_available"
-                            );
-                        });
-
-        Spot spot = spotRepository.findById(allocationResult.spotId())
-                .orElseThrow(() -> new NotFoundException("Allocated spot not found"));
-
-        // Change spot status to OCCUPIED and persist
-        spot.occupy();
-        spotRepository.save(spot);
+        long allocationStarted = System.nanoTime();
+        Spot spot;
+        if (command.reservationId().isPresent()) {
+            spot = claimReservedSpot(command, command.reservationId().get());
+        } else if (concurrencyPolicy.mode() == ConcurrencyPolicy.Mode.SKIP_LOCKED) {
+            spot = claimSpotSkippingLocked(command);
+        } else {
+            spot = allocateAndOccupySpot(command);
+        }
+        parkingMetrics.recordAllocation(System.nanoTime() - allocationStarted);
 
         // Create OPEN ticket
         Instant entryAt = command.requestedAt();
         Ticket ticket = new Ticket(
-                UUID.randomUUID(),
+                idGenerator.newId(),
                 spot.getId(),
                 vehicle.getId(),
                 lot.getId(),
@@ -145,7 +165,7 @@ public class ParkingSessionServiceImpl implements ParkingSessionService {
 
         parkingMetrics.onCheckInSuccess();
         // Publish availability event
-        availabilityPublisher.publish(
+        publishAvailability(
                 availabilityEventMapper.toEvent(
                         AvailabilityEventPublisher.EventType.SPOT_OCCUPIED,
                         lot.getId(),
@@ -162,6 +182,173 @@ public class ParkingSessionServiceImpl implements ParkingSessionService {
         return sessionMapper.toCheckInResult(ticket, spot);
     }
 
+    // Same use case as the JPA path, collapsed into one native statement (SINGLE_STATEMENT pipeline)
+    private CheckInResult checkInInOneStatement(CheckInCommand command) {
+        Instant entryAt = command.requestedAt();
+        TicketRepository.CheckInRow row;
+        // Allocation is one step of the statement; its time is the statement's
+        long statementStarted = System.nanoTime();
+        try {
+            row = ticketRepository.checkInInOneStatement(
+                    command.lotId(),
+                    command.licensePlate(),
+                    command.vehicleSize().name(),
+                    idGenerator.newId(),
+                    idGenerator.newId(),
+                    entryAt
+            );
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent check-in of the same vehicle won the open-ticket unique index
+            log.warn("Check-in rejected by unique index lotId={} plate={}",
+                    command.lotId(), command.licensePlate());
+            parkingMetrics.onCheckInConflict();
+            throw new ConflictException("Vehicle already has an active ticket in this lot");
+        } finally {
+            parkingMetrics.recordAllocation(System.nanoTime() - statementStarted);
+        }
+
+        if (!row.getLotFound()) {
+            throw new NotFoundException("Lot not found");
+        }
+        if (row.getAlreadyOpen()) {
+            log.warn("Check-in rejected: existing OPEN ticket for lotId={} plate={}",
+                    command.lotId(), command.licensePlate());
+            parkingMetrics.onCheckInConflict();
+            throw new ConflictException("Vehicle already has an active ticket in this lot");
+        }
+        if (row.getTicketId() == null) {
+            throw noSpotAvailable(command);
+        }
+
+        // Detached views of the rows the statement wrote
+        Spot spot = new Spot(
+                row.getSpotId(),
+                row.getFloorId(),
+                row.getSpotCode(),
+                SpotSize.valueOf(row.getSpotSize()),
+                SpotStatus.OCCUPIED
+        );
+        Ticket ticket = new Ticket(
+                row.getTicketId(),
+                spot.getId(),
+                row.getVehicleId(),
+                command.lotId(),
+                entryAt
+        );
+        spotTransitions.apply(command.lotId(), spot, SpotStatus.AVAILABLE, SpotStatus.OCCUPIED);
+
+        parkingMetrics.onCheckInSuccess();
+        publishAvailability(
+                availabilityEventMapper.toEvent(
+                        AvailabilityEventPublisher.EventType.SPOT_OCCUPIED,
+                        command.lotId(),
+                        spot.getFloorId(),
+                        spot,
+                        entryAt
+                )
+        );
+
+        log.info("Check-in success ticketId={} lotId={} spotId={} spotCode={} plate={}",
+                ticket.getId(), command.lotId(), spot.getId(), spot.getCode(), command.licensePlate());
+
+        return sessionMapper.toCheckInResult(ticket, spot);
+    }
+
+    // Allocates through the configured strategy, then occupies the spot row (CONSTRAINT_ONLY)
+    private Spot allocateAndOccupySpot(CheckInCommand command) {
+        // Delegate to allocation strategy
+        SpotAllocationStrategy.AllocationRequest allocationRequest =
+                new SpotAllocationStrategy.AllocationRequest(
+                        command.lotId(),
+                        command.entranceId(),
+                        command.vehicleSize(),
+                        command.reservationId(),
+                        command.requestedAt()
+                );
+
+        Spot spot = null;
+        boolean reloaded = false;
+        for (int attempt = 1; spot == null; attempt++) {
+            Optional<SpotAllocationStrategy.AllocationResult> allocation = attempt > MAX_ALLOCATION_ATTEMPTS
+                    ? Optional.empty()
+                    : allocationStrategy.allocateSpot(allocationRequest);
+            if (allocation.isEmpty()) {
+                // The index may be behind the database; reload the lot once before turning the car away
+                if (reloaded || !availabilityIndex.reloadAfterMiss(command.lotId())) {
+                    throw noSpotAvailable(command);
+                }
+                reloaded = true;
+                attempt = 0;
+                continue;
+            }
+
+            Spot candidate = spotRepository.findById(allocation.get().spotId())
+                    .orElseThrow(() -> new NotFoundException("Allocated spot not found"));
+
+            // The database confirms the claim; a stale candidate is dropped and allocation retried
+            if (candidate.isAvailable()) {
+                spot = candidate;
+            } else {
+                log.warn("Allocated spot no longer available spotId={} status={} attempt={}",
+                        candidate.getId(), candidate.getStatus(), attempt);
+                availabilityIndex.dropClaim(command.lotId(), candidate.getId());
+            }
+        }
+
+        // Change spot status to OCCUPIED and persist
+        SpotStatus before = spot.getStatus();
+        spot.occupy();
+        spotRepository.save(spot);
+        spotTransitions.apply(command.lotId(), spot, before, spot.getStatus());
+        return spot;
+    }
+
+    // Claims and occupies the spot in a single statement (SKIP_LOCKED)
+    private Spot claimSpotSkippingLocked(CheckInCommand command) {
+        UUID spotId = spotRepository.claimFirstAvailable(command.lotId(), command.vehicleSize().name())
+                .orElseThrow(() -> noSpotAvailable(command));
+        // The statement already marked it OCCUPIED; code, size and floor come from the cache
+        Spot spot = metadataCache.spot(spotId)
+                .orElseThrow(() -> new NotFoundException("Allocated spot not found"))
+                .toSpot(SpotStatus.OCCUPIED);
+        spotTransitions.apply(command.lotId(), spot, SpotStatus.AVAILABLE, SpotStatus.OCCUPIED);
+        return spot;
+    }
+
+    // Occupies the spot held by the reservation: one primary-key lookup, no allocation
+    private Spot claimReservedSpot(CheckInCommand command, UUID reservationId) {
+        Reservation reservation = reservationRepository.findForUpdate(reservationId)
+                .orElseThrow(() -> new NotFoundException("Reservation not found"));
+        reservation.claim(command.lotId(), command.licensePlate(), command.requestedAt());
+        reservationRepository.save(reservation);
+        reservationExpiryWheel.cancel(reservationId);
+
+        Spot spot = spotRepository.findById(reservation.getSpotId())
+                .orElseThrow(() -> new NotFoundException("Reserved spot not found"));
+        SpotStatus before = spot.getStatus();
+        spot.occupy();
+        spotRepository.save(spot);
+        spotTransitions.apply(command.lotId(), spot, before, spot.getStatus());
+        log.info("Reservation claimed reservationId={} spotId={}", reservationId, spot.getId());
+        return spot;
+    }
+
+    private void publishAvailability(AvailabilityEventPublisher.AvailabilityEvent event) {
+        long started = System.nanoTime();
+        availabilityPublisher.publish(event);
+        parkingMetrics.recordEventPublish(System.nanoTime() - started);
+    }
+
+    private BusinessRuleException noSpotAvailable(CheckInCommand command) {
+        log.info("No suitable spot available lotId={} plate={} size={}",
+                command.lotId(), command.licensePlate(), command.vehicleSize());
+        parkingMetrics.onNoSpotAvailable();
+        return new BusinessRuleException(
+                "No suitable spot available",
+                "no_spot_available"
+        );
+    }
+
     // ---------- Check-out ----------
 
     @Override
@@ -170,8 +357,9 @@ public class ParkingSessionServiceImpl implements ParkingSessionService {
         log.info("Check-out started lotId={} ticketId={}",
                 command.lotId(), command.ticketId());
 
-        // Load ticket
-        Ticket ticket = ticketRepository.findById(command.ticketId())
+        // Lock the open ticket: open tickets first, the closed partitions only to tell closed from missing
+        Ticket ticket = lockOpenTicket(command.ticketId())
+                .or(() -> ticketRepository.findById(command.ticketId()))
                 .orElseThrow(() -> {
                     log.warn("Check-out ticket not found ticketId={} lotId={}",
                             command.ticketId(), command.lotId());
@@ -195,34 +383,42 @@ public class ParkingSessionServiceImpl implements ParkingSessionService {
         Spot spot = spotRepository.findById(ticket.getSpotId())
                 .orElseThrow(() -> new NotFoundException("Spot not found for ticket"));
 
+        SpotStatus before = spot.getStatus();
         spot.markAvailable();
         spotRepository.save(spot);
+        spotTransitions.apply(ticket.getLotId(), spot, before, spot.getStatus());
 
         // Calculate fee (using configured strategy)
-        String currency = DEFAULT_CURRENCY; // can be derived from lot/rate card later
+        // Fallback for strategies without their own currency; a rate card prices in its own
+        String currency = DEFAULT_CURRENCY;
 
+        long feeStarted = System.nanoTime();
         FeeCalculationStrategy.FeeBreakdown breakdown =
                 feeStrategy.calculate(new FeeCalculationStrategy.FeeRequest(
                         ticket.getLotId(),
                         ticket.getId(),
                         ticket.getEntryAt(),
                         command.exitAt(),
-                        currency
+                        currency,
+                        spot.getFloorId(),
+                        spot.getSize()
                 ));
+        parkingMetrics.recordFeeCalculation(System.nanoTime() - feeStarted);
 
         // Create payment and mark successful
         Payment payment = new Payment(
-                UUID.randomUUID(),
+                idGenerator.newId(),
                 ticket.getId(),
+                ticket.getEntryAt(),
                 breakdown.totalAmountMinor(),
-                currency,
+                breakdown.currency(),
                 PaymentMethod.CASH
         );
         payment.succeed("PAY-" + ticket.getId(), command.exitAt());
         paymentRepository.save(payment);
 
         // Publish availability event
-        availabilityPublisher.publish(
+        publishAvailability(
                 availabilityEventMapper.toEvent(
                         AvailabilityEventPublisher.EventType.SPOT_RELEASED,
                         ticket.getLotId(),
@@ -236,9 +432,19 @@ public class ParkingSessionServiceImpl implements ParkingSessionService {
 
         log.info("Check-out success ticketId={} lotId={} spotId={} amountMinor={} currency={}",
                 ticket.getId(), ticket.getLotId(), spot.getId(),
-                breakdown.totalAmountMinor(), "INR");
+                breakdown.totalAmountMinor(), payment.getCurrency());
 
         // Map to DTO
         return sessionMapper.toCheckOutResult(ticket, payment);
     }
+
+    // A concurrent check-out that closed the ticket first moved it out of ticket_open
+    private Optional<Ticket> lockOpenTicket(UUID ticketId) {
+        try {
+            return ticketRepository.findForUpdate(ticketId, TicketStatus.OPEN);
+        } catch (PessimisticLockingFailureException ex) {
+            log.warn("Check-out rejected: ticket closed concurrently ticketId={}", ticketId);
+            throw new BusinessRuleException("Ticket already closed", "ticket_closed");
+        }
+    }
 }
\ No newline at end of file
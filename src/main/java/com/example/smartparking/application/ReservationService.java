@@ -0,0 +1,54 @@
+package com.example.smartparking.application;
+
+import com.example.smartparking.domain.ReservationStatus;
+import com.example.smartparking.domain.SpotSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+public interface ReservationService {
+    // create service
+    /**
+     * Holds a compatible spot for the vehicle:
+     *  - allocates a spot using the configured strategy and marks it RESERVED,
+     *  - records the hold with its expiry (requestedAt + ttl, or the configured default),
+     *  - publishes availability events.
+     * The hold is released automatically once it expires; check-in with its id claims it.
+     *
+     * Throws:
+     *  - NotFoundException if the lot does not exist,
+     *  - BusinessRuleException if no suitable spot is available or the ttl is out of range,
+     *  - ConflictException if the vehicle already holds a reservation in this lot.
+     */
+    record CreateReservationCommand(
+            UUID lotId,
+            UUID entranceId,
+            String licensePlate,
+            SpotSize vehicleSize,
+            Duration ttl,
+            Instant requestedAt
+    ){}
+    record ReservationResult(
+            UUID reservationId,
+            UUID lotId,
+            UUID spotId,
+            UUID floorId,
+            String spotCode,
+            SpotSize spotSize,
+            ReservationStatus status,
+            Instant expiresAt
+    ){}
+    ReservationResult create(CreateReservationCommand command);
+
+    /**
+     * Cancels a held reservation and makes its spot AVAILABLE again.
+     *
+     * Throws:
+     *  - NotFoundException if the reservation does not exist,
+     *  - BusinessRuleException if it is no longer held.
+     */
+    ReservationResult cancel(UUID reservationId);
+
+    ReservationResult get(UUID reservationId);
+}
@@ -0,0 +1,294 @@
+package com.example.smartparking.application;
+
+import com.example.smartparking.application.mapper.AvailabilityEventMapper;
+import com.example.smartparking.application.mapper.ReservationMapper;
+import com.example.smartparking.availability.SpotAvailabilityIndex;
+import com.example.smartparking.availability.SpotTransitions;
+import com.example.smartparking.domain.*;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher;
+import com.example.smartparking.domain.strategy.IdGenerator;
+import com.example.smartparking.domain.strategy.SpotAllocationStrategy;
+import com.example.smartparking.invalidation.InvalidationBus;
+import com.example.smartparking.metadata.ParkingMetadataCache;
+import com.example.smartparking.metadata.ParkingMetadataCache.SpotInfo;
+import com.example.smartparking.repository.ReservationRepository;
+import com.example.smartparking.reservation.ReservationExpiryWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reservation holds. Spots are held and released with conditional updates
+ * (AVAILABLE to RESERVED and back), so a hold never overwrites a concurrent check-in.
+ * Expiry is driven by ReservationExpiryWheel: every tick releases the holds that came due,
+ * each in its own transaction with the reservation row locked.
+ */
+@Service
+public class ReservationServiceImpl implements ReservationService {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ReservationServiceImpl.class);
+
+    // Allocation may hand out a spot that another node has just taken
+    private static final int MAX_ALLOCATION_ATTEMPTS = 3;
+    // A failed expiry is retried after this delay
+    private static final Duration EXPIRY_RETRY = Duration.ofSeconds(5);
+
+    private final ParkingMetadataCache metadataCache;
+    private final ReservationRepository reservationRepository;
+    private final SpotAllocationStrategy allocationStrategy;
+    private final SpotAvailabilityIndex availabilityIndex;
+    private final SpotTransitions spotTransitions;
+    private final InvalidationBus invalidationBus;
+    private final AvailabilityEventPublisher availabilityPublisher;
+    private final AvailabilityEventMapper availabilityEventMapper;
+    private final ReservationMapper reservationMapper;
+    private final ReservationExpiryWheel expiryWheel;
+    private final IdGenerator idGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+
+    private final Counter createdCounter;
+    private final Counter cancelledCounter;
+    private final Counter expiredCounter;
+
+    public ReservationServiceImpl(
+            ParkingMetadataCache metadataCache,
+            ReservationRepository reservationRepository,
+            SpotAllocationStrategy allocationStrategy,
+            SpotAvailabilityIndex availabilityIndex,
+            SpotTransitions spotTransitions,
+            InvalidationBus invalidationBus,
+            AvailabilityEventPublisher availabilityPublisher,
+            AvailabilityEventMapper availabilityEventMapper,
+            ReservationMapper reservationMapper,
+            ReservationExpiryWheel expiryWheel,
+            IdGenerator idGenerator,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${app.parking.reservation.default-ttl-seconds:900}") long defaultTtlSeconds,
+            @Value("${app.parking.reservation.max-ttl-seconds:86400}") long maxTtlSeconds
+    ) {
+        this.metadataCache = metadataCache;
+        this.reservationRepository = reservationRepository;
+        this.allocationStrategy = allocationStrategy;
+        this.availabilityIndex = availabilityIndex;
+        this.spotTransitions = spotTransitions;
+        this.invalidationBus = invalidationBus;
+        this.availabilityPublisher = availabilityPublisher;
+        this.availabilityEventMapper = availabilityEventMapper;
+        this.reservationMapper = reservationMapper;
+        this.expiryWheel = expiryWheel;
+        this.idGenerator = idGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultTtl = Duration.ofSeconds(defaultTtlSeconds);
+        this.maxTtl = Duration.ofSeconds(maxTtlSeconds);
+
+        this.createdCounter = outcomeCounter(registry, "created");
+        this.cancelledCounter = outcomeCounter(registry, "cancelled");
+        this.expiredCounter = outcomeCounter(registry, "expired");
+    }
+
+    // ---------- Create ----------
+
+    @Override
+    @Transactional
+    public ReservationResult create(CreateReservationCommand command) {
+        log.info("Reservation started lotId={} entranceId={} plate={} size={}",
+                command.lotId(), command.entranceId(), command.licensePlate(), command.vehicleSize());
+        metadataCache.lot(command.lotId())
+                .orElseThrow(() -> new NotFoundException("Lot not found"));
+        Duration ttl = command.ttl() == null ? defaultTtl : command.ttl();
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0) {
+            throw new BusinessRuleException(
+                    "Reservation ttl must be between 1 and " + maxTtl.toSeconds() + " seconds",
+                    "invalid_reservation_ttl");
+        }
+        if (reservationRepository.existsByLotIdAndLicensePlateAndStatus(
+                command.lotId(), command.licensePlate(), ReservationStatus.HELD)) {
+            log.warn("Reservation rejected: plate={} already holds a reservation in lotId={}",
+                    command.licensePlate(), command.lotId());
+            throw new ConflictException("Vehicle already holds a reservation in this lot");
+        }
+
+        SpotInfo spot = holdSpot(command);
+        Reservation reservation = new Reservation(
+                idGenerator.newId(),
+                command.lotId(),
+                spot.id(),
+                command.licensePlate(),
+                command.requestedAt().plus(ttl)
+        );
+        try {
+            reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent reservation of the same vehicle won ux_reservation_held_by_plate_lot
+            throw new ConflictException("Vehicle already holds a reservation in this lot");
+        }
+
+        spotTransitions.apply(command.lotId(), spot.floorId(), spot.id(), spot.size(),
+                SpotStatus.AVAILABLE, SpotStatus.RESERVED);
+        invalidationBus.reservationHeld(reservation.getId(), reservation.getExpiresAt());
+        availabilityPublisher.publish(availabilityEventMapper.toEvent(
+                AvailabilityEventPublisher.EventType.SPOT_RESERVED,
+                command.lotId(),
+                spot.floorId(),
+                spot.toSpot(SpotStatus.RESERVED),
+                command.requestedAt()
+        ));
+        expiryWheel.schedule(reservation.getId(), reservation.getExpiresAt());
+        createdCounter.increment();
+
+        log.info("Reservation held reservationId={} lotId={} spotId={} spotCode={} expiresAt={}",
+                reservation.getId(), command.lotId(), spot.id(), spot.code(), reservation.getExpiresAt());
+        return reservationMapper.toResult(reservation, spot);
+    }
+
+    // Allocates through the configured strategy, then holds the spot row if it is still AVAILABLE
+    private SpotInfo holdSpot(CreateReservationCommand command) {
+        SpotAllocationStrategy.AllocationRequest allocationRequest =
+                new SpotAllocationStrategy.AllocationRequest(
+                        command.lotId(),
+                        command.entranceId(),
+                        command.vehicleSize(),
+                        Optional.empty(),
+                        command.requestedAt()
+                );
+        boolean reloaded = false;
+        for (int attempt = 1; ; attempt++) {
+            Optional<SpotAllocationStrategy.AllocationResult> allocation = attempt > MAX_ALLOCATION_ATTEMPTS
+                    ? Optional.empty()
+                    : allocationStrategy.allocateSpot(allocationRequest);
+            if (allocation.isEmpty()) {
+                // The index may be behind the database; reload the lot once before refusing
+                if (reloaded || !availabilityIndex.reloadAfterMiss(command.lotId())) {
+                    throw noSpotAvailable(command);
+                }
+                reloaded = true;
+                attempt = 0;
+                continue;
+            }
+            UUID spotId = allocation.get().spotId();
+            if (reservationRepository.holdSpot(spotId) == 1) {
+                return metadataCache.spot(spotId)
+                        .orElseThrow(() -> new NotFoundException("Allocated spot not found"));
+            }
+            log.warn("Allocated spot no longer available spotId={} attempt={}", spotId, attempt);
+            availabilityIndex.markOccupied(command.lotId(), spotId);
+        }
+    }
+
+    private BusinessRuleException noSpotAvailable(CreateReservationCommand command) {
+        log.info("No suitable spot to reserve lotId={} plate={} size={}",
+                command.lotId(), command.licensePlate(), command.vehicleSize());
+        return new BusinessRuleException(
+                "No suitable spot available",
+                "no_spot_available"
+        );
+    }
+
+    // ---------- Cancel / get ----------
+
+    @Override
+    @Transactional
+    public ReservationResult cancel(UUID reservationId) {
+        Reservation reservation = reservationRepository.findForUpdate(reservationId)
+                .orElseThrow(() -> new NotFoundException("Reservation not found"));
+        reservation.cancel();
+        reservationRepository.save(reservation);
+        SpotInfo spot = release(reservation, expiryWheel.now());
+        expiryWheel.cancel(reservationId);
+        cancelledCounter.increment();
+        log.info("Reservation cancelled reservationId={} spotId={}", reservationId, spot.id());
+        return reservationMapper.toResult(reservation, spot);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationResult get(UUID reservationId) {
+        Reservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new NotFoundException("Reservation not found"));
+        return reservationMapper.toResult(reservation, spotOf(reservation));
+    }
+
+    // ---------- Expiry ----------
+
+    @Scheduled(fixedDelayString = "${app.parking.reservation.tick-ms:100}")
+    public void expireDue() {
+        for (UUID reservationId : expiryWheel.due()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> expire(reservationId));
+            } catch (RuntimeException ex) {
+                log.warn("Reservation expiry failed reservationId={}, retrying in {}s",
+                        reservationId, EXPIRY_RETRY.toSeconds(), ex);
+                expiryWheel.schedule(reservationId, expiryWheel.now().plus(EXPIRY_RETRY));
+            }
+        }
+    }
+
+    // Claimed, cancelled or already expired (e.g. by another node) holds are left alone
+    private void expire(UUID reservationId) {
+        Optional<Reservation> found = reservationRepository.findForUpdate(reservationId);
+        if (found.isEmpty() || !found.get().isHeld()) {
+            return;
+        }
+        Reservation reservation = found.get();
+        Instant now = expiryWheel.now();
+        if (!reservation.isExpiredAt(now)) {
+            // this node's clock is behind the one that took the hold
+            expiryWheel.schedule(reservationId, reservation.getExpiresAt());
+            return;
+        }
+        reservation.expire();
+        reservationRepository.save(reservation);
+        release(reservation, now);
+        expiredCounter.increment();
+        log.info("Reservation expired reservationId={} spotId={}", reservationId, reservation.getSpotId());
+    }
+
+    // Makes the held spot AVAILABLE again, unless something else already changed it
+    private SpotInfo release(Reservation reservation, Instant at) {
+        SpotInfo spot = spotOf(reservation);
+        if (reservationRepository.releaseSpot(spot.id()) == 0) {
+            log.warn("Reserved spot no longer RESERVED spotId={} reservationId={}",
+                    spot.id(), reservation.getId());
+            return spot;
+        }
+        spotTransitions.apply(reservation.getLotId(), spot.floorId(), spot.id(), spot.size(),
+                SpotStatus.RESERVED, SpotStatus.AVAILABLE);
+        availabilityPublisher.publish(availabilityEventMapper.toEvent(
+                AvailabilityEventPublisher.EventType.SPOT_RELEASED,
+                reservation.getLotId(),
+                spot.floorId(),
+                spot.toSpot(SpotStatus.AVAILABLE),
+                at
+        ));
+        return spot;
+    }
+
+    private SpotInfo spotOf(Reservation reservation) {
+        return metadataCache.spot(reservation.getSpotId())
+                .orElseThrow(() -> new NotFoundException("Reserved spot not found"));
+    }
+
+    private static Counter outcomeCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("parking.reservations")
+                .description("Reservation holds by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
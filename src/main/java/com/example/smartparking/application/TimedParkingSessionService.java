@@ -0,0 +1,43 @@
+package com.example.smartparking.application;
+
+import com.example.smartparking.observability.ParkingMetrics;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Times check-in and check-out end to end. Sits outside the transactional
+ * ParkingSessionServiceImpl, so the recorded latency includes the flush and commit;
+ * failed calls are timed too.
+ */
+@Service
+@Primary
+public class TimedParkingSessionService implements ParkingSessionService {
+
+    private final ParkingSessionService delegate;
+    private final ParkingMetrics parkingMetrics;
+
+    public TimedParkingSessionService(ParkingSessionServiceImpl delegate, ParkingMetrics parkingMetrics) {
+        this.delegate = delegate;
+        this.parkingMetrics = parkingMetrics;
+    }
+
+    @Override
+    public CheckInResult checkIn(CheckInCommand command) {
+        long started = System.nanoTime();
+        try {
+            return delegate.checkIn(command);
+        } finally {
+            parkingMetrics.recordCheckIn(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public CheckOutResult checkOut(CheckOutCommand command) {
+        long started = System.nanoTime();
+        try {
+            return delegate.checkOut(command);
+        } finally {
+            parkingMetrics.recordCheckOut(System.nanoTime() - started);
+        }
+    }
+}
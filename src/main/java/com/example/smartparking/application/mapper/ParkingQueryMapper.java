@@ -4,7 +4,10 @@ import com.example.smartparking.application.ParkingQueryService.FloorSummary;
 import com.example.smartparking.application.ParkingQueryService.LotSummary;
 import com.example.smartparking.application.ParkingQueryService.SpotSummary;
 import com.example.smartparking.application.ParkingQueryService.ActiveTicketSummary;
+import com.example.smartparking.application.ParkingQueryService.FloorSizeAvailability;
 import com.example.smartparking.domain.*;
+import com.example.smartparking.repository.SpotRepository.FloorSizeCount;
+import com.example.smartparking.repository.SpotRepository.SpotRow;
 
 import org.springframework.stereotype.Component;
 
@@ -37,6 +40,16 @@ public class ParkingQueryMapper {
         );
     }
 
+    public SpotSummary toSpotSummary(SpotRow row) {
+        return new SpotSummary(
+                row.id(),
+                row.floorId(),
+                row.code(),
+                row.size(),
+                row.status()
+        );
+    }
+
     /**
      * Builds an ActiveTicketSummary from ticket, spot and vehicle.
      * Assumes the ticket is OPEN and spot belongs to the same lot.
@@ -53,4 +66,13 @@ public class ParkingQueryMapper {
                 spot.getSize()
         );
     }
-}
\ No newline at end of file
+
+    public FloorSizeAvailability toFloorSizeAvailability(FloorSizeCount count) {
+        return new FloorSizeAvailability(
+                count.getFloorId(),
+                SpotSize.valueOf(count.getSize()),
+                count.getFree(),
+                count.getTotal()
+        );
+    }
+}
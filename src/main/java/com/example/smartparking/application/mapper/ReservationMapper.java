@@ -0,0 +1,27 @@
+package com.example.smartparking.application.mapper;
+
+import com.example.smartparking.application.ReservationService.ReservationResult;
+import com.example.smartparking.domain.Reservation;
+import com.example.smartparking.metadata.ParkingMetadataCache.SpotInfo;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservationMapper {
+
+    /**
+     * Builds the ReservationResult DTO from the reservation and its held spot.
+     */
+    public ReservationResult toResult(Reservation reservation, SpotInfo spot) {
+        return new ReservationResult(
+                reservation.getId(),
+                reservation.getLotId(),
+                spot.id(),
+                spot.floorId(),
+                spot.code(),
+                spot.size(),
+                reservation.getStatus(),
+                reservation.getExpiresAt()
+        );
+    }
+}
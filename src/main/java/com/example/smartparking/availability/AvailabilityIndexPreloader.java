@@ -0,0 +1,50 @@
+package com.example.smartparking.availability;
+
+import com.example.smartparking.domain.Lot;
+import com.example.smartparking.metadata.ParkingMetadataCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads every lot's slots and entrance rankings into the availability index at startup,
+ * so the first check-in of a lot does not pay for the load.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.parking.availability-index", name = "preload", havingValue = "true",
+        matchIfMissing = true)
+public class AvailabilityIndexPreloader {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(AvailabilityIndexPreloader.class);
+
+    private final ParkingMetadataCache metadataCache;
+    private final SpotAvailabilityIndex availabilityIndex;
+
+    public AvailabilityIndexPreloader(ParkingMetadataCache metadataCache, SpotAvailabilityIndex availabilityIndex) {
+        this.metadataCache = metadataCache;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        long started = System.nanoTime();
+        int loaded = 0;
+        for (Lot lot : metadataCache.allLots()) {
+            try {
+                availabilityIndex.warmUp(lot.getId());
+                loaded++;
+            } catch (RuntimeException ex) {
+                // the lot is loaded on its first claim instead
+                log.warn("Could not preload availability index lotId={}", lot.getId(), ex);
+            }
+        }
+        log.info("Preloaded availability index lots={} in {}ms",
+                loaded, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.smartparking.availability;
+
+import java.util.Arrays;
+
+/**
+ * Indexed binary min-heap of slot numbers, ordered by a caller-supplied comparison.
+ * The position of every slot is tracked, so add, remove and contains are O(log n) or
+ * better and a slot is never held twice. Not thread-safe; LotIndex guards it.
+ */
+final class SlotHeap {
+
+    @FunctionalInterface
+    interface SlotOrder {
+        int compare(int slotA, int slotB);
+    }
+
+    private final SlotOrder order;
+    private int[] heap;
+    // position of each slot in heap, -1 when absent
+    private int[] positions;
+    private int size;
+
+    SlotHeap(SlotOrder order, int capacity) {
+        this.order = order;
+        this.heap = new int[Math.max(capacity, 1)];
+        this.positions = new int[Math.max(capacity, 1)];
+        Arrays.fill(positions, -1);
+    }
+
+    // Smallest slot, or -1 when empty
+    int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    boolean contains(int slot) {
+        return slot < positions.length && positions[slot] >= 0;
+    }
+
+    void add(int slot) {
+        if (contains(slot)) {
+            return;
+        }
+        ensureSlotCapacity(slot + 1);
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = slot;
+        positions[slot] = size;
+        siftUp(size++);
+    }
+
+    void remove(int slot) {
+        if (!contains(slot)) {
+            return;
+        }
+        int at = positions[slot];
+        positions[slot] = -1;
+        int last = heap[--size];
+        if (at == size) {
+            return;
+        }
+        heap[at] = last;
+        positions[last] = at;
+        siftDown(at);
+        siftUp(positions[last]);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void ensureSlotCapacity(int slots) {
+        if (slots > positions.length) {
+            int old = positions.length;
+            positions = Arrays.copyOf(positions, Math.max(slots, old * 2));
+            Arrays.fill(positions, old, positions.length, -1);
+        }
+    }
+
+    private void siftUp(int at) {
+        int slot = heap[at];
+        while (at > 0) {
+            int parent = (at - 1) >>> 1;
+            if (order.compare(slot, heap[parent]) >= 0) {
+                break;
+            }
+            move(heap[parent], at);
+            at = parent;
+        }
+        move(slot, at);
+    }
+
+    private void siftDown(int at) {
+        int slot = heap[at];
+        int half = size >>> 1;
+        while (at < half) {
+            int child = 2 * at + 1;
+            int right = child + 1;
+            if (right < size && order.compare(heap[right], heap[child]) < 0) {
+                child = right;
+            }
+            if (order.compare(slot, heap[child]) <= 0) {
+                break;
+            }
+            move(heap[child], at);
+            at = child;
+        }
+        move(slot, at);
+    }
+
+    private void move(int slot, int at) {
+        heap[at] = slot;
+        positions[slot] = at;
+    }
+}
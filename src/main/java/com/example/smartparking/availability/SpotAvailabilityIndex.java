@@ -0,0 +1,532 @@
+package com.example.smartparking.availability;
+
+import com.example.smartparking.config.TransactionCallbacks;
+import com.example.smartparking.domain.Entrance;
+import com.example.smartparking.domain.Floor;
+import com.example.smartparking.domain.Spot;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.repository.EntranceRepository;
+import com.example.smartparking.repository.EntranceRepository.SpotDistance;
+import com.example.smartparking.repository.FloorRepository;
+import com.example.smartparking.repository.SpotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory view of free spots per lot.
+ * A lot is loaded once into slots (primitive arrays) with one heap of free slots per size,
+ * ordered by floor ordering then spot code, and one per (entrance, size), ordered by the
+ * precomputed walking distance from that entrance; the top of a heap is the nearest free spot.
+ * Spots added, changed or removed later are applied to the loaded lot slot by slot.
+ * The database stays the source of truth: a claim here is only a candidate
+ * that the caller still has to confirm on the spot row. Changes this node never hears of
+ * (other nodes without the invalidation listener, fixes made in SQL) are caught up by a
+ * scheduled reload of every loaded lot, and by reloadAfterMiss before a gate is turned away.
+ */
+@Component
+public class SpotAvailabilityIndex {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(SpotAvailabilityIndex.class);
+
+    // Spots without a measured distance rank after every measured one
+    private static final int UNMEASURED_DISTANCE = 1 << 24;
+
+    // floorRank: position of the spot's floor in the lot's floor ordering, starting at 0
+    public record IndexedSpot(
+            UUID spotId,
+            UUID floorId,
+            String code,
+            SpotSize size,
+            int floorRank
+    ){}
+
+    // Scores the nearest free spot of one size; lower is better. floorsAway counts the floors
+    // between the spot and the entrance, or is the spot's floor rank when there is no entrance.
+    @FunctionalInterface
+    public interface CandidateScore {
+        int score(SpotSize size, int floorsAway);
+    }
+
+    private final FloorRepository floorRepository;
+    private final SpotRepository spotRepository;
+    private final EntranceRepository entranceRepository;
+    private final Map<UUID, LotIndex> lots = new ConcurrentHashMap<>();
+    private final long minReloadNanos;
+
+    public SpotAvailabilityIndex(FloorRepository floorRepository,
+                                 SpotRepository spotRepository,
+                                 EntranceRepository entranceRepository,
+                                 @Value("${app.parking.availability-index.min-reload-interval-ms:1000}") long minReloadMs) {
+        this.floorRepository = floorRepository;
+        this.spotRepository = spotRepository;
+        this.entranceRepository = entranceRepository;
+        this.minReloadNanos = TimeUnit.MILLISECONDS.toNanos(minReloadMs);
+    }
+
+    /**
+     * Takes the nearest free spot of the given size out of the index.
+     * If the surrounding transaction rolls back, the spot is put back.
+     */
+    public Optional<IndexedSpot> claimFirstAvailable(UUID lotId, SpotSize size) {
+        LotIndex index = lots.computeIfAbsent(lotId, this::load);
+        return claimed(index, index.claimFirst(size));
+    }
+
+    /**
+     * Takes the free spot of the given size nearest to the entrance out of the index,
+     * in O(log n). An entrance the lot does not know falls back to floor ordering.
+     */
+    public Optional<IndexedSpot> claimNearestTo(UUID lotId, UUID entranceId, SpotSize size) {
+        LotIndex index = lots.computeIfAbsent(lotId, this::load);
+        return claimed(index, index.claimNearest(entranceId, size));
+    }
+
+    /**
+     * Takes the best-scoring free spot among the given sizes out of the index.
+     * Only the nearest free spot of each size is a candidate, so this costs one heap
+     * peek per size. Ties go to the size listed first.
+     */
+    public Optional<IndexedSpot> claimBestOf(UUID lotId, List<SpotSize> sizes, CandidateScore score) {
+        return claimBestOf(lotId, null, sizes, score);
+    }
+
+    /**
+     * Like claimBestOf, with each size's candidate taken from the entrance's heap: the free
+     * spot of that size nearest to the entrance, scored by its floors away from the entrance.
+     * An entrance the lot does not know falls back to floor ordering.
+     */
+    public Optional<IndexedSpot> claimBestOf(UUID lotId, UUID entranceId, List<SpotSize> sizes, CandidateScore score) {
+        LotIndex index = lots.computeIfAbsent(lotId, this::load);
+        return claimed(index, index.claimBest(entranceId, sizes, score));
+    }
+
+    public boolean hasEntrance(UUID lotId, UUID entranceId) {
+        return entranceId != null && lots.computeIfAbsent(lotId, this::load).hasEntrance(entranceId);
+    }
+
+    public int floorCount(UUID lotId) {
+        LotIndex index = lots.get(lotId);
+        return index == null ? 0 : index.floorCount;
+    }
+
+    // Loads the lot ahead of its first claim
+    public void warmUp(UUID lotId) {
+        lots.computeIfAbsent(lotId, this::load);
+    }
+
+    public void markOccupied(UUID lotId, UUID spotId) {
+        LotIndex index = lots.get(lotId);
+        if (index != null) {
+            index.setTaken(spotId);
+        }
+    }
+
+    /**
+     * The claimed spot turned out to be taken in the database: keeps it out of the index,
+     * also if the surrounding transaction rolls back, since there is no claim to undo.
+     */
+    public void dropClaim(UUID lotId, UUID spotId) {
+        markOccupied(lotId, spotId);
+        Set<UUID> dropped = droppedClaims();
+        if (dropped != null) {
+            dropped.add(spotId);
+        }
+    }
+
+    /**
+     * Returns the spot to the index. Call it once the release has committed, so no other
+     * gate can pick it while the row is still locked as OCCUPIED; SpotTransitions does.
+     */
+    public void markAvailable(UUID lotId, UUID spotId) {
+        LotIndex index = lots.get(lotId);
+        if (index != null) {
+            index.setFree(spotId);
+        }
+    }
+
+    /**
+     * Applies a committed spot definition or status change to whichever loaded lot
+     * holds its floor; the spot keeps its entrance distances, a new spot starts unmeasured.
+     * A spot on a floor no loaded lot knows is dropped here; the floor's own insert or
+     * move invalidates its lot, so the reload that follows indexes the spot.
+     */
+    public void spotChanged(Spot spot) {
+        lots.forEach((lotId, index) -> {
+            if (index.hasFloor(spot.getFloorId())) {
+                index.upsert(spot, null);
+            } else {
+                index.remove(spot.getId());
+            }
+        });
+    }
+
+    public void spotRemoved(UUID spotId) {
+        lots.values().forEach(index -> index.remove(spotId));
+    }
+
+    /**
+     * Re-reads one spot and its entrance distances into a loaded lot.
+     * A spot on a floor the lot has not loaded drops the lot instead.
+     */
+    public void refreshSpot(UUID lotId, UUID spotId) {
+        LotIndex index = lots.get(lotId);
+        if (index == null) {
+            return;
+        }
+        Optional<Spot> spot = spotRepository.findById(spotId);
+        if (spot.isEmpty()) {
+            index.remove(spotId);
+            return;
+        }
+        Map<UUID, Integer> distances = new HashMap<>();
+        for (SpotDistance row : entranceRepository.findDistancesBySpotId(spotId)) {
+            distances.put(row.getEntranceId(), row.getDistance());
+        }
+        if (!index.upsert(spot.get(), distances)) {
+            invalidate(lotId);
+        }
+    }
+
+    // Rebuilds the entrance rankings of a loaded lot; its slots and free spots are kept
+    public void reloadEntrances(UUID lotId) {
+        LotIndex index = lots.get(lotId);
+        if (index == null) {
+            return;
+        }
+        List<Entrance> entrances = entranceRepository.findByLotId(lotId);
+        index.rankEntrances(entrances, entrances.isEmpty() ? List.of() : entranceRepository.findDistancesByLotId(lotId));
+        log.debug("Re-ranked entrances lotId={} entrances={}", lotId, entrances.size());
+    }
+
+    /**
+     * Called when the index has no free spot left for a request: reloads the lot from the
+     * database unless it was loaded within the last min-reload-interval-ms, so a full lot
+     * does not reload on every rejected car. Returns true if the lot was reloaded and the
+     * caller should try once more.
+     */
+    public boolean reloadAfterMiss(UUID lotId) {
+        LotIndex current = lots.get(lotId);
+        if (current != null && System.nanoTime() - current.loadedAt < minReloadNanos) {
+            return false;
+        }
+        LotIndex reloaded = load(lotId);
+        // a concurrent miss may have reloaded first; either copy is fresh
+        lots.merge(lotId, reloaded, (old, fresh) -> old == current ? fresh : old);
+        log.info("Availability index reloaded after a miss lotId={}", lotId);
+        return true;
+    }
+
+    // Reloads every loaded lot, catching up with changes this node did not see
+    @Scheduled(fixedDelayString = "${app.parking.counters.reconcile-interval-ms:60000}")
+    public void resync() {
+        for (UUID lotId : List.copyOf(lots.keySet())) {
+            LotIndex current = lots.get(lotId);
+            if (current == null) {
+                continue;
+            }
+            LotIndex reloaded = load(lotId);
+            lots.computeIfPresent(lotId, (id, old) -> old == current ? reloaded : old);
+        }
+    }
+
+    // Drops the lot; it is reloaded from the database on the next claim.
+    public void invalidate(UUID lotId) {
+        lots.remove(lotId);
+    }
+
+    public void invalidateAll() {
+        lots.clear();
+    }
+
+    private Optional<IndexedSpot> claimed(LotIndex index, int slot) {
+        if (slot < 0) {
+            return Optional.empty();
+        }
+        IndexedSpot spot = index.spotAt(slot);
+        Set<UUID> dropped = droppedClaims();
+        TransactionCallbacks.afterRollback(() -> {
+            if (!dropped.contains(spot.spotId())) {
+                index.setFree(slot);
+            }
+        });
+        return Optional.of(spot);
+    }
+
+    // Claims of the current transaction dropped by dropClaim; null outside a transaction
+    @SuppressWarnings("unchecked")
+    private Set<UUID> droppedClaims() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Set<UUID> dropped = (Set<UUID>) TransactionSynchronizationManager.getResource(this);
+        if (dropped == null) {
+            dropped = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, dropped);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SpotAvailabilityIndex.this);
+                }
+            });
+        }
+        return dropped;
+    }
+
+    private LotIndex load(UUID lotId) {
+        List<Floor> floors = floorRepository.findByLotIdOrderByOrderingAsc(lotId);
+        List<Spot> spots = new ArrayList<>();
+        for (Floor floor : floors) {
+            spots.addAll(spotRepository.findByFloorId(floor.getId()));
+        }
+        List<Entrance> entrances = entranceRepository.findByLotId(lotId);
+        LotIndex index = new LotIndex(floors, spots);
+        index.rankEntrances(entrances, entrances.isEmpty() ? List.of() : entranceRepository.findDistancesByLotId(lotId));
+        log.debug("Loaded availability index lotId={} floors={} spots={} entrances={}",
+                lotId, floors.size(), spots.size(), entrances.size());
+        return index;
+    }
+
+    // Spots of one lot; a removed spot leaves a dead slot (null id) behind.
+    private static final class LotIndex {
+        private final long loadedAt = System.nanoTime();
+        private final int floorCount;
+        private final Map<UUID, Integer> floorRanksById;
+        private final Map<UUID, Integer> slotsBySpotId = new HashMap<>();
+        private UUID[] spotIds;
+        private UUID[] floorIds;
+        private String[] codes;
+        private SpotSize[] sizes;
+        private int[] floorRanks;
+        private int slotCount;
+        private final BitSet free = new BitSet();
+        private final EnumMap<SpotSize, SlotHeap> byFloorOrder = new EnumMap<>(SpotSize.class);
+        private Map<UUID, EntranceRanking> entrances = Map.of();
+
+        LotIndex(List<Floor> floors, List<Spot> spots) {
+            int n = spots.size();
+            this.floorCount = floors.size();
+            this.floorRanksById = new HashMap<>(floors.size() * 2);
+            for (int rank = 0; rank < floors.size(); rank++) {
+                floorRanksById.put(floors.get(rank).getId(), rank);
+            }
+            this.spotIds = new UUID[n];
+            this.floorIds = new UUID[n];
+            this.codes = new String[n];
+            this.sizes = new SpotSize[n];
+            this.floorRanks = new int[n];
+            for (SpotSize size : SpotSize.values()) {
+                byFloorOrder.put(size, new SlotHeap(this::compareFloorOrder, n));
+            }
+            for (Spot spot : spots) {
+                upsert(spot, null);
+            }
+        }
+
+        synchronized int claimFirst(SpotSize size) {
+            return take(byFloorOrder.get(size).peek());
+        }
+
+        synchronized int claimNearest(UUID entranceId, SpotSize size) {
+            EntranceRanking ranking = entranceId == null ? null : entrances.get(entranceId);
+            if (ranking == null) {
+                return claimFirst(size);
+            }
+            return take(ranking.free.get(size).peek());
+        }
+
+        synchronized int claimBest(UUID entranceId, List<SpotSize> candidates, CandidateScore score) {
+            EntranceRanking ranking = entranceId == null ? null : entrances.get(entranceId);
+            int best = -1;
+            int bestScore = Integer.MAX_VALUE;
+            for (SpotSize size : candidates) {
+                int slot = ranking == null ? byFloorOrder.get(size).peek() : ranking.free.get(size).peek();
+                if (slot < 0) {
+                    continue;
+                }
+                int floorsAway = ranking == null ? floorRanks[slot] : Math.abs(floorRanks[slot] - ranking.floorRank);
+                int candidate = score.score(size, floorsAway);
+                if (candidate < bestScore) {
+                    best = slot;
+                    bestScore = candidate;
+                }
+            }
+            return take(best);
+        }
+
+        synchronized boolean hasEntrance(UUID entranceId) {
+            return entrances.containsKey(entranceId);
+        }
+
+        synchronized boolean hasFloor(UUID floorId) {
+            return floorRanksById.containsKey(floorId);
+        }
+
+        synchronized void setFree(int slot) {
+            if (spotIds[slot] == null) {
+                return;
+            }
+            free.set(slot);
+            byFloorOrder.get(sizes[slot]).add(slot);
+            for (EntranceRanking ranking : entrances.values()) {
+                ranking.free.get(sizes[slot]).add(slot);
+            }
+        }
+
+        synchronized void setFree(UUID spotId) {
+            Integer slot = slotsBySpotId.get(spotId);
+            if (slot != null) {
+                setFree(slot.intValue());
+            }
+        }
+
+        synchronized void setTaken(UUID spotId) {
+            Integer slot = slotsBySpotId.get(spotId);
+            if (slot != null) {
+                take(slot);
+            }
+        }
+
+        /**
+         * Adds or updates the spot's slot; distances, when given, replace the spot's
+         * entrance distances. Returns false if the spot's floor is not part of this lot.
+         */
+        synchronized boolean upsert(Spot spot, Map<UUID, Integer> distances) {
+            Integer rank = floorRanksById.get(spot.getFloorId());
+            if (rank == null) {
+                return false;
+            }
+            Integer existing = slotsBySpotId.get(spot.getId());
+            int slot = existing == null ? append(spot.getId()) : take(existing);
+            floorIds[slot] = spot.getFloorId();
+            codes[slot] = spot.getCode();
+            sizes[slot] = spot.getSize();
+            floorRanks[slot] = rank;
+            for (EntranceRanking ranking : entrances.values()) {
+                Integer distance = distances == null ? null : distances.get(ranking.entranceId);
+                if (distance != null) {
+                    ranking.distances[slot] = distance;
+                } else if (existing == null || distances != null) {
+                    ranking.distances[slot] = ranking.unmeasured(rank);
+                }
+            }
+            if (spot.isAvailable()) {
+                setFree(slot);
+            }
+            return true;
+        }
+
+        synchronized void remove(UUID spotId) {
+            Integer slot = slotsBySpotId.remove(spotId);
+            if (slot != null) {
+                take(slot);
+                spotIds[slot] = null;
+            }
+        }
+
+        synchronized void rankEntrances(List<Entrance> entranceRows, List<SpotDistance> distanceRows) {
+            Map<UUID, EntranceRanking> ranked = new HashMap<>(entranceRows.size() * 2);
+            for (Entrance entrance : entranceRows) {
+                EntranceRanking ranking = new EntranceRanking(entrance.getId(),
+                        floorRanksById.getOrDefault(entrance.getFloorId(), 0));
+                for (int slot = 0; slot < slotCount; slot++) {
+                    ranking.distances[slot] = ranking.unmeasured(floorRanks[slot]);
+                }
+                ranked.put(entrance.getId(), ranking);
+            }
+            for (SpotDistance row : distanceRows) {
+                EntranceRanking ranking = ranked.get(row.getEntranceId());
+                Integer slot = slotsBySpotId.get(row.getSpotId());
+                if (ranking != null && slot != null) {
+                    ranking.distances[slot] = row.getDistance();
+                }
+            }
+            for (EntranceRanking ranking : ranked.values()) {
+                for (int slot = free.nextSetBit(0); slot >= 0; slot = free.nextSetBit(slot + 1)) {
+                    ranking.free.get(sizes[slot]).add(slot);
+                }
+            }
+            entrances = ranked;
+        }
+
+        synchronized IndexedSpot spotAt(int slot) {
+            return new IndexedSpot(spotIds[slot], floorIds[slot], codes[slot], sizes[slot], floorRanks[slot]);
+        }
+
+        // Removes the slot from every heap; returns it, or -1 for no slot
+        private int take(int slot) {
+            if (slot < 0 || !free.get(slot)) {
+                return slot;
+            }
+            free.clear(slot);
+            byFloorOrder.get(sizes[slot]).remove(slot);
+            for (EntranceRanking ranking : entrances.values()) {
+                ranking.free.get(sizes[slot]).remove(slot);
+            }
+            return slot;
+        }
+
+        private int append(UUID spotId) {
+            if (slotCount == spotIds.length) {
+                int capacity = Math.max(8, slotCount * 2);
+                spotIds = Arrays.copyOf(spotIds, capacity);
+                floorIds = Arrays.copyOf(floorIds, capacity);
+                codes = Arrays.copyOf(codes, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+                floorRanks = Arrays.copyOf(floorRanks, capacity);
+                for (EntranceRanking ranking : entrances.values()) {
+                    ranking.distances = Arrays.copyOf(ranking.distances, capacity);
+                }
+            }
+            int slot = slotCount++;
+            spotIds[slot] = spotId;
+            slotsBySpotId.put(spotId, slot);
+            return slot;
+        }
+
+        private int compareFloorOrder(int a, int b) {
+            int byFloor = Integer.compare(floorRanks[a], floorRanks[b]);
+            if (byFloor != 0) {
+                return byFloor;
+            }
+            int byCode = codes[a].compareTo(codes[b]);
+            return byCode != 0 ? byCode : Integer.compare(a, b);
+        }
+
+        // Free slots of one entrance per size, nearest first
+        private final class EntranceRanking {
+            private final UUID entranceId;
+            private final int floorRank;
+            private int[] distances;
+            private final EnumMap<SpotSize, SlotHeap> free = new EnumMap<>(SpotSize.class);
+
+            EntranceRanking(UUID entranceId, int floorRank) {
+                this.entranceId = entranceId;
+                this.floorRank = floorRank;
+                this.distances = new int[spotIds.length];
+                for (SpotSize size : SpotSize.values()) {
+                    free.put(size, new SlotHeap(this::compare, spotIds.length));
+                }
+            }
+
+            // Unmeasured spots go by how many floors away from the entrance they are
+            int unmeasured(int spotFloorRank) {
+                return UNMEASURED_DISTANCE + Math.abs(spotFloorRank - floorRank);
+            }
+
+            private int compare(int a, int b) {
+                int byDistance = Integer.compare(distances[a], distances[b]);
+                return byDistance != 0 ? byDistance : compareFloorOrder(a, b);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.smartparking.availability;
+
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.metadata.ResourceVersions;
+import com.example.smartparking.repository.SpotRepository;
+import com.example.smartparking.repository.SpotRepository.StatusCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Materialized spot counts per (lot, floor, size, status).
+ * Each floor and each lot holds one flat array of size x status cells, so a count
+ * read is a map lookup plus an array read. Status transitions are applied once the
+ * changing transaction commits (see SpotTransitions), together with the floor's spot
+ * version; a scheduled reconcile re-reads the spot table and overwrites any cell that
+ * drifted.
+ * Transitions made by other nodes only arrive through the invalidation listener. Without
+ * it (app.parking.invalidation.enabled unset) every reconcile makes all handed-out ETags
+ * stale, so on a multi-node deployment a 304 can be out of date for at most one
+ * reconcile interval; exact ETags need a single node or the listener.
+ */
+@Component
+public class SpotStatusCounters {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(SpotStatusCounters.class);
+
+    private static final int STATUSES = SpotStatus.values().length;
+    private static final int CELLS = SpotSize.values().length * STATUSES;
+
+    private final SpotRepository spotRepository;
+    private final ResourceVersions versions;
+    private final boolean seesOtherNodes;
+    private final Map<UUID, AtomicLongArray> byFloor = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicLongArray> byLot = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> lotByFloor = new ConcurrentHashMap<>();
+    // Serializes reconciles; a lock rather than a monitor, so a virtual thread waiting on the
+    // query does not pin its carrier
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public SpotStatusCounters(SpotRepository spotRepository,
+                              ResourceVersions versions,
+                              @Value("${app.parking.invalidation.enabled:false}") boolean seesOtherNodes) {
+        this.spotRepository = spotRepository;
+        this.versions = versions;
+        this.seesOtherNodes = seesOtherNodes;
+    }
+
+    public long countByFloor(UUID floorId, SpotSize size, SpotStatus status) {
+        return read(byFloor, floorId, size, status);
+    }
+
+    public long countByLot(UUID lotId, SpotSize size, SpotStatus status) {
+        return read(byLot, lotId, size, status);
+    }
+
+    // Floors with counters, grouped by lot
+    public Map<UUID, Set<UUID>> floorsByLot() {
+        if (!loaded) {
+            loadOnce();
+        }
+        Map<UUID, Set<UUID>> floors = new HashMap<>();
+        lotByFloor.forEach((floorId, lotId) -> floors.computeIfAbsent(lotId, id -> new HashSet<>()).add(floorId));
+        return floors;
+    }
+
+    /**
+     * Moves one spot from one status cell to another. Call it with committed changes only;
+     * SpotTransitions defers this node's own changes to their commit.
+     */
+    public void transition(UUID lotId, UUID floorId, SpotSize size, SpotStatus from, SpotStatus to) {
+        if (from == to) {
+            return;
+        }
+        int fromCell = cell(size, from);
+        int toCell = cell(size, to);
+        lotByFloor.putIfAbsent(floorId, lotId);
+        AtomicLongArray floor = byFloor.computeIfAbsent(floorId, id -> new AtomicLongArray(CELLS));
+        AtomicLongArray lot = byLot.computeIfAbsent(lotId, id -> new AtomicLongArray(CELLS));
+        floor.decrementAndGet(fromCell);
+        floor.incrementAndGet(toCell);
+        lot.decrementAndGet(fromCell);
+        lot.incrementAndGet(toCell);
+        versions.spotsChanged(floorId);
+    }
+
+    /**
+     * Overwrites every cell with the current count from the spot table.
+     * Transitions committed while the query runs may be undone until the next reconcile.
+     */
+    @Scheduled(fixedDelayString = "${app.parking.counters.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            reconcileLocked();
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void reconcileLocked() {
+        Map<UUID, long[]> floors = new HashMap<>();
+        Map<UUID, long[]> lots = new HashMap<>();
+        for (StatusCount count : spotRepository.countGroupedByLotFloorSizeAndStatus()) {
+            int cell = cell(SpotSize.valueOf(count.getSize()), SpotStatus.valueOf(count.getStatus()));
+            floors.computeIfAbsent(count.getFloorId(), id -> new long[CELLS])[cell] += count.getSpots();
+            lotByFloor.put(count.getFloorId(), count.getLotId());
+            lots.computeIfAbsent(count.getLotId(), id -> new long[CELLS])[cell] += count.getSpots();
+        }
+        lotByFloor.keySet().retainAll(floors.keySet());
+        int drifted = overwrite(byFloor, floors) + overwrite(byLot, lots);
+        if (loaded && (drifted > 0 || !seesOtherNodes)) {
+            // statuses changed without a transition here, so the floors' versions missed them too
+            versions.invalidateAll();
+        }
+        if (loaded && drifted > 0) {
+            log.warn("Spot counters reconciled cellsDrifted={}", drifted);
+        }
+        loaded = true;
+    }
+
+    private long read(Map<UUID, AtomicLongArray> counters, UUID id, SpotSize size, SpotStatus status) {
+        if (!loaded) {
+            loadOnce();
+        }
+        AtomicLongArray cells = counters.get(id);
+        return cells == null ? 0L : cells.get(cell(size, status));
+    }
+
+    private void loadOnce() {
+        reconcileLock.lock();
+        try {
+            if (!loaded) {
+                reconcileLocked();
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private static int overwrite(Map<UUID, AtomicLongArray> counters, Map<UUID, long[]> actual) {
+        int drifted = 0;
+        for (Map.Entry<UUID, long[]> entry : actual.entrySet()) {
+            AtomicLongArray cells = counters.computeIfAbsent(entry.getKey(), id -> new AtomicLongArray(CELLS));
+            long[] expected = entry.getValue();
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (cells.getAndSet(cell, expected[cell]) != expected[cell]) {
+                    drifted++;
+                }
+            }
+        }
+        // Floors and lots that no longer have spots
+        for (Map.Entry<UUID, AtomicLongArray> entry : counters.entrySet()) {
+            if (!actual.containsKey(entry.getKey())) {
+                AtomicLongArray cells = entry.getValue();
+                for (int cell = 0; cell < CELLS; cell++) {
+                    if (cells.getAndSet(cell, 0L) != 0L) {
+                        drifted++;
+                    }
+                }
+            }
+        }
+        return drifted;
+    }
+
+    private static int cell(SpotSize size, SpotStatus status) {
+        return size.ordinal() * STATUSES + status.ordinal();
+    }
+}
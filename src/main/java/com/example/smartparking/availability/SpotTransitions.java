@@ -0,0 +1,51 @@
+package com.example.smartparking.availability;
+
+import com.example.smartparking.config.TransactionCallbacks;
+import com.example.smartparking.domain.Spot;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.invalidation.InvalidationBus;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * The one place a spot status change written by this node is announced: the availability
+ * index and the status counters follow once the transaction commits, and the invalidation
+ * bus carries the change to the other nodes with the same commit. A rolled-back change
+ * touches none of them; a spot claimed from the index is returned by the claim itself.
+ */
+@Component
+public class SpotTransitions {
+
+    private final SpotAvailabilityIndex availabilityIndex;
+    private final SpotStatusCounters statusCounters;
+    private final InvalidationBus invalidationBus;
+
+    public SpotTransitions(SpotAvailabilityIndex availabilityIndex,
+                           SpotStatusCounters statusCounters,
+                           InvalidationBus invalidationBus) {
+        this.availabilityIndex = availabilityIndex;
+        this.statusCounters = statusCounters;
+        this.invalidationBus = invalidationBus;
+    }
+
+    public void apply(UUID lotId, Spot spot, SpotStatus from, SpotStatus to) {
+        apply(lotId, spot.getFloorId(), spot.getId(), spot.getSize(), from, to);
+    }
+
+    public void apply(UUID lotId, UUID floorId, UUID spotId, SpotSize size, SpotStatus from, SpotStatus to) {
+        if (from == to) {
+            return;
+        }
+        invalidationBus.spotStatusChanged(lotId, floorId, spotId, size, from, to);
+        TransactionCallbacks.afterCommit(() -> {
+            if (to == SpotStatus.AVAILABLE) {
+                availabilityIndex.markAvailable(lotId, spotId);
+            } else {
+                availabilityIndex.markOccupied(lotId, spotId);
+            }
+            statusCounters.transition(lotId, floorId, size, from, to);
+        });
+    }
+}
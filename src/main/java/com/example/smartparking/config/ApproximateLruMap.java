@@ -0,0 +1,95 @@
+package com.example.smartparking.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent map of at most about maxEntries entries that evicts roughly the least recently
+ * used ones. A get only stamps its entry with the time instead of relinking an access-ordered
+ * list, so hits take no lock. A put that takes the map past maxEntries sweeps out the least
+ * recently stamped tenth of the entries in one go; sweeps are serialized among themselves
+ * and never block readers. Until a running sweep finishes, the map may briefly hold a few
+ * more than maxEntries entries.
+ */
+public final class ApproximateLruMap<K, V> {
+
+    private static final class Node<V> {
+        private final V value;
+        private volatile long lastUsed = System.nanoTime();
+
+        Node(V value) {
+            this.value = value;
+        }
+    }
+
+    // lastUsed copied out, so the sort does not see it change under it
+    private record Stamp<K, V>(K key, Node<V> node, long lastUsed) {}
+
+    private final ConcurrentHashMap<K, Node<V>> entries = new ConcurrentHashMap<>();
+    private final Object sweepLock = new Object();
+    private final int maxEntries;
+    private final int keptBySweep;
+
+    public ApproximateLruMap(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.keptBySweep = Math.max(1, maxEntries - Math.max(1, maxEntries / 10));
+    }
+
+    public V get(K key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        node.lastUsed = System.nanoTime();
+        return node.value;
+    }
+
+    // Returns how many entries were evicted to make room
+    public int put(K key, V value) {
+        entries.put(key, new Node<>(value));
+        return entries.size() > maxEntries ? sweep() : 0;
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    // Removes the key only while it still maps to this very value
+    public boolean remove(K key, V value) {
+        Node<V> node = entries.get(key);
+        return node != null && node.value == value && entries.remove(key, node);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private int sweep() {
+        synchronized (sweepLock) {
+            if (entries.size() <= maxEntries) {
+                return 0;
+            }
+            List<Stamp<K, V>> stamps = new ArrayList<>(entries.size());
+            entries.forEach((key, node) -> stamps.add(new Stamp<>(key, node, node.lastUsed)));
+            stamps.sort(Comparator.comparingLong(Stamp::lastUsed));
+            int evicted = 0;
+            for (int i = 0; i < stamps.size() - keptBySweep; i++) {
+                Stamp<K, V> oldest = stamps.get(i);
+                // an entry replaced since the copy stays
+                if (entries.remove(oldest.key(), oldest.node())) {
+                    evicted++;
+                }
+            }
+            return evicted;
+        }
+    }
+}
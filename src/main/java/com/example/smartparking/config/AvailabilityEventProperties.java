@@ -0,0 +1,53 @@
+package com.example.smartparking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.parking.events")
+public class AvailabilityEventProperties {
+    public enum BackPressure {
+        BLOCK,
+        DROP_OLDEST,
+        COALESCE
+    }
+    // Ring buffer slots, rounded up to a power of two
+    private int capacity = 8192;
+    private int batchSize = 256;
+    private BackPressure backPressure = BackPressure.COALESCE;
+    // How long the consumer parks when the buffer is empty
+    private Duration idleWait = Duration.ofMillis(1);
+    // BLOCK: longest a committing thread waits for a free slot before the event is dropped
+    private Duration blockTimeout = Duration.ofMillis(5);
+
+    public int getCapacity() {
+        return capacity;
+    }
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+    public int getBatchSize() {
+        return batchSize;
+    }
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    public BackPressure getBackPressure() {
+        return backPressure;
+    }
+    public void setBackPressure(BackPressure backPressure) {
+        this.backPressure = backPressure;
+    }
+    public Duration getIdleWait() {
+        return idleWait;
+    }
+    public void setIdleWait(Duration idleWait) {
+        this.idleWait = idleWait;
+    }
+    public Duration getBlockTimeout() {
+        return blockTimeout;
+    }
+    public void setBlockTimeout(Duration blockTimeout) {
+        this.blockTimeout = blockTimeout;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.smartparking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.parking.db-permits")
+public class DbPermitProperties {
+    // Concurrent connection holders; keep equal to the pool size (Hikari default 10)
+    private int maxPermits = 10;
+    // How long a request waits for a permit before it fails
+    private long acquireTimeoutMs = 2000;
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+    public void setMaxPermits(int maxPermits) {
+        this.maxPermits = maxPermits;
+    }
+    public long getAcquireTimeoutMs() {
+        return acquireTimeoutMs;
+    }
+    public void setAcquireTimeoutMs(long acquireTimeoutMs) {
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.smartparking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.parking.logging")
+public class LoggingProperties {
+    // Highest level dropped once the buffer passes discardThreshold; NONE keeps everything
+    public enum DiscardLevel {
+        NONE,
+        TRACE,
+        DEBUG,
+        INFO
+    }
+    // Hand log events to a writer thread instead of writing them on the calling thread
+    private boolean async = true;
+    // Ring buffer slots, rounded up to a power of two
+    private int capacity = 8192;
+    // Events written per batch; streams are flushed once per batch
+    private int batchSize = 512;
+    // Percentage of the buffer in use from which discardLevel events are dropped
+    private int discardThreshold = 80;
+    private DiscardLevel discardLevel = DiscardLevel.INFO;
+    // When the buffer is full, drop events that would otherwise wait for space
+    private boolean neverBlock = false;
+    // Loggers whose INFO and lower lines are sampled: 1 in sampleRate per message template
+    private List<String> sampledLoggers = new ArrayList<>();
+    private int sampleRate = 1;
+    // How long the writer parks when the buffer is empty
+    private Duration idleWait = Duration.ofMillis(1);
+
+    public boolean isAsync() {
+        return async;
+    }
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+    public int getCapacity() {
+        return capacity;
+    }
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+    public int getBatchSize() {
+        return batchSize;
+    }
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    public int getDiscardThreshold() {
+        return discardThreshold;
+    }
+    public void setDiscardThreshold(int discardThreshold) {
+        this.discardThreshold = discardThreshold;
+    }
+    public DiscardLevel getDiscardLevel() {
+        return discardLevel;
+    }
+    public void setDiscardLevel(DiscardLevel discardLevel) {
+        this.discardLevel = discardLevel;
+    }
+    public boolean isNeverBlock() {
+        return neverBlock;
+    }
+    public void setNeverBlock(boolean neverBlock) {
+        this.neverBlock = neverBlock;
+    }
+    public List<String> getSampledLoggers() {
+        return sampledLoggers;
+    }
+    public void setSampledLoggers(List<String> sampledLoggers) {
+        this.sampledLoggers = sampledLoggers;
+    }
+    public int getSampleRate() {
+        return sampleRate;
+    }
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+    public Duration getIdleWait() {
+        return idleWait;
+    }
+    public void setIdleWait(Duration idleWait) {
+        this.idleWait = idleWait;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.smartparking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.parking.outbox")
+public class OutboxProperties {
+    // Rows leased, delivered and deleted per relay batch
+    private int batchSize = 500;
+    // Upper bound of back-to-back batches in one poll, so a backlog cannot starve the scheduler
+    private int maxBatchesPerPoll = 20;
+    // How long a claimed batch stays hidden from other relays; must outlast a slow sink
+    private long leaseMs = 30_000;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    public int getMaxBatchesPerPoll() {
+        return maxBatchesPerPoll;
+    }
+    public void setMaxBatchesPerPoll(int maxBatchesPerPoll) {
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+    }
+    public long getLeaseMs() {
+        return leaseMs;
+    }
+    public void setLeaseMs(long leaseMs) {
+        this.leaseMs = leaseMs;
+    }
+}
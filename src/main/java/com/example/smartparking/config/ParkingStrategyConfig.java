@@ -4,6 +4,14 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@EnableConfigurationProperties(ParkingStrategyProperties.class)
+@EnableConfigurationProperties({
+        ParkingStrategyProperties.class,
+        AvailabilityEventProperties.class,
+        SessionBatchProperties.class,
+        DbPermitProperties.class,
+        OutboxProperties.class,
+        PartitionProperties.class,
+        LoggingProperties.class
+})
 public class ParkingStrategyConfig {
 }
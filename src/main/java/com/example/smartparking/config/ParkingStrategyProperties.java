@@ -6,44 +6,71 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "app.parking")
 public class ParkingStrategyProperties {
     public enum AllocationStrategy {
-        ENTRANCE_NEAREST_RESERVATION_AWARE
+        ENTRANCE_NEAREST_RESERVATION_AWARE,
+        SIZE_FALLBACK_SCORED
     }
     public enum PricingStrategy {
-        DEGRESSIVE_DAY_NIGHT_WEEKEND_WITH_PENALTY_AND_GRACE
+        DEGRESSIVE_DAY_NIGHT_WEEKEND_WITH_PENALTY_AND_GRACE,
+        RATE_CARD
     }
     public enum AvailabilityStrategy {
-        PUSH_EVENTS
+        PUSH_EVENTS,
+        ASYNC_BATCHED,
+        OUTBOX
     }
     public enum ConcurrencyStrategy{
-        CONSTRAINT_ONLY
+        CONSTRAINT_ONLY,
+        SKIP_LOCKED
+    }
+    public enum CheckInPipeline {
+        JPA,
+        SINGLE_STATEMENT
+    }
+    public enum IdStrategy {
+        RANDOM,
+        TIME_ORDERED
     }
     private AllocationStrategy allocationStrategy = AllocationStrategy.ENTRANCE_NEAREST_RESERVATION_AWARE;
     private PricingStrategy pricingStrategy = PricingStrategy.DEGRESSIVE_DAY_NIGHT_WEEKEND_WITH_PENALTY_AND_GRACE;
     private AvailabilityStrategy availabilityStrategy = AvailabilityStrategy.PUSH_EVENTS;
     private ConcurrencyStrategy concurrencyStrategy = ConcurrencyStrategy.CONSTRAINT_ONLY;
+    private CheckInPipeline checkInPipeline = CheckInPipeline.JPA;
+    private IdStrategy idStrategy = IdStrategy.TIME_ORDERED;
 
     public AllocationStrategy getAllocationStrategy() {
         return allocationStrategy;
     }
-    private void setAllocationStrategy(AllocationStrategy allocationStrategy) {
+    public void setAllocationStrategy(AllocationStrategy allocationStrategy) {
         this.allocationStrategy = allocationStrategy;
     }
     public PricingStrategy getPricingStrategy() {
         return pricingStrategy;
     }
-    private void setPricingStrategy(PricingStrategy pricingStrategy) {
+    public void setPricingStrategy(PricingStrategy pricingStrategy) {
         this.pricingStrategy = pricingStrategy;
     }
     public AvailabilityStrategy getAvailabilityStrategy() {
         return availabilityStrategy;
     }
-    private void setAvailabilityStrategy(AvailabilityStrategy availabilityStrategy) {
+    public void setAvailabilityStrategy(AvailabilityStrategy availabilityStrategy) {
         this.availabilityStrategy = availabilityStrategy;
     }
     public ConcurrencyStrategy getConcurrencyStrategy() {
         return concurrencyStrategy;
     }
-    private void setConcurrencyStrategy(ConcurrencyStrategy concurrencyStrategy) {
+    public void setConcurrencyStrategy(ConcurrencyStrategy concurrencyStrategy) {
         this.concurrencyStrategy = concurrencyStrategy;
     }
+    public CheckInPipeline getCheckInPipeline() {
+        return checkInPipeline;
+    }
+    public void setCheckInPipeline(CheckInPipeline checkInPipeline) {
+        this.checkInPipeline = checkInPipeline;
+    }
+    public IdStrategy getIdStrategy() {
+        return idStrategy;
+    }
+    public void setIdStrategy(IdStrategy idStrategy) {
+        this.idStrategy = idStrategy;
+    }
 }
@@ -0,0 +1,62 @@
+package com.example.smartparking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.parking.partitions")
+public class PartitionProperties {
+
+    public enum RetiredPartitionMode {
+        // detach the month and leave its tables in place for an operator
+        DETACH,
+        // write the month to gzip-compressed CSV files under archiveDir, then drop it
+        ARCHIVE
+    }
+
+    // Delay between the end of one maintenance run and the start of the next
+    private long maintenanceIntervalMs = 3_600_000;
+    // Monthly partitions kept ready beyond the current month
+    private int monthsAhead = 3;
+    // Months before the current one that stay attached
+    private int retentionMonths = 12;
+    private RetiredPartitionMode retiredPartitionMode = RetiredPartitionMode.DETACH;
+    private String archiveDir = "archive";
+    // DETACH waits at most this long for the lock on the parent table, then retries on the next run
+    private int lockTimeoutMs = 5000;
+
+    public long getMaintenanceIntervalMs() {
+        return maintenanceIntervalMs;
+    }
+    public void setMaintenanceIntervalMs(long maintenanceIntervalMs) {
+        this.maintenanceIntervalMs = maintenanceIntervalMs;
+    }
+    public int getMonthsAhead() {
+        return monthsAhead;
+    }
+    public void setMonthsAhead(int monthsAhead) {
+        this.monthsAhead = monthsAhead;
+    }
+    public int getRetentionMonths() {
+        return retentionMonths;
+    }
+    public void setRetentionMonths(int retentionMonths) {
+        this.retentionMonths = retentionMonths;
+    }
+    public RetiredPartitionMode getRetiredPartitionMode() {
+        return retiredPartitionMode;
+    }
+    public void setRetiredPartitionMode(RetiredPartitionMode retiredPartitionMode) {
+        this.retiredPartitionMode = retiredPartitionMode;
+    }
+    public String getArchiveDir() {
+        return archiveDir;
+    }
+    public void setArchiveDir(String archiveDir) {
+        this.archiveDir = archiveDir;
+    }
+    public int getLockTimeoutMs() {
+        return lockTimeoutMs;
+    }
+    public void setLockTimeoutMs(int lockTimeoutMs) {
+        this.lockTimeoutMs = lockTimeoutMs;
+    }
+}
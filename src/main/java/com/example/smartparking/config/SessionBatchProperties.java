@@ -0,0 +1,24 @@
+package com.example.smartparking.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.parking.batch")
+public class SessionBatchProperties {
+    // Items committed together; a failing chunk is replayed item by item
+    private int chunkSize = 50;
+    // Largest batch accepted in one request
+    private int maxItems = 1000;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+    public int getMaxItems() {
+        return maxItems;
+    }
+    public void setMaxItems(int maxItems) {
+        this.maxItems = maxItems;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.smartparking.config;
+
+import com.example.smartparking.observability.ParkingMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Virtual-thread execution mode, switched on with spring.threads.virtual.enabled=true.
+ * Spring Boot then runs Tomcat requests, @Scheduled jobs and async tasks on virtual
+ * threads; this adds the permit limiter in front of the connection pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    static BeanPostProcessor permitLimitedDataSourcePostProcessor(
+            ObjectProvider<DbPermitProperties> properties,
+            ObjectProvider<ParkingMetrics> parkingMetrics,
+            ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof PermitLimitedDataSource) {
+                    return bean;
+                }
+                DbPermitProperties props = properties.getObject();
+                PermitLimitedDataSource limited = new PermitLimitedDataSource(dataSource,
+                        props.getMaxPermits(), props.getAcquireTimeoutMs(), parkingMetrics.getObject());
+                MeterRegistry meters = registry.getObject();
+                Gauge.builder("parking.db.permits.available", limited, PermitLimitedDataSource::availablePermits)
+                        .description("Connection permits currently free")
+                        .register(meters);
+                Gauge.builder("parking.db.permits.waiting", limited, PermitLimitedDataSource::waitingThreads)
+                        .description("Threads queued for a connection permit")
+                        .register(meters);
+                log.info("Virtual-thread mode: DataSource '{}' limited to {} permits, acquireTimeoutMs={}",
+                        beanName, props.getMaxPermits(), props.getAcquireTimeoutMs());
+                return limited;
+            }
+        };
+    }
+}
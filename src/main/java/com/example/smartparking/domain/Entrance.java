@@ -0,0 +1,52 @@
+package com.example.smartparking.domain;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+import java.util.UUID;
+
+@Entity
+@Table(name = "entrance")
+public class Entrance extends AuditableEntity {
+    @Id
+    @Column(name = "id", columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "lot_id", nullable = false, columnDefinition = "uuid")
+    private UUID lotId;
+
+    @Column(name = "floor_id", nullable = false, columnDefinition = "uuid")
+    private UUID floorId;
+
+    @Column(name = "code", nullable = false, length = 50)
+    private String code;
+
+    protected Entrance() {
+        // for JPA
+    }
+
+    public Entrance(UUID id, UUID lotId, UUID floorId, String code) {
+        this.id = Objects.requireNonNull(id, "id should not be null");
+        this.lotId = Objects.requireNonNull(lotId, "lotId should not be null");
+        this.floorId = Objects.requireNonNull(floorId, "floorId should not be null");
+        this.code = Objects.requireNonNull(code, "code should not be null");
+    }
+
+    //getters
+    public UUID getId() { return id; }
+    public UUID getLotId() { return lotId; }
+    public UUID getFloorId() { return floorId; }
+    public String getCode() { return code; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Entrance)) return false;
+        Entrance entrance = (Entrance) o;
+        return id.equals(entrance.id);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -15,9 +15,13 @@ public class Payment extends AuditableEntity{
     @Column(name = "id", columnDefinition = "uuid")
     private UUID id;
 
-    @Column(name = "ticket_id", nullable = false, columnDefinition = "uuid", unique = true)
+    @Column(name = "ticket_id", nullable = false, columnDefinition = "uuid")
     private UUID ticketId;
 
+    // Partition key of payment, see V10
+    @Column(name = "ticket_entry_at", nullable = false)
+    private Instant ticketEntryAt;
+
     @Column(name = "amount_minor", nullable = false)
     private long amountMinor;
 
@@ -42,9 +46,11 @@ public class Payment extends AuditableEntity{
 
     protected Payment() { }
 
-    public Payment(UUID id, UUID ticketId, long amountMinor, String currency, PaymentMethod method) {
+    public Payment(UUID id, UUID ticketId, Instant ticketEntryAt, long amountMinor, String currency,
+                   PaymentMethod method) {
         this.id = Objects.requireNonNull(id, "id must not be null");
         this.ticketId = Objects.requireNonNull(ticketId, "ticketId must not be null");
+        this.ticketEntryAt = Objects.requireNonNull(ticketEntryAt, "ticketEntryAt must not be null");
         if(amountMinor < 0){
             throw new BusinessRuleException("amountMinor must be >= 0", "invalid_amount");
         }
@@ -60,6 +66,7 @@ public class Payment extends AuditableEntity{
     //getters
     public UUID getId() { return id; }
     public UUID getTicketId() { return ticketId; }
+    public Instant getTicketEntryAt() { return ticketEntryAt; }
     public long getAmountMinor() { return amountMinor; }
     public String getCurrency() { return currency; }
     public PaymentMethod getMethod() { return method; }
@@ -0,0 +1,100 @@
+package com.example.smartparking.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcType;
+import org.hibernate.dialect.PostgreSQLEnumJdbcType;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+@Entity
+@Table(name = "reservation")
+public class Reservation extends AuditableEntity {
+    @Id
+    @Column(name = "id", columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "lot_id", nullable = false, columnDefinition = "uuid")
+    private UUID lotId;
+
+    @Column(name = "spot_id", nullable = false, columnDefinition = "uuid")
+    private UUID spotId;
+
+    @Column(name = "license_plate", nullable = false, length = 50)
+    private String licensePlate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, columnDefinition = "reservation_status")
+    @JdbcType(PostgreSQLEnumJdbcType.class)
+    private ReservationStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    protected Reservation() { }
+
+    public Reservation(UUID id, UUID lotId, UUID spotId, String licensePlate, Instant expiresAt) {
+        this.id = Objects.requireNonNull(id, "id must not be null");
+        this.lotId = Objects.requireNonNull(lotId, "lotId must not be null");
+        this.spotId = Objects.requireNonNull(spotId, "spotId must not be null");
+        this.licensePlate = Objects.requireNonNull(licensePlate, "licensePlate must not be null");
+        this.expiresAt = Objects.requireNonNull(expiresAt, "expiresAt must not be null");
+        this.status = ReservationStatus.HELD;
+    }
+
+    //getters
+    public UUID getId() { return id; }
+    public UUID getLotId() { return lotId; }
+    public UUID getSpotId() { return spotId; }
+    public String getLicensePlate() { return licensePlate; }
+    public ReservationStatus getStatus() { return status; }
+    public Instant getExpiresAt() { return expiresAt; }
+
+    //Business Operations
+    public void claim(UUID lotId, String licensePlate, Instant at) {
+        requireHeld();
+        if (!this.lotId.equals(lotId)) {
+            throw new BusinessRuleException("Reservation belongs to another lot", "reservation_lot_mismatch");
+        }
+        if (!this.licensePlate.equals(licensePlate)) {
+            throw new BusinessRuleException("Reservation belongs to another vehicle", "reservation_plate_mismatch");
+        }
+        if (isExpiredAt(at)) {
+            throw new BusinessRuleException("Reservation has expired", "reservation_expired");
+        }
+        this.status = ReservationStatus.CLAIMED;
+    }
+    public void cancel() {
+        requireHeld();
+        this.status = ReservationStatus.CANCELLED;
+    }
+    public void expire() {
+        requireHeld();
+        this.status = ReservationStatus.EXPIRED;
+    }
+    public boolean isHeld() {
+        return status == ReservationStatus.HELD;
+    }
+    public boolean isExpiredAt(Instant at) {
+        return !at.isBefore(expiresAt);
+    }
+
+    private void requireHeld() {
+        if (status != ReservationStatus.HELD) {
+            throw new BusinessRuleException("Reservation is " + status, "reservation_not_held");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof Reservation)) return false;
+        Reservation reservation = (Reservation) o;
+        return id.equals(reservation.id);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.smartparking.domain;
+
+public enum ReservationStatus {
+    HELD, CLAIMED, CANCELLED, EXPIRED
+}
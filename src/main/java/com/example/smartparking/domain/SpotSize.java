@@ -1,5 +1,23 @@
 package com.example.smartparking.domain;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 public enum SpotSize {
-    SMALL, MEDIUM, LARGE, EV, BIKE
+    SMALL, MEDIUM, LARGE, EV, BIKE;
+
+    // Spot sizes a vehicle of each size may park in, its own size first
+    private static final Map<SpotSize, List<SpotSize>> FITS_INTO = new EnumMap<>(Map.of(
+            SMALL, List.of(SMALL, MEDIUM, LARGE),
+            MEDIUM, List.of(MEDIUM, LARGE),
+            LARGE, List.of(LARGE),
+            EV, List.of(EV),
+            BIKE, List.of(BIKE)
+    ));
+
+    // Spot sizes a vehicle of this size fits into, exact fit first
+    public List<SpotSize> fitsInto() {
+        return FITS_INTO.get(this);
+    }
 }
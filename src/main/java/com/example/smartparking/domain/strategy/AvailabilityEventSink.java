@@ -0,0 +1,11 @@
+package com.example.smartparking.domain.strategy;
+
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.AvailabilityEvent;
+
+import java.util.List;
+
+// Destination for availability events delivered in batches off the request path.
+public interface AvailabilityEventSink {
+    // The list is reused once this returns; copy it to keep the events
+    void accept(List<AvailabilityEvent> batch);
+}
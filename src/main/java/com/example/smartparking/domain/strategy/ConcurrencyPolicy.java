@@ -1,6 +1,10 @@
 package com.example.smartparking.domain.strategy;
 
 public interface ConcurrencyPolicy {
-    enum Mode {CONSTRAINT_ONLY}
+    /**
+     * CONSTRAINT_ONLY: allocate through the strategy, rely on unique indexes to reject double claims.
+     * SKIP_LOCKED: claim the spot in one UPDATE that skips rows locked by concurrent check-ins.
+     */
+    enum Mode {CONSTRAINT_ONLY, SKIP_LOCKED}
     Mode mode();
 }
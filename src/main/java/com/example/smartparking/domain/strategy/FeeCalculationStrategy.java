@@ -1,5 +1,7 @@
 package com.example.smartparking.domain.strategy;
 
+import com.example.smartparking.domain.SpotSize;
+
 import java.time.Instant;
 import java.util.UUID;
 
@@ -9,14 +11,22 @@ public interface FeeCalculationStrategy {
             UUID ticketId,
             Instant entryAt,
             Instant exitAt,
-            String currency
-    ){}
+            String currency,
+            UUID floorId,
+            SpotSize spotSize
+    ){
+        // Request without spot scope; tariffs resolve at lot level
+        public FeeRequest(UUID id, UUID ticketId, Instant entryAt, Instant exitAt, String currency) {
+            this(id, ticketId, entryAt, exitAt, currency, null, null);
+        }
+    }
     record FeeBreakdown(
             long baseAmountMinor,
             long degressiveAmountMinor,
             long penaltyMinor,
             long totalAmountMinor,
-            String description
+            String description,
+            String currency
     ){}
     FeeBreakdown calculate(FeeRequest feeRequest);
 }
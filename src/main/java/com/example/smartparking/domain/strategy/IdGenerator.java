@@ -0,0 +1,11 @@
+package com.example.smartparking.domain.strategy;
+
+import java.util.UUID;
+
+public interface IdGenerator {
+    /**
+     * Primary keys of new rows (tickets, payments, vehicles, reservations) and request correlation ids.
+     * Implementations must be thread-safe and must not block.
+     */
+    UUID newId();
+}
@@ -0,0 +1,297 @@
+package com.example.smartparking.idempotency;
+
+import com.example.smartparking.config.ApproximateLruMap;
+import com.example.smartparking.domain.BusinessRuleException;
+import com.example.smartparking.domain.ConflictException;
+import com.example.smartparking.repository.IdempotencyKeyRepository;
+import com.example.smartparking.repository.IdempotencyKeyRepository.StoredResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per (operation, Idempotency-Key) and replays its response.
+ * Before running, a request claims the key with an IN_PROGRESS row committed in its own
+ * short transaction; the request's transaction then stores the response on that row. The
+ * most recent responses are kept in a bounded in-memory map, so a replay usually costs no
+ * query at all. A duplicate that arrives while the first request is still running waits
+ * for it: on this node for its future, on another node by polling the row. Either gets a
+ * ConflictException once the wait timeout passes. Only successful responses are stored:
+ * a failed request deletes its claim, so it may be retried with the same key. A claim left
+ * behind by a dead node can be taken over once its lease (claim-lease-ms) has passed.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int PURGE_BATCH = 1000;
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private record Completed(String fingerprint, Object response, Instant expiresAt) {}
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate claimTransaction;
+    private final Clock clock;
+    private final Duration ttl;
+    private final long waitTimeoutMs;
+    private final Duration claimLease;
+    private final ApproximateLruMap<String, Completed> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+    private final Counter waitedCounter;
+
+    public IdempotencyStore(IdempotencyKeyRepository repository,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry registry,
+                            @Value("${app.parking.idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${app.parking.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${app.parking.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+                            @Value("${app.parking.idempotency.claim-lease-ms:60000}") long claimLeaseMs) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = Clock.systemUTC();
+        this.ttl = Duration.ofHours(ttlHours);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.claimLease = Duration.ofMillis(claimLeaseMs);
+        this.completed = new ApproximateLruMap<>(maxEntries);
+
+        this.executedCounter = requestCounter(registry, "executed");
+        this.replayedCounter = requestCounter(registry, "replayed");
+        this.waitedCounter = requestCounter(registry, "waited");
+        Gauge.builder("parking.idempotency.cache.size", this, IdempotencyStore::cachedEntries)
+                .description("Completed responses held in memory")
+                .register(registry);
+    }
+
+    /**
+     * Returns the response stored for the key, or runs action in a new transaction and
+     * stores its response there.
+     * fingerprint identifies the request body; reusing a key for a different body is rejected.
+     *
+     * Throws:
+     *  - BusinessRuleException if the key is malformed or was used for a different request,
+     *  - ConflictException if a request with the same key, on this or another node, is still
+     *    running after the wait timeout,
+     *  - whatever action throws when no response was stored for the key.
+     */
+    public <R> R execute(String operation, String key, String fingerprint, Class<R> type, Supplier<R> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessRuleException(
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters", "invalid_idempotency_key");
+        }
+        String cacheKey = operation + ':' + key;
+        while (true) {
+            Optional<R> cached = cached(cacheKey, fingerprint, type);
+            if (cached.isPresent()) {
+                replayedCounter.increment();
+                return cached.get();
+            }
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(cacheKey, mine);
+            if (running != null) {
+                // Same key already running on this node: wait, then replay (or retry if it failed)
+                waitedCounter.increment();
+                awaitCompletion(running, operation, key);
+                continue;
+            }
+            try {
+                return executeOnce(operation, key, cacheKey, fingerprint, type, action);
+            } finally {
+                inFlight.remove(cacheKey, mine);
+                mine.complete(null);
+            }
+        }
+    }
+
+    private <R> R executeOnce(String operation, String key, String cacheKey, String fingerprint,
+                              Class<R> type, Supplier<R> action) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        boolean waited = false;
+        while (true) {
+            Optional<StoredResponse> row = repository.find(operation, key, clock.instant());
+            if (row.isPresent()) {
+                requireSameRequest(row.get().fingerprint(), fingerprint);
+                if (!row.get().inProgress()) {
+                    replayedCounter.increment();
+                    return replay(cacheKey, row.get(), type);
+                }
+            } else if (claim(operation, key, fingerprint)) {
+                return runClaimed(operation, key, cacheKey, fingerprint, action);
+            }
+            // Claimed by a request still running on another node: poll until it stores its response
+            if (!waited) {
+                waitedCounter.increment();
+                waited = true;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                log.warn("Idempotent {} still running on another node after {}ms key={}",
+                        operation, waitTimeoutMs, key);
+                throw new ConflictException("A request with this Idempotency-Key is still in progress");
+            }
+            pause();
+        }
+    }
+
+    private boolean claim(String operation, String key, String fingerprint) {
+        Instant leaseUntil = clock.instant().plus(claimLease);
+        return Boolean.TRUE.equals(claimTransaction.execute(
+                status -> repository.claim(operation, key, fingerprint, leaseUntil)));
+    }
+
+    private <R> R runClaimed(String operation, String key, String cacheKey, String fingerprint, Supplier<R> action) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        R response;
+        try {
+            response = transactionTemplate.execute(status -> {
+                R result = action.get();
+                if (!repository.complete(operation, key, toJson(result), expiresAt)) {
+                    // the lease ran out and another request took the key over; roll back
+                    throw new ConflictException("A request with this Idempotency-Key is still in progress");
+                }
+                return result;
+            });
+        } catch (RuntimeException ex) {
+            release(operation, key);
+            throw ex;
+        }
+        remember(cacheKey, new Completed(fingerprint, response, expiresAt));
+        executedCounter.increment();
+        return response;
+    }
+
+    // A claim that cannot be released blocks retries until its lease passes
+    private void release(String operation, String key) {
+        try {
+            claimTransaction.executeWithoutResult(status -> repository.release(operation, key));
+        } catch (RuntimeException ex) {
+            log.warn("Could not release idempotency claim {} key={}", operation, key, ex);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this Idempotency-Key is still in progress");
+        }
+    }
+
+    private <R> Optional<R> cached(String cacheKey, String fingerprint, Class<R> type) {
+        Completed hit = completed.get(cacheKey);
+        if (hit != null && !hit.expiresAt().isAfter(clock.instant())) {
+            completed.remove(cacheKey, hit);
+            hit = null;
+        }
+        if (hit == null) {
+            return Optional.empty();
+        }
+        requireSameRequest(hit.fingerprint(), fingerprint);
+        return Optional.of(type.cast(hit.response()));
+    }
+
+    private <R> R replay(String cacheKey, StoredResponse row, Class<R> type) {
+        R response = fromJson(row.response(), type);
+        remember(cacheKey, new Completed(row.fingerprint(), response, row.expiresAt()));
+        return response;
+    }
+
+    private void awaitCompletion(CompletableFuture<Void> running, String operation, String key) {
+        try {
+            running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            log.warn("Idempotent {} still running after {}ms key={}", operation, waitTimeoutMs, key);
+            throw new ConflictException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException ex) {
+            // never completed exceptionally
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void remember(String cacheKey, Completed entry) {
+        completed.put(cacheKey, entry);
+    }
+
+    private int cachedEntries() {
+        return completed.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.parking.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = repository.deleteExpired(now, PURGE_BATCH);
+            purged += deleted;
+        } while (deleted == PURGE_BATCH);
+        if (purged > 0) {
+            log.info("Purged expired idempotency keys count={}", purged);
+        }
+    }
+
+    private static void requireSameRequest(String storedFingerprint, String fingerprint) {
+        if (!storedFingerprint.equals(fingerprint)) {
+            throw new BusinessRuleException(
+                    "Idempotency-Key was already used for a different request", "idempotency_key_reused");
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize idempotent response", ex);
+        }
+    }
+
+    private <R> R fromJson(String json, Class<R> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read stored idempotent response", ex);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("parking.idempotency.requests")
+                .description("Requests carrying an Idempotency-Key by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.smartparking.invalidation;
+
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Broadcasts spot status changes and new reservation holds to the other nodes over
+ * Postgres NOTIFY. Records of one transaction are buffered and sent with a single statement
+ * just before it commits; Postgres delivers them only if the commit succeeds. Payload:
+ * {@code <node-id>;S,<lot>,<floor>,<spot>,<size>,<from>,<to>;H,<reservation>,<expires-epoch-ms>;...},
+ * split so each stays under the 8000-byte NOTIFY limit. Lot/floor/spot definition changes are sent by
+ * database triggers (V4). Does nothing unless app.parking.invalidation.enabled=true.
+ */
+@Component
+public class InvalidationBus {
+
+    public static final String CHANNEL = "parking_invalidation";
+
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter sentCounter;
+
+    public InvalidationBus(JdbcTemplate jdbcTemplate,
+                           MeterRegistry registry,
+                           @Value("${app.parking.invalidation.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.sentCounter = Counter.builder("parking.invalidation.notifications.sent")
+                .description("NOTIFY payloads sent to the other nodes")
+                .register(registry);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public void spotStatusChanged(UUID lotId, UUID floorId, UUID spotId, SpotSize size,
+                                  SpotStatus from, SpotStatus to) {
+        if (!enabled || from == to) {
+            return;
+        }
+        enqueue(String.join(",", "S", lotId.toString(), floorId.toString(), spotId.toString(),
+                size.name(), from.name(), to.name()));
+    }
+
+    // Lets every node's expiry wheel release the hold, not only the one that took it
+    public void reservationHeld(UUID reservationId, Instant expiresAt) {
+        if (!enabled) {
+            return;
+        }
+        enqueue(String.join(",", "H", reservationId.toString(), Long.toString(expiresAt.toEpochMilli())));
+    }
+
+    private void enqueue(String record) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(record));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.records.add(record);
+    }
+
+    private void send(List<String> records) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(nodeId);
+        for (String record : records) {
+            if (payload.length() > nodeId.length()
+                    && payload.length() + 1 + record.length() > MAX_PAYLOAD_BYTES) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(nodeId);
+            }
+            payload.append(';').append(record);
+        }
+        payloads.add(payload.toString());
+        // one round trip whatever the number of payloads
+        jdbcTemplate.query("SELECT pg_notify(?, p) FROM unnest(?::text[]) AS p",
+                (ResultSetExtractor<Void>) rs -> null,
+                CHANNEL, payloads.toArray(String[]::new));
+        sentCounter.increment(payloads.size());
+    }
+
+    // Records of the current transaction, sent in beforeCommit
+    private final class Pending implements TransactionSynchronization {
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            send(records);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationBus.this);
+        }
+    }
+}
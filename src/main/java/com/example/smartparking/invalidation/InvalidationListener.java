@@ -0,0 +1,271 @@
+package com.example.smartparking.invalidation;
+
+import com.example.smartparking.availability.SpotAvailabilityIndex;
+import com.example.smartparking.availability.SpotStatusCounters;
+import com.example.smartparking.config.ParkingStrategyProperties;
+import com.example.smartparking.config.ParkingStrategyProperties.AvailabilityStrategy;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.AvailabilityEvent;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.EventType;
+import com.example.smartparking.domain.strategy.AvailabilityEventSink;
+import com.example.smartparking.metadata.ParkingMetadataCache;
+import com.example.smartparking.metadata.ResourceVersions;
+import com.example.smartparking.reservation.ReservationExpiryWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies other nodes' changes to this node's in-process views.
+ * A dedicated thread holds its own connection (outside the pool) with LISTEN on
+ * InvalidationBus.CHANNEL. Spot status records update the availability index, the status
+ * counters and, unless events already travel through the shared outbox, the local event
+ * sinks; definition records evict the metadata cache, bump the resource versions and
+ * re-read the changed spot, floor layout or entrance ranking into the availability index; reservation holds join the
+ * local expiry wheel, so a hold is released even if the node that took it goes away. Notifications
+ * sent while the connection was down are lost, so every reconnect drops the caches and
+ * reconciles the counters from the database, rebuilds the expiry wheel and makes every
+ * handed-out ETag stale.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.parking.invalidation", name = "enabled", havingValue = "true")
+public class InvalidationListener {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(InvalidationListener.class);
+
+    private final DataSourceProperties dataSourceProperties;
+    private final InvalidationBus bus;
+    private final SpotAvailabilityIndex availabilityIndex;
+    private final SpotStatusCounters statusCounters;
+    private final ParkingMetadataCache metadataCache;
+    private final ResourceVersions versions;
+    private final ReservationExpiryWheel expiryWheel;
+    private final List<AvailabilityEventSink> sinks;
+    private final int pollTimeoutMs;
+    private final long reconnectDelayMs;
+
+    private final Counter receivedCounter;
+    private final Counter resyncCounter;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listener;
+
+    public InvalidationListener(DataSourceProperties dataSourceProperties,
+                                InvalidationBus bus,
+                                SpotAvailabilityIndex availabilityIndex,
+                                SpotStatusCounters statusCounters,
+                                ParkingMetadataCache metadataCache,
+                                ResourceVersions versions,
+                                ReservationExpiryWheel expiryWheel,
+                                List<AvailabilityEventSink> sinks,
+                                ParkingStrategyProperties strategyProperties,
+                                MeterRegistry registry,
+                                @Value("${app.parking.invalidation.poll-timeout-ms:500}") int pollTimeoutMs,
+                                @Value("${app.parking.invalidation.reconnect-delay-ms:1000}") long reconnectDelayMs) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.bus = bus;
+        this.availabilityIndex = availabilityIndex;
+        this.statusCounters = statusCounters;
+        this.metadataCache = metadataCache;
+        this.versions = versions;
+        this.expiryWheel = expiryWheel;
+        // With the outbox every node's events already reach the relaying node's sinks
+        this.sinks = strategyProperties.getAvailabilityStrategy() == AvailabilityStrategy.OUTBOX
+                ? List.of()
+                : List.copyOf(sinks);
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+
+        this.receivedCounter = Counter.builder("parking.invalidation.records.applied")
+                .description("Change records received from other nodes and applied locally")
+                .register(registry);
+        this.resyncCounter = Counter.builder("parking.invalidation.resyncs")
+                .description("Full resyncs after the LISTEN connection was re-established")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listener = new Thread(this::run, "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException ignored) {
+                // closing only to wake the listener up
+            }
+        }
+        if (listener != null) {
+            listener.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void run() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + InvalidationBus.CHANNEL);
+                }
+                if (connectedBefore) {
+                    resync();
+                }
+                connectedBefore = true;
+                log.info("Listening for invalidations channel={} nodeId={}", InvalidationBus.CHANNEL, bus.nodeId());
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Invalidation listener connection lost, reconnecting in {}ms: {}",
+                        reconnectDelayMs, ex.getMessage());
+                sleep(reconnectDelayMs);
+            } finally {
+                connection = null;
+            }
+        }
+        log.info("Invalidation listener stopped");
+    }
+
+    void handle(String payload) {
+        String[] parts = payload.split(";");
+        if (parts.length < 2 || parts[0].equals(bus.nodeId())) {
+            return;
+        }
+        List<AvailabilityEvent> events = new ArrayList<>();
+        for (int i = 1; i < parts.length; i++) {
+            try {
+                apply(parts[i].split(",", -1), events);
+                receivedCounter.increment();
+            } catch (RuntimeException ex) {
+                log.warn("Skipping malformed invalidation record '{}'", parts[i], ex);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        for (AvailabilityEventSink sink : sinks) {
+            try {
+                sink.accept(events);
+            } catch (RuntimeException ex) {
+                log.warn("Availability sink {} failed for {} remote events",
+                        sink.getClass().getSimpleName(), events.size(), ex);
+            }
+        }
+    }
+
+    private void apply(String[] fields, List<AvailabilityEvent> events) {
+        switch (fields[0]) {
+            case "S" -> {
+                UUID lotId = UUID.fromString(fields[1]);
+                UUID floorId = UUID.fromString(fields[2]);
+                UUID spotId = UUID.fromString(fields[3]);
+                SpotSize size = SpotSize.valueOf(fields[4]);
+                SpotStatus from = SpotStatus.valueOf(fields[5]);
+                SpotStatus to = SpotStatus.valueOf(fields[6]);
+                if (to == SpotStatus.AVAILABLE) {
+                    availabilityIndex.markAvailable(lotId, spotId);
+                } else {
+                    availabilityIndex.markOccupied(lotId, spotId);
+                }
+                statusCounters.transition(lotId, floorId, size, from, to);
+                events.add(new AvailabilityEvent(eventType(to), lotId, floorId, spotId, null,
+                        size.name(), to.name(), Instant.now()));
+            }
+            case "L" -> {
+                UUID lotId = UUID.fromString(fields[1]);
+                metadataCache.evictLot(lotId);
+                versions.lotChanged(lotId);
+            }
+            case "F" -> {
+                UUID lotId = UUID.fromString(fields[1]);
+                metadataCache.evictFloorsOf(lotId);
+                versions.floorsChanged(lotId);
+                availabilityIndex.invalidate(lotId);
+            }
+            case "P" -> {
+                UUID spotId = UUID.fromString(fields[2]);
+                metadataCache.evictSpot(spotId);
+                // the record does not name the floor; spot definitions rarely change
+                versions.invalidateAll();
+                if (fields[1].isEmpty()) {
+                    availabilityIndex.spotRemoved(spotId);
+                } else {
+                    availabilityIndex.refreshSpot(UUID.fromString(fields[1]), spotId);
+                }
+            }
+            case "E" -> availabilityIndex.reloadEntrances(UUID.fromString(fields[1]));
+            case "H" -> expiryWheel.schedule(UUID.fromString(fields[1]),
+                    Instant.ofEpochMilli(Long.parseLong(fields[2])));
+            default -> throw new IllegalArgumentException("Unknown record type " + fields[0]);
+        }
+    }
+
+    // Whatever changed while no one was listening: start over from the database
+    private void resync() {
+        metadataCache.invalidateAll();
+        versions.invalidateAll();
+        availabilityIndex.invalidateAll();
+        statusCounters.reconcile();
+        expiryWheel.rebuild();
+        resyncCounter.increment();
+        log.info("Invalidation listener reconnected, local caches resynced");
+    }
+
+    private static EventType eventType(SpotStatus to) {
+        return switch (to) {
+            case AVAILABLE -> EventType.SPOT_RELEASED;
+            case RESERVED -> EventType.SPOT_RESERVED;
+            case OCCUPIED -> EventType.SPOT_OCCUPIED;
+            case OUT_OF_SERVICE -> EventType.SPOT_OUT_OF_SERVICE;
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.smartparking.metadata;
+
+import com.example.smartparking.config.ApproximateLruMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through map holding about maxEntries values, evicting roughly the least recently used
+ * (see ApproximateLruMap); hits take no lock.
+ * A loader returning empty is not cached, so rows created later are still found.
+ * Gets, evictions and size are exported with a {@code cache} tag.
+ */
+final class BoundedLruCache<K, V> {
+
+    private final ApproximateLruMap<K, V> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    // Bumped by every invalidation, so a load that raced with one is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    BoundedLruCache(String name, int maxEntries, MeterRegistry registry) {
+        this.hits = Counter.builder("parking.metadata.cache.gets")
+                .description("Metadata cache lookups")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(registry);
+        this.misses = Counter.builder("parking.metadata.cache.gets")
+                .description("Metadata cache lookups")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(registry);
+        this.evictions = Counter.builder("parking.metadata.cache.evictions")
+                .description("Metadata cache entries evicted to stay within the size bound")
+                .tag("cache", name)
+                .register(registry);
+        this.entries = new ApproximateLruMap<>(maxEntries);
+        Gauge.builder("parking.metadata.cache.size", this, BoundedLruCache::size)
+                .description("Entries held by the metadata cache")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        long loadGeneration = generation.get();
+        V cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        // Two concurrent misses may both load
+        Optional<V> loaded = loader.apply(key);
+        loaded.ifPresent(value -> {
+            int evicted = entries.put(key, value);
+            if (evicted > 0) {
+                evictions.increment(evicted);
+            }
+            // an invalidation during the load may have missed this value; take it back out
+            if (generation.get() != loadGeneration) {
+                entries.remove(key, value);
+            }
+        });
+        return loaded;
+    }
+
+    void evict(K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+
+    void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.smartparking.metadata;
+
+import com.example.smartparking.availability.SpotAvailabilityIndex;
+import com.example.smartparking.domain.Entrance;
+import com.example.smartparking.domain.Floor;
+import com.example.smartparking.domain.Lot;
+import com.example.smartparking.domain.Spot;
+import com.example.smartparking.domain.SpotStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Evicts metadata cache entries and bumps the resource versions once a JPA change to a
+ * lot, floor or spot commits, and applies spot, floor and entrance changes to the availability index.
+ * Spot updates are frequent (every check-in/check-out flips the status), so a spot is
+ * only evicted when one of its cached attributes is among the dirty properties, and only
+ * re-indexed when that is the case or it goes out of or back into service. Status flips
+ * reach the versions through SpotStatusCounters.
+ * Changes written with native SQL or JDBC bypass this listener.
+ */
+@Component
+public class MetadataCacheInvalidator implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Set<String> SPOT_ATTRIBUTES = Set.of("floorId", "code", "size");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ParkingMetadataCache cache;
+    private final SpotAvailabilityIndex availabilityIndex;
+    private final ResourceVersions versions;
+
+    public MetadataCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                    ParkingMetadataCache cache,
+                                    SpotAvailabilityIndex availabilityIndex,
+                                    ResourceVersions versions) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.cache = cache;
+        this.availabilityIndex = availabilityIndex;
+        this.versions = versions;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evict(event.getEntity());
+        if (event.getEntity() instanceof Spot spot) {
+            availabilityIndex.spotChanged(spot);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Spot spot) {
+            boolean attributes = touchesSpotAttributes(event);
+            if (attributes) {
+                cache.evictSpot(spot.getId());
+                versions.spotsChanged(spot.getFloorId());
+                previousFloor(event).ifPresent(versions::spotsChanged);
+            }
+            if (attributes || changesService(event)) {
+                availabilityIndex.spotChanged(spot);
+            }
+            return;
+        }
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evict(event.getEntity());
+        if (event.getEntity() instanceof Spot spot) {
+            availabilityIndex.spotRemoved(spot.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Lot.class || type == Floor.class || type == Spot.class || type == Entrance.class;
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // rolled back, the cache never saw the change
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // rolled back, the cache never saw the change
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // rolled back, the cache never saw the change
+    }
+
+    private void evict(Object entity) {
+        switch (entity) {
+            case Lot lot -> {
+                cache.evictLot(lot.getId());
+                versions.lotChanged(lot.getId());
+            }
+            case Floor floor -> {
+                cache.evictFloorsOf(floor.getLotId());
+                versions.floorsChanged(floor.getLotId());
+                // floor set and ordering are baked into the lot's heaps
+                availabilityIndex.invalidate(floor.getLotId());
+            }
+            case Spot spot -> {
+                cache.evictSpot(spot.getId());
+                versions.spotsChanged(spot.getFloorId());
+            }
+            // rankings are rebuilt on the next claim
+            case Entrance entrance -> availabilityIndex.invalidate(entrance.getLotId());
+            default -> {
+            }
+        }
+    }
+
+    private static boolean touchesSpotAttributes(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            return true;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (SPOT_ATTRIBUTES.contains(names[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The floor a spot was moved away from
+    private static Optional<UUID> previousFloor(PostUpdateEvent event) {
+        Object[] before = event.getOldState();
+        if (before == null) {
+            return Optional.empty();
+        }
+        Object floorId = before[event.getPersister().getPropertyIndex("floorId")];
+        return floorId instanceof UUID previous && !previous.equals(((Spot) event.getEntity()).getFloorId())
+                ? Optional.of(previous)
+                : Optional.empty();
+    }
+
+    // Out of service or back: the spot leaves or rejoins the free heaps
+    private static boolean changesService(PostUpdateEvent event) {
+        Object[] before = event.getOldState();
+        if (before == null) {
+            return true;
+        }
+        int status = event.getPersister().getPropertyIndex("status");
+        return before[status] != event.getState()[status]
+                && (before[status] == SpotStatus.OUT_OF_SERVICE || event.getState()[status] == SpotStatus.OUT_OF_SERVICE);
+    }
+}
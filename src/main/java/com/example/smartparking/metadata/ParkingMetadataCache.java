@@ -0,0 +1,134 @@
+package com.example.smartparking.metadata;
+
+import com.example.smartparking.domain.Floor;
+import com.example.smartparking.domain.Lot;
+import com.example.smartparking.domain.Spot;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.repository.FloorRepository;
+import com.example.smartparking.repository.LotRepository;
+import com.example.smartparking.repository.SpotRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-through cache of lot, floor and static spot attributes, which change a few times a year.
+ * Values are detached copies, never the managed entities, so callers must treat them as
+ * read-only. Entries are dropped by MetadataCacheInvalidator when a change commits and
+ * by the LRU bound.
+ */
+@Component
+public class ParkingMetadataCache {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ParkingMetadataCache.class);
+
+    private static final String ALL_LOTS = "all";
+
+    // Attributes of a spot that do not change on check-in/check-out
+    public record SpotInfo(UUID id, UUID floorId, String code, SpotSize size) {
+        public Spot toSpot(SpotStatus status) {
+            return new Spot(id, floorId, code, size, status);
+        }
+    }
+
+    private final LotRepository lotRepository;
+    private final FloorRepository floorRepository;
+    private final SpotRepository spotRepository;
+    private final BoundedLruCache<UUID, Lot> lots;
+    private final BoundedLruCache<String, List<Lot>> lotList;
+    private final BoundedLruCache<UUID, List<Floor>> floorsByLot;
+    private final BoundedLruCache<UUID, UUID> lotByFloor;
+    private final BoundedLruCache<UUID, SpotInfo> spots;
+
+    public ParkingMetadataCache(LotRepository lotRepository,
+                                FloorRepository floorRepository,
+                                SpotRepository spotRepository,
+                                MeterRegistry registry,
+                                @Value("${app.parking.metadata-cache.max-lots:1024}") int maxLots,
+                                @Value("${app.parking.metadata-cache.max-spots:200000}") int maxSpots) {
+        this.lotRepository = lotRepository;
+        this.floorRepository = floorRepository;
+        this.spotRepository = spotRepository;
+        this.lots = new BoundedLruCache<>("lot", maxLots, registry);
+        this.lotList = new BoundedLruCache<>("lot_list", 1, registry);
+        this.floorsByLot = new BoundedLruCache<>("floors", maxLots, registry);
+        this.lotByFloor = new BoundedLruCache<>("floor_lot", maxLots, registry);
+        this.spots = new BoundedLruCache<>("spot", maxSpots, registry);
+    }
+
+    public Optional<Lot> lot(UUID lotId) {
+        return lots.get(lotId, id -> lotRepository.findById(id).map(ParkingMetadataCache::copy));
+    }
+
+    public List<Lot> allLots() {
+        return lotList.get(ALL_LOTS, key -> Optional.of(
+                lotRepository.findAll().stream().map(ParkingMetadataCache::copy).toList())).orElseThrow();
+    }
+
+    // Floors of the lot by ordering; empty for an unknown lot
+    public List<Floor> floors(UUID lotId) {
+        return floorsByLot.get(lotId, id -> Optional.of(
+                floorRepository.findByLotIdOrderByOrderingAsc(id).stream().map(ParkingMetadataCache::copy).toList()))
+                .orElseThrow();
+    }
+
+    // A floor from its lot's floor list, so floor changes are seen as soon as the list is evicted
+    public Optional<Floor> floor(UUID floorId) {
+        return lotByFloor.get(floorId, id -> floorRepository.findById(id).map(Floor::getLotId))
+                .flatMap(lotId -> floors(lotId).stream()
+                        .filter(floor -> floor.getId().equals(floorId))
+                        .findFirst());
+    }
+
+    public Optional<SpotInfo> spot(UUID spotId) {
+        return spots.get(spotId, id -> spotRepository.findById(id)
+                .map(spot -> new SpotInfo(spot.getId(), spot.getFloorId(), spot.getCode(), spot.getSize())));
+    }
+
+    public void evictLot(UUID lotId) {
+        lots.evict(lotId);
+        lotList.clear();
+        log.debug("Metadata cache evicted lotId={}", lotId);
+    }
+
+    public void evictFloorsOf(UUID lotId) {
+        floorsByLot.evict(lotId);
+        // floor ids are not known here, and a floor may have moved lots
+        lotByFloor.clear();
+        log.debug("Metadata cache evicted floors of lotId={}", lotId);
+    }
+
+    public void evictSpot(UUID spotId) {
+        spots.evict(spotId);
+        log.debug("Metadata cache evicted spotId={}", spotId);
+    }
+
+    public void invalidateAll() {
+        lots.clear();
+        lotList.clear();
+        floorsByLot.clear();
+        lotByFloor.clear();
+        spots.clear();
+        log.info("Metadata cache cleared");
+    }
+
+    private static Lot copy(Lot lot) {
+        Lot copy = new Lot(lot.getId(), lot.getName(), lot.getAddress(), lot.getTimezone());
+        if (lot.getMaintenanceMode()) {
+            copy.enableMaintenanceMode();
+        }
+        return copy;
+    }
+
+    private static Floor copy(Floor floor) {
+        return new Floor(floor.getId(), floor.getLotId(), floor.getLabel(), floor.getOrdering());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.smartparking.metadata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic versions of the query views, used as ETags: the lot list, the floors of
+ * each lot and the spots of each floor. A version is bumped after the change it stands
+ * for has committed, so a reader that takes the tag before querying never pairs a new
+ * tag with old rows. Tags carry a random epoch that is replaced on invalidateAll, which
+ * keeps one node's tags from matching another node's or an earlier run's.
+ * Only changes this node commits or hears about through the invalidation listener bump a
+ * version; see SpotStatusCounters for how tags are bounded when the listener is off.
+ */
+@Component
+public class ResourceVersions {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ResourceVersions.class);
+
+    private final AtomicLong lots = new AtomicLong();
+    private final Map<UUID, AtomicLong> floorsByLot = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicLong> spotsByFloor = new ConcurrentHashMap<>();
+    private volatile String epoch = newEpoch();
+
+    public String lotsTag() {
+        return tag(lots.get());
+    }
+
+    public String floorsTag(UUID lotId) {
+        return tag(read(floorsByLot, lotId));
+    }
+
+    public String spotsTag(UUID floorId) {
+        return tag(read(spotsByFloor, floorId));
+    }
+
+    // A lot's own attributes: the lot list and the lot's floor list
+    public void lotChanged(UUID lotId) {
+        lots.incrementAndGet();
+        bump(floorsByLot, lotId);
+    }
+
+    public void floorsChanged(UUID lotId) {
+        bump(floorsByLot, lotId);
+    }
+
+    // Any spot of the floor: status, code, size, added or removed
+    public void spotsChanged(UUID floorId) {
+        bump(spotsByFloor, floorId);
+    }
+
+    // Changes were missed or cannot be attributed: every tag handed out so far goes stale
+    public void invalidateAll() {
+        epoch = newEpoch();
+        log.debug("Resource versions invalidated");
+    }
+
+    private String tag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    private static long read(Map<UUID, AtomicLong> versions, UUID id) {
+        AtomicLong version = versions.get(id);
+        return version == null ? 0L : version.get();
+    }
+
+    private static void bump(Map<UUID, AtomicLong> versions, UUID id) {
+        versions.computeIfAbsent(id, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static String newEpoch() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+}
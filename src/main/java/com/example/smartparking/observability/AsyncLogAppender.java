@@ -0,0 +1,224 @@
+package com.example.smartparking.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import com.example.smartparking.config.LoggingProperties;
+import com.example.smartparking.config.LoggingProperties.DiscardLevel;
+import com.example.smartparking.strategy.BoundedRingBuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logback appender that queues events in a bounded ring buffer and writes them to the
+ * wrapped appenders from one writer thread. The calling thread only samples, copies the
+ * event's message and MDC, and offers it. Wrapped stream appenders run without
+ * immediate flush; the writer flushes them once per batch.
+ * Events at or below the discard level are dropped once the buffer passes the discard
+ * threshold; other events wait for space, unless neverBlock is set.
+ */
+public class AsyncLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    public static final String NAME = "ASYNC_PIPELINE";
+
+    private static final long BLOCK_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    // Message templates tracked for sampling; beyond this, new templates are kept unsampled
+    private static final int MAX_SAMPLED_TEMPLATES = 1024;
+
+    private final List<Appender<ILoggingEvent>> appenders;
+    private final BoundedRingBuffer<ILoggingEvent> buffer;
+    private final int batchSize;
+    private final int discardFrom;
+    private final Level discardLevel;
+    private final boolean neverBlock;
+    private final Set<String> sampledLoggers;
+    private final int sampleRate;
+    private final long idleWaitNanos;
+    private final Map<String, AtomicLong> sampleCounts = new ConcurrentHashMap<>();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong droppedFull = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AsyncLogAppender(List<Appender<ILoggingEvent>> appenders, LoggingProperties properties) {
+        this.appenders = List.copyOf(appenders);
+        this.buffer = new BoundedRingBuffer<>(properties.getCapacity());
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.discardFrom = buffer.capacity() * Math.clamp(properties.getDiscardThreshold(), 0, 100) / 100;
+        this.discardLevel = toLevel(properties.getDiscardLevel());
+        this.neverBlock = properties.isNeverBlock();
+        this.sampledLoggers = Set.copyOf(properties.getSampledLoggers());
+        this.sampleRate = Math.max(1, properties.getSampleRate());
+        this.idleWaitNanos = properties.getIdleWait().toNanos();
+        setName(NAME);
+    }
+
+    @Override
+    public void start() {
+        for (Appender<ILoggingEvent> appender : appenders) {
+            if (appender instanceof OutputStreamAppender<ILoggingEvent> stream) {
+                stream.setImmediateFlush(false);
+            }
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        super.start();
+    }
+
+    // Writes out whatever is queued before returning
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        for (Appender<ILoggingEvent> appender : appenders) {
+            if (appender instanceof OutputStreamAppender<ILoggingEvent> stream) {
+                stream.setImmediateFlush(true);
+            }
+        }
+    }
+
+    public List<Appender<ILoggingEvent>> appenders() {
+        return appenders;
+    }
+
+    public int queueDepth() {
+        return buffer.size();
+    }
+
+    public long written() {
+        return written.get();
+    }
+
+    public long discarded() {
+        return discarded.get();
+    }
+
+    public long droppedFull() {
+        return droppedFull.get();
+    }
+
+    public long sampledOut() {
+        return sampledOut.get();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        boolean discardable = discardLevel != null && event.getLevel().toInt() <= discardLevel.toInt();
+        if (!sampled(event)) {
+            sampledOut.incrementAndGet();
+            return;
+        }
+        if (discardable && buffer.size() >= discardFrom) {
+            discarded.incrementAndGet();
+            return;
+        }
+        // Message arguments and MDC must be captured on the logging thread
+        event.prepareForDeferredProcessing();
+        if (buffer.offer(event)) {
+            return;
+        }
+        if (neverBlock || discardable) {
+            droppedFull.incrementAndGet();
+            return;
+        }
+        while (!buffer.offer(event)) {
+            if (!running) {
+                droppedFull.incrementAndGet();
+                return;
+            }
+            LockSupport.parkNanos(BLOCK_BACKOFF_NANOS);
+        }
+    }
+
+    // WARN and above are never sampled
+    private boolean sampled(ILoggingEvent event) {
+        if (sampleRate == 1 || event.getLevel().isGreaterOrEqual(Level.WARN)
+                || !sampledLoggers.contains(event.getLoggerName())) {
+            return true;
+        }
+        String template = event.getMessage();
+        AtomicLong count = sampleCounts.get(template);
+        if (count == null) {
+            if (sampleCounts.size() >= MAX_SAMPLED_TEMPLATES) {
+                return true;
+            }
+            count = sampleCounts.computeIfAbsent(template, key -> new AtomicLong());
+        }
+        return count.getAndIncrement() % sampleRate == 0;
+    }
+
+    private void runWriter() {
+        List<ILoggingEvent> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            if (writeNextBatch(batch) == 0) {
+                LockSupport.parkNanos(idleWaitNanos);
+            }
+        }
+    }
+
+    int writeNextBatch(List<ILoggingEvent> batch) {
+        batch.clear();
+        buffer.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        for (ILoggingEvent event : batch) {
+            for (Appender<ILoggingEvent> appender : appenders) {
+                appender.doAppend(event);
+            }
+        }
+        for (Appender<ILoggingEvent> appender : appenders) {
+            if (appender instanceof OutputStreamAppender<ILoggingEvent> stream) {
+                flush(stream);
+            }
+        }
+        written.addAndGet(batch.size());
+        return batch.size();
+    }
+
+    private void flush(OutputStreamAppender<ILoggingEvent> stream) {
+        OutputStream out = stream.getOutputStream();
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            addError("Could not flush appender " + stream.getName(), ex);
+        }
+    }
+
+    private static Level toLevel(DiscardLevel level) {
+        return switch (level) {
+            case NONE -> null;
+            case TRACE -> Level.TRACE;
+            case DEBUG -> Level.DEBUG;
+            case INFO -> Level.INFO;
+        };
+    }
+}
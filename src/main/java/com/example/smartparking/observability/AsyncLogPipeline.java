@@ -0,0 +1,104 @@
+package com.example.smartparking.observability;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.example.smartparking.config.LoggingProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Moves the root logger's appenders (the console and smart-parking.log appenders that
+ * Spring Boot configures) behind an AsyncLogAppender, so request threads no longer encode
+ * ECS JSON or write files. Lines logged before this bean starts are written synchronously.
+ * On shutdown the queue is drained and the original appenders are put back.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.parking.logging", name = "async", havingValue = "true", matchIfMissing = true)
+public class AsyncLogPipeline {
+
+    private static final org.slf4j.Logger log =
+            LoggerFactory.getLogger(AsyncLogPipeline.class);
+
+    private final LoggingProperties properties;
+    private final MeterRegistry registry;
+    private AsyncLogAppender appender;
+
+    public AsyncLogPipeline(LoggingProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @PostConstruct
+    public void install() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            log.warn("Logging backend is not Logback, async logging pipeline not installed");
+            return;
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        if (root.getAppender(AsyncLogAppender.NAME) != null) {
+            // another application context in this JVM installed it already
+            return;
+        }
+        List<Appender<ILoggingEvent>> wrapped = new ArrayList<>();
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            wrapped.add(it.next());
+        }
+        AsyncLogAppender async = new AsyncLogAppender(wrapped, properties);
+        async.setContext(context);
+        async.start();
+        root.addAppender(async);
+        wrapped.forEach(root::detachAppender);
+        appender = async;
+        registerMetrics(async);
+        log.info("Async logging pipeline installed appenders={} capacity={} discardLevel={} sampleRate={}",
+                wrapped.stream().map(Appender::getName).toList(), properties.getCapacity(),
+                properties.getDiscardLevel(), properties.getSampleRate());
+    }
+
+    @PreDestroy
+    public void uninstall() {
+        AsyncLogAppender async = appender;
+        if (async == null) {
+            return;
+        }
+        appender = null;
+        Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory())
+                .getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        async.appenders().forEach(root::addAppender);
+        root.detachAppender(async);
+        async.stop();
+    }
+
+    private void registerMetrics(AsyncLogAppender async) {
+        FunctionCounter.builder("parking.logging.events.written", async, AsyncLogAppender::written)
+                .description("Log events written by the async pipeline")
+                .register(registry);
+        FunctionCounter.builder("parking.logging.events.dropped", async, AsyncLogAppender::discarded)
+                .description("Log events dropped by the async pipeline")
+                .tag("reason", "pressure")
+                .register(registry);
+        FunctionCounter.builder("parking.logging.events.dropped", async, AsyncLogAppender::droppedFull)
+                .description("Log events dropped by the async pipeline")
+                .tag("reason", "full")
+                .register(registry);
+        FunctionCounter.builder("parking.logging.events.dropped", async, AsyncLogAppender::sampledOut)
+                .description("Log events dropped by the async pipeline")
+                .tag("reason", "sampled")
+                .register(registry);
+        Gauge.builder("parking.logging.queue.depth", async, AsyncLogAppender::queueDepth)
+                .description("Log events waiting for the writer thread")
+                .register(registry);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.smartparking.observability;
+
+import com.example.smartparking.availability.SpotStatusCounters;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Occupancy ratio gauges per lot, per (lot, floor) and per (lot, size).
+ * Gauges read the in-process SpotStatusCounters, so a scrape never touches the database;
+ * drift is corrected by the counters' own reconcile. Occupancy is
+ * (OCCUPIED + RESERVED) / (spots not OUT_OF_SERVICE).
+ * Series are registered for at most max-lots lots and max-floors floors.
+ */
+@Component
+public class OccupancyGauges {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(OccupancyGauges.class);
+
+    private final SpotStatusCounters counters;
+    private final MeterRegistry registry;
+    private final int maxLots;
+    private final int maxFloors;
+    private final Map<UUID, Gauge> floorGauges = new HashMap<>();
+    private final Map<UUID, Gauge[]> lotGauges = new HashMap<>();
+    private boolean capReported;
+
+    public OccupancyGauges(SpotStatusCounters counters,
+                           MeterRegistry registry,
+                           @Value("${app.parking.metrics.occupancy.max-lots:64}") int maxLots,
+                           @Value("${app.parking.metrics.occupancy.max-floors:512}") int maxFloors) {
+        this.counters = counters;
+        this.registry = registry;
+        this.maxLots = maxLots;
+        this.maxFloors = maxFloors;
+    }
+
+    // Registers gauges for lots/floors that appeared and removes those that are gone
+    @Scheduled(fixedDelayString = "${app.parking.counters.reconcile-interval-ms:60000}")
+    public void refresh() {
+        // May load the counters from the database, so it runs outside the monitor
+        Map<UUID, Set<UUID>> floorsByLot = counters.floorsByLot();
+        synchronized (this) {
+            apply(floorsByLot);
+        }
+    }
+
+    private void apply(Map<UUID, Set<UUID>> floorsByLot) {
+        lotGauges.entrySet().removeIf(entry -> {
+            if (floorsByLot.containsKey(entry.getKey())) {
+                return false;
+            }
+            for (Gauge gauge : entry.getValue()) {
+                registry.remove(gauge);
+            }
+            return true;
+        });
+        Set<UUID> liveFloors = new HashSet<>();
+        floorsByLot.values().forEach(liveFloors::addAll);
+        floorGauges.entrySet().removeIf(entry -> {
+            if (liveFloors.contains(entry.getKey())) {
+                return false;
+            }
+            registry.remove(entry.getValue());
+            return true;
+        });
+
+        floorsByLot.forEach((lotId, floors) -> {
+            if (!lotGauges.containsKey(lotId)) {
+                if (lotGauges.size() >= maxLots) {
+                    reportCap();
+                    return;
+                }
+                lotGauges.put(lotId, registerLot(lotId));
+            }
+            for (UUID floorId : floors) {
+                if (floorGauges.containsKey(floorId)) {
+                    continue;
+                }
+                if (floorGauges.size() >= maxFloors) {
+                    reportCap();
+                    return;
+                }
+                floorGauges.put(floorId, Gauge.builder("parking.occupancy.floor", () -> floorRatio(floorId))
+                        .description("Share of in-service spots on the floor that are occupied or reserved")
+                        .tag("lot", lotId.toString())
+                        .tag("floor", floorId.toString())
+                        .register(registry));
+            }
+        });
+    }
+
+    int registeredSeries() {
+        return floorGauges.size() + lotGauges.size() * (1 + SpotSize.values().length);
+    }
+
+    private Gauge[] registerLot(UUID lotId) {
+        SpotSize[] sizes = SpotSize.values();
+        Gauge[] gauges = new Gauge[sizes.length + 1];
+        gauges[0] = Gauge.builder("parking.occupancy.lot", () -> lotRatio(lotId, null))
+                .description("Share of in-service spots in the lot that are occupied or reserved")
+                .tag("lot", lotId.toString())
+                .register(registry);
+        for (SpotSize size : sizes) {
+            gauges[size.ordinal() + 1] = Gauge.builder("parking.occupancy.size", () -> lotRatio(lotId, size))
+                    .description("Share of in-service spots of one size in the lot that are occupied or reserved")
+                    .tag("lot", lotId.toString())
+                    .tag("size", size.name())
+                    .register(registry);
+        }
+        return gauges;
+    }
+
+    private double floorRatio(UUID floorId) {
+        long taken = 0;
+        long inService = 0;
+        for (SpotSize size : SpotSize.values()) {
+            long occupied = counters.countByFloor(floorId, size, SpotStatus.OCCUPIED)
+                    + counters.countByFloor(floorId, size, SpotStatus.RESERVED);
+            taken += occupied;
+            inService += occupied + counters.countByFloor(floorId, size, SpotStatus.AVAILABLE);
+        }
+        return ratio(taken, inService);
+    }
+
+    private double lotRatio(UUID lotId, SpotSize only) {
+        long taken = 0;
+        long inService = 0;
+        for (SpotSize size : SpotSize.values()) {
+            if (only != null && size != only) {
+                continue;
+            }
+            long occupied = counters.countByLot(lotId, size, SpotStatus.OCCUPIED)
+                    + counters.countByLot(lotId, size, SpotStatus.RESERVED);
+            taken += occupied;
+            inService += occupied + counters.countByLot(lotId, size, SpotStatus.AVAILABLE);
+        }
+        return ratio(taken, inService);
+    }
+
+    private static double ratio(long taken, long inService) {
+        return inService <= 0 ? 0.0 : (double) taken / inService;
+    }
+
+    private void reportCap() {
+        if (!capReported) {
+            capReported = true;
+            log.warn("Occupancy gauge limit reached maxLots={} maxFloors={}; further lots/floors are not exported",
+                    maxLots, maxFloors);
+        }
+    }
+}
@@ -1,15 +1,36 @@
 package com.example.smartparking.observability;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parking meters, all registered up front.
+ * Callers pass elapsed nanos (System.nanoTime() deltas), so recording on the
+ * hot path does no registry lookup, tag allocation or Timer.Sample allocation.
+ */
 @Component
 public class ParkingMetrics {
 
     private final Counter checkInCounter;
     private final Counter checkOutCounter;
     private final Counter checkInConflictCounter;
+    private final Counter noSpotCounter;
+
+    private final Timer checkInTimer;
+    private final Timer checkOutTimer;
+    private final Timer allocationTimer;
+    private final Timer feeCalculationTimer;
+    private final Timer eventPublishTimer;
+    private final DistributionSummary floorsScanned;
+    private final Counter sizeFallbackCounter;
+    private final Timer dbPermitWaitTimer;
+    private final Counter dbPermitTimeoutCounter;
 
     public ParkingMetrics(MeterRegistry registry) {
         this.checkInCounter = Counter.builder("parking.checkins.total")
@@ -23,6 +44,55 @@ public class ParkingMetrics {
         this.checkInConflictCounter = Counter.builder("parking.checkins.conflicts")
                 .description("Check-in attempts rejected due to existing OPEN ticket")
                 .register(registry);
+
+        this.noSpotCounter = Counter.builder("parking.checkins.no_spot")
+                .description("Check-in attempts rejected because no suitable spot was free")
+                .register(registry);
+
+        this.checkInTimer = latencyTimer(registry, "parking.checkin.latency",
+                "End-to-end check-in latency, including rejected attempts", Duration.ofMillis(1));
+        this.checkOutTimer = latencyTimer(registry, "parking.checkout.latency",
+                "End-to-end check-out latency, including rejected attempts", Duration.ofMillis(1));
+        // these steps often finish in microseconds; a 1ms floor would put them all in the first bucket
+        this.allocationTimer = latencyTimer(registry, "parking.allocation.latency",
+                "Time to allocate and claim a spot", Duration.ofNanos(1000));
+        this.feeCalculationTimer = latencyTimer(registry, "parking.fee.calculation.latency",
+                "Time spent in the fee strategy", Duration.ofNanos(1000));
+        this.eventPublishTimer = latencyTimer(registry, "parking.events.publish.latency",
+                "Time spent handing an availability event to the publisher", Duration.ofNanos(1000));
+
+        this.floorsScanned = DistributionSummary.builder("parking.allocation.floors.scanned")
+                .description("Floors the nearest-spot allocation went through before it found a spot")
+                .baseUnit("floors")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(64.0)
+                .register(registry);
+
+        this.sizeFallbackCounter = Counter.builder("parking.allocation.size.fallbacks")
+                .description("Vehicles placed in a larger spot than their own size")
+                .register(registry);
+
+        this.dbPermitWaitTimer = Timer.builder("parking.db.permit.wait")
+                .description("Time spent waiting for a connection permit (virtual-thread mode)")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+        this.dbPermitTimeoutCounter = Counter.builder("parking.db.permit.timeouts")
+                .description("Requests that gave up waiting for a connection permit")
+                .register(registry);
+    }
+
+    private static Timer latencyTimer(MeterRegistry registry, String name, String description, Duration minimum) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(minimum)
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
     }
 
     public void onCheckInSuccess() {
@@ -36,4 +106,44 @@ public class ParkingMetrics {
     public void onCheckInConflict() {
         checkInConflictCounter.increment();
     }
-}
\ No newline at end of file
+
+    public void onNoSpotAvailable() {
+        noSpotCounter.increment();
+    }
+
+    public void recordCheckIn(long elapsedNanos) {
+        checkInTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCheckOut(long elapsedNanos) {
+        checkOutTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAllocation(long elapsedNanos) {
+        allocationTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFeeCalculation(long elapsedNanos) {
+        feeCalculationTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordEventPublish(long elapsedNanos) {
+        eventPublishTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFloorsScanned(int floors) {
+        floorsScanned.record(floors);
+    }
+
+    public void onSizeFallback() {
+        sizeFallbackCounter.increment();
+    }
+
+    public void recordDbPermitWait(long elapsedNanos) {
+        dbPermitWaitTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void onDbPermitTimeout() {
+        dbPermitTimeoutCounter.increment();
+    }
+}
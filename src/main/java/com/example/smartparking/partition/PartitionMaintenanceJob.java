@@ -0,0 +1,231 @@
+package com.example.smartparking.partition;
+
+import com.example.smartparking.config.PartitionProperties;
+import com.example.smartparking.config.PartitionProperties.RetiredPartitionMode;
+import com.example.smartparking.repository.PartitionRepository;
+import com.example.smartparking.repository.PartitionRepository.Session;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the monthly partitions of ticket_closed and payment (see V8 and V10) in shape:
+ * creates the current month and app.parking.partitions.months-ahead more, and retires
+ * months older than the retention period, either detaching them (tables stay for an
+ * operator) or exporting them to gzip-compressed CSV under archive-dir and dropping them.
+ * Runs at startup and then periodically on its own thread, never on the shared
+ * scheduler: a run can spend a long time in DDL and exports. A run that finds another
+ * node's run in progress is skipped. A month whose detach fails stays attached and is
+ * retried on the next run; in ARCHIVE mode a month whose export fails stays detached and
+ * its export is retried on the next run.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.parking.partitions", name = "maintenance-enabled", havingValue = "true",
+        matchIfMissing = true)
+public class PartitionMaintenanceJob {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(PartitionMaintenanceJob.class);
+
+    // pg advisory lock key of the maintenance run
+    private static final long LOCK_KEY = 0x7061727469L;
+    private static final Pattern MONTH_SUFFIX = Pattern.compile("_(\\d{4})_(\\d{2})$");
+
+    // Parent tables partitioned by month and the name prefix of their partitions
+    private record MonthlyTable(String parent, String prefix) {}
+
+    private static final List<MonthlyTable> TABLES = List.of(
+            new MonthlyTable("ticket_closed", "ticket_closed_"),
+            new MonthlyTable("payment", "payment_"));
+
+    private final PartitionRepository partitionRepository;
+    private final PartitionProperties properties;
+    private final Clock clock;
+
+    private final Counter createdCounter;
+    private final Counter retiredCounter;
+    private final Counter failedCounter;
+    private ScheduledExecutorService executor;
+
+    public PartitionMaintenanceJob(PartitionRepository partitionRepository,
+                                   PartitionProperties properties,
+                                   MeterRegistry registry) {
+        this.partitionRepository = partitionRepository;
+        this.properties = properties;
+        this.clock = Clock.systemUTC();
+
+        this.createdCounter = Counter.builder("parking.partitions.created")
+                .description("Monthly partitions created ahead of time")
+                .register(registry);
+        this.retiredCounter = Counter.builder("parking.partitions.retired")
+                .description("Monthly partitions detached or archived after the retention period")
+                .register(registry);
+        this.failedCounter = Counter.builder("parking.partitions.failures")
+                .description("Partition creations or retirements that failed and will be retried")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::maintainSafely, 0, properties.getMaintenanceIntervalMs(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // An exception escaping a run would cancel every later run
+    private void maintainSafely() {
+        try {
+            maintain();
+        } catch (RuntimeException ex) {
+            failedCounter.increment();
+            log.error("Partition maintenance run failed, will retry", ex);
+        }
+    }
+
+    public void maintain() {
+        YearMonth current = YearMonth.now(clock);
+        YearMonth oldestKept = current.minusMonths(properties.getRetentionMonths());
+        boolean ran = partitionRepository.withLock(LOCK_KEY, session -> {
+            for (MonthlyTable table : TABLES) {
+                createAhead(session, table, current);
+                retire(session, table, oldestKept);
+                if (properties.getRetiredPartitionMode() == RetiredPartitionMode.ARCHIVE) {
+                    archiveDetached(session, table, oldestKept);
+                }
+            }
+            return true;
+        }).orElse(false);
+        if (!ran) {
+            log.debug("Partition maintenance already running on another node, skipped");
+        }
+    }
+
+    private void createAhead(Session session, MonthlyTable table, YearMonth current) {
+        List<String> existing = session.partitionsOf(table.parent());
+        for (int ahead = 0; ahead <= properties.getMonthsAhead(); ahead++) {
+            YearMonth month = current.plusMonths(ahead);
+            String name = partitionName(table, month);
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                session.createMonth(table.parent(), name, month);
+                createdCounter.increment();
+                log.info("Created partition {} of {}", name, table.parent());
+            } catch (RuntimeException ex) {
+                // e.g. the default partition already holds rows of that month
+                failedCounter.increment();
+                log.error("Could not create partition {} of {}", name, table.parent(), ex);
+            }
+        }
+    }
+
+    // Retires every partition of a month before oldestKept
+    private void retire(Session session, MonthlyTable table, YearMonth oldestKept) {
+        for (String name : session.partitionsOf(table.parent())) {
+            if (!isBefore(table, name, oldestKept)) {
+                continue;
+            }
+            try {
+                session.detach(table.parent(), name, properties.getLockTimeoutMs());
+                log.info("Detached partition {} of {}", name, table.parent());
+                if (properties.getRetiredPartitionMode() == RetiredPartitionMode.ARCHIVE) {
+                    archive(session, table, name);
+                }
+                retiredCounter.increment();
+            } catch (RuntimeException ex) {
+                failedCounter.increment();
+                log.error("Could not retire partition {} of {}, will retry", name, table.parent(), ex);
+            }
+        }
+    }
+
+    // Months detached by an earlier run whose export failed
+    private void archiveDetached(Session session, MonthlyTable table, YearMonth oldestKept) {
+        for (String name : session.detachedTables(table.prefix())) {
+            if (!isBefore(table, name, oldestKept)) {
+                continue;
+            }
+            try {
+                archive(session, table, name);
+            } catch (RuntimeException ex) {
+                failedCounter.increment();
+                log.error("Could not archive detached table {}, will retry", name, ex);
+            }
+        }
+    }
+
+    /**
+     * Exports a detached month, then drops it. The export only starts after the detach has
+     * committed: a ticket_closed month still gets rows while it is attached (a ticket that
+     * entered in that month and closes later), and detaching is what stops them.
+     */
+    private void archive(Session session, MonthlyTable table, String name) {
+        Path file = export(session, name);
+        session.drop(name);
+        log.info("Archived partition {} of {} to {}", name, table.parent(), file);
+    }
+
+    private static boolean isBefore(MonthlyTable table, String name, YearMonth oldestKept) {
+        Matcher matcher = MONTH_SUFFIX.matcher(name);
+        if (!name.startsWith(table.prefix()) || !matcher.find()) {
+            return false;
+        }
+        YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+        return month.isBefore(oldestKept);
+    }
+
+    // The table is detached, so nothing writes to it while it is copied
+    private Path export(Session session, String table) {
+        try {
+            Path dir = Files.createDirectories(Path.of(properties.getArchiveDir()));
+            Path file = dir.resolve(table + ".csv.gz");
+            Path partial = dir.resolve(table + ".csv.gz.partial");
+            long rows;
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial))) {
+                rows = session.copyOut(table, out);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Exported table {} rows={} file={}", table, rows, file);
+            return file;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not archive " + table, ex);
+        }
+    }
+
+    private static String partitionName(MonthlyTable table, YearMonth month) {
+        return String.format("%s%04d_%02d", table.prefix(), month.getYear(), month.getMonthValue());
+    }
+}
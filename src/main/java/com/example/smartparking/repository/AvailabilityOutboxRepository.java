@@ -0,0 +1,93 @@
+package com.example.smartparking.repository;
+
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.AvailabilityEvent;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.EventType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to the availability_outbox table.
+ * Writes join the caller's transaction; the relay leases, reads and deletes rows in batches.
+ */
+@Repository
+public class AvailabilityOutboxRepository {
+
+    public record OutboxEntry(long id, AvailabilityEvent event) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AvailabilityOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(AvailabilityEvent event) {
+        jdbcTemplate.update("""
+                INSERT INTO availability_outbox
+                    (event_type, lot_id, floor_id, spot_id, spot_code, spot_size, spot_status, occurred_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """,
+                event.type().name(),
+                event.lotId(),
+                event.floorId(),
+                event.spotId(),
+                event.spotCode(),
+                event.spotSize(),
+                event.spotStatus(),
+                Timestamp.from(event.occuredAt()));
+    }
+
+    /**
+     * Leases the oldest {@code limit} unclaimed rows, or rows whose lease has run out, to
+     * {@code relayId} for {@code leaseMs}. Rows locked by another relay's claim are skipped,
+     * so several instances can drain in parallel. Returned in id order.
+     */
+    public List<OutboxEntry> claimOldest(int limit, String relayId, long leaseMs) {
+        List<OutboxEntry> claimed = jdbcTemplate.query("""
+                UPDATE availability_outbox
+                   SET claimed_by = ?, claimed_until = NOW() + CAST(? AS BIGINT) * INTERVAL '1 millisecond'
+                 WHERE id IN (
+                       SELECT id
+                         FROM availability_outbox
+                        WHERE claimed_until IS NULL OR claimed_until < NOW()
+                        ORDER BY id
+                        LIMIT ?
+                          FOR UPDATE SKIP LOCKED)
+                RETURNING id, event_type, lot_id, floor_id, spot_id, spot_code, spot_size, spot_status, occurred_at
+                """,
+                (rs, row) -> new OutboxEntry(rs.getLong(1), new AvailabilityEvent(
+                        EventType.valueOf(rs.getString(2)),
+                        rs.getObject(3, UUID.class),
+                        rs.getObject(4, UUID.class),
+                        rs.getObject(5, UUID.class),
+                        rs.getString(6),
+                        rs.getString(7),
+                        rs.getString(8),
+                        rs.getTimestamp(9).toInstant())),
+                relayId, leaseMs, limit);
+        return claimed.stream().sorted(Comparator.comparingLong(OutboxEntry::id)).toList();
+    }
+
+    // Deletes delivered rows still leased to relayId; rows another relay re-claimed are left to it
+    public int delete(List<OutboxEntry> entries, String relayId) {
+        return jdbcTemplate.update("DELETE FROM availability_outbox WHERE id = ANY(?) AND claimed_by = ?",
+                ids(entries), relayId);
+    }
+
+    // Hands the rows back unchanged, same ids and order, for the next poll of any relay
+    public int release(List<OutboxEntry> entries, String relayId) {
+        return jdbcTemplate.update("""
+                UPDATE availability_outbox
+                   SET claimed_by = NULL, claimed_until = NULL
+                 WHERE id = ANY(?) AND claimed_by = ?
+                """, ids(entries), relayId);
+    }
+
+    private static Long[] ids(List<OutboxEntry> entries) {
+        return entries.stream().map(OutboxEntry::id).toArray(Long[]::new);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.smartparking.repository;
+
+import com.example.smartparking.domain.Entrance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface EntranceRepository extends JpaRepository<Entrance, UUID> {
+
+    // Walking distance from one entrance to one spot
+    interface SpotDistance {
+        UUID getEntranceId();
+        UUID getSpotId();
+        int getDistance();
+    }
+
+    List<Entrance> findByLotId(UUID lotId);
+
+    @Query(value = """
+            SELECT d.entrance_id  AS "entranceId",
+                   d.spot_id      AS "spotId",
+                   d.distance_m   AS "distance"
+              FROM entrance_spot_distance d
+              JOIN entrance e ON e.id = d.entrance_id
+             WHERE e.lot_id = :lotId
+            """, nativeQuery = true)
+    List<SpotDistance> findDistancesByLotId(@Param("lotId") UUID lotId);
+
+    @Query(value = """
+            SELECT d.entrance_id  AS "entranceId",
+                   d.spot_id      AS "spotId",
+                   d.distance_m   AS "distance"
+              FROM entrance_spot_distance d
+             WHERE d.spot_id = :spotId
+            """, nativeQuery = true)
+    List<SpotDistance> findDistancesBySpotId(@Param("spotId") UUID spotId);
+}
@@ -0,0 +1,87 @@
+package com.example.smartparking.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to the idempotency_key table.
+ * Claims and releases run in whatever transaction the caller opened for them; completing
+ * joins the request's transaction, so a stored response commits or rolls back together
+ * with the request's effect.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    // response is null while the request that claimed the key is still running
+    public record StoredResponse(String fingerprint, String response, Instant expiresAt) {
+        public boolean inProgress() {
+            return response == null;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Expired rows are ignored even before the purge removes them
+    public Optional<StoredResponse> find(String operation, String key, Instant now) {
+        List<StoredResponse> rows = jdbcTemplate.query("""
+                SELECT fingerprint, response::text, expires_at
+                  FROM idempotency_key
+                 WHERE operation = ? AND idempotency_key = ? AND expires_at > ?
+                """,
+                (rs, row) -> new StoredResponse(rs.getString(1), rs.getString(2), rs.getTimestamp(3).toInstant()),
+                operation, key, Timestamp.from(now));
+        return rows.stream().findFirst();
+    }
+
+    // Inserts an IN_PROGRESS row leased until leaseUntil; false if a live row for the key exists
+    public boolean claim(String operation, String key, String fingerprint, Instant leaseUntil) {
+        return jdbcTemplate.update("""
+                INSERT INTO idempotency_key (operation, idempotency_key, fingerprint, status, response, expires_at)
+                VALUES (?, ?, ?, 'IN_PROGRESS', NULL, ?)
+                ON CONFLICT (operation, idempotency_key) DO UPDATE
+                   SET fingerprint = EXCLUDED.fingerprint,
+                       status = 'IN_PROGRESS',
+                       response = NULL,
+                       created_at = NOW(),
+                       expires_at = EXCLUDED.expires_at
+                 WHERE idempotency_key.expires_at <= NOW()
+                """,
+                operation, key, fingerprint, Timestamp.from(leaseUntil)) == 1;
+    }
+
+    // Stores the response on the claimed row; false if the claim is gone
+    public boolean complete(String operation, String key, String response, Instant expiresAt) {
+        return jdbcTemplate.update("""
+                UPDATE idempotency_key
+                   SET status = 'COMPLETED', response = CAST(? AS jsonb), expires_at = ?
+                 WHERE operation = ? AND idempotency_key = ? AND status = 'IN_PROGRESS'
+                """,
+                response, Timestamp.from(expiresAt), operation, key) == 1;
+    }
+
+    // Drops the claim of a request that failed, so the key may be retried
+    public void release(String operation, String key) {
+        jdbcTemplate.update("""
+                DELETE FROM idempotency_key
+                 WHERE operation = ? AND idempotency_key = ? AND status = 'IN_PROGRESS'
+                """,
+                operation, key);
+    }
+
+    public int deleteExpired(Instant now, int limit) {
+        return jdbcTemplate.update("""
+                DELETE FROM idempotency_key
+                 WHERE ctid = ANY(ARRAY(SELECT ctid FROM idempotency_key WHERE expires_at <= ? LIMIT ?))
+                """,
+                Timestamp.from(now), limit);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.smartparking.repository;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * DDL and bulk export behind partition maintenance.
+ * All statements of one run share a connection that holds a session advisory lock, so
+ * only one node maintains partitions at a time. Partition bounds are UTC month starts.
+ * Table names are built by the caller from fixed prefixes and are not user input.
+ */
+@Repository
+public class PartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Runs work while holding the advisory lock; empty if another session holds it
+    public <T> Optional<T> withLock(long lockKey, Function<Session, T> work) {
+        return jdbcTemplate.execute((ConnectionCallback<Optional<T>>) conn -> {
+            if (!queryBoolean(conn, "SELECT pg_try_advisory_lock(" + lockKey + ")")) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.ofNullable(work.apply(new Session(conn)));
+            } finally {
+                queryBoolean(conn, "SELECT pg_advisory_unlock(" + lockKey + ")");
+            }
+        });
+    }
+
+    public static final class Session {
+        private final Connection conn;
+
+        private Session(Connection conn) {
+            this.conn = conn;
+        }
+
+        // Direct partitions of parent, by name
+        public List<String> partitionsOf(String parent) {
+            try (PreparedStatement ps = conn.prepareStatement("""
+                    SELECT c.relname
+                      FROM pg_inherits i
+                      JOIN pg_class c ON c.oid = i.inhrelid
+                     WHERE i.inhparent = CAST(? AS regclass)
+                     ORDER BY c.relname
+                    """)) {
+                ps.setString(1, parent);
+                List<String> names = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        names.add(rs.getString(1));
+                    }
+                }
+                return names;
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Could not list partitions of " + parent, ex);
+            }
+        }
+
+        public void createMonth(String parent, String partition, YearMonth month) {
+            execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + parent
+                    + " FOR VALUES FROM ('" + monthStart(month) + "') TO ('" + monthStart(month.plusMonths(1)) + "')");
+        }
+
+        // Streams the table as CSV with a header row; returns the number of rows written
+        public long copyOut(String table, OutputStream out) {
+            try {
+                return conn.unwrap(PGConnection.class).getCopyAPI()
+                        .copyOut("COPY " + table + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Could not export " + table, ex);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        // Tables named prefix* that are no longer attached anywhere, e.g. detached months
+        public List<String> detachedTables(String prefix) {
+            try (PreparedStatement ps = conn.prepareStatement("""
+                    SELECT c.relname
+                      FROM pg_class c
+                     WHERE c.relkind = 'r'
+                       AND NOT c.relispartition
+                       AND c.relnamespace = CAST(current_schema() AS regnamespace)
+                       AND left(c.relname, length(?)) = ?
+                     ORDER BY c.relname
+                    """)) {
+                ps.setString(1, prefix);
+                ps.setString(2, prefix);
+                List<String> names = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        names.add(rs.getString(1));
+                    }
+                }
+                return names;
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Could not list detached tables " + prefix + "*", ex);
+            }
+        }
+
+        /**
+         * Detaches the partition in one short transaction. DETACH locks the parent
+         * exclusively, so the wait for that lock is bounded. Once it commits, no new row
+         * can reach the table; rows of its month go to the default partition.
+         */
+        public void detach(String parent, String partition, int lockTimeoutMs) {
+            try {
+                conn.setAutoCommit(false);
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+                    statement.execute("ALTER TABLE " + parent + " DETACH PARTITION " + partition);
+                    conn.commit();
+                } catch (SQLException ex) {
+                    conn.rollback();
+                    throw ex;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Could not detach " + partition + " from " + parent, ex);
+            }
+        }
+
+        public void drop(String table) {
+            execute("DROP TABLE " + table);
+        }
+
+        private void execute(String sql) {
+            try (Statement statement = conn.createStatement()) {
+                statement.execute(sql);
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Partition statement failed: " + sql, ex);
+            }
+        }
+
+        private static String monthStart(YearMonth month) {
+            return month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC).toString();
+        }
+    }
+
+    private static boolean queryBoolean(Connection conn, String sql) throws SQLException {
+        try (Statement statement = conn.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.smartparking.repository;
+
+import com.example.smartparking.domain.Reservation;
+import com.example.smartparking.domain.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
+
+    // Expiry of one live hold
+    interface HeldExpiry {
+        UUID getId();
+        Instant getExpiresAt();
+    }
+
+    // Row-locked by primary key, so claim, cancel and expiry of one hold serialize
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id = :id")
+    Optional<Reservation> findForUpdate(@Param("id") UUID id);
+
+    boolean existsByLotIdAndLicensePlateAndStatus(UUID lotId, String licensePlate, ReservationStatus status);
+
+    @Query("SELECT r.id AS id, r.expiresAt AS expiresAt FROM Reservation r WHERE r.status = :status")
+    List<HeldExpiry> findExpiriesByStatus(@Param("status") ReservationStatus status);
+
+    // Holds the spot only if it is still AVAILABLE; 0 rows means someone else took it
+    @Modifying
+    @Query(value = """
+            UPDATE spot
+               SET status = 'RESERVED', updated_at = NOW()
+             WHERE id = :spotId
+               AND status = 'AVAILABLE'
+            """, nativeQuery = true)
+    int holdSpot(@Param("spotId") UUID spotId);
+
+    // Releases a held spot; 0 rows means it was no longer RESERVED
+    @Modifying
+    @Query(value = """
+            UPDATE spot
+               SET status = 'AVAILABLE', updated_at = NOW()
+             WHERE id = :spotId
+               AND status = 'RESERVED'
+            """, nativeQuery = true)
+    int releaseSpot(@Param("spotId") UUID spotId);
+}
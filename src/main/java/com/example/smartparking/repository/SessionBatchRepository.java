@@ -0,0 +1,160 @@
+package com.example.smartparking.repository;
+
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.strategy.IdGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * JDBC statements behind batch check-in/check-out.
+ * Rows are written with JDBC batches instead of one persist/merge per entity,
+ * and spots are claimed per (lot, size) group in one statement.
+ */
+@Repository
+public class SessionBatchRepository {
+
+    public record ClaimedSpot(UUID spotId, UUID floorId, String code, SpotSize size) {}
+
+    public record NewTicket(UUID id, UUID lotId, UUID spotId, UUID vehicleId, Instant entryAt) {}
+
+    public record ClosedTicket(UUID id, UUID spotId, Instant exitAt) {}
+
+    public record NewPayment(UUID id, UUID ticketId, Instant ticketEntryAt, long amountMinor, String currency,
+                             Instant paidAt, String reference) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdGenerator idGenerator;
+
+    public SessionBatchRepository(JdbcTemplate jdbcTemplate, IdGenerator idGenerator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGenerator = idGenerator;
+    }
+
+    // Vehicle ids of the plates that are already registered
+    public Map<String, UUID> findVehicles(Collection<String> plates) {
+        Map<String, UUID> ids = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT license_plate, id FROM vehicle WHERE license_plate = ANY(?)",
+                rs -> {
+                    ids.put(rs.getString(1), rs.getObject(2, UUID.class));
+                },
+                (Object) plates.toArray(String[]::new));
+        return ids;
+    }
+
+    // Registers unknown plates and returns the vehicle id of every plate
+    public Map<String, UUID> upsertVehicles(Map<String, SpotSize> sizesByPlate) {
+        List<Object[]> rows = new ArrayList<>(sizesByPlate.size());
+        sizesByPlate.forEach((plate, size) -> rows.add(new Object[]{idGenerator.newId(), plate, size.name()}));
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO vehicle (id, license_plate, size)
+                VALUES (?, ?, CAST(? AS spot_size))
+                ON CONFLICT (license_plate) DO NOTHING
+                """, rows);
+        return findVehicles(sizesByPlate.keySet());
+    }
+
+    // (vehicleId, lotId) pairs that already have an OPEN ticket
+    public Set<List<UUID>> findOpenTickets(Collection<UUID> vehicleIds) {
+        Set<List<UUID>> open = new HashSet<>();
+        jdbcTemplate.query(
+                "SELECT vehicle_id, lot_id FROM ticket WHERE status = 'OPEN' AND vehicle_id = ANY(?)",
+                rs -> {
+                    open.add(List.of(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)));
+                },
+                (Object) vehicleIds.toArray(UUID[]::new));
+        return open;
+    }
+
+    /**
+     * Marks up to {@code count} of the nearest AVAILABLE spots of the lot OCCUPIED and
+     * returns them in allocation order; rows locked by concurrent check-ins are skipped.
+     * Spots with a known walking distance from the entrance come first, nearest first,
+     * then the rest by floor ordering, like the entrance-nearest allocation strategy.
+     */
+    public List<ClaimedSpot> claimAvailable(UUID lotId, UUID entranceId, SpotSize size, int count) {
+        return jdbcTemplate.query("""
+                WITH picked AS (
+                    SELECT s.id, d.distance_m, f.ordering, s.code
+                      FROM spot s
+                      JOIN floor f ON f.id = s.floor_id
+                      LEFT JOIN entrance_spot_distance d ON d.spot_id = s.id AND d.entrance_id = ?
+                     WHERE f.lot_id = ?
+                       AND s.size = CAST(? AS spot_size)
+                       AND s.status = 'AVAILABLE'
+                     ORDER BY d.distance_m NULLS LAST, f.ordering, s.code
+                     LIMIT ?
+                       FOR UPDATE OF s SKIP LOCKED
+                ), claimed AS (
+                    UPDATE spot
+                       SET status = 'OCCUPIED', updated_at = NOW()
+                      FROM picked
+                     WHERE spot.id = picked.id
+                    RETURNING spot.id, spot.floor_id, spot.code, CAST(spot.size AS TEXT) AS size,
+                              picked.distance_m, picked.ordering
+                )
+                SELECT id, floor_id, code, size FROM claimed ORDER BY distance_m NULLS LAST, ordering, code
+                """,
+                (rs, row) -> new ClaimedSpot(
+                        rs.getObject(1, UUID.class),
+                        rs.getObject(2, UUID.class),
+                        rs.getString(3),
+                        SpotSize.valueOf(rs.getString(4))),
+                entranceId, lotId, size.name(), count);
+    }
+
+    public void insertTickets(List<NewTicket> tickets) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO ticket (id, lot_id, spot_id, vehicle_id, entry_at, status)
+                VALUES (?, ?, ?, ?, ?, 'OPEN')
+                """,
+                tickets, tickets.size(), (ps, t) -> {
+                    ps.setObject(1, t.id());
+                    ps.setObject(2, t.lotId());
+                    ps.setObject(3, t.spotId());
+                    ps.setObject(4, t.vehicleId());
+                    ps.setTimestamp(5, Timestamp.from(t.entryAt()));
+                });
+    }
+
+    /**
+     * Closes the tickets and frees their spots.
+     * Returns false if any ticket was no longer OPEN, i.e. closed concurrently.
+     */
+    public boolean closeTickets(List<ClosedTicket> tickets) {
+        int[][] closed = jdbcTemplate.batchUpdate("""
+                UPDATE ticket
+                   SET status = 'CLOSED', exit_at = ?, updated_at = NOW()
+                 WHERE id = ? AND status = 'OPEN'
+                """,
+                tickets, tickets.size(), (ps, t) -> {
+                    ps.setTimestamp(1, Timestamp.from(t.exitAt()));
+                    ps.setObject(2, t.id());
+                });
+        jdbcTemplate.batchUpdate(
+                "UPDATE spot SET status = 'AVAILABLE', updated_at = NOW() WHERE id = ?",
+                tickets, tickets.size(), (ps, t) -> ps.setObject(1, t.spotId()));
+        return Arrays.stream(closed).flatMapToInt(Arrays::stream).allMatch(count -> count == 1);
+    }
+
+    public void insertPayments(List<NewPayment> payments) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO payment (id, ticket_id, ticket_entry_at, amount_minor, currency, method, status,
+                                     paid_at, reference)
+                VALUES (?, ?, ?, ?, ?, 'CASH', 'SUCCESS', ?, ?)
+                """,
+                payments, payments.size(), (ps, p) -> {
+                    ps.setObject(1, p.id());
+                    ps.setObject(2, p.ticketId());
+                    ps.setTimestamp(3, Timestamp.from(p.ticketEntryAt()));
+                    ps.setLong(4, p.amountMinor());
+                    ps.setString(5, p.currency());
+                    ps.setTimestamp(6, Timestamp.from(p.paidAt()));
+                    ps.setString(7, p.reference());
+                });
+    }
+}
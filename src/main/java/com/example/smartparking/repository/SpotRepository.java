@@ -3,14 +3,41 @@ package com.example.smartparking.repository;
 import com.example.smartparking.domain.Spot;
 import com.example.smartparking.domain.SpotSize;
 import com.example.smartparking.domain.SpotStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface SpotRepository extends JpaRepository<Spot, UUID> {
 
+    // Spot counts of one (floor, size) pair
+    interface FloorSizeCount {
+        UUID getFloorId();
+        String getSize();
+        long getFree();
+        long getTotal();
+    }
+
+    // Spot count of one (lot, floor, size, status) cell
+    interface StatusCount {
+        UUID getLotId();
+        UUID getFloorId();
+        String getSize();
+        String getStatus();
+        long getSpots();
+    }
+
+    // Spot columns read straight from a result row; never enters the persistence context
+    record SpotRow(UUID id, UUID floorId, String code, SpotSize size, SpotStatus status) {}
+
     List<Spot> findByFloorIdAndStatus(UUID floorId, SpotStatus status);
     List<Spot> findByFloorId(UUID floorId);
 
@@ -23,4 +50,75 @@ public interface SpotRepository extends JpaRepository<Spot, UUID> {
             UUID floorId,
             SpotSize size,
             SpotStatus status);
-}
\ No newline at end of file
+
+    // Keyset page of a floor: spots ordered by code after afterCode, served by ux_spot_floor_code
+    @Query("""
+            SELECT new com.example.smartparking.repository.SpotRepository$SpotRow(
+                       s.id, s.floorId, s.code, s.size, s.status)
+              FROM Spot s
+             WHERE s.floorId = :floorId
+               AND s.code > :afterCode
+             ORDER BY s.code
+            """)
+    List<SpotRow> findRowsByFloorIdAfter(@Param("floorId") UUID floorId,
+                                         @Param("afterCode") String afterCode,
+                                         Limit limit);
+
+    // All spots of a floor ordered by code, fetched through a cursor; the caller must
+    // close the stream inside the transaction that opened it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new com.example.smartparking.repository.SpotRepository$SpotRow(
+                       s.id, s.floorId, s.code, s.size, s.status)
+              FROM Spot s
+             WHERE s.floorId = :floorId
+             ORDER BY s.code
+            """)
+    Stream<SpotRow> streamRowsByFloorId(@Param("floorId") UUID floorId);
+
+    // Marks the first AVAILABLE spot of the lot (floor ordering, then code) OCCUPIED in one
+    // statement; rows already locked by concurrent check-ins are skipped, not waited on.
+    // Bypasses the configured SpotAllocationStrategy (no entrance distance), and because the
+    // order spans floors the partial index only narrows each floor before the sort.
+    // Not @Modifying: executeUpdate would return a row count instead of the RETURNING id.
+    @Query(value = """
+            UPDATE spot
+               SET status = 'OCCUPIED', updated_at = NOW()
+             WHERE id = (
+                   SELECT s.id
+                     FROM spot s
+                     JOIN floor f ON f.id = s.floor_id
+                    WHERE f.lot_id = :lotId
+                      AND s.size = CAST(:size AS spot_size)
+                      AND s.status = 'AVAILABLE'
+                    ORDER BY f.ordering, s.code
+                    LIMIT 1
+                      FOR UPDATE OF s SKIP LOCKED)
+            RETURNING id
+            """, nativeQuery = true)
+    Optional<UUID> claimFirstAvailable(@Param("lotId") UUID lotId, @Param("size") String size);
+
+    @Query(value = """
+            SELECT s.floor_id                                        AS "floorId",
+                   CAST(s.size AS TEXT)                              AS "size",
+                   count(*) FILTER (WHERE s.status = 'AVAILABLE')    AS "free",
+                   count(*)                                          AS "total"
+              FROM spot s
+              JOIN floor f ON f.id = s.floor_id
+             WHERE f.lot_id = :lotId
+             GROUP BY s.floor_id, s.size
+            """, nativeQuery = true)
+    List<FloorSizeCount> countByLotGroupedByFloorAndSize(@Param("lotId") UUID lotId);
+
+    @Query(value = """
+            SELECT f.lot_id                 AS "lotId",
+                   s.floor_id               AS "floorId",
+                   CAST(s.size AS TEXT)     AS "size",
+                   CAST(s.status AS TEXT)   AS "status",
+                   count(*)                 AS "spots"
+              FROM spot s
+              JOIN floor f ON f.id = s.floor_id
+             GROUP BY f.lot_id, s.floor_id, s.size, s.status
+            """, nativeQuery = true)
+    List<StatusCount> countGroupedByLotFloorSizeAndStatus();
+}
@@ -2,8 +2,13 @@ package com.example.smartparking.repository;
 
 import com.example.smartparking.domain.Ticket;
 import com.example.smartparking.domain.TicketStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,8 +16,93 @@ public interface TicketRepository extends JpaRepository<Ticket, UUID> {
 
     Optional<Ticket> findBySpotIdAndStatus(UUID spotId, TicketStatus status);
 
+    // With status = OPEN only the ticket_open partition is searched
+    Optional<Ticket> findByIdAndStatus(UUID id, TicketStatus status);
+
+    // Row-locked in ticket_open, so concurrent check-outs of one ticket serialize. Closing
+    // moves the row to ticket_closed, and a waiter then fails with a serialization error.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Ticket t WHERE t.id = :id AND t.status = :status")
+    Optional<Ticket> findForUpdate(@Param("id") UUID id, @Param("status") TicketStatus status);
+
     Optional<Ticket> findByVehicleIdAndLotIdAndStatus(
             UUID vehicleId,
             UUID lotId,
             TicketStatus status);
-}
\ No newline at end of file
+
+    // Outcome of the single-statement check-in; spot and ticket columns are null when nothing was claimed
+    interface CheckInRow {
+        boolean getLotFound();
+        boolean getAlreadyOpen();
+        UUID getSpotId();
+        UUID getFloorId();
+        String getSpotCode();
+        String getSpotSize();
+        UUID getVehicleId();
+        UUID getTicketId();
+    }
+
+    // Upserts the vehicle, claims the nearest available spot and opens the ticket in one round trip.
+    // ux_ticket_open_by_vehicle_lot and ux_ticket_open_by_spot still reject concurrent duplicates.
+    @Query(value = """
+            WITH lot_row AS (
+                SELECT id FROM lot WHERE id = :lotId
+            ),
+            open_ticket AS (
+                SELECT t.id
+                  FROM ticket t
+                  JOIN vehicle v ON v.id = t.vehicle_id
+                 WHERE v.license_plate = :plate
+                   AND t.lot_id = :lotId
+                   AND t.status = 'OPEN'
+            ),
+            vehicle_row AS (
+                INSERT INTO vehicle (id, license_plate, size, created_at, updated_at)
+                SELECT :vehicleId, :plate, CAST(:size AS spot_size), NOW(), NOW()
+                  FROM lot_row
+                ON CONFLICT (license_plate) DO UPDATE SET updated_at = NOW()
+                RETURNING id
+            ),
+            spot_row AS (
+                UPDATE spot
+                   SET status = 'OCCUPIED', updated_at = NOW()
+                 WHERE id = (
+                       SELECT s.id
+                         FROM spot s
+                         JOIN floor f ON f.id = s.floor_id
+                        WHERE f.lot_id = :lotId
+                          AND s.size = CAST(:size AS spot_size)
+                          AND s.status = 'AVAILABLE'
+                          AND NOT EXISTS (SELECT 1 FROM open_ticket)
+                        ORDER BY f.ordering, s.code
+                        LIMIT 1
+                          FOR UPDATE OF s SKIP LOCKED)
+                RETURNING id, floor_id, code, size
+            ),
+            ticket_row AS (
+                INSERT INTO ticket (id, lot_id, spot_id, vehicle_id, entry_at, status, created_at, updated_at)
+                SELECT :ticketId, :lotId, spot_row.id, vehicle_row.id, :entryAt, 'OPEN', NOW(), NOW()
+                  FROM spot_row, vehicle_row
+                RETURNING id
+            )
+            SELECT EXISTS (SELECT 1 FROM lot_row)     AS "lotFound",
+                   EXISTS (SELECT 1 FROM open_ticket) AS "alreadyOpen",
+                   spot_row.id                        AS "spotId",
+                   spot_row.floor_id                  AS "floorId",
+                   spot_row.code                      AS "spotCode",
+                   CAST(spot_row.size AS TEXT)        AS "spotSize",
+                   vehicle_row.id                     AS "vehicleId",
+                   ticket_row.id                      AS "ticketId"
+              FROM (SELECT 1) AS one
+              LEFT JOIN vehicle_row ON TRUE
+              LEFT JOIN spot_row ON TRUE
+              LEFT JOIN ticket_row ON TRUE
+            """, nativeQuery = true)
+    CheckInRow checkInInOneStatement(
+            @Param("lotId") UUID lotId,
+            @Param("plate") String licensePlate,
+            @Param("size") String vehicleSize,
+            @Param("vehicleId") UUID vehicleId,
+            @Param("ticketId") UUID ticketId,
+            @Param("entryAt") Instant entryAt);
+}
@@ -0,0 +1,167 @@
+package com.example.smartparking.reservation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hierarchical timing wheel of deadlines keyed by id.
+ * Level 0 has one bucket per tick; every level above covers a whole rotation of the
+ * level below per bucket. A deadline goes to the lowest level whose range holds it and
+ * is cascaded one level down each time the wheel reaches its bucket, so schedule and
+ * cancel are O(1) and a tick only touches the entries due (or cascading) at that tick.
+ * Deadlines beyond the top level's range park there and are re-placed on every rotation.
+ * Entries never fire early: a deadline fires on the first tick at or after it.
+ */
+final class HierarchicalTimingWheel {
+
+    private final long tickMs;
+    private final int bits;
+    private final int mask;
+    private final Bucket[][] levels;
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    // last tick processed
+    private long currentTick;
+
+    HierarchicalTimingWheel(long tickMs, int slotsPerLevel, int levelCount, long nowMs) {
+        if (tickMs <= 0 || Integer.bitCount(slotsPerLevel) != 1 || levelCount < 1) {
+            throw new IllegalArgumentException("tickMs > 0, power-of-two slots and at least one level required");
+        }
+        this.tickMs = tickMs;
+        this.bits = Integer.numberOfTrailingZeros(slotsPerLevel);
+        this.mask = slotsPerLevel - 1;
+        this.levels = new Bucket[levelCount][slotsPerLevel];
+        for (Bucket[] level : levels) {
+            for (int slot = 0; slot < slotsPerLevel; slot++) {
+                level[slot] = new Bucket();
+            }
+        }
+        this.currentTick = Math.floorDiv(nowMs, tickMs);
+    }
+
+    // (Re)schedules the id; a deadline already passed fires on the next tick
+    synchronized void schedule(UUID id, long deadlineMs) {
+        cancel(id);
+        Entry entry = new Entry(id, Math.max(Math.ceilDiv(deadlineMs, tickMs), currentTick + 1));
+        entries.put(id, entry);
+        place(entry);
+    }
+
+    synchronized boolean cancel(UUID id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        entry.unlink();
+        return true;
+    }
+
+    // Moves the wheel to nowMs and returns the ids that came due, earliest tick first
+    synchronized List<UUID> advance(long nowMs) {
+        long target = Math.floorDiv(nowMs, tickMs);
+        List<UUID> due = new ArrayList<>();
+        while (currentTick < target) {
+            if (entries.isEmpty()) {
+                currentTick = target;
+                break;
+            }
+            currentTick++;
+            cascade();
+            Entry entry = levels[0][(int) (currentTick & mask)].drain();
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.next = null;
+                entries.remove(entry.id);
+                due.add(entry.id);
+                entry = next;
+            }
+        }
+        return due;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // Brings down the buckets of every level whose lower levels have just wrapped around
+    private void cascade() {
+        for (int level = 1; level < levels.length; level++) {
+            if ((currentTick & ((1L << (bits * level)) - 1)) != 0) {
+                return;
+            }
+            Entry entry = levels[level][(int) ((currentTick >>> (bits * level)) & mask)].drain();
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.next = null;
+                place(entry);
+                entry = next;
+            }
+        }
+    }
+
+    private void place(Entry entry) {
+        long delta = Math.max(0, entry.deadlineTick - currentTick);
+        int level = 0;
+        while (level < levels.length - 1 && delta >= 1L << (bits * (level + 1))) {
+            level++;
+        }
+        levels[level][(int) ((entry.deadlineTick >>> (bits * level)) & mask)].add(entry);
+    }
+
+    private static final class Bucket {
+        private Entry head;
+
+        void add(Entry entry) {
+            entry.bucket = this;
+            entry.prev = null;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            head = entry;
+        }
+
+        // Detaches and returns the bucket's entries, still linked through next
+        Entry drain() {
+            Entry first = head;
+            head = null;
+            for (Entry entry = first; entry != null; entry = entry.next) {
+                entry.bucket = null;
+                entry.prev = null;
+            }
+            return first;
+        }
+    }
+
+    private static final class Entry {
+        private final UUID id;
+        private final long deadlineTick;
+        private Bucket bucket;
+        private Entry prev;
+        private Entry next;
+
+        Entry(UUID id, long deadlineTick) {
+            this.id = id;
+            this.deadlineTick = deadlineTick;
+        }
+
+        void unlink() {
+            if (bucket == null) {
+                return;
+            }
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                bucket.head = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+            prev = null;
+            next = null;
+            bucket = null;
+        }
+    }
+}
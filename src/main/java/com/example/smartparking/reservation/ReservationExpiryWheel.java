@@ -0,0 +1,77 @@
+package com.example.smartparking.reservation;
+
+import com.example.smartparking.config.TransactionCallbacks;
+import com.example.smartparking.domain.ReservationStatus;
+import com.example.smartparking.repository.ReservationRepository;
+import com.example.smartparking.repository.ReservationRepository.HeldExpiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Expiry times of the live reservation holds, kept in a hierarchical timing wheel
+ * (100 ms ticks by default, 64 slots per level, 4 levels: about 19 days before the
+ * top level starts re-placing). The wheel is rebuilt from the HELD rows at startup;
+ * after that holds are added and removed as they are taken, claimed or cancelled,
+ * and the database is never scanned for due rows.
+ */
+@Component
+public class ReservationExpiryWheel {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ReservationExpiryWheel.class);
+
+    private static final int SLOTS_PER_LEVEL = 64;
+    private static final int LEVELS = 4;
+
+    private final ReservationRepository reservationRepository;
+    private final Clock clock;
+    private final HierarchicalTimingWheel wheel;
+
+    public ReservationExpiryWheel(ReservationRepository reservationRepository,
+                                  MeterRegistry registry,
+                                  @Value("${app.parking.reservation.tick-ms:100}") long tickMs) {
+        this.reservationRepository = reservationRepository;
+        this.clock = Clock.systemUTC();
+        this.wheel = new HierarchicalTimingWheel(tickMs, SLOTS_PER_LEVEL, LEVELS, clock.millis());
+        Gauge.builder("parking.reservations.scheduled", wheel, HierarchicalTimingWheel::size)
+                .description("Reservation holds waiting in the expiry wheel")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<HeldExpiry> held = reservationRepository.findExpiriesByStatus(ReservationStatus.HELD);
+        held.forEach(hold -> schedule(hold.getId(), hold.getExpiresAt()));
+        log.info("Reservation expiry wheel rebuilt holds={}", held.size());
+    }
+
+    // Inside a transaction, takes effect once it commits
+    public void schedule(UUID reservationId, Instant expiresAt) {
+        TransactionCallbacks.afterCommit(() -> wheel.schedule(reservationId, expiresAt.toEpochMilli()));
+    }
+
+    // Inside a transaction, takes effect once it commits
+    public void cancel(UUID reservationId) {
+        TransactionCallbacks.afterCommit(() -> wheel.cancel(reservationId));
+    }
+
+    // Holds whose expiry has passed; each is returned once
+    public List<UUID> due() {
+        return wheel.advance(clock.millis());
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+}
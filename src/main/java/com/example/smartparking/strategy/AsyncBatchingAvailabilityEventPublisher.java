@@ -0,0 +1,241 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.config.AvailabilityEventProperties;
+import com.example.smartparking.config.AvailabilityEventProperties.BackPressure;
+import com.example.smartparking.config.TransactionCallbacks;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher;
+import com.example.smartparking.domain.strategy.AvailabilityEventSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands availability events to a bounded ring buffer once the publishing transaction
+ * commits; a dedicated consumer thread drains them in batches to every sink.
+ * When the buffer is full the configured back-pressure policy applies:
+ * BLOCK waits up to block-timeout for space and then drops the event, DROP_OLDEST evicts
+ * the oldest queued event, COALESCE keeps only the latest overflowing event per spot.
+ * BLOCK is the only policy that can delay the committing request thread.
+ * Coalesced events share every batch with the ring instead of waiting for it to run empty,
+ * so a steady stream of new events cannot starve them; an overflowing spot's event still
+ * waits until the ring events queued before it have been taken, keeping per-spot order.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.parking", name = "availability-strategy", havingValue = "ASYNC_BATCHED")
+public class AsyncBatchingAvailabilityEventPublisher implements AvailabilityEventPublisher {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(AsyncBatchingAvailabilityEventPublisher.class);
+
+    private static final long BLOCK_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    // ringMark: ring position reached when the spot overflowed; its older events lie below it
+    private record Overflowed(AvailabilityEvent event, long ringMark) {}
+
+    private final BoundedRingBuffer<AvailabilityEvent> buffer;
+    // COALESCE overflow: latest event per spot, spots in the order they overflowed;
+    // holds at most as many spots as the ring has slots
+    private final Map<UUID, Overflowed> overflow = new ConcurrentHashMap<>();
+    private final Queue<UUID> overflowOrder = new ConcurrentLinkedQueue<>();
+    private final int overflowCapacity;
+    private final List<AvailabilityEventSink> sinks;
+    private final BackPressure backPressure;
+    private final int batchSize;
+    private final long idleWaitNanos;
+    private final long blockTimeoutNanos;
+
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final Counter coalescedCounter;
+    private final Counter batchCounter;
+    private final Counter sinkFailureCounter;
+
+    private volatile boolean running;
+    private Thread consumer;
+
+    public AsyncBatchingAvailabilityEventPublisher(List<AvailabilityEventSink> sinks,
+                                                   AvailabilityEventProperties properties,
+                                                   MeterRegistry registry) {
+        this.buffer = new BoundedRingBuffer<>(properties.getCapacity());
+        this.overflowCapacity = buffer.capacity();
+        this.sinks = List.copyOf(sinks);
+        this.backPressure = properties.getBackPressure();
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.idleWaitNanos = properties.getIdleWait().toNanos();
+        this.blockTimeoutNanos = properties.getBlockTimeout().toNanos();
+
+        this.publishedCounter = Counter.builder("parking.availability.events.published")
+                .description("Availability events accepted by the async publisher")
+                .register(registry);
+        this.droppedCounter = Counter.builder("parking.availability.events.dropped")
+                .description("Availability events dropped because the buffer was full")
+                .register(registry);
+        this.coalescedCounter = Counter.builder("parking.availability.events.coalesced")
+                .description("Availability events replaced by a newer event for the same spot")
+                .register(registry);
+        this.batchCounter = Counter.builder("parking.availability.batches.delivered")
+                .description("Batches of availability events handed to sinks")
+                .register(registry);
+        this.sinkFailureCounter = Counter.builder("parking.availability.sink.failures")
+                .description("Batches a sink failed to accept")
+                .register(registry);
+        Gauge.builder("parking.availability.queue.depth", this, AsyncBatchingAvailabilityEventPublisher::queueDepth)
+                .description("Availability events waiting for delivery")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        consumer = new Thread(this::runConsumer, "availability-events");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    // Stops accepting work and gives the consumer a moment to flush what is queued
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Override
+    public void publish(AvailabilityEvent event) {
+        // Rolled-back check-ins/check-outs never reach the buffer
+        TransactionCallbacks.afterCommit(() -> enqueue(event));
+    }
+
+    int queueDepth() {
+        return buffer.size() + overflow.size();
+    }
+
+    void enqueue(AvailabilityEvent event) {
+        if (accept(event)) {
+            publishedCounter.increment();
+        } else {
+            droppedCounter.increment();
+        }
+    }
+
+    private boolean accept(AvailabilityEvent event) {
+        // A spot that already overflowed keeps its newer events there, so per-spot order is kept
+        if (backPressure == BackPressure.COALESCE
+                && overflow.computeIfPresent(event.spotId(),
+                        (spot, older) -> new Overflowed(event, older.ringMark())) != null) {
+            coalescedCounter.increment();
+            return true;
+        }
+        if (buffer.offer(event)) {
+            return true;
+        }
+        return switch (backPressure) {
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                while (!buffer.offer(event)) {
+                    if (!running || System.nanoTime() - deadline >= 0) {
+                        yield false;
+                    }
+                    LockSupport.parkNanos(BLOCK_BACKOFF_NANOS);
+                }
+                yield true;
+            }
+            case DROP_OLDEST -> {
+                while (!buffer.offer(event)) {
+                    if (buffer.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                }
+                yield true;
+            }
+            case COALESCE -> coalesce(event);
+        };
+    }
+
+    private boolean coalesce(AvailabilityEvent event) {
+        if (overflow.size() >= overflowCapacity && !overflow.containsKey(event.spotId())) {
+            return false;
+        }
+        Overflowed added = new Overflowed(event, buffer.offered());
+        Overflowed stored = overflow.compute(event.spotId(),
+                (spot, older) -> older == null ? added : new Overflowed(event, older.ringMark()));
+        if (stored == added) {
+            overflowOrder.add(event.spotId());
+        } else {
+            coalescedCounter.increment();
+        }
+        return true;
+    }
+
+    private void runConsumer() {
+        List<AvailabilityEvent> batch = new ArrayList<>(batchSize);
+        while (running || queueDepth() > 0) {
+            if (deliverNextBatch(batch) == 0) {
+                LockSupport.parkNanos(idleWaitNanos);
+            }
+        }
+        log.info("Availability event consumer stopped");
+    }
+
+    // Drains up to one batch and delivers it: while there is overflow, part of the ring,
+    // then the coalesced events that are due, then the ring again to fill the batch
+    int deliverNextBatch(List<AvailabilityEvent> batch) {
+        batch.clear();
+        if (overflow.isEmpty()) {
+            buffer.drainTo(batch, batchSize);
+        } else {
+            buffer.drainTo(batch, batchSize - Math.max(1, batchSize / 2));
+            drainOverflow(batch);
+            buffer.drainTo(batch, batchSize - batch.size());
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        for (AvailabilityEventSink sink : sinks) {
+            try {
+                sink.accept(batch);
+            } catch (RuntimeException ex) {
+                sinkFailureCounter.increment();
+                log.warn("Availability sink {} failed for batch of {} events",
+                        sink.getClass().getSimpleName(), batch.size(), ex);
+            }
+        }
+        batchCounter.increment();
+        return batch.size();
+    }
+
+    // Takes coalesced events in overflow order until one still has older events in the ring
+    private void drainOverflow(List<AvailabilityEvent> batch) {
+        long taken = buffer.taken();
+        UUID spotId;
+        while (batch.size() < batchSize && (spotId = overflowOrder.peek()) != null) {
+            Overflowed next = overflow.get(spotId);
+            if (next != null && next.ringMark() > taken) {
+                return;
+            }
+            overflowOrder.poll();
+            // a producer may have replaced the event since; the removed one is the latest
+            Overflowed latest = overflow.remove(spotId);
+            if (latest != null) {
+                batch.add(latest.event());
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.config.OutboxProperties;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.AvailabilityEvent;
+import com.example.smartparking.domain.strategy.AvailabilityEventSink;
+import com.example.smartparking.repository.AvailabilityOutboxRepository;
+import com.example.smartparking.repository.AvailabilityOutboxRepository.OutboxEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the availability outbox with leases: a short statement claims the oldest batch of
+ * unclaimed rows (SKIP LOCKED) for lease-ms, the batch is handed to the sinks with no row
+ * locks or connection held, and the rows are deleted only once every sink accepted it.
+ * <p>
+ * Delivery is at-least-once. If a sink throws, the rows are released unchanged and the
+ * next poll delivers them again, to every sink. If the relay dies or stalls past the lease,
+ * the rows become claimable again by any relay. Either way sinks may see an event twice.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.parking", name = "availability-strategy", havingValue = "OUTBOX")
+public class AvailabilityOutboxRelay {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(AvailabilityOutboxRelay.class);
+
+    private final AvailabilityOutboxRepository outboxRepository;
+    private final List<AvailabilityEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final long leaseMs;
+    // Owner of this instance's leases
+    private final String relayId = "relay-" + UUID.randomUUID();
+
+    private final Counter relayedCounter;
+    private final Counter failedBatchCounter;
+    private final Timer batchTimer;
+    // Events per second of the last poll that found work
+    private volatile double lastThroughput;
+
+    public AvailabilityOutboxRelay(AvailabilityOutboxRepository outboxRepository,
+                                   List<AvailabilityEventSink> sinks,
+                                   PlatformTransactionManager transactionManager,
+                                   OutboxProperties properties,
+                                   MeterRegistry registry) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = List.copyOf(sinks);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.maxBatchesPerPoll = Math.max(1, properties.getMaxBatchesPerPoll());
+        this.leaseMs = Math.max(1, properties.getLeaseMs());
+
+        this.relayedCounter = Counter.builder("parking.outbox.events.relayed")
+                .description("Outbox events delivered to the sinks and deleted")
+                .register(registry);
+        this.failedBatchCounter = Counter.builder("parking.outbox.batches.failed")
+                .description("Outbox batches released for redelivery because a sink failed")
+                .register(registry);
+        this.batchTimer = Timer.builder("parking.outbox.relay.batch.latency")
+                .description("Time to take one outbox batch and deliver it to every sink")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        Gauge.builder("parking.outbox.relay.throughput", this, relay -> relay.lastThroughput)
+                .description("Events per second relayed by the last poll that found work")
+                .baseUnit("events/s")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.parking.outbox.poll-interval-ms:200}")
+    public void relay() {
+        long started = System.nanoTime();
+        long relayed = 0;
+        for (int batches = 0; batches < maxBatchesPerPoll; batches++) {
+            int delivered = relayBatch();
+            relayed += delivered;
+            if (delivered < batchSize) {
+                break;
+            }
+        }
+        if (relayed > 0) {
+            long elapsed = System.nanoTime() - started;
+            lastThroughput = relayed * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed);
+            log.debug("Outbox relay delivered events={} in {}ms ({} events/s)",
+                    relayed, TimeUnit.NANOSECONDS.toMillis(elapsed), (long) lastThroughput);
+        }
+    }
+
+    // Returns the number of events delivered; 0 when the outbox is empty or a sink failed
+    int relayBatch() {
+        long started = System.nanoTime();
+        List<OutboxEntry> entries;
+        try {
+            entries = transactionTemplate.execute(status -> outboxRepository.claimOldest(batchSize, relayId, leaseMs));
+        } catch (RuntimeException ex) {
+            log.warn("Outbox batch could not be claimed, will retry on next poll", ex);
+            return 0;
+        }
+        if (entries == null || entries.isEmpty()) {
+            return 0;
+        }
+
+        List<AvailabilityEvent> batch = entries.stream().map(OutboxEntry::event).toList();
+        for (AvailabilityEventSink sink : sinks) {
+            try {
+                sink.accept(batch);
+            } catch (RuntimeException ex) {
+                failedBatchCounter.increment();
+                log.warn("Outbox sink failed, batch of {} events released for redelivery", batch.size(), ex);
+                release(entries);
+                return 0;
+            }
+        }
+        try {
+            int deleted = transactionTemplate.execute(status -> outboxRepository.delete(entries, relayId));
+            if (deleted < entries.size()) {
+                // the lease ran out during dispatch and another relay took over those rows
+                log.warn("Outbox lease expired during dispatch, {} of {} events will be delivered again",
+                        entries.size() - deleted, entries.size());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Delivered outbox batch could not be deleted, it will be delivered again", ex);
+        }
+        relayedCounter.increment(batch.size());
+        batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return batch.size();
+    }
+
+    // Failing to release only delays redelivery until the lease runs out
+    private void release(List<OutboxEntry> entries) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.release(entries, relayId));
+        } catch (RuntimeException ex) {
+            log.warn("Could not release {} outbox events, they return when the lease expires", entries.size(), ex);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.config.ParkingStrategyProperties;
+import com.example.smartparking.domain.strategy.ConcurrencyPolicy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the concurrency mode selected by app.parking.concurrency-strategy.
+ */
+@Component
+public class ConfiguredConcurrencyPolicy implements ConcurrencyPolicy {
+
+    private final Mode mode;
+
+    public ConfiguredConcurrencyPolicy(ParkingStrategyProperties properties) {
+        this.mode = switch (properties.getConcurrencyStrategy()) {
+            case CONSTRAINT_ONLY -> Mode.CONSTRAINT_ONLY;
+            case SKIP_LOCKED -> Mode.SKIP_LOCKED;
+        };
+    }
+
+    @Override
+    public Mode mode() {
+        return mode;
+    }
+}
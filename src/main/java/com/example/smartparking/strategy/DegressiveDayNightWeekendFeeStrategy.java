@@ -1,6 +1,7 @@
 package com.example.smartparking.strategy;
 
 import com.example.smartparking.domain.strategy.FeeCalculationStrategy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
@@ -11,6 +12,8 @@ import java.time.temporal.ChronoUnit;
  * plus a grace period and overstay penalty.
  */
 @Service
+@ConditionalOnProperty(prefix = "app.parking", name = "pricing-strategy",
+        havingValue = "DEGRESSIVE_DAY_NIGHT_WEEKEND_WITH_PENALTY_AND_GRACE", matchIfMissing = true)
 public class DegressiveDayNightWeekendFeeStrategy implements FeeCalculationStrategy {
 
     // Amounts are in minor units (e.g., paise for INR)
@@ -42,7 +45,8 @@ public class DegressiveDayNightWeekendFeeStrategy implements FeeCalculationStrat
                     0L,  // degressiveDiscountMinor
                     0L,  // penaltyMinor
                     0L,
-                    "within_grace_period"
+                    "within_grace_period",
+                    request.currency()
             );
         }
 
@@ -78,7 +82,8 @@ public class DegressiveDayNightWeekendFeeStrategy implements FeeCalculationStrat
                 discount,
                 penalty,
                 total,
-                description
+                description,
+                request.currency()
         );
     }
 
@@ -1,64 +1,55 @@
 package com.example.smartparking.strategy;
 
-import com.example.smartparking.domain.Floor;
-import com.example.smartparking.domain.Spot;
-import com.example.smartparking.domain.SpotSize;
-import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.availability.SpotAvailabilityIndex;
 import com.example.smartparking.domain.strategy.SpotAllocationStrategy;
-import com.example.smartparking.repository.FloorRepository;
-import com.example.smartparking.repository.SpotRepository;
+import com.example.smartparking.observability.ParkingMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * Entrance-based, nearest-first allocation.
- * For now, we scan floors in their configured ordering;
+ * When the lot knows the request's entrance, the free spot with the shortest walking
+ * distance from it wins; otherwise floors are scanned in their configured ordering.
+ * Both are answered by the in-memory availability index, not per-floor queries.
  */
 @Service
+@ConditionalOnProperty(prefix = "app.parking", name = "allocation-strategy",
+        havingValue = "ENTRANCE_NEAREST_RESERVATION_AWARE", matchIfMissing = true)
 public class EntranceNearestSpotAllocationStrategy implements SpotAllocationStrategy {
 
-    private final FloorRepository floorRepository;
-    private final SpotRepository spotRepository;
+    private final SpotAvailabilityIndex availabilityIndex;
+    private final ParkingMetrics parkingMetrics;
 
-    public EntranceNearestSpotAllocationStrategy(
-            FloorRepository floorRepository,
-            SpotRepository spotRepository
-    ) {
-        this.floorRepository = floorRepository;
-        this.spotRepository = spotRepository;
+    public EntranceNearestSpotAllocationStrategy(SpotAvailabilityIndex availabilityIndex,
+                                                 ParkingMetrics parkingMetrics) {
+        this.availabilityIndex = availabilityIndex;
+        this.parkingMetrics = parkingMetrics;
     }
 
     public Optional<AllocationResult> allocateSpot(AllocationRequest request) {
-        UUID lotId = request.lotId();
-        SpotSize vehicleSize = request.vehicleSize();
-
-        List<Floor> floors = floorRepository.findByLotIdOrderByOrderingAsc(lotId);
-
-        for (Floor floor : floors) {
-            Optional<Spot> candidate =
-                    spotRepository.findFirstByFloorIdAndSizeAndStatusOrderByCodeAsc(
-                            floor.getId(),
-                            vehicleSize,
-                            SpotStatus.AVAILABLE
-                    );
-
-            if (candidate.isPresent()) {
-                Spot spot = candidate.get();
-                return Optional.of(
-                        new AllocationResult(
-                                spot.getId(),
-                                floor.getId(),
-                                false,                      // reservedSpot
-                                "nearest_by_floor_order"    // reason
-                        )
-                );
-            }
+        if (availabilityIndex.hasEntrance(request.lotId(), request.entranceId())) {
+            return availabilityIndex.claimNearestTo(request.lotId(), request.entranceId(), request.vehicleSize())
+                    .map(spot -> new AllocationResult(
+                            spot.spotId(),
+                            spot.floorId(),
+                            false,                      // reservedSpot
+                            "nearest_to_entrance"       // reason
+                    ));
         }
-
-        // No suitable spot found
-        return Optional.empty();
+        Optional<SpotAvailabilityIndex.IndexedSpot> claimed =
+                availabilityIndex.claimFirstAvailable(request.lotId(), request.vehicleSize());
+        // A miss went through every floor of the lot
+        parkingMetrics.recordFloorsScanned(claimed
+                .map(spot -> spot.floorRank() + 1)
+                .orElseGet(() -> availabilityIndex.floorCount(request.lotId())));
+        return claimed
+                .map(spot -> new AllocationResult(
+                        spot.spotId(),
+                        spot.floorId(),
+                        false,                      // reservedSpot
+                        "nearest_by_floor_order"    // reason
+                ));
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,29 @@
 package com.example.smartparking.strategy;
 
+import com.example.smartparking.config.TransactionCallbacks;
 import com.example.smartparking.domain.strategy.AvailabilityEventPublisher;
+import com.example.smartparking.domain.strategy.AvailabilityEventSink;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
+@ConditionalOnProperty(prefix = "app.parking", name = "availability-strategy",
+        havingValue = "PUSH_EVENTS", matchIfMissing = true)
 public class LoggingAvailabilityEventPublisher implements AvailabilityEventPublisher {
 
     private static final Logger log =
             LoggerFactory.getLogger(LoggingAvailabilityEventPublisher.class);
 
+    private final List<AvailabilityEventSink> sinks;
+
+    public LoggingAvailabilityEventPublisher(List<AvailabilityEventSink> sinks) {
+        this.sinks = List.copyOf(sinks);
+    }
+
     @Override
     public void publish(AvailabilityEvent event) {
         log.info("Availability event: type={} lot={} floor={} spot={} status={}",
@@ -19,5 +32,22 @@ public class LoggingAvailabilityEventPublisher implements AvailabilityEventPubli
                 event.floorId(),
                 event.spotId(),
                 event.spotStatus());
+        if (sinks.isEmpty()) {
+            return;
+        }
+        // Sinks only see committed changes
+        TransactionCallbacks.afterCommit(() -> push(event));
+    }
+
+    private void push(AvailabilityEvent event) {
+        List<AvailabilityEvent> batch = List.of(event);
+        for (AvailabilityEventSink sink : sinks) {
+            try {
+                sink.accept(batch);
+            } catch (RuntimeException ex) {
+                log.warn("Availability sink {} failed for spot={}",
+                        sink.getClass().getSimpleName(), event.spotId(), ex);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.AvailabilityEvent;
+import com.example.smartparking.domain.strategy.AvailabilityEventSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Keeps the per-event log line when events are delivered asynchronously
+@Component
+@ConditionalOnProperty(prefix = "app.parking", name = "availability-strategy", havingValue = "ASYNC_BATCHED")
+public class LoggingAvailabilityEventSink implements AvailabilityEventSink {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(LoggingAvailabilityEventSink.class);
+
+    @Override
+    public void accept(List<AvailabilityEvent> batch) {
+        for (AvailabilityEvent event : batch) {
+            log.info("Availability event: type={} lot={} floor={} spot={} status={}",
+                    event.type(),
+                    event.lotId(),
+                    event.floorId(),
+                    event.spotId(),
+                    event.spotStatus());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher;
+import com.example.smartparking.repository.AvailabilityOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes availability events to the outbox table in the publishing transaction,
+ * so an event exists exactly when the spot change commits.
+ * AvailabilityOutboxRelay delivers the rows to the sinks.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.parking", name = "availability-strategy", havingValue = "OUTBOX")
+public class OutboxAvailabilityEventPublisher implements AvailabilityEventPublisher {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(OutboxAvailabilityEventPublisher.class);
+
+    private final AvailabilityOutboxRepository outboxRepository;
+
+    public OutboxAvailabilityEventPublisher(AvailabilityOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    @Override
+    public void publish(AvailabilityEvent event) {
+        log.info("Availability event: type={} lot={} floor={} spot={} status={}",
+                event.type(),
+                event.lotId(),
+                event.floorId(),
+                event.spotId(),
+                event.spotStatus());
+        outboxRepository.insert(event);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.domain.strategy.IdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Version 4 UUIDs from SecureRandom, as the ids were generated before TIME_ORDERED.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.parking", name = "id-strategy", havingValue = "RANDOM")
+public class RandomIdGenerator implements IdGenerator {
+
+    @Override
+    public UUID newId() {
+        return UUID.randomUUID();
+    }
+}
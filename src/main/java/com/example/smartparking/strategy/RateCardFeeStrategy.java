@@ -0,0 +1,328 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.domain.BusinessRuleException;
+import com.example.smartparking.domain.RateCard;
+import com.example.smartparking.domain.RateRule;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.strategy.FeeCalculationStrategy;
+import com.example.smartparking.repository.RateCardRepository;
+import com.example.smartparking.repository.RateRuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Prices a stay from the RateCard/RateRule rows.
+ * Active cards are compiled into primitive band tables per (lot, floor, size), so a fee
+ * is a binary search over band starts plus arithmetic. The compiled set is valid until
+ * the next effective_from/effective_to boundary and is swapped atomically after it.
+ *
+ * Exit times outside the live window (backdated or future check-outs) are priced from
+ * tariff sets compiled for their own window and kept until the next refresh.
+ *
+ * Rules charge the minutes of the stay that fall inside [start_minute, end_minute):
+ * MINUTE per minute, HOUR per started hour, FLAT once when the stay enters the band.
+ * The stay is counted in whole minutes, truncated, so a stay under one minute is free.
+ * The fee is in the currency of the rate card that priced it.
+ * A card without rules is skipped with a warning rather than pricing every stay at 0;
+ * its stays fall through to the next less specific card, or fail with no_rate_card.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.parking", name = "pricing-strategy", havingValue = "RATE_CARD")
+public class RateCardFeeStrategy implements FeeCalculationStrategy {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(RateCardFeeStrategy.class);
+
+    // One slot per SpotSize plus one for requests without a size
+    private static final int UNSIZED_SLOT = SpotSize.values().length;
+    private static final int SLOTS = UNSIZED_SLOT + 1;
+    // Windows other than the live one kept compiled; beyond this the cache starts over
+    private static final int MAX_CACHED_WINDOWS = 32;
+
+    private final RateCardRepository rateCardRepository;
+    private final RateRuleRepository rateRuleRepository;
+    private final Clock clock;
+    private final AtomicReference<CompiledTariffs> current = new AtomicReference<>();
+    // Other windows by validFrom
+    private final ConcurrentSkipListMap<Instant, CompiledTariffs> otherWindows = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    public RateCardFeeStrategy(RateCardRepository rateCardRepository,
+                               RateRuleRepository rateRuleRepository) {
+        this(rateCardRepository, rateRuleRepository, Clock.systemUTC());
+    }
+
+    RateCardFeeStrategy(RateCardRepository rateCardRepository,
+                        RateRuleRepository rateRuleRepository,
+                        Clock clock) {
+        this.rateCardRepository = rateCardRepository;
+        this.rateRuleRepository = rateRuleRepository;
+        this.clock = clock;
+    }
+
+    @Override
+    public FeeBreakdown calculate(FeeRequest request) {
+        Instant entry = request.entryAt();
+        Instant exit  = request.exitAt();
+        if (exit.isBefore(entry)) {
+            throw new IllegalArgumentException("exitAt must not be before entryAt");
+        }
+
+        Tariff tariff = tariffsAt(exit).resolve(request.id(), request.floorId(), request.spotSize());
+        if (tariff == null) {
+            throw new BusinessRuleException("No active rate card for lot " + request.id(), "no_rate_card");
+        }
+
+        long total = tariff.price(ChronoUnit.MINUTES.between(entry, exit));
+        return new FeeBreakdown(
+                total,
+                0L,  // degressive bands are part of the base
+                0L,  // penalties are expressed as FLAT bands
+                total,
+                tariff.description,
+                tariff.currency
+        );
+    }
+
+    // Recompiles from the database; also picks up edits that do not move a window boundary
+    @Scheduled(fixedDelayString = "${app.parking.tariffs.refresh-interval-ms:300000}")
+    public void refresh() {
+        otherWindows.clear();
+        publish(clock.instant());
+    }
+
+    private CompiledTariffs tariffsAt(Instant at) {
+        CompiledTariffs tariffs = current.get();
+        if (tariffs != null && tariffs.covers(at)) {
+            return tariffs;
+        }
+        Instant now = clock.instant();
+        if (tariffs == null || !tariffs.covers(now)) {
+            tariffs = publish(now);
+            if (tariffs.covers(at)) {
+                return tariffs;
+            }
+        }
+        // Exit time outside the live window (backdated or future): compile once per window
+        Map.Entry<Instant, CompiledTariffs> cached = otherWindows.floorEntry(at);
+        if (cached != null && cached.getValue().covers(at)) {
+            return cached.getValue();
+        }
+        CompiledTariffs compiled = compile(at);
+        if (otherWindows.size() >= MAX_CACHED_WINDOWS) {
+            otherWindows.clear();
+        }
+        otherWindows.put(compiled.validFrom, compiled);
+        return compiled;
+    }
+
+    private CompiledTariffs publish(Instant now) {
+        CompiledTariffs compiled = compile(now);
+        current.set(compiled);
+        log.info("Rate cards compiled validFrom={} validUntil={} cards={}",
+                compiled.validFrom, compiled.validUntil, compiled.cardCount);
+        return compiled;
+    }
+
+    private CompiledTariffs compile(Instant at) {
+        Instant validFrom = Instant.MIN;
+        Instant validUntil = Instant.MAX;
+        Map<Scope, RateCard> winners = new HashMap<>();
+
+        for (RateCard card : rateCardRepository.findAll()) {
+            for (Instant boundary : new Instant[]{card.getEffectiveFrom(), card.getEffectiveTo()}) {
+                if (boundary == null) {
+                    continue;
+                }
+                if (boundary.isAfter(at)) {
+                    validUntil = boundary.isBefore(validUntil) ? boundary : validUntil;
+                } else {
+                    validFrom = boundary.isAfter(validFrom) ? boundary : validFrom;
+                }
+            }
+            if (!card.isActive(at)) {
+                continue;
+            }
+            // Overlapping cards for the same scope: the most recently effective one wins
+            winners.merge(new Scope(card.getLotId(), card.getFloorId(), card.getSize()), card,
+                    (a, b) -> a.getEffectiveFrom().isAfter(b.getEffectiveFrom()) ? a : b);
+        }
+
+        Map<Scope, Tariff> tariffs = new HashMap<>();
+        winners.forEach((scope, card) -> {
+            List<RateRule> rules = rateRuleRepository.findByRateCardIdOrderByStartMinuteAsc(card.getId());
+            if (rules.isEmpty()) {
+                log.warn("Rate card has no rules, skipping it rateCardId={} name={}", card.getId(), card.getName());
+                return;
+            }
+            tariffs.put(scope, new Tariff(card.getName(), card.getCurrency(), rules));
+        });
+
+        Tariff[] global = new Tariff[SLOTS];
+        Map<UUID, Tariff[]> byLot = new HashMap<>();
+        Map<UUID, Tariff[]> byFloor = new HashMap<>();
+        tariffs.forEach((scope, tariff) -> {
+            Tariff[] table;
+            if (scope.floorId() != null) {
+                table = byFloor.computeIfAbsent(scope.floorId(), id -> new Tariff[SLOTS]);
+            } else if (scope.lotId() != null) {
+                table = byLot.computeIfAbsent(scope.lotId(), id -> new Tariff[SLOTS]);
+            } else {
+                table = global;
+            }
+            if (scope.size() != null) {
+                table[scope.size().ordinal()] = tariff;
+            } else if (table[UNSIZED_SLOT] == null) {
+                table[UNSIZED_SLOT] = tariff;
+            }
+        });
+        // A card without size covers every size slot of its scope that has no size-specific card
+        fillUnsized(global);
+        byLot.values().forEach(RateCardFeeStrategy::fillUnsized);
+        byFloor.values().forEach(RateCardFeeStrategy::fillUnsized);
+
+        return new CompiledTariffs(validFrom, validUntil, tariffs.size(), global, byLot, byFloor);
+    }
+
+    private static void fillUnsized(Tariff[] table) {
+        for (int slot = 0; slot < UNSIZED_SLOT; slot++) {
+            if (table[slot] == null) {
+                table[slot] = table[UNSIZED_SLOT];
+            }
+        }
+    }
+
+    private record Scope(UUID lotId, UUID floorId, SpotSize size) {}
+
+    // Immutable tariff set for one effective window
+    private static final class CompiledTariffs {
+        private final Instant validFrom;
+        private final Instant validUntil;
+        private final int cardCount;
+        private final Tariff[] global;
+        private final Map<UUID, Tariff[]> byLot;
+        private final Map<UUID, Tariff[]> byFloor;
+
+        CompiledTariffs(Instant validFrom, Instant validUntil, int cardCount,
+                        Tariff[] global, Map<UUID, Tariff[]> byLot, Map<UUID, Tariff[]> byFloor) {
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+            this.cardCount = cardCount;
+            this.global = global;
+            this.byLot = Map.copyOf(byLot);
+            this.byFloor = Map.copyOf(byFloor);
+        }
+
+        boolean covers(Instant at) {
+            return !at.isBefore(validFrom) && at.isBefore(validUntil);
+        }
+
+        // Most specific first: floor, then lot, then global cards
+        Tariff resolve(UUID lotId, UUID floorId, SpotSize size) {
+            int slot = size == null ? UNSIZED_SLOT : size.ordinal();
+            if (floorId != null) {
+                Tariff[] table = byFloor.get(floorId);
+                if (table != null && table[slot] != null) {
+                    return table[slot];
+                }
+            }
+            if (lotId != null) {
+                Tariff[] table = byLot.get(lotId);
+                if (table != null && table[slot] != null) {
+                    return table[slot];
+                }
+            }
+            return global[slot];
+        }
+    }
+
+    // Banded prices of one rate card, laid out as parallel primitive arrays
+    static final class Tariff {
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] unitMinutes;   // 0 = FLAT
+        private final long[] prices;
+        private final long[] priceBefore;  // cost of all bands before this one
+        private final String description;
+        private final String currency;
+
+        Tariff(String cardName, String currency, List<RateRule> rules) {
+            List<RateRule> sorted = new ArrayList<>(rules);
+            sorted.sort(Comparator.comparingInt(RateRule::getStartMinute));
+            int n = sorted.size();
+            this.starts = new int[n];
+            this.ends = new int[n];
+            this.unitMinutes = new int[n];
+            this.prices = new long[n];
+            this.priceBefore = new long[n];
+            this.description = "rate_card:" + cardName;
+            this.currency = currency;
+
+            for (int i = 0; i < n; i++) {
+                RateRule rule = sorted.get(i);
+                starts[i] = rule.getStartMinute();
+                ends[i] = rule.getEndMinute() != null ? rule.getEndMinute() : Integer.MAX_VALUE;
+                unitMinutes[i] = switch (rule.getUnit()) {
+                    case MINUTE -> 1;
+                    case HOUR -> 60;
+                    case FLAT -> 0;
+                };
+                prices[i] = rule.getPricePerUnit();
+            }
+            long running = 0L;
+            for (int i = 0; i < n; i++) {
+                // Overlapping or open-ended bands stop where the next band starts
+                if (i + 1 < n && ends[i] > starts[i + 1]) {
+                    ends[i] = starts[i + 1];
+                }
+                priceBefore[i] = running;
+                if (i + 1 < n) {
+                    running += bandPrice(i, ends[i] - starts[i]);
+                }
+            }
+        }
+
+        long price(long stayMinutes) {
+            int minutes = (int) Math.min(stayMinutes, Integer.MAX_VALUE);
+            // last band starting before the end of the stay
+            int lo = 0;
+            int hi = starts.length - 1;
+            int band = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < minutes) {
+                    band = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            if (band < 0) {
+                return 0L;
+            }
+            return priceBefore[band] + bandPrice(band, Math.min(minutes, ends[band]) - starts[band]);
+        }
+
+        private long bandPrice(int band, int minutesInBand) {
+            if (minutesInBand <= 0) {
+                return 0L;
+            }
+            int unit = unitMinutes[band];
+            if (unit == 0) {
+                return prices[band];
+            }
+            return ((minutesInBand + unit - 1L) / unit) * prices[band];
+        }
+    }
+}
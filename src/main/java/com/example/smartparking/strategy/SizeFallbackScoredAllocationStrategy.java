@@ -0,0 +1,79 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.availability.SpotAvailabilityIndex;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.strategy.SpotAllocationStrategy;
+import com.example.smartparking.observability.ParkingMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Nearest-first allocation that may place a vehicle in a larger compatible spot
+ * (SpotSize.fitsInto). For each compatible size the nearest free spot is scored as
+ * floorsAway * floorWeight + upsizePenalty per size step + premiumSpotPenalty when a
+ * LARGE spot goes to a smaller vehicle; the lowest score wins and ties keep the exact size.
+ * With a known entrance the nearest spot is the one nearest to that entrance and floorsAway
+ * counts floors from the entrance's floor; otherwise it goes by floor ordering.
+ * All candidates come from the in-memory availability index in one lookup,
+ * not a query per (floor, size).
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.parking", name = "allocation-strategy", havingValue = "SIZE_FALLBACK_SCORED")
+public class SizeFallbackScoredAllocationStrategy implements SpotAllocationStrategy {
+
+    private final SpotAvailabilityIndex availabilityIndex;
+    private final ParkingMetrics parkingMetrics;
+    private final int floorWeight;
+    private final int upsizePenalty;
+    private final int premiumSpotPenalty;
+
+    public SizeFallbackScoredAllocationStrategy(SpotAvailabilityIndex availabilityIndex,
+                                                ParkingMetrics parkingMetrics,
+                                                @Value("${app.parking.scored-allocation.floor-weight:1}") int floorWeight,
+                                                @Value("${app.parking.scored-allocation.upsize-penalty:2}") int upsizePenalty,
+                                                @Value("${app.parking.scored-allocation.premium-spot-penalty:3}") int premiumSpotPenalty) {
+        this.availabilityIndex = availabilityIndex;
+        this.parkingMetrics = parkingMetrics;
+        this.floorWeight = floorWeight;
+        this.upsizePenalty = upsizePenalty;
+        this.premiumSpotPenalty = premiumSpotPenalty;
+    }
+
+    @Override
+    public Optional<AllocationResult> allocateSpot(AllocationRequest request) {
+        SpotSize vehicleSize = request.vehicleSize();
+        boolean byEntrance = availabilityIndex.hasEntrance(request.lotId(), request.entranceId());
+        Optional<SpotAvailabilityIndex.IndexedSpot> claimed = availabilityIndex.claimBestOf(
+                request.lotId(), request.entranceId(), vehicleSize.fitsInto(),
+                (size, floorsAway) -> floorsAway * floorWeight + waste(vehicleSize, size));
+        parkingMetrics.recordFloorsScanned(claimed
+                .map(spot -> spot.floorRank() + 1)
+                .orElseGet(() -> availabilityIndex.floorCount(request.lotId())));
+        claimed.filter(spot -> spot.size() != vehicleSize)
+                .ifPresent(spot -> parkingMetrics.onSizeFallback());
+        return claimed
+                .map(spot -> new AllocationResult(
+                        spot.spotId(),
+                        spot.floorId(),
+                        false,                      // reservedSpot
+                        spot.size() != vehicleSize ? "size_fallback_scored"
+                                : byEntrance ? "nearest_to_entrance" : "nearest_by_floor_order"
+                ));
+    }
+
+    // Penalty for parking a vehicle in a spot of another size; 0 for an exact fit
+    int waste(SpotSize vehicleSize, SpotSize spotSize) {
+        if (spotSize == vehicleSize) {
+            return 0;
+        }
+        int penalty = upsizePenalty * Math.max(1, spotSize.ordinal() - vehicleSize.ordinal());
+        // only SMALL and MEDIUM vehicles reach a spot of another size, so LARGE is the only premium one
+        if (spotSize == SpotSize.LARGE) {
+            penalty += premiumSpotPenalty;
+        }
+        return penalty;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.domain.strategy.IdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7 (RFC 9562) ids: 48-bit Unix milliseconds, 12-bit counter, 62 random bits.
+ * New keys land at the right edge of the primary key B-trees instead of on random pages.
+ * The millisecond and counter of the last id live in one AtomicLong that every thread
+ * advances with a CAS, so the ids of one generator strictly increase across threads,
+ * virtual ones included: a new millisecond starts the counter at a random value below
+ * 2048, within a millisecond it is incremented, and when it runs out (or the clock goes
+ * back) the id borrows the next millisecond.
+ * The random bits come from a per-thread SplittableRandom seeded once from SecureRandom,
+ * so no id waits on SecureRandom's lock; with virtual threads the seeding happens once
+ * per request. The bits keep ids unique, not secret: ticket and reservation ids reveal
+ * their creation time and later ids of a thread can be derived from earlier ones, so an
+ * id identifies a resource but must not be the only proof that a caller may act on it.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.parking", name = "id-strategy", havingValue = "TIME_ORDERED",
+        matchIfMissing = true)
+public class TimeOrderedIdGenerator implements IdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final int MAX_COUNTER = (1 << COUNTER_BITS) - 1;
+    // leaves at least 2048 increments per millisecond before borrowing the next one
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+
+    private static final SecureRandom SEEDS = new SecureRandom();
+    private static final ThreadLocal<SplittableRandom> RANDOM =
+            ThreadLocal.withInitial(() -> new SplittableRandom(SEEDS.nextLong()));
+
+    // millis << COUNTER_BITS | counter of the last id handed out
+    private final AtomicLong last = new AtomicLong(-1);
+
+    @Override
+    public UUID newId() {
+        return next(System.currentTimeMillis());
+    }
+
+    // nowMillis is the wall clock; ids never go back in time even if the clock does
+    UUID next(long nowMillis) {
+        long previous;
+        long stamp;
+        do {
+            previous = last.get();
+            stamp = nowMillis > (previous >> COUNTER_BITS)
+                    ? (nowMillis << COUNTER_BITS) | ThreadLocalRandom.current().nextInt(COUNTER_SEED_BOUND)
+                    // a full counter carries into the millisecond
+                    : previous + 1;
+        } while (!last.compareAndSet(previous, stamp));
+
+        long msb = ((stamp >>> COUNTER_BITS) & 0xFFFF_FFFF_FFFFL) << 16
+                | 0x7000L
+                | (stamp & MAX_COUNTER);
+        long lsb = (RANDOM.get().nextLong() & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(msb, lsb);
+    }
+}
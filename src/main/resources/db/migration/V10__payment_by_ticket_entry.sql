@@ -0,0 +1,81 @@
+-- One payment per ticket again. V8 had to drop UNIQUE (ticket_id) because payment was
+-- partitioned by its own created_at; payment now carries the entry_at of its ticket and is
+-- range-partitioned by that, so the unique constraint can contain the partition key. A
+-- payment lands in the same month as its ticket's ticket_closed partition, and
+-- PartitionMaintenanceJob retires both together.
+-- There is still no foreign key to ticket: ticket's key contains its status, which
+-- changes on close, and payments of tickets in already archived months have no row to
+-- reference.
+-- A ticket paid twice before this migration makes the copy below fail; settle those
+-- duplicates by hand first.
+
+ALTER TABLE payment RENAME TO payment_by_created;
+
+-- Free the payment_YYYY_MM names for the new partitions
+DO $$
+DECLARE
+    part RECORD;
+BEGIN
+    FOR part IN SELECT c.relname
+                  FROM pg_inherits i
+                  JOIN pg_class c ON c.oid = i.inhrelid
+                 WHERE i.inhparent = 'payment_by_created'::regclass LOOP
+        EXECUTE format('ALTER TABLE %I RENAME TO %I', part.relname, 'old_' || part.relname);
+    END LOOP;
+END $$;
+
+CREATE TABLE payment (
+                         id              UUID NOT NULL,
+                         ticket_id       UUID NOT NULL,
+                         ticket_entry_at TIMESTAMPTZ NOT NULL,
+                         amount_minor    BIGINT      NOT NULL,      -- minor units, e.g. paise/cents
+                         currency        VARCHAR(3)  NOT NULL,
+                         method          payment_method NOT NULL,
+                         status          payment_status NOT NULL,
+                         paid_at         TIMESTAMPTZ,
+                         reference       VARCHAR(100),
+                         created_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                         updated_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                         PRIMARY KEY (id, ticket_entry_at),
+                         CONSTRAINT ux_payment_ticket UNIQUE (ticket_id, ticket_entry_at),
+                         CONSTRAINT chk_payment_amount_positive CHECK (amount_minor >= 0)
+) PARTITION BY RANGE (ticket_entry_at);
+
+CREATE TABLE payment_default PARTITION OF payment DEFAULT;
+
+-- The ticket's entry_at where the ticket is still around, else the payment's created_at
+CREATE TEMPORARY TABLE payment_entry ON COMMIT DROP AS
+SELECT p.id, COALESCE(t.entry_at, p.created_at) AS ticket_entry_at
+  FROM payment_by_created p
+  LEFT JOIN ticket t ON t.id = p.ticket_id;
+
+-- Monthly partitions from the oldest payment up to three months ahead, skipping names
+-- still taken by a detached month that waits for its archive (its rows go to the default)
+SET LOCAL TIME ZONE 'UTC';
+
+DO $$
+DECLARE
+    month DATE;
+    last_month DATE := date_trunc('month', NOW() + INTERVAL '3 months');
+    part_name TEXT;
+BEGIN
+    month := COALESCE((SELECT date_trunc('month', MIN(ticket_entry_at)) FROM payment_entry),
+                      date_trunc('month', NOW()));
+    WHILE month <= last_month LOOP
+        part_name := 'payment_' || to_char(month, 'YYYY_MM');
+        IF to_regclass(part_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF payment FOR VALUES FROM (%L) TO (%L)',
+                           part_name, month, month + INTERVAL '1 month');
+        END IF;
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO payment (id, ticket_id, ticket_entry_at, amount_minor, currency, method, status, paid_at,
+                     reference, created_at, updated_at)
+SELECT p.id, p.ticket_id, e.ticket_entry_at, p.amount_minor, p.currency, p.method, p.status, p.paid_at,
+       p.reference, p.created_at, p.updated_at
+  FROM payment_by_created p
+  JOIN payment_entry e ON e.id = p.id;
+
+DROP TABLE payment_by_created;
@@ -0,0 +1,10 @@
+-- A request claims its key with an IN_PROGRESS row, committed on its own before the request
+-- runs, so a duplicate on another node sees the claim and waits for the response instead
+-- of running the request again. The request's transaction turns the row into COMPLETED
+-- with the response; a failed request deletes it. expires_at of an IN_PROGRESS row is the
+-- claim's lease: a claim left behind by a dead node can be taken over once it has passed.
+ALTER TABLE idempotency_key
+    ADD COLUMN status VARCHAR(16) NOT NULL DEFAULT 'COMPLETED',
+    ALTER COLUMN response DROP NOT NULL,
+    ADD CONSTRAINT chk_idempotency_key_status CHECK (
+        (status = 'IN_PROGRESS' AND response IS NULL) OR (status = 'COMPLETED' AND response IS NOT NULL));
@@ -0,0 +1,14 @@
+-- Availability events written in the same transaction as the spot change;
+-- AvailabilityOutboxRelay delivers them to the sinks and deletes them.
+CREATE TABLE availability_outbox (
+                                     id           BIGSERIAL PRIMARY KEY,
+                                     event_type   VARCHAR(32) NOT NULL,
+                                     lot_id       UUID        NOT NULL,
+                                     floor_id     UUID,
+                                     spot_id      UUID        NOT NULL,
+                                     spot_code    VARCHAR(50),
+                                     spot_size    VARCHAR(16),
+                                     spot_status  VARCHAR(16),
+                                     occurred_at  TIMESTAMPTZ NOT NULL,
+                                     created_at   TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
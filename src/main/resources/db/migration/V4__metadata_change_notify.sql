@@ -0,0 +1,44 @@
+-- Broadcast lot/floor/spot definition changes on the parking_invalidation channel,
+-- whoever writes them (JPA, JDBC or psql). NOTIFY is delivered at commit, once per
+-- distinct payload per transaction. Payload: origin;record with origin 'db' and
+--   L,<lot_id>            lot changed
+--   F,<lot_id>            a floor of the lot changed
+--   P,<lot_id>,<spot_id>  spot code, size or floor changed
+
+CREATE OR REPLACE FUNCTION notify_parking_metadata() RETURNS trigger AS $$
+DECLARE
+    changed_lot UUID;
+BEGIN
+    IF TG_TABLE_NAME = 'lot' THEN
+        PERFORM pg_notify('parking_invalidation', 'db;L,' || COALESCE(NEW.id, OLD.id));
+    ELSIF TG_TABLE_NAME = 'floor' THEN
+        PERFORM pg_notify('parking_invalidation', 'db;F,' || COALESCE(NEW.lot_id, OLD.lot_id));
+    ELSE
+        SELECT lot_id INTO changed_lot FROM floor WHERE id = COALESCE(NEW.floor_id, OLD.floor_id);
+        PERFORM pg_notify('parking_invalidation',
+                          'db;P,' || COALESCE(changed_lot::TEXT, '') || ',' || COALESCE(NEW.id, OLD.id));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_lot_notify
+    AFTER INSERT OR UPDATE OR DELETE ON lot
+    FOR EACH ROW EXECUTE FUNCTION notify_parking_metadata();
+
+CREATE TRIGGER trg_floor_notify
+    AFTER INSERT OR UPDATE OR DELETE ON floor
+    FOR EACH ROW EXECUTE FUNCTION notify_parking_metadata();
+
+-- Status flips are sent by the application (InvalidationBus), not from here
+CREATE TRIGGER trg_spot_notify_insert_delete
+    AFTER INSERT OR DELETE ON spot
+    FOR EACH ROW EXECUTE FUNCTION notify_parking_metadata();
+
+CREATE TRIGGER trg_spot_notify_update
+    AFTER UPDATE ON spot
+    FOR EACH ROW
+    WHEN (OLD.code IS DISTINCT FROM NEW.code
+        OR OLD.size IS DISTINCT FROM NEW.size
+        OR OLD.floor_id IS DISTINCT FROM NEW.floor_id)
+    EXECUTE FUNCTION notify_parking_metadata();
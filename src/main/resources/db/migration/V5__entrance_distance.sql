@@ -0,0 +1,50 @@
+-- Lot entrances and the walking distance from each entrance to each spot,
+-- precomputed from the site plan. Spots without a row rank after every measured
+-- spot, nearest floor to the entrance's floor first.
+CREATE TABLE entrance (
+                          id          UUID PRIMARY KEY,
+                          lot_id      UUID NOT NULL REFERENCES lot(id) ON DELETE CASCADE,
+                          floor_id    UUID NOT NULL REFERENCES floor(id) ON DELETE CASCADE,
+                          code        VARCHAR(50) NOT NULL,
+                          created_at  TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                          updated_at  TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE UNIQUE INDEX ux_entrance_lot_code
+    ON entrance(lot_id, code);
+
+CREATE TABLE entrance_spot_distance (
+                                        entrance_id  UUID NOT NULL REFERENCES entrance(id) ON DELETE CASCADE,
+                                        spot_id      UUID NOT NULL REFERENCES spot(id) ON DELETE CASCADE,
+                                        distance_m   INT  NOT NULL CHECK (distance_m >= 0),
+                                        PRIMARY KEY (entrance_id, spot_id)
+);
+
+CREATE INDEX idx_entrance_spot_distance_spot
+    ON entrance_spot_distance(spot_id);
+
+-- Entrance or distance changes re-rank the lot's entrances on every node:
+--   E,<lot_id>
+CREATE OR REPLACE FUNCTION notify_entrance_change() RETURNS trigger AS $$
+DECLARE
+    changed_lot UUID;
+BEGIN
+    IF TG_TABLE_NAME = 'entrance' THEN
+        changed_lot := COALESCE(NEW.lot_id, OLD.lot_id);
+    ELSE
+        SELECT lot_id INTO changed_lot FROM entrance WHERE id = COALESCE(NEW.entrance_id, OLD.entrance_id);
+    END IF;
+    IF changed_lot IS NOT NULL THEN
+        PERFORM pg_notify('parking_invalidation', 'db;E,' || changed_lot);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_entrance_notify
+    AFTER INSERT OR UPDATE OR DELETE ON entrance
+    FOR EACH ROW EXECUTE FUNCTION notify_entrance_change();
+
+CREATE TRIGGER trg_entrance_spot_distance_notify
+    AFTER INSERT OR UPDATE OR DELETE ON entrance_spot_distance
+    FOR EACH ROW EXECUTE FUNCTION notify_entrance_change();
@@ -0,0 +1,24 @@
+-- Reservation holds: the spot stays RESERVED until the hold is claimed at check-in,
+-- cancelled, or expires at expires_at (driven by the in-memory expiry wheel).
+CREATE TYPE reservation_status AS ENUM ('HELD', 'CLAIMED', 'CANCELLED', 'EXPIRED');
+
+CREATE TABLE reservation (
+                             id             UUID PRIMARY KEY,
+                             lot_id         UUID NOT NULL REFERENCES lot(id) ON DELETE CASCADE,
+                             spot_id        UUID NOT NULL REFERENCES spot(id) ON DELETE CASCADE,
+                             license_plate  VARCHAR(50) NOT NULL,
+                             status         reservation_status NOT NULL,
+                             expires_at     TIMESTAMPTZ NOT NULL,
+                             created_at     TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                             updated_at     TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Invariant: at most one live hold per spot
+CREATE UNIQUE INDEX ux_reservation_held_by_spot
+    ON reservation(spot_id)
+    WHERE status = 'HELD';
+
+-- Invariant: at most one live hold per plate per lot
+CREATE UNIQUE INDEX ux_reservation_held_by_plate_lot
+    ON reservation(license_plate, lot_id)
+    WHERE status = 'HELD';
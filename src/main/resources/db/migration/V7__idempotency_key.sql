@@ -0,0 +1,14 @@
+-- Responses of completed check-in/check-out requests, by Idempotency-Key.
+-- A row is written in the same transaction as the request's effect, so it exists
+-- exactly when the effect committed; a retry with the same key replays the response.
+CREATE TABLE idempotency_key (
+                                 operation        VARCHAR(32)  NOT NULL,
+                                 idempotency_key  VARCHAR(255) NOT NULL,
+                                 fingerprint      TEXT         NOT NULL,
+                                 response         JSONB        NOT NULL,
+                                 created_at       TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+                                 expires_at       TIMESTAMPTZ  NOT NULL,
+                                 PRIMARY KEY (operation, idempotency_key)
+);
+
+CREATE INDEX ix_idempotency_key_expires_at ON idempotency_key(expires_at);
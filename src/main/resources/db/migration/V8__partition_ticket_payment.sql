@@ -0,0 +1,94 @@
+-- Partitioned ticket and payment tables.
+-- ticket is list-partitioned by status: OPEN tickets live in the small ticket_open partition,
+-- which carries the open-ticket invariants, and closing a ticket moves its row into
+-- ticket_closed, range-partitioned by entry_at month. payment is range-partitioned by
+-- created_at month. PartitionMaintenanceJob creates months ahead and detaches or archives
+-- months past the retention period; the default partitions only catch rows of months that
+-- have no partition (e.g. a ticket opened before its month was archived).
+-- Unique constraints of partitioned tables must contain the partition key, so
+-- payment.ticket_id is no longer unique and payment no longer references ticket: closing the
+-- ticket row (which every check-out does before paying) is what admits one payment per ticket.
+
+ALTER TABLE payment RENAME TO payment_unpartitioned;
+ALTER TABLE ticket RENAME TO ticket_unpartitioned;
+
+CREATE TABLE ticket (
+                        id          UUID NOT NULL,
+                        lot_id      UUID NOT NULL REFERENCES lot(id) ON DELETE RESTRICT,
+                        spot_id     UUID NOT NULL REFERENCES spot(id) ON DELETE RESTRICT,
+                        vehicle_id  UUID NOT NULL REFERENCES vehicle(id) ON DELETE RESTRICT,
+                        entry_at    TIMESTAMPTZ NOT NULL,
+                        exit_at     TIMESTAMPTZ,
+                        status      ticket_status NOT NULL,
+                        created_at  TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                        updated_at  TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                        PRIMARY KEY (id, status, entry_at)
+) PARTITION BY LIST (status);
+
+CREATE TABLE ticket_open PARTITION OF ticket FOR VALUES IN ('OPEN');
+CREATE TABLE ticket_closed PARTITION OF ticket FOR VALUES IN ('CLOSED') PARTITION BY RANGE (entry_at);
+CREATE TABLE ticket_closed_default PARTITION OF ticket_closed DEFAULT;
+
+CREATE TABLE payment (
+                         id            UUID NOT NULL,
+                         ticket_id     UUID NOT NULL,
+                         amount_minor  BIGINT      NOT NULL,      -- minor units, e.g. paise/cents
+                         currency      VARCHAR(3)  NOT NULL,
+                         method        payment_method NOT NULL,
+                         status        payment_status NOT NULL,
+                         paid_at       TIMESTAMPTZ,
+                         reference     VARCHAR(100),
+                         created_at    TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                         updated_at    TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+                         PRIMARY KEY (id, created_at),
+                         CONSTRAINT chk_payment_amount_positive CHECK (amount_minor >= 0)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE payment_default PARTITION OF payment DEFAULT;
+
+-- Monthly partitions from the oldest existing row up to three months ahead.
+-- Bounds are UTC month starts, like the ones PartitionMaintenanceJob creates.
+SET LOCAL TIME ZONE 'UTC';
+
+DO $$
+DECLARE
+    month DATE;
+    last_month DATE := date_trunc('month', NOW() + INTERVAL '3 months');
+BEGIN
+    month := LEAST(
+            COALESCE((SELECT date_trunc('month', MIN(entry_at)) FROM ticket_unpartitioned), date_trunc('month', NOW())),
+            COALESCE((SELECT date_trunc('month', MIN(created_at)) FROM payment_unpartitioned), date_trunc('month', NOW())));
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF ticket_closed FOR VALUES FROM (%L) TO (%L)',
+                       'ticket_closed_' || to_char(month, 'YYYY_MM'), month, month + INTERVAL '1 month');
+        EXECUTE format('CREATE TABLE %I PARTITION OF payment FOR VALUES FROM (%L) TO (%L)',
+                       'payment_' || to_char(month, 'YYYY_MM'), month, month + INTERVAL '1 month');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO ticket (id, lot_id, spot_id, vehicle_id, entry_at, exit_at, status, created_at, updated_at)
+SELECT id, lot_id, spot_id, vehicle_id, entry_at, exit_at, status, created_at, updated_at
+  FROM ticket_unpartitioned;
+
+INSERT INTO payment (id, ticket_id, amount_minor, currency, method, status, paid_at, reference, created_at, updated_at)
+SELECT id, ticket_id, amount_minor, currency, method, status, paid_at, reference, created_at, updated_at
+  FROM payment_unpartitioned;
+
+DROP TABLE payment_unpartitioned;
+DROP TABLE ticket_unpartitioned;
+
+-- Invariant: at most one OPEN ticket per spot (ticket_open holds only OPEN rows)
+CREATE UNIQUE INDEX ux_ticket_open_by_spot
+    ON ticket_open(spot_id);
+
+-- Invariant: at most one OPEN ticket per vehicle per lot
+CREATE UNIQUE INDEX ux_ticket_open_by_vehicle_lot
+    ON ticket_open(vehicle_id, lot_id);
+
+-- Index to help look up tickets by vehicle quickly (general queries)
+CREATE INDEX idx_ticket_vehicle
+    ON ticket(vehicle_id);
+
+CREATE INDEX idx_payment_ticket
+    ON payment(ticket_id);
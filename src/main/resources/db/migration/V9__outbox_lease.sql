@@ -0,0 +1,6 @@
+-- Relays lease rows instead of deleting them before delivery: a batch is claimed in a
+-- short transaction and deleted only after every sink accepted it. Rows whose lease ran
+-- out (the relay died or stalled) are claimed again by any relay.
+ALTER TABLE availability_outbox
+    ADD COLUMN claimed_by    VARCHAR(64),
+    ADD COLUMN claimed_until TIMESTAMPTZ;
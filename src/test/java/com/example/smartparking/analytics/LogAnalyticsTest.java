@@ -0,0 +1,109 @@
+package com.example.smartparking.analytics;
+
+import com.example.smartparking.analytics.SessionStats.Lot;
+import com.example.smartparking.analytics.SessionStats.Operation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogAnalyticsTest {
+
+    private static final String LOT = "7f3c2a1e-0000-4000-8000-000000000001";
+    private static final Instant T0 = Instant.parse("2025-11-21T10:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void follows_requests_across_chunks_and_rotated_files() throws Exception {
+        List<String> first = new ArrayList<>();
+        first.add(line(0, "c1", "Check-in started lotId=" + LOT + " entranceId=e1 plate=MH12AB1234 size=MEDIUM"));
+        first.add(line(120, "c1", "Check-in success ticketId=t1 lotId=" + LOT + " spotId=s1 spotCode=G-M1 plate=MH12AB1234"));
+        first.add(line(5_000, "c2", "Check-in started lotId=" + LOT + " entranceId=e1 plate=KA01XY9999 size=MEDIUM"));
+        first.add(line(5_300, "c2", "Check-in success ticketId=t2 lotId=" + LOT + " spotId=s2 spotCode=G-M2 plate=KA01XY9999"));
+        first.add(line(7_000, "c3", "Check-in started lotId=" + LOT + " entranceId=e1 plate=DL05CC0001 size=LARGE"));
+        first.add(line(7_050, "c3", "No suitable spot available lotId=" + LOT + " size=LARGE"));
+        // the request of c4 rotates into the next file
+        first.add(line(90_000, "c4", "Check-out started lotId=" + LOT + " ticketId=t1"));
+        List<String> second = new ArrayList<>();
+        second.add(line(90_400, "c4", "Check-out success ticketId=t1 lotId=" + LOT + " spotId=s1 amountMinor=5000 currency=INR"));
+        second.add(line(95_000, "c5", "Check-out started lotId=" + LOT + " ticketId=t9"));
+        second.add(line(95_010, "c5", "Check-out ticket not found ticketId=t9 lotId=" + LOT));
+        second.add(line(96_000, "c6", "Check-in started lotId=" + LOT + " entranceId=e1 plate=MH12AB1234 size=MEDIUM"));
+        second.add("not json at all");
+        Path older = gzip("smart-parking.log.2025-11-21.0.gz", first);
+        Path newer = gzip("smart-parking.log.2025-11-21.1.gz", second);
+
+        // chunks smaller than a line force growing buffers and many cut points
+        SessionStats stats = new LogAnalytics(2, 64).analyze(List.of(older, newer));
+
+        assertEquals(12, stats.lines);
+        Lot lot = stats.lots.get(LOT);
+        assertEquals(2, lot.checkIns);
+        assertEquals(1, lot.checkOuts);
+        assertEquals(2, lot.rejected);
+        assertEquals(Map.of("Check-out ticket not found", 1L, "No suitable spot available", 1L), stats.rejections);
+        assertArrayEquals(new long[]{50_000, 120_000, 300_000}, stats.latencies.get(Operation.CHECK_IN).sorted());
+        assertArrayEquals(new long[]{10_000, 400_000}, stats.latencies.get(Operation.CHECK_OUT).sorted());
+        assertEquals(1, stats.unmatchedStarts());
+        assertEquals(0, stats.unmatchedOutcomes());
+        assertArrayEquals(new long[]{5_180_000}, LogAnalytics.gaps(lot.arrivals.sorted()));
+        assertEquals(2, LogAnalytics.peakPerMinute(lot.arrivals.sorted()));
+    }
+
+    @Test
+    void report_lists_lots_reasons_and_latencies() throws Exception {
+        Files.write(dir.resolve("smart-parking.log"), List.of(
+                line(0, "c1", "Check-in started lotId=" + LOT + " entranceId=e1 plate=P1 size=SMALL"),
+                line(80, "c1", "Check-in rejected: existing OPEN ticketId=t1 for lotId=" + LOT)));
+
+        SessionStats stats = new LogAnalytics(1, LogAnalytics.DEFAULT_CHUNK_BYTES)
+                .analyze(LogAnalytics.expand(new String[]{dir.toString()}));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LogAnalytics.report(stats, 1, 5, new PrintStream(out, true, StandardCharsets.UTF_8));
+        String report = out.toString(StandardCharsets.UTF_8);
+
+        assertTrue(report.contains(LOT), report);
+        assertTrue(report.contains("1  Check-in rejected: existing OPEN"), report);
+        assertTrue(report.contains("unmatched: starts=0 outcomes=0"), report);
+    }
+
+    @Test
+    void percentiles_use_nearest_rank() {
+        long[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertEquals(5, LogAnalytics.percentile(sorted, 50));
+        assertEquals(9, LogAnalytics.percentile(sorted, 90));
+        assertEquals(10, LogAnalytics.percentile(sorted, 100));
+        assertEquals(-1, LogAnalytics.percentile(new long[0], 50));
+    }
+
+    private Path gzip(String name, List<String> lines) throws IOException {
+        Path file = dir.resolve(name);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            for (String line : lines) {
+                out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return file;
+    }
+
+    private static String line(long offsetMillis, String correlationId, String message) {
+        return "{\"@timestamp\":\"" + T0.plusMillis(offsetMillis) + "\",\"log.level\":\"INFO\","
+                + "\"message\":\"" + message + "\",\"correlationId\":\"" + correlationId + "\","
+                + "\"ecs\":{\"version\":\"1.2.0\"}}";
+    }
+}
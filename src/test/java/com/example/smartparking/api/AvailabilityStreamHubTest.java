@@ -0,0 +1,165 @@
+package com.example.smartparking.api;
+
+import com.example.smartparking.application.ParkingQueryService;
+import com.example.smartparking.application.ParkingQueryService.FloorSizeAvailability;
+import com.example.smartparking.domain.NotFoundException;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.AvailabilityEvent;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.EventType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AvailabilityStreamHubTest {
+
+    private final ParkingQueryService parkingQueryService = mock(ParkingQueryService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AvailabilityStreamHub hub = new AvailabilityStreamHub(parkingQueryService, objectMapper, 0L, Runnable::run, 4);
+
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID floorId = UUID.randomUUID();
+
+    @Test
+    void subscriber_gets_snapshot_then_one_coalesced_delta() throws Exception {
+        when(parkingQueryService.countAvailabilityByLot(lotId)).thenReturn(List.of(
+                new FloorSizeAvailability(floorId, SpotSize.SMALL, 5, 10),
+                new FloorSizeAvailability(floorId, SpotSize.LARGE, 2, 2)));
+        CapturingEmitter first = new CapturingEmitter();
+        CapturingEmitter second = new CapturingEmitter();
+        hub.subscribe(lotId, first);
+        hub.subscribe(lotId, second);
+
+        JsonNode snapshot = objectMapper.readTree(first.sent.get(0));
+        assertEquals(2, snapshot.get("counts").size());
+
+        hub.accept(List.of(
+                event(EventType.SPOT_OCCUPIED, SpotSize.SMALL),
+                event(EventType.SPOT_OCCUPIED, SpotSize.SMALL),
+                event(EventType.SPOT_RELEASED, SpotSize.SMALL)));
+        hub.flush();
+        hub.flush();
+
+        assertEquals(2, first.sent.size());
+        assertEquals(first.sent.get(1), second.sent.get(1));
+        JsonNode delta = objectMapper.readTree(first.sent.get(1)).get("counts");
+        assertEquals(1, delta.size());
+        assertEquals("SMALL", delta.get(0).get("size").asText());
+        assertEquals(4, delta.get(0).get("free").asLong());
+        assertEquals(10, delta.get(0).get("total").asLong());
+    }
+
+    @Test
+    void failed_sends_drop_the_subscriber() {
+        when(parkingQueryService.countAvailabilityByLot(lotId)).thenReturn(List.of(
+                new FloorSizeAvailability(floorId, SpotSize.SMALL, 5, 10)));
+        CapturingEmitter healthy = new CapturingEmitter();
+        CapturingEmitter broken = new CapturingEmitter();
+        hub.subscribe(lotId, healthy);
+        hub.subscribe(lotId, broken);
+        broken.failing = true;
+
+        hub.accept(List.of(event(EventType.SPOT_OCCUPIED, SpotSize.SMALL)));
+        hub.flush();
+
+        assertEquals(1, hub.subscriberCount(lotId));
+        assertEquals(2, healthy.sent.size());
+    }
+
+    @Test
+    void resync_publishes_counts_that_drifted() throws Exception {
+        when(parkingQueryService.countAvailabilityByLot(lotId))
+                .thenReturn(List.of(new FloorSizeAvailability(floorId, SpotSize.SMALL, 5, 10)))
+                .thenReturn(List.of(new FloorSizeAvailability(floorId, SpotSize.SMALL, 7, 10)));
+        CapturingEmitter emitter = new CapturingEmitter();
+        hub.subscribe(lotId, emitter);
+
+        hub.resync();
+        hub.flush();
+
+        assertEquals(2, emitter.sent.size());
+        assertEquals(7, objectMapper.readTree(emitter.sent.get(1)).get("counts").get(0).get("free").asLong());
+    }
+
+    @Test
+    void events_arriving_during_the_snapshot_query_are_not_lost() throws Exception {
+        when(parkingQueryService.countAvailabilityByLot(lotId)).thenAnswer(invocation -> {
+            hub.accept(List.of(event(EventType.SPOT_OCCUPIED, SpotSize.SMALL)));
+            return List.of(new FloorSizeAvailability(floorId, SpotSize.SMALL, 5, 10));
+        });
+        CapturingEmitter emitter = new CapturingEmitter();
+        hub.subscribe(lotId, emitter);
+
+        assertEquals(4, objectMapper.readTree(emitter.sent.get(0)).get("counts").get(0).get("free").asLong());
+    }
+
+    @Test
+    void slow_subscriber_is_disconnected_without_blocking_flush() {
+        when(parkingQueryService.countAvailabilityByLot(lotId)).thenReturn(List.of(
+                new FloorSizeAvailability(floorId, SpotSize.SMALL, 5, 10)));
+        List<Runnable> stalled = new ArrayList<>();
+        AvailabilityStreamHub slowHub = new AvailabilityStreamHub(parkingQueryService, objectMapper, 0L, stalled::add, 2);
+        CapturingEmitter emitter = new CapturingEmitter();
+        slowHub.subscribe(lotId, emitter);
+
+        // Nothing is sent while the sender is stalled; the third unsent frame is one too many
+        for (int i = 0; i < 2; i++) {
+            slowHub.accept(List.of(event(EventType.SPOT_OCCUPIED, SpotSize.SMALL)));
+            slowHub.flush();
+        }
+        assertEquals(0, slowHub.subscriberCount(lotId));
+
+        stalled.forEach(Runnable::run);
+        assertTrue(emitter.completed);
+        assertTrue(emitter.sent.isEmpty());
+    }
+
+    @Test
+    void unknown_lot_is_not_registered() {
+        when(parkingQueryService.countAvailabilityByLot(lotId)).thenThrow(new NotFoundException("Lot not found"));
+
+        assertThrows(NotFoundException.class, () -> hub.subscribe(lotId, new CapturingEmitter()));
+        assertEquals(0, hub.subscriberCount(lotId));
+    }
+
+    private AvailabilityEvent event(EventType type, SpotSize size) {
+        return new AvailabilityEvent(type, lotId, floorId, UUID.randomUUID(), "S1",
+                size.name(), type == EventType.SPOT_RELEASED ? "AVAILABLE" : "OCCUPIED", Instant.now());
+    }
+
+    private static final class CapturingEmitter extends SseEmitter {
+        private final List<String> sent = new ArrayList<>();
+        private boolean failing;
+        private boolean completed;
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("broken pipe");
+            }
+            StringBuilder data = new StringBuilder();
+            builder.build().forEach(part -> {
+                if (MediaType.APPLICATION_JSON.equals(part.getMediaType())) {
+                    data.append(part.getData());
+                }
+            });
+            sent.add(data.toString());
+        }
+    }
+}
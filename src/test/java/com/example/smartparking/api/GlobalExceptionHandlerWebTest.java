@@ -1,5 +1,6 @@
 package com.example.smartparking.api;
 
+import com.example.smartparking.strategy.TimeOrderedIdGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +12,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = DummyController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, TimeOrderedIdGenerator.class})
 public class GlobalExceptionHandlerWebTest {
     @Autowired
     ObjectMapper objectMapper;
@@ -0,0 +1,104 @@
+package com.example.smartparking.api;
+
+import com.example.smartparking.AbstractIntegrationTest;
+import com.example.smartparking.application.ParkingQueryService.SpotPage;
+import com.example.smartparking.application.ParkingQueryService.SpotSummary;
+import com.example.smartparking.metadata.ResourceVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParkingQueryApiTest extends AbstractIntegrationTest {
+
+    private static final UUID GROUND_FLOOR = UUID.fromString("00000000-0000-0000-0000-000000000011");
+
+    @Autowired
+    ResourceVersions versions;
+
+    @Test
+    void spots_answer_if_none_match_with_304_until_the_floor_changes() {
+        String spotsUrl = url("/api/floors/" + GROUND_FLOOR + "/spots");
+        ResponseEntity<SpotSummary[]> first = restTemplate.getForEntity(spotsUrl, SpotSummary[].class);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(etag);
+        ResponseEntity<String> unchanged = restTemplate.exchange(
+                spotsUrl, HttpMethod.GET, new HttpEntity<>(conditional), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+        assertNull(unchanged.getBody());
+
+        versions.spotsChanged(GROUND_FLOOR);
+        ResponseEntity<String> changed = restTemplate.exchange(
+                spotsUrl, HttpMethod.GET, new HttpEntity<>(conditional), String.class);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    @Test
+    void keyset_pages_and_stream_return_the_floor_in_code_order() {
+        List<String> paged = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            String pageUrl = url("/api/floors/" + GROUND_FLOOR + "/spots/page?limit=2"
+                    + (after == null ? "" : "&after=" + after));
+            SpotPage page = restTemplate.getForObject(pageUrl, SpotPage.class);
+            assertNotNull(page);
+            assertTrue(page.spots().size() <= 2);
+            page.spots().forEach(spot -> paged.add(spot.code()));
+            after = page.nextAfter();
+            pages++;
+        } while (after != null);
+
+        ResponseEntity<SpotSummary[]> streamed = restTemplate.getForEntity(
+                url("/api/floors/" + GROUND_FLOOR + "/spots/stream"), SpotSummary[].class);
+        assertEquals(HttpStatus.OK, streamed.getStatusCode());
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(streamed.getHeaders().getContentType()));
+        List<String> streamedCodes = Arrays.stream(streamed.getBody()).map(SpotSummary::code).toList();
+
+        SpotSummary[] listed = restTemplate.getForObject(
+                url("/api/floors/" + GROUND_FLOOR + "/spots"), SpotSummary[].class);
+
+        assertFalse(paged.isEmpty());
+        assertEquals((paged.size() + 1) / 2, pages);
+        assertEquals(paged.stream().sorted().toList(), paged);
+        assertEquals(paged, streamedCodes);
+        assertEquals(paged, Arrays.stream(listed).map(SpotSummary::code).toList());
+    }
+
+    @Test
+    void page_limit_out_of_range_is_rejected() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                url("/api/floors/" + GROUND_FLOOR + "/spots/page?limit=0"), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void counts_of_unknown_lots_and_floors_are_not_found() {
+        ResponseEntity<String> known = restTemplate.getForEntity(
+                url("/api/floors/" + GROUND_FLOOR + "/count?size=MEDIUM"), String.class);
+        ResponseEntity<String> floor = restTemplate.getForEntity(
+                url("/api/floors/" + UUID.randomUUID() + "/count?size=MEDIUM"), String.class);
+        ResponseEntity<String> lot = restTemplate.getForEntity(
+                url("/api/lots/" + UUID.randomUUID() + "/count?size=MEDIUM"), String.class);
+
+        assertEquals(HttpStatus.OK, known.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, floor.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, lot.getStatusCode());
+    }
+}
@@ -8,6 +8,8 @@ import com.example.smartparking.domain.SpotSize;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.*;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -84,4 +86,15 @@ class ParkingSessionApiTest extends AbstractIntegrationTest {
         assertEquals(HttpStatus.OK, activeAfter.getStatusCode());
         assertNull(activeAfter.getBody());
     }
-}
\ No newline at end of file
+
+    @Test
+    void batch_without_items_is_rejected_with_400() {
+        ResponseEntity<String> missing =
+                restTemplate.postForEntity(url("/api/sessions/check-in:batch"), Map.of(), String.class);
+        ResponseEntity<String> empty =
+                restTemplate.postForEntity(url("/api/sessions/check-out:batch"), Map.of("items", List.of()), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, missing.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, empty.getStatusCode());
+    }
+}
@@ -2,8 +2,11 @@ package com.example.smartparking.application;
 
 import com.example.smartparking.application.ParkingQueryService.*;
 import com.example.smartparking.application.mapper.ParkingQueryMapper;
+import com.example.smartparking.availability.SpotStatusCounters;
 import com.example.smartparking.domain.*;
+import com.example.smartparking.metadata.ParkingMetadataCache;
 import com.example.smartparking.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -21,11 +24,15 @@ class ParkingQueryServiceImplTest {
     private final VehicleRepository vehicleRepository = mock(VehicleRepository.class);
     private final TicketRepository ticketRepository = mock(TicketRepository.class);
     private final ParkingQueryMapper mapper = new ParkingQueryMapper();
+    private final SpotStatusCounters statusCounters = mock(SpotStatusCounters.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ParkingMetadataCache metadataCache = new ParkingMetadataCache(
+            lotRepository, floorRepository, spotRepository, registry, 16, 16);
 
     private final ParkingQueryServiceImpl service =
             new ParkingQueryServiceImpl(
-                    lotRepository, floorRepository, spotRepository,
-                    vehicleRepository, ticketRepository, mapper);
+                    spotRepository, vehicleRepository, ticketRepository,
+                    mapper, statusCounters, metadataCache);
 
     @Test
     void listLots_maps_entities_to_summaries() {
@@ -37,6 +44,15 @@ class ParkingQueryServiceImplTest {
         assertEquals(1, result.size());
         assertEquals(lot.getId(), result.get(0).id());
         assertEquals("Central", result.get(0).name());
+
+        // second call is served from the cache until a lot change commits
+        service.listLots();
+        verify(lotRepository, times(1)).findAll();
+        metadataCache.evictLot(lot.getId());
+        service.listLots();
+        verify(lotRepository, times(2)).findAll();
+        assertEquals(1.0, registry.get("parking.metadata.cache.gets")
+                .tags("cache", "lot_list", "result", "hit").counter().count());
     }
 
     @Test
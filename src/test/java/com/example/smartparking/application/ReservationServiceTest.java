@@ -0,0 +1,116 @@
+package com.example.smartparking.application;
+
+import com.example.smartparking.application.ParkingSessionService.CheckInCommand;
+import com.example.smartparking.application.ParkingSessionService.CheckInResult;
+import com.example.smartparking.application.ReservationService.CreateReservationCommand;
+import com.example.smartparking.application.ReservationService.ReservationResult;
+import com.example.smartparking.domain.BusinessRuleException;
+import com.example.smartparking.domain.ConflictException;
+import com.example.smartparking.domain.ReservationStatus;
+import com.example.smartparking.domain.SpotSize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.parking.reservation.tick-ms=20")
+@ActiveProfiles("local")
+class ReservationServiceTest {
+
+    @Autowired
+    ReservationService reservationService;
+
+    @Autowired
+    ParkingSessionService parkingSessionService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID floorId = UUID.randomUUID();
+    private final String plate = "RS" + Integer.toHexString(lotId.hashCode()).toUpperCase();
+
+    @BeforeEach
+    void seedLot() {
+        jdbcTemplate.update("INSERT INTO lot (id, name, address, timezone, maintenance_mode) VALUES (?, ?, ?, ?, FALSE)",
+                lotId, "Reservation Lot", "Test", "Asia/Kolkata");
+        jdbcTemplate.update("INSERT INTO floor (id, lot_id, label, ordering) VALUES (?, ?, ?, ?)",
+                floorId, lotId, "G", 1);
+        jdbcTemplate.update("INSERT INTO spot (id, floor_id, code, size, status) VALUES (?, ?, 'G-M1', 'MEDIUM', 'AVAILABLE')",
+                UUID.randomUUID(), floorId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM payment WHERE ticket_id IN (SELECT id FROM ticket WHERE lot_id = ?)", lotId);
+        jdbcTemplate.update("DELETE FROM ticket WHERE lot_id = ?", lotId);
+        jdbcTemplate.update("DELETE FROM vehicle WHERE license_plate LIKE ?", plate + "%");
+        jdbcTemplate.update("DELETE FROM lot WHERE id = ?", lotId);
+    }
+
+    @Test
+    void held_spot_is_only_claimed_by_check_in_with_the_reservation() {
+        ReservationResult held = reservationService.create(reserve(plate, Duration.ofMinutes(5)));
+
+        assertEquals(ReservationStatus.HELD, held.status());
+        assertEquals("RESERVED", spotStatus(held.spotId()));
+        assertThrows(ConflictException.class,
+                () -> reservationService.create(reserve(plate, Duration.ofMinutes(5))));
+
+        // the only spot is held, so a walk-in finds nothing
+        BusinessRuleException noSpot = assertThrows(BusinessRuleException.class,
+                () -> parkingSessionService.checkIn(checkIn(plate + "W", Optional.empty())));
+        assertEquals("no_spot_available", noSpot.errorCode());
+        BusinessRuleException wrongPlate = assertThrows(BusinessRuleException.class,
+                () -> parkingSessionService.checkIn(checkIn(plate + "X", Optional.of(held.reservationId()))));
+        assertEquals("reservation_plate_mismatch", wrongPlate.errorCode());
+
+        CheckInResult checkedIn = parkingSessionService.checkIn(checkIn(plate, Optional.of(held.reservationId())));
+
+        assertEquals(held.spotId(), checkedIn.spotId());
+        assertEquals("OCCUPIED", spotStatus(held.spotId()));
+        assertEquals(ReservationStatus.CLAIMED, reservationService.get(held.reservationId()).status());
+    }
+
+    @Test
+    void expired_and_cancelled_holds_release_their_spot() throws InterruptedException {
+        ReservationResult expiring = reservationService.create(reserve(plate, Duration.ofMillis(100)));
+        assertEquals("RESERVED", spotStatus(expiring.spotId()));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (reservationService.get(expiring.reservationId()).status() == ReservationStatus.HELD
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(ReservationStatus.EXPIRED, reservationService.get(expiring.reservationId()).status());
+        assertEquals("AVAILABLE", spotStatus(expiring.spotId()));
+
+        ReservationResult cancelled = reservationService.create(reserve(plate, Duration.ofMinutes(5)));
+        reservationService.cancel(cancelled.reservationId());
+        assertEquals(ReservationStatus.CANCELLED, reservationService.get(cancelled.reservationId()).status());
+        assertEquals("AVAILABLE", spotStatus(cancelled.spotId()));
+        assertThrows(BusinessRuleException.class, () -> reservationService.cancel(cancelled.reservationId()));
+    }
+
+    private CreateReservationCommand reserve(String licensePlate, Duration ttl) {
+        return new CreateReservationCommand(lotId, floorId, licensePlate, SpotSize.MEDIUM, ttl, Instant.now());
+    }
+
+    private CheckInCommand checkIn(String licensePlate, Optional<UUID> reservationId) {
+        return new CheckInCommand(lotId, floorId, licensePlate, SpotSize.MEDIUM, reservationId, Instant.now());
+    }
+
+    private String spotStatus(UUID spotId) {
+        return jdbcTemplate.queryForObject("SELECT CAST(status AS TEXT) FROM spot WHERE id = ?", String.class, spotId);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.smartparking.application;
+
+import com.example.smartparking.application.ParkingSessionBatchService.BatchItemResult;
+import com.example.smartparking.application.ParkingSessionBatchService.BatchResult;
+import com.example.smartparking.application.ParkingSessionService.CheckInCommand;
+import com.example.smartparking.application.ParkingSessionService.CheckInResult;
+import com.example.smartparking.application.ParkingSessionService.CheckOutCommand;
+import com.example.smartparking.application.ParkingSessionService.CheckOutResult;
+import com.example.smartparking.domain.SpotSize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.parking.batch.chunk-size=2")
+@ActiveProfiles("local")
+class SessionBatchTest {
+
+    @Autowired
+    ParkingSessionBatchService batchService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID floorId = UUID.randomUUID();
+    private final String plate = "SB" + Integer.toHexString(lotId.hashCode()).toUpperCase();
+
+    @BeforeEach
+    void seedLot() {
+        jdbcTemplate.update("INSERT INTO lot (id, name, address, timezone, maintenance_mode) VALUES (?, ?, ?, ?, FALSE)",
+                lotId, "Batch Lot", "Test", "Asia/Kolkata");
+        jdbcTemplate.update("INSERT INTO floor (id, lot_id, label, ordering) VALUES (?, ?, ?, ?)",
+                floorId, lotId, "G", 1);
+        jdbcTemplate.update("INSERT INTO spot (id, floor_id, code, size, status) VALUES (?, ?, 'G-M1', 'MEDIUM', 'AVAILABLE')",
+                UUID.randomUUID(), floorId);
+        jdbcTemplate.update("INSERT INTO spot (id, floor_id, code, size, status) VALUES (?, ?, 'G-M2', 'MEDIUM', 'AVAILABLE')",
+                UUID.randomUUID(), floorId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM payment WHERE ticket_id IN (SELECT id FROM ticket WHERE lot_id = ?)", lotId);
+        jdbcTemplate.update("DELETE FROM ticket WHERE lot_id = ?", lotId);
+        jdbcTemplate.update("DELETE FROM vehicle WHERE license_plate LIKE ?", plate + "%");
+        jdbcTemplate.update("DELETE FROM lot WHERE id = ?", lotId);
+    }
+
+    @Test
+    void check_in_batch_reports_each_item_and_keeps_successful_ones() {
+        BatchResult<CheckInResult> result = batchService.checkIn(List.of(
+                checkIn(lotId, plate + "A"),
+                checkIn(lotId, plate + "A"),
+                checkIn(lotId, plate + "B"),
+                checkIn(lotId, plate + "C"),
+                checkIn(UUID.randomUUID(), plate + "D")));
+
+        assertEquals(2, result.succeeded());
+        assertEquals(3, result.failed());
+        List<BatchItemResult<CheckInResult>> items = result.items();
+        assertEquals("G-M1", items.get(0).result().spotCode());
+        assertEquals("conflict", items.get(1).errorCode());
+        assertEquals("G-M2", items.get(2).result().spotCode());
+        assertEquals("no_spot_available", items.get(3).errorCode());
+        assertEquals("not_found", items.get(4).errorCode());
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM ticket WHERE lot_id = ? AND status = 'OPEN'", Integer.class, lotId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM spot WHERE floor_id = ? AND status = 'AVAILABLE'", Integer.class, floorId));
+        // only plates that got a spot are registered
+        assertEquals(List.of(plate + "A", plate + "B"), jdbcTemplate.queryForList(
+                "SELECT license_plate FROM vehicle WHERE license_plate LIKE ? ORDER BY license_plate",
+                String.class, plate + "%"));
+    }
+
+    @Test
+    void check_in_batch_claims_the_spots_nearest_to_the_entrance() {
+        UUID entranceId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO entrance (id, lot_id, floor_id, code) VALUES (?, ?, ?, 'E1')",
+                entranceId, lotId, floorId);
+        jdbcTemplate.update("""
+                INSERT INTO entrance_spot_distance (entrance_id, spot_id, distance_m)
+                SELECT ?, id, CASE code WHEN 'G-M2' THEN 10 ELSE 50 END FROM spot WHERE floor_id = ?
+                """, entranceId, floorId);
+
+        BatchResult<CheckInResult> result = batchService.checkIn(List.of(
+                new CheckInCommand(lotId, entranceId, plate + "A", SpotSize.MEDIUM, Optional.empty(), Instant.now()),
+                new CheckInCommand(lotId, entranceId, plate + "B", SpotSize.MEDIUM, Optional.empty(), Instant.now())));
+
+        assertEquals("G-M2", result.items().get(0).result().spotCode());
+        assertEquals("G-M1", result.items().get(1).result().spotCode());
+    }
+
+    @Test
+    void check_out_batch_closes_tickets_and_writes_payments() {
+        BatchResult<CheckInResult> checkedIn = batchService.checkIn(List.of(
+                checkIn(lotId, plate + "A"),
+                checkIn(lotId, plate + "B")));
+        UUID first = checkedIn.items().get(0).result().ticketId();
+        UUID second = checkedIn.items().get(1).result().ticketId();
+
+        Instant exitAt = Instant.now().plusSeconds(3600);
+        BatchResult<CheckOutResult> result = batchService.checkOut(List.of(
+                new CheckOutCommand(lotId, first, exitAt),
+                new CheckOutCommand(lotId, UUID.randomUUID(), exitAt),
+                new CheckOutCommand(lotId, second, exitAt),
+                new CheckOutCommand(lotId, first, exitAt)));
+
+        assertEquals(2, result.succeeded());
+        assertTrue(result.items().get(0).succeeded());
+        assertEquals("not_found", result.items().get(1).errorCode());
+        assertTrue(result.items().get(2).succeeded());
+        assertEquals("ticket_closed", result.items().get(3).errorCode());
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM ticket WHERE lot_id = ? AND status = 'CLOSED'", Integer.class, lotId));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM payment WHERE ticket_id IN (?, ?) AND status = 'SUCCESS'",
+                Integer.class, first, second));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM spot WHERE floor_id = ? AND status = 'AVAILABLE'", Integer.class, floorId));
+    }
+
+    private CheckInCommand checkIn(UUID lot, String licensePlate) {
+        return new CheckInCommand(lot, floorId, licensePlate, SpotSize.MEDIUM, Optional.empty(), Instant.now());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.smartparking.application;
+
+import com.example.smartparking.application.ParkingSessionService.CheckInCommand;
+import com.example.smartparking.application.ParkingSessionService.CheckInResult;
+import com.example.smartparking.application.ParkingSessionService.CheckOutCommand;
+import com.example.smartparking.domain.BusinessRuleException;
+import com.example.smartparking.domain.ConflictException;
+import com.example.smartparking.domain.NotFoundException;
+import com.example.smartparking.domain.SpotSize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.parking.check-in-pipeline=SINGLE_STATEMENT")
+@ActiveProfiles("local")
+class SingleStatementCheckInTest {
+
+    @Autowired
+    ParkingSessionService parkingSessionService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID upperFloorId = UUID.randomUUID();
+    private final UUID groundFloorId = UUID.randomUUID();
+    private final String plate = "SS" + Integer.toHexString(lotId.hashCode()).toUpperCase();
+
+    @BeforeEach
+    void seedLot() {
+        jdbcTemplate.update("INSERT INTO lot (id, name, address, timezone, maintenance_mode) VALUES (?, ?, ?, ?, FALSE)",
+                lotId, "Single Statement Lot", "Test", "Asia/Kolkata");
+        jdbcTemplate.update("INSERT INTO floor (id, lot_id, label, ordering) VALUES (?, ?, ?, ?)",
+                upperFloorId, lotId, "U1", 2);
+        jdbcTemplate.update("INSERT INTO floor (id, lot_id, label, ordering) VALUES (?, ?, ?, ?)",
+                groundFloorId, lotId, "G", 1);
+        jdbcTemplate.update("INSERT INTO spot (id, floor_id, code, size, status) VALUES (?, ?, 'U1-M1', 'MEDIUM', 'AVAILABLE')",
+                UUID.randomUUID(), upperFloorId);
+        jdbcTemplate.update("INSERT INTO spot (id, floor_id, code, size, status) VALUES (?, ?, 'G-M2', 'MEDIUM', 'AVAILABLE')",
+                UUID.randomUUID(), groundFloorId);
+        jdbcTemplate.update("INSERT INTO spot (id, floor_id, code, size, status) VALUES (?, ?, 'G-M1', 'MEDIUM', 'OCCUPIED')",
+                UUID.randomUUID(), groundFloorId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM payment WHERE ticket_id IN (SELECT id FROM ticket WHERE lot_id = ?)", lotId);
+        jdbcTemplate.update("DELETE FROM ticket WHERE lot_id = ?", lotId);
+        jdbcTemplate.update("DELETE FROM vehicle WHERE license_plate LIKE ?", plate + "%");
+        jdbcTemplate.update("DELETE FROM lot WHERE id = ?", lotId);
+    }
+
+    @Test
+    void check_in_claims_nearest_spot_and_rejects_second_open_ticket() {
+        CheckInResult result = parkingSessionService.checkIn(command(plate, SpotSize.MEDIUM));
+
+        assertEquals("G-M2", result.spotCode());
+        assertEquals(groundFloorId, result.floorId());
+        assertEquals(SpotSize.MEDIUM, result.spotSize());
+        assertEquals("OCCUPIED", jdbcTemplate.queryForObject(
+                "SELECT CAST(status AS TEXT) FROM spot WHERE id = ?", String.class, result.spotId()));
+        assertEquals("OPEN", jdbcTemplate.queryForObject(
+                "SELECT CAST(status AS TEXT) FROM ticket WHERE id = ?", String.class, result.ticketId()));
+
+        assertThrows(ConflictException.class,
+                () -> parkingSessionService.checkIn(command(plate, SpotSize.MEDIUM)));
+
+        // check-out still runs through JPA against the rows written by the statement
+        parkingSessionService.checkOut(new CheckOutCommand(lotId, result.ticketId(), Instant.now()));
+        CheckInResult again = parkingSessionService.checkIn(command(plate, SpotSize.MEDIUM));
+        assertEquals("G-M2", again.spotCode());
+    }
+
+    @Test
+    void concurrent_check_outs_of_one_ticket_write_one_payment() throws Exception {
+        CheckInResult result = parkingSessionService.checkIn(command(plate, SpotSize.MEDIUM));
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> checkOuts = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            checkOuts.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                    parkingSessionService.checkOut(new CheckOutCommand(lotId, result.ticketId(), Instant.now()));
+                    return true;
+                } catch (BusinessRuleException ex) {
+                    assertEquals("ticket_closed", ex.errorCode());
+                    return false;
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (CompletableFuture<Boolean> checkOut : checkOuts) {
+            succeeded += checkOut.get() ? 1 : 0;
+        }
+
+        assertEquals(1, succeeded);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM payment WHERE ticket_id = ?", Integer.class, result.ticketId()));
+        // the table itself admits one payment per ticket
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update("""
+                INSERT INTO payment (id, ticket_id, ticket_entry_at, amount_minor, currency, method, status)
+                SELECT ?, ticket_id, ticket_entry_at, 0, 'INR', 'CASH', 'INITIATED' FROM payment WHERE ticket_id = ?
+                """, UUID.randomUUID(), result.ticketId()));
+    }
+
+    @Test
+    void check_in_reports_missing_lot_and_missing_spot() {
+        BusinessRuleException noSpot = assertThrows(BusinessRuleException.class,
+                () -> parkingSessionService.checkIn(command(plate + "L", SpotSize.LARGE)));
+        assertEquals("no_spot_available", noSpot.errorCode());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM vehicle WHERE license_plate = ?", Integer.class, plate + "L"));
+
+        assertThrows(NotFoundException.class, () -> parkingSessionService.checkIn(new CheckInCommand(
+                UUID.randomUUID(), groundFloorId, plate, SpotSize.MEDIUM, Optional.empty(), Instant.now())));
+    }
+
+    private CheckInCommand command(String licensePlate, SpotSize size) {
+        return new CheckInCommand(lotId, groundFloorId, licensePlate, size, Optional.empty(), Instant.now());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.smartparking.application;
+
+import com.example.smartparking.application.ParkingSessionService.CheckInCommand;
+import com.example.smartparking.application.ParkingSessionService.CheckInResult;
+import com.example.smartparking.domain.SpotSize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs hundreds of parallel check-ins against a single floor in SKIP_LOCKED mode.
+ * Not part of the default test run: mvn test -Dtest=SkipLockedCheckInContentionIT
+ */
+@SpringBootTest(properties = "app.parking.concurrency-strategy=SKIP_LOCKED")
+@ActiveProfiles("local")
+class SkipLockedCheckInContentionIT {
+
+    private static final Logger log = LoggerFactory.getLogger(SkipLockedCheckInContentionIT.class);
+
+    private static final int SPOTS = 400;
+    private static final int CHECK_INS = 400;
+    private static final int GATES = 32;
+    private static final int MAX_RETRIES = 5;
+
+    @Autowired
+    ParkingSessionService parkingSessionService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID floorId = UUID.randomUUID();
+    private final String platePrefix = "CT" + Integer.toHexString(lotId.hashCode()).toUpperCase();
+
+    @BeforeEach
+    void seedSingleFloor() {
+        jdbcTemplate.update("INSERT INTO lot (id, name, address, timezone, maintenance_mode) VALUES (?, ?, ?, ?, FALSE)",
+                lotId, "Contention Lot", "Bench", "Asia/Kolkata");
+        jdbcTemplate.update("INSERT INTO floor (id, lot_id, label, ordering) VALUES (?, ?, ?, ?)",
+                floorId, lotId, "C1", 1);
+        List<Object[]> spots = new ArrayList<>();
+        for (int i = 0; i < SPOTS; i++) {
+            spots.add(new Object[]{UUID.randomUUID(), floorId, String.format("C1-S%04d", i)});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO spot (id, floor_id, code, size, status) VALUES (?, ?, ?, 'SMALL', 'AVAILABLE')", spots);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM ticket WHERE lot_id = ?", lotId);
+        jdbcTemplate.update("DELETE FROM vehicle WHERE license_plate LIKE ?", platePrefix + "%");
+        jdbcTemplate.update("DELETE FROM lot WHERE id = ?", lotId);
+    }
+
+    @Test
+    void parallel_check_ins_never_collide_on_the_same_spot() throws Exception {
+        ExecutorService gates = Executors.newFixedThreadPool(GATES);
+        AtomicInteger retries = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CheckInResult>> futures = new ArrayList<>();
+
+        for (int i = 0; i < CHECK_INS; i++) {
+            String plate = platePrefix + "-" + i;
+            futures.add(gates.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt <= MAX_RETRIES; attempt++) {
+                    try {
+                        return parkingSessionService.checkIn(new CheckInCommand(
+                                lotId, floorId, plate, SpotSize.SMALL, Optional.empty(), Instant.now()));
+                    } catch (DataIntegrityViolationException ex) {
+                        retries.incrementAndGet();
+                    }
+                }
+                failures.incrementAndGet();
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        Set<UUID> spots = new HashSet<>();
+        for (Future<CheckInResult> future : futures) {
+            CheckInResult result = future.get(2, TimeUnit.MINUTES);
+            if (result != null) {
+                spots.add(result.spotId());
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        gates.shutdown();
+
+        double throughput = CHECK_INS / (elapsedNanos / 1_000_000_000.0);
+        log.info("SKIP_LOCKED contention: check-ins={} gates={} elapsed={}ms throughput={}/s retries={} failures={}",
+                CHECK_INS, GATES, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), String.format("%.1f", throughput),
+                retries.get(), failures.get());
+
+        assertEquals(0, failures.get());
+        assertEquals(CHECK_INS, spots.size(), "every check-in must get its own spot");
+        Integer occupied = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM spot WHERE floor_id = ? AND status = 'OCCUPIED'", Integer.class, floorId);
+        assertEquals(CHECK_INS, occupied);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.smartparking.application;
+
+import com.example.smartparking.application.ParkingSessionService.CheckInCommand;
+import com.example.smartparking.application.ParkingSessionService.CheckOutCommand;
+import com.example.smartparking.domain.ConflictException;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.observability.ParkingMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TimedParkingSessionServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ParkingSessionServiceImpl delegate = mock(ParkingSessionServiceImpl.class);
+    private final TimedParkingSessionService service =
+            new TimedParkingSessionService(delegate, new ParkingMetrics(registry));
+
+    @Test
+    void times_every_call_including_rejected_ones() {
+        when(delegate.checkIn(any())).thenReturn(null)
+                .thenThrow(new ConflictException("Vehicle already has an active ticket in this lot"));
+        CheckInCommand command = new CheckInCommand(UUID.randomUUID(), UUID.randomUUID(), "MH12AB1234",
+                SpotSize.MEDIUM, Optional.empty(), Instant.now());
+
+        service.checkIn(command);
+        assertThrows(ConflictException.class, () -> service.checkIn(command));
+        service.checkOut(new CheckOutCommand(UUID.randomUUID(), UUID.randomUUID(), Instant.now()));
+
+        assertEquals(2, registry.get("parking.checkin.latency").timer().count());
+        assertEquals(1, registry.get("parking.checkout.latency").timer().count());
+        verify(delegate, times(2)).checkIn(command);
+    }
+}
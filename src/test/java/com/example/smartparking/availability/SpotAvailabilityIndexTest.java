@@ -0,0 +1,151 @@
+package com.example.smartparking.availability;
+
+import com.example.smartparking.availability.SpotAvailabilityIndex.IndexedSpot;
+import com.example.smartparking.domain.Entrance;
+import com.example.smartparking.domain.Floor;
+import com.example.smartparking.domain.Spot;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.repository.EntranceRepository;
+import com.example.smartparking.repository.EntranceRepository.SpotDistance;
+import com.example.smartparking.repository.FloorRepository;
+import com.example.smartparking.repository.SpotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SpotAvailabilityIndexTest {
+
+    private final FloorRepository floorRepository = mock(FloorRepository.class);
+    private final SpotRepository spotRepository = mock(SpotRepository.class);
+    private final EntranceRepository entranceRepository = mock(EntranceRepository.class);
+    private final SpotAvailabilityIndex index = new SpotAvailabilityIndex(floorRepository, spotRepository, entranceRepository, 0L);
+
+    private final UUID lotId = UUID.randomUUID();
+    private final Floor ground = new Floor(UUID.randomUUID(), lotId, "G", 1);
+    private final Floor basement = new Floor(UUID.randomUUID(), lotId, "B1", 2);
+    private final Spot g2 = new Spot(UUID.randomUUID(), ground.getId(), "G-M2", SpotSize.MEDIUM, SpotStatus.AVAILABLE);
+    private final Spot g1 = new Spot(UUID.randomUUID(), ground.getId(), "G-M1", SpotSize.MEDIUM, SpotStatus.AVAILABLE);
+    private final Spot b1 = new Spot(UUID.randomUUID(), basement.getId(), "B1-M1", SpotSize.MEDIUM, SpotStatus.AVAILABLE);
+
+    @BeforeEach
+    void setUp() {
+        when(floorRepository.findByLotIdOrderByOrderingAsc(lotId)).thenReturn(List.of(ground, basement));
+        when(spotRepository.findByFloorId(ground.getId())).thenReturn(List.of(g2, g1));
+        when(spotRepository.findByFloorId(basement.getId())).thenReturn(List.of(b1));
+    }
+
+    @Test
+    void claims_follow_floor_ordering_then_code() {
+        assertEquals(g1.getId(), index.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        assertEquals(g2.getId(), index.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        assertEquals(b1.getId(), index.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        assertTrue(index.claimFirstAvailable(lotId, SpotSize.MEDIUM).isEmpty());
+        assertTrue(index.claimFirstAvailable(lotId, SpotSize.LARGE).isEmpty());
+
+        // loaded once, then served from memory
+        verify(floorRepository, times(1)).findByLotIdOrderByOrderingAsc(lotId);
+    }
+
+    @Test
+    void released_spot_becomes_claimable_again() {
+        index.claimFirstAvailable(lotId, SpotSize.MEDIUM);
+        index.markOccupied(lotId, g2.getId());
+
+        index.markAvailable(lotId, g1.getId());
+
+        Optional<IndexedSpot> next = index.claimFirstAvailable(lotId, SpotSize.MEDIUM);
+        assertEquals(g1.getId(), next.map(IndexedSpot::spotId).orElseThrow());
+        assertEquals(ground.getId(), next.get().floorId());
+        assertEquals(b1.getId(), index.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+    }
+
+    @Test
+    void rollback_returns_claims_but_not_dropped_ones() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.claimFirstAvailable(lotId, SpotSize.MEDIUM);
+            // g1 was taken by another node; g2 is the claim that goes on
+            index.dropClaim(lotId, g1.getId());
+            index.claimFirstAvailable(lotId, SpotSize.MEDIUM);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(TransactionSynchronizationManager.getResource(index));
+        assertEquals(g2.getId(), index.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        assertEquals(b1.getId(), index.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        assertTrue(index.claimFirstAvailable(lotId, SpotSize.MEDIUM).isEmpty());
+    }
+
+    @Test
+    void invalidate_reloads_from_repository() {
+        index.claimFirstAvailable(lotId, SpotSize.MEDIUM);
+
+        index.invalidate(lotId);
+
+        assertEquals(g1.getId(), index.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        verify(floorRepository, times(2)).findByLotIdOrderByOrderingAsc(lotId);
+    }
+
+    @Test
+    void miss_reloads_from_repository_unless_the_lot_was_just_loaded() {
+        while (index.claimFirstAvailable(lotId, SpotSize.MEDIUM).isPresent()) {
+            // drain the lot
+        }
+        // the ground floor really is full, but b1's claim was lost without a release
+        when(spotRepository.findByFloorId(ground.getId())).thenReturn(List.of(
+                new Spot(g1.getId(), ground.getId(), "G-M1", SpotSize.MEDIUM, SpotStatus.OCCUPIED),
+                new Spot(g2.getId(), ground.getId(), "G-M2", SpotSize.MEDIUM, SpotStatus.OCCUPIED)));
+
+        assertTrue(index.reloadAfterMiss(lotId));
+        assertEquals(b1.getId(), index.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+
+        SpotAvailabilityIndex throttled = new SpotAvailabilityIndex(floorRepository, spotRepository, entranceRepository, 60_000L);
+        throttled.claimFirstAvailable(lotId, SpotSize.MEDIUM);
+        assertFalse(throttled.reloadAfterMiss(lotId));
+    }
+
+    @Test
+    void claims_nearest_to_entrance_by_distance_with_unmeasured_spots_last() {
+        Entrance ramp = new Entrance(UUID.randomUUID(), lotId, basement.getId(), "RAMP");
+        when(entranceRepository.findByLotId(lotId)).thenReturn(List.of(ramp));
+        when(entranceRepository.findDistancesByLotId(lotId)).thenReturn(List.of(
+                new Distance(ramp.getId(), b1.getId(), 5),
+                new Distance(ramp.getId(), g1.getId(), 40)));
+
+        assertTrue(index.hasEntrance(lotId, ramp.getId()));
+        assertEquals(b1.getId(), index.claimNearestTo(lotId, ramp.getId(), SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        // the claim is gone from the floor ordering too
+        assertEquals(g1.getId(), index.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        assertEquals(g2.getId(), index.claimNearestTo(lotId, ramp.getId(), SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        assertTrue(index.claimNearestTo(lotId, ramp.getId(), SpotSize.MEDIUM).isEmpty());
+    }
+
+    @Test
+    void added_and_out_of_service_spots_apply_without_a_reload() {
+        index.claimFirstAvailable(lotId, SpotSize.MEDIUM);
+        Spot g0 = new Spot(UUID.randomUUID(), ground.getId(), "G-M0", SpotSize.MEDIUM, SpotStatus.AVAILABLE);
+
+        index.spotChanged(g0);
+        g2.outOfService();
+        index.spotChanged(g2);
+
+        assertEquals(g0.getId(), index.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        assertEquals(b1.getId(), index.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        assertTrue(index.claimFirstAvailable(lotId, SpotSize.MEDIUM).isEmpty());
+        verify(floorRepository, times(1)).findByLotIdOrderByOrderingAsc(lotId);
+    }
+
+    private record Distance(UUID getEntranceId, UUID getSpotId, int getDistance) implements SpotDistance {}
+}
@@ -0,0 +1,94 @@
+package com.example.smartparking.availability;
+
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.metadata.ResourceVersions;
+import com.example.smartparking.repository.SpotRepository;
+import com.example.smartparking.repository.SpotRepository.StatusCount;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SpotStatusCountersTest {
+
+    private final SpotRepository spotRepository = mock(SpotRepository.class);
+    private final ResourceVersions versions = new ResourceVersions();
+    private final SpotStatusCounters counters = new SpotStatusCounters(spotRepository, versions, false);
+
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID ground = UUID.randomUUID();
+    private final UUID basement = UUID.randomUUID();
+
+    @Test
+    void counts_are_loaded_once_and_follow_transitions() {
+        when(spotRepository.countGroupedByLotFloorSizeAndStatus()).thenReturn(List.of(
+                count(ground, SpotSize.MEDIUM, SpotStatus.AVAILABLE, 3),
+                count(basement, SpotSize.MEDIUM, SpotStatus.AVAILABLE, 2),
+                count(basement, SpotSize.MEDIUM, SpotStatus.OCCUPIED, 1)));
+
+        assertEquals(3, counters.countByFloor(ground, SpotSize.MEDIUM, SpotStatus.AVAILABLE));
+        assertEquals(5, counters.countByLot(lotId, SpotSize.MEDIUM, SpotStatus.AVAILABLE));
+        assertEquals(0, counters.countByLot(lotId, SpotSize.LARGE, SpotStatus.AVAILABLE));
+        String groundTag = versions.spotsTag(ground);
+        String basementTag = versions.spotsTag(basement);
+
+        counters.transition(lotId, ground, SpotSize.MEDIUM, SpotStatus.AVAILABLE, SpotStatus.OCCUPIED);
+
+        assertEquals(2, counters.countByFloor(ground, SpotSize.MEDIUM, SpotStatus.AVAILABLE));
+        assertEquals(1, counters.countByFloor(ground, SpotSize.MEDIUM, SpotStatus.OCCUPIED));
+        assertEquals(4, counters.countByLot(lotId, SpotSize.MEDIUM, SpotStatus.AVAILABLE));
+        assertEquals(2, counters.countByLot(lotId, SpotSize.MEDIUM, SpotStatus.OCCUPIED));
+        assertNotEquals(groundTag, versions.spotsTag(ground));
+        assertEquals(basementTag, versions.spotsTag(basement));
+        verify(spotRepository, times(1)).countGroupedByLotFloorSizeAndStatus();
+    }
+
+    @Test
+    void reconcile_overwrites_drifted_cells() {
+        when(spotRepository.countGroupedByLotFloorSizeAndStatus())
+                .thenReturn(List.of(
+                        count(ground, SpotSize.SMALL, SpotStatus.AVAILABLE, 4),
+                        count(basement, SpotSize.SMALL, SpotStatus.AVAILABLE, 1)))
+                .thenReturn(List.of(
+                        count(ground, SpotSize.SMALL, SpotStatus.AVAILABLE, 3),
+                        count(ground, SpotSize.SMALL, SpotStatus.OUT_OF_SERVICE, 1)));
+        counters.reconcile();
+        String basementTag = versions.spotsTag(basement);
+        // transition lost, e.g. a spot changed outside the service
+        counters.reconcile();
+
+        assertEquals(3, counters.countByFloor(ground, SpotSize.SMALL, SpotStatus.AVAILABLE));
+        assertEquals(1, counters.countByFloor(ground, SpotSize.SMALL, SpotStatus.OUT_OF_SERVICE));
+        assertEquals(0, counters.countByFloor(basement, SpotSize.SMALL, SpotStatus.AVAILABLE));
+        assertEquals(3, counters.countByLot(lotId, SpotSize.SMALL, SpotStatus.AVAILABLE));
+        assertNotEquals(basementTag, versions.spotsTag(basement));
+    }
+
+    @Test
+    void reconcile_makes_tags_stale_unless_other_nodes_report_their_transitions() {
+        when(spotRepository.countGroupedByLotFloorSizeAndStatus()).thenReturn(List.of(
+                count(ground, SpotSize.MEDIUM, SpotStatus.AVAILABLE, 2)));
+        SpotStatusCounters listening = new SpotStatusCounters(spotRepository, versions, true);
+        listening.reconcile();
+        String tag = versions.spotsTag(ground);
+
+        listening.reconcile();
+        assertEquals(tag, versions.spotsTag(ground));
+
+        // without the listener another node's check-in and check-out leave the totals unchanged
+        counters.reconcile();
+        counters.reconcile();
+        assertNotEquals(tag, versions.spotsTag(ground));
+    }
+
+    private StatusCount count(UUID floorId, SpotSize size, SpotStatus status, long spots) {
+        return new Row(lotId, floorId, size.name(), status.name(), spots);
+    }
+
+    private record Row(UUID getLotId, UUID getFloorId, String getSize, String getStatus, long getSpots)
+            implements StatusCount {}
+}
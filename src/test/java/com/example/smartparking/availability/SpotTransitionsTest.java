@@ -0,0 +1,66 @@
+package com.example.smartparking.availability;
+
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.invalidation.InvalidationBus;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+class SpotTransitionsTest {
+
+    private final SpotAvailabilityIndex availabilityIndex = mock(SpotAvailabilityIndex.class);
+    private final SpotStatusCounters statusCounters = mock(SpotStatusCounters.class);
+    private final InvalidationBus invalidationBus = mock(InvalidationBus.class);
+    private final SpotTransitions transitions = new SpotTransitions(availabilityIndex, statusCounters, invalidationBus);
+
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID floorId = UUID.randomUUID();
+    private final UUID spotId = UUID.randomUUID();
+
+    @Test
+    void index_and_counters_follow_only_a_committed_transition() {
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> transitions.apply(
+                lotId, floorId, spotId, SpotSize.MEDIUM, SpotStatus.OCCUPIED, SpotStatus.AVAILABLE));
+
+        verifyNoInteractions(availabilityIndex, statusCounters);
+        // the bus drops its records of a rolled-back transaction itself
+        verify(invalidationBus).spotStatusChanged(lotId, floorId, spotId, SpotSize.MEDIUM,
+                SpotStatus.OCCUPIED, SpotStatus.AVAILABLE);
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> transitions.apply(
+                lotId, floorId, spotId, SpotSize.MEDIUM, SpotStatus.OCCUPIED, SpotStatus.AVAILABLE));
+
+        verify(availabilityIndex).markAvailable(lotId, spotId);
+        verify(statusCounters).transition(lotId, floorId, SpotSize.MEDIUM, SpotStatus.OCCUPIED, SpotStatus.AVAILABLE);
+    }
+
+    @Test
+    void outside_a_transaction_applies_at_once_and_unchanged_status_is_ignored() {
+        transitions.apply(lotId, floorId, spotId, SpotSize.LARGE, SpotStatus.AVAILABLE, SpotStatus.RESERVED);
+        transitions.apply(lotId, floorId, spotId, SpotSize.LARGE, SpotStatus.RESERVED, SpotStatus.RESERVED);
+
+        verify(availabilityIndex).markOccupied(lotId, spotId);
+        verify(statusCounters).transition(lotId, floorId, SpotSize.LARGE, SpotStatus.AVAILABLE, SpotStatus.RESERVED);
+        verify(invalidationBus, times(1)).spotStatusChanged(any(), any(), any(), any(), any(), any());
+    }
+
+    private static void completeTransaction(int status, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                    sync.afterCommit();
+                }
+                sync.afterCompletion(status);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.smartparking.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApproximateLruMapTest {
+
+    @Test
+    void overflow_sweeps_out_the_least_recently_used_tenth() throws Exception {
+        ApproximateLruMap<Integer, String> map = new ApproximateLruMap<>(20);
+        for (int i = 0; i < 20; i++) {
+            map.put(i, "v" + i);
+            Thread.sleep(1);
+        }
+        // 0 and 1 were inserted first but read since, so 2 and 3 are now the oldest
+        assertEquals("v0", map.get(0));
+        assertEquals("v1", map.get(1));
+
+        assertEquals(3, map.put(20, "v20"));
+
+        assertEquals(18, map.size());
+        assertNull(map.get(2));
+        assertNull(map.get(3));
+        assertNull(map.get(4));
+        assertEquals("v0", map.get(0));
+        assertEquals("v20", map.get(20));
+    }
+
+    @Test
+    void conditional_remove_keeps_a_replaced_value() {
+        ApproximateLruMap<String, String> map = new ApproximateLruMap<>(1);
+        String stale = new String("stale");
+        map.put("k", stale);
+        map.put("k", "fresh");
+
+        assertFalse(map.remove("k", stale));
+        assertEquals("fresh", map.get("k"));
+
+        // a single-entry map keeps the newest entry
+        map.put("other", "v");
+        assertEquals(1, map.size());
+        assertEquals("v", map.get("other"));
+    }
+}
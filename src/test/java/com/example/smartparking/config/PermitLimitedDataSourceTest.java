@@ -0,0 +1,49 @@
+package com.example.smartparking.config;
+
+import com.example.smartparking.observability.ParkingMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PermitLimitedDataSourceTest {
+
+    @Test
+    void connection_holds_permit_until_closed_and_waiters_time_out() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DataSource pool = mock(DataSource.class);
+        Connection physical = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(physical);
+        PermitLimitedDataSource dataSource =
+                new PermitLimitedDataSource(pool, 1, 50, new ParkingMetrics(registry));
+
+        Connection first = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1.0, registry.get("parking.db.permit.timeouts").counter().count());
+
+        first.close();
+        first.close();
+        verify(physical, times(1)).close();
+        assertEquals(1, dataSource.availablePermits());
+
+        dataSource.getConnection().close();
+        assertEquals(3, registry.get("parking.db.permit.wait").timer().count());
+    }
+
+    @Test
+    void failed_pool_checkout_returns_the_permit() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+        PermitLimitedDataSource dataSource =
+                new PermitLimitedDataSource(pool, 2, 50, new ParkingMetrics(new SimpleMeterRegistry()));
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(2, dataSource.availablePermits());
+    }
+}
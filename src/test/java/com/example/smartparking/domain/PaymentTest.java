@@ -15,6 +15,7 @@ class PaymentTest {
         Payment payment = new Payment(
                 UUID.randomUUID(),
                 ticketId,
+                Instant.parse("2025-01-01T10:00:00Z"),
                 1500L,
                 "INR",
                 PaymentMethod.CASH
@@ -32,6 +33,7 @@ class PaymentTest {
         Payment payment = new Payment(
                 UUID.randomUUID(),
                 UUID.randomUUID(),
+                Instant.parse("2025-01-01T10:00:00Z"),
                 1500L,
                 "INR",
                 PaymentMethod.CARD
@@ -50,6 +52,7 @@ class PaymentTest {
         Payment payment = new Payment(
                 UUID.randomUUID(),
                 UUID.randomUUID(),
+                Instant.parse("2025-01-01T10:00:00Z"),
                 1500L,
                 "INR",
                 PaymentMethod.CARD
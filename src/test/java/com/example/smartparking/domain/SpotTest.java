@@ -2,6 +2,7 @@ package com.example.smartparking.domain;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +33,15 @@ class SpotTest {
         assertTrue(smallSpot.isCompatible(SpotSize.LARGE));
     }
 
+    @Test
+    void vehicle_fits_into_its_own_size_first_then_larger_ones() {
+        assertEquals(List.of(SpotSize.SMALL, SpotSize.MEDIUM, SpotSize.LARGE), SpotSize.SMALL.fitsInto());
+        assertEquals(List.of(SpotSize.MEDIUM, SpotSize.LARGE), SpotSize.MEDIUM.fitsInto());
+        assertEquals(List.of(SpotSize.LARGE), SpotSize.LARGE.fitsInto());
+        assertEquals(List.of(SpotSize.EV), SpotSize.EV.fitsInto());
+        assertEquals(List.of(SpotSize.BIKE), SpotSize.BIKE.fitsInto());
+    }
+
     @Test
     void valid_status_transitions() {
         Spot spot = new Spot(UUID.randomUUID(), UUID.randomUUID(), "A1", SpotSize.MEDIUM, SpotStatus.AVAILABLE);
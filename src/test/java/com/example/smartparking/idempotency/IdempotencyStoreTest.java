@@ -0,0 +1,160 @@
+package com.example.smartparking.idempotency;
+
+import com.example.smartparking.application.ParkingSessionService.CheckOutResult;
+import com.example.smartparking.domain.BusinessRuleException;
+import com.example.smartparking.domain.ConflictException;
+import com.example.smartparking.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("local")
+class IdempotencyStoreTest {
+
+    @Autowired
+    IdempotencyStore idempotencyStore;
+
+    @Autowired
+    IdempotencyKeyRepository repository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final String keyPrefix = "test-" + UUID.randomUUID();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE idempotency_key LIKE ?", keyPrefix + "%");
+    }
+
+    @Test
+    void replays_stored_response_from_memory_and_from_the_table() {
+        String key = keyPrefix + "-a";
+        CheckOutResult first = idempotencyStore.execute("check-out", key, "lot|ticket", CheckOutResult.class, this::checkOut);
+        CheckOutResult again = idempotencyStore.execute("check-out", key, "lot|ticket", CheckOutResult.class, this::checkOut);
+
+        assertSame(first, again);
+        assertEquals(1, executions.get());
+
+        // a node that never saw the request replays it from the table
+        IdempotencyStore otherNode = new IdempotencyStore(repository, objectMapper, transactionManager,
+                new SimpleMeterRegistry(), 24, 16, 1_000, 60_000);
+        assertEquals(first, otherNode.execute("check-out", key, "lot|ticket", CheckOutResult.class, this::checkOut));
+        assertEquals(1, executions.get());
+
+        BusinessRuleException reused = assertThrows(BusinessRuleException.class,
+                () -> otherNode.execute("check-out", key, "lot|other", CheckOutResult.class, this::checkOut));
+        assertEquals("idempotency_key_reused", reused.errorCode());
+    }
+
+    @Test
+    void concurrent_duplicates_wait_for_the_first_and_failures_are_not_stored() throws Exception {
+        String key = keyPrefix + "-b";
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<CheckOutResult> first = executor.submit(() -> idempotencyStore.execute(
+                    "check-out", key, "lot|ticket", CheckOutResult.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return checkOut();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<CheckOutResult> duplicate = executor.submit(() -> idempotencyStore.execute(
+                    "check-out", key, "lot|ticket", CheckOutResult.class, this::checkOut));
+            Thread.sleep(100);
+            assertFalse(duplicate.isDone());
+
+            release.countDown();
+            assertEquals(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        String failing = keyPrefix + "-c";
+        assertThrows(ConflictException.class, () -> idempotencyStore.execute(
+                "check-out", failing, "lot|ticket", CheckOutResult.class, () -> {
+                    throw new ConflictException("Ticket already closed");
+                }));
+        idempotencyStore.execute("check-out", failing, "lot|ticket", CheckOutResult.class, this::checkOut);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void duplicate_on_another_node_waits_for_the_claimed_request() throws Exception {
+        String key = keyPrefix + "-d";
+        IdempotencyStore otherNode = new IdempotencyStore(repository, objectMapper, transactionManager,
+                new SimpleMeterRegistry(), 24, 16, 5_000, 60_000);
+        IdempotencyStore impatientNode = new IdempotencyStore(repository, objectMapper, transactionManager,
+                new SimpleMeterRegistry(), 24, 16, 100, 60_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<CheckOutResult> first = executor.submit(() -> idempotencyStore.execute(
+                    "check-out", key, "lot|ticket", CheckOutResult.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return checkOut();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // the claim is committed before the request runs
+            assertTrue(repository.find("check-out", key, Instant.now()).orElseThrow().inProgress());
+
+            assertThrows(ConflictException.class, () -> impatientNode.execute(
+                    "check-out", key, "lot|ticket", CheckOutResult.class, this::checkOut));
+            Future<CheckOutResult> duplicate = executor.submit(() -> otherNode.execute(
+                    "check-out", key, "lot|ticket", CheckOutResult.class, this::checkOut));
+            Thread.sleep(100);
+            assertFalse(duplicate.isDone());
+
+            release.countDown();
+            assertEquals(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CheckOutResult checkOut() {
+        executions.incrementAndGet();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        return new CheckOutResult(UUID.randomUUID(), UUID.randomUUID(), 15000, "INR", now.minusSeconds(3600), now);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
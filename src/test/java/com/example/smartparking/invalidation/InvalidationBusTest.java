@@ -0,0 +1,148 @@
+package com.example.smartparking.invalidation;
+
+import com.example.smartparking.availability.SpotStatusCounters;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.metadata.ParkingMetadataCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.parking.invalidation.enabled=true")
+@ActiveProfiles("local")
+class InvalidationBusTest {
+
+    @Autowired
+    InvalidationBus bus;
+
+    @Autowired
+    SpotStatusCounters statusCounters;
+
+    @Autowired
+    ParkingMetadataCache metadataCache;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID floorId = UUID.randomUUID();
+    private final UUID spotId = UUID.randomUUID();
+
+    @BeforeEach
+    void seedLot() {
+        jdbcTemplate.update("INSERT INTO lot (id, name, address, timezone, maintenance_mode) VALUES (?, ?, ?, ?, FALSE)",
+                lotId, "Bus Lot", "Test", "Asia/Kolkata");
+        jdbcTemplate.update("INSERT INTO floor (id, lot_id, label, ordering) VALUES (?, ?, ?, ?)",
+                floorId, lotId, "G", 1);
+        jdbcTemplate.update("INSERT INTO spot (id, floor_id, code, size, status) VALUES (?, ?, 'G-M1', 'MEDIUM', 'AVAILABLE')",
+                spotId, floorId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM lot WHERE id = ?", lotId);
+    }
+
+    @Test
+    void sends_one_notification_per_committed_transaction() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try (Connection listen = listen()) {
+            tx.executeWithoutResult(status -> {
+                bus.spotStatusChanged(lotId, floorId, spotId, SpotSize.MEDIUM, SpotStatus.AVAILABLE, SpotStatus.OCCUPIED);
+                bus.spotStatusChanged(lotId, floorId, spotId, SpotSize.MEDIUM, SpotStatus.OCCUPIED, SpotStatus.AVAILABLE);
+            });
+            tx.executeWithoutResult(status -> {
+                bus.spotStatusChanged(lotId, floorId, spotId, SpotSize.MEDIUM, SpotStatus.AVAILABLE, SpotStatus.OCCUPIED);
+                status.setRollbackOnly();
+            });
+
+            List<String> payloads = drain(listen);
+            assertEquals(1, payloads.size());
+            String[] records = payloads.get(0).split(";");
+            assertEquals(bus.nodeId(), records[0]);
+            assertEquals(3, records.length);
+            assertEquals(String.join(",", "S", lotId.toString(), floorId.toString(), spotId.toString(),
+                    "MEDIUM", "AVAILABLE", "OCCUPIED"), records[1]);
+        }
+    }
+
+    @Test
+    void applies_changes_made_by_other_nodes_and_by_sql() {
+        long occupied = statusCounters.countByLot(lotId, SpotSize.MEDIUM, SpotStatus.OCCUPIED);
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", InvalidationBus.CHANNEL,
+                "other-node;" + String.join(",", "S", lotId.toString(), floorId.toString(), spotId.toString(),
+                        "MEDIUM", "AVAILABLE", "OCCUPIED"));
+        awaitTrue(() -> statusCounters.countByLot(lotId, SpotSize.MEDIUM, SpotStatus.OCCUPIED) == occupied + 1);
+
+        assertEquals("Bus Lot", metadataCache.lot(lotId).orElseThrow().getName());
+        assertEquals("G-M1", metadataCache.spot(spotId).orElseThrow().code());
+        // plain SQL, no JPA listener involved: the V4 triggers notify
+        jdbcTemplate.update("UPDATE lot SET name = 'Renamed Bus Lot' WHERE id = ?", lotId);
+        jdbcTemplate.update("UPDATE spot SET code = 'G-M7' WHERE id = ?", spotId);
+        awaitTrue(() -> metadataCache.lot(lotId).orElseThrow().getName().equals("Renamed Bus Lot"));
+        awaitTrue(() -> metadataCache.spot(spotId).orElseThrow().code().equals("G-M7"));
+    }
+
+    private Connection listen() throws Exception {
+        Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + InvalidationBus.CHANNEL);
+        }
+        return connection;
+    }
+
+    // Own-node payloads only; trigger notifications of the seed rows are skipped
+    private List<String> drain(Connection connection) throws Exception {
+        List<String> payloads = new ArrayList<>();
+        PGNotification[] notifications;
+        while ((notifications = connection.unwrap(PGConnection.class).getNotifications(500)) != null
+                && notifications.length > 0) {
+            for (PGNotification notification : notifications) {
+                if (notification.getParameter().startsWith(bus.nodeId())) {
+                    payloads.add(notification.getParameter());
+                }
+            }
+        }
+        return payloads;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                fail(ex);
+            }
+        }
+    }
+}
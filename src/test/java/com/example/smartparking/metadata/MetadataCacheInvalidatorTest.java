@@ -0,0 +1,123 @@
+package com.example.smartparking.metadata;
+
+import com.example.smartparking.availability.SpotAvailabilityIndex;
+import com.example.smartparking.availability.SpotAvailabilityIndex.IndexedSpot;
+import com.example.smartparking.domain.Floor;
+import com.example.smartparking.domain.Lot;
+import com.example.smartparking.domain.Spot;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.repository.FloorRepository;
+import com.example.smartparking.repository.LotRepository;
+import com.example.smartparking.repository.SpotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("local")
+class MetadataCacheInvalidatorTest {
+
+    @Autowired
+    ParkingMetadataCache cache;
+
+    @Autowired
+    LotRepository lotRepository;
+
+    @Autowired
+    FloorRepository floorRepository;
+
+    @Autowired
+    SpotRepository spotRepository;
+
+    @Autowired
+    SpotAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID floorId = UUID.randomUUID();
+    private final UUID spotId = UUID.randomUUID();
+
+    @BeforeEach
+    void seedLot() {
+        jdbcTemplate.update("INSERT INTO lot (id, name, address, timezone, maintenance_mode) VALUES (?, ?, ?, ?, FALSE)",
+                lotId, "Cached Lot", "Test", "Asia/Kolkata");
+        jdbcTemplate.update("INSERT INTO floor (id, lot_id, label, ordering) VALUES (?, ?, ?, ?)",
+                floorId, lotId, "G", 1);
+        jdbcTemplate.update("INSERT INTO spot (id, floor_id, code, size, status) VALUES (?, ?, 'G-M1', 'MEDIUM', 'AVAILABLE')",
+                spotId, floorId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM lot WHERE id = ?", lotId);
+    }
+
+    @Test
+    void committed_renames_evict_and_rolled_back_ones_do_not() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        assertEquals("Cached Lot", cache.lot(lotId).orElseThrow().getName());
+        assertEquals("G", cache.floors(lotId).get(0).getLabel());
+
+        tx.executeWithoutResult(status -> {
+            lotRepository.findById(lotId).orElseThrow().rename("Rolled Back");
+            status.setRollbackOnly();
+        });
+        assertEquals("Cached Lot", cache.lot(lotId).orElseThrow().getName());
+
+        tx.executeWithoutResult(status -> {
+            lotRepository.findById(lotId).orElseThrow().rename("Renamed Lot");
+            floorRepository.findById(floorId).orElseThrow().relabel("Ground");
+        });
+        assertEquals("Renamed Lot", cache.lot(lotId).orElseThrow().getName());
+        assertTrue(cache.allLots().stream().map(Lot::getName).anyMatch("Renamed Lot"::equals));
+        assertEquals("Ground", cache.floors(lotId).get(0).getLabel());
+    }
+
+    @Test
+    void spot_status_changes_keep_the_entry_and_relabels_evict_it() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        assertEquals("G-M1", cache.spot(spotId).orElseThrow().code());
+
+        tx.executeWithoutResult(status -> spotRepository.findById(spotId).orElseThrow().occupy());
+        // written behind the listener's back: still served from the cache
+        jdbcTemplate.update("UPDATE spot SET code = 'G-M9' WHERE id = ?", spotId);
+        assertEquals("G-M1", cache.spot(spotId).orElseThrow().code());
+
+        tx.executeWithoutResult(status -> spotRepository.findById(spotId).orElseThrow().relabel("G-M2"));
+        assertEquals("G-M2", cache.spot(spotId).orElseThrow().code());
+    }
+
+    @Test
+    void committed_floor_reaches_the_availability_index() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        assertEquals(spotId, availabilityIndex.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        assertTrue(availabilityIndex.claimFirstAvailable(lotId, SpotSize.MEDIUM).isEmpty());
+
+        UUID upperId = UUID.randomUUID();
+        UUID upperSpotId = UUID.randomUUID();
+        tx.executeWithoutResult(status -> {
+            floorRepository.save(new Floor(upperId, lotId, "L1", 2));
+            spotRepository.save(new Spot(upperSpotId, upperId, "L1-M1", SpotSize.MEDIUM, SpotStatus.AVAILABLE));
+        });
+
+        // reloaded from the database, where the ground floor spot was never occupied
+        assertEquals(spotId, availabilityIndex.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+        assertEquals(upperSpotId, availabilityIndex.claimFirstAvailable(lotId, SpotSize.MEDIUM).map(IndexedSpot::spotId).orElseThrow());
+    }
+}
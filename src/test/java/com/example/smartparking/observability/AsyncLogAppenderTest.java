@@ -0,0 +1,116 @@
+package com.example.smartparking.observability;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import com.example.smartparking.config.LoggingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLogAppenderTest {
+
+    private final LoggerContext context = newContext();
+    private final Logger hot = context.getLogger("hot.path");
+    private final Logger other = context.getLogger("other");
+
+    @Test
+    void samples_repetitive_lines_but_keeps_warnings() throws InterruptedException {
+        LoggingProperties properties = new LoggingProperties();
+        properties.setSampledLoggers(List.of("hot.path"));
+        properties.setSampleRate(10);
+        Recording recording = new Recording(null);
+        AsyncLogAppender appender = start(recording, properties);
+
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(event(hot, Level.INFO, "Check-in success ticketId={}", i));
+        }
+        appender.doAppend(event(hot, Level.WARN, "Check-in slow ticketId={}", 1));
+        appender.doAppend(event(other, Level.INFO, "Check-in success ticketId={}", 1));
+        appender.stop();
+
+        assertEquals(12, recording.events.size());
+        assertEquals("Check-in success ticketId=0", recording.events.get(0).getFormattedMessage());
+        assertEquals(90, appender.sampledOut());
+        assertEquals(12, appender.written());
+    }
+
+    @Test
+    void drops_info_under_pressure_and_keeps_errors() throws InterruptedException {
+        LoggingProperties properties = new LoggingProperties();
+        properties.setCapacity(8);
+        properties.setDiscardThreshold(50);
+        CountDownLatch release = new CountDownLatch(1);
+        Recording recording = new Recording(release);
+        AsyncLogAppender appender = start(recording, properties);
+
+        // the writer takes the first event and stalls on it
+        appender.doAppend(event(other, Level.INFO, "first", 0));
+        assertTrue(recording.stalled.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event(other, Level.INFO, "info {}", i));
+        }
+        for (int i = 0; i < 3; i++) {
+            appender.doAppend(event(other, Level.ERROR, "error {}", i));
+        }
+        release.countDown();
+        appender.stop();
+
+        assertEquals(6, appender.discarded());
+        assertEquals(0, appender.droppedFull());
+        assertEquals(List.of("first", "info 0", "info 1", "info 2", "info 3", "error 0", "error 1", "error 2"),
+                recording.events.stream().map(ILoggingEvent::getFormattedMessage).toList());
+    }
+
+    private AsyncLogAppender start(Recording recording, LoggingProperties properties) {
+        recording.setContext(context);
+        recording.start();
+        AsyncLogAppender appender = new AsyncLogAppender(List.of(recording), properties);
+        appender.setContext(context);
+        appender.start();
+        return appender;
+    }
+
+    private static LoggerContext newContext() {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        return context;
+    }
+
+    private static LoggingEvent event(Logger logger, Level level, String message, Object arg) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, message, null, new Object[]{arg});
+    }
+
+    // Records what reaches it; with a latch, holds the writer on the first event
+    private static final class Recording extends AppenderBase<ILoggingEvent> {
+        private final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+        private final CountDownLatch stalled = new CountDownLatch(1);
+
+        Recording(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            events.add(event);
+            if (release != null && stalled.getCount() > 0) {
+                stalled.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.smartparking.observability;
+
+import com.example.smartparking.availability.SpotStatusCounters;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.metadata.ResourceVersions;
+import com.example.smartparking.repository.SpotRepository;
+import com.example.smartparking.repository.SpotRepository.StatusCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OccupancyGaugesTest {
+
+    private final SpotRepository spotRepository = mock(SpotRepository.class);
+    private final SpotStatusCounters counters = new SpotStatusCounters(spotRepository, new ResourceVersions(), false);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID ground = UUID.randomUUID();
+    private final UUID basement = UUID.randomUUID();
+
+    @Test
+    void gauges_follow_counters_without_querying_on_scrape() {
+        when(spotRepository.countGroupedByLotFloorSizeAndStatus()).thenReturn(List.of(
+                row(lotId, ground, SpotSize.MEDIUM, SpotStatus.AVAILABLE, 3),
+                row(lotId, ground, SpotSize.MEDIUM, SpotStatus.OCCUPIED, 1),
+                row(lotId, basement, SpotSize.LARGE, SpotStatus.AVAILABLE, 2),
+                row(lotId, basement, SpotSize.LARGE, SpotStatus.OUT_OF_SERVICE, 5)));
+        OccupancyGauges gauges = new OccupancyGauges(counters, registry, 8, 8);
+        gauges.refresh();
+
+        assertEquals(0.25, floorGauge(ground), 1e-9);
+        assertEquals(0.0, floorGauge(basement), 1e-9);
+        assertEquals(1.0 / 6, lotGauge(), 1e-9);
+
+        counters.transition(lotId, basement, SpotSize.LARGE, SpotStatus.AVAILABLE, SpotStatus.OCCUPIED);
+
+        assertEquals(0.5, floorGauge(basement), 1e-9);
+        assertEquals(0.5, registry.get("parking.occupancy.size")
+                .tag("lot", lotId.toString()).tag("size", "LARGE").gauge().value(), 1e-9);
+        assertEquals(2.0 / 6, lotGauge(), 1e-9);
+        verify(spotRepository, times(1)).countGroupedByLotFloorSizeAndStatus();
+    }
+
+    @Test
+    void series_are_capped_and_removed_with_their_floor() {
+        UUID otherLot = UUID.randomUUID();
+        when(spotRepository.countGroupedByLotFloorSizeAndStatus())
+                .thenReturn(List.of(
+                        row(lotId, ground, SpotSize.SMALL, SpotStatus.AVAILABLE, 1),
+                        row(lotId, basement, SpotSize.SMALL, SpotStatus.AVAILABLE, 1),
+                        row(otherLot, UUID.randomUUID(), SpotSize.SMALL, SpotStatus.AVAILABLE, 1)))
+                .thenReturn(List.of(
+                        row(lotId, ground, SpotSize.SMALL, SpotStatus.AVAILABLE, 1)));
+        OccupancyGauges gauges = new OccupancyGauges(counters, registry, 1, 8);
+        gauges.refresh();
+
+        // only one lot is exported, and only its floors
+        assertEquals(1, registry.find("parking.occupancy.lot").gauges().size());
+        String exportedLot = registry.get("parking.occupancy.lot").gauge().getId().getTag("lot");
+        assertEquals(exportedLot.equals(lotId.toString()) ? 2 : 1,
+                registry.find("parking.occupancy.floor").tag("lot", exportedLot).gauges().size());
+        assertEquals(registry.find("parking.occupancy.floor").gauges().size(),
+                registry.find("parking.occupancy.floor").tag("lot", exportedLot).gauges().size());
+
+        counters.reconcile();
+        gauges.refresh();
+
+        assertEquals(1, registry.find("parking.occupancy.floor").tag("lot", lotId.toString()).gauges().size());
+        assertEquals(1, registry.find("parking.occupancy.floor").gauges().size());
+        assertEquals(1 + 1 + SpotSize.values().length, gauges.registeredSeries());
+    }
+
+    private double floorGauge(UUID floorId) {
+        return registry.get("parking.occupancy.floor").tag("floor", floorId.toString()).gauge().value();
+    }
+
+    private double lotGauge() {
+        return registry.get("parking.occupancy.lot").tag("lot", lotId.toString()).gauge().value();
+    }
+
+    private StatusCount row(UUID lot, UUID floorId, SpotSize size, SpotStatus status, long spots) {
+        return new Row(lot, floorId, size.name(), status.name(), spots);
+    }
+
+    private record Row(UUID getLotId, UUID getFloorId, String getSize, String getStatus, long getSpots)
+            implements StatusCount {}
+}
@@ -0,0 +1,104 @@
+package com.example.smartparking.partition;
+
+import com.example.smartparking.config.PartitionProperties;
+import com.example.smartparking.config.PartitionProperties.RetiredPartitionMode;
+import com.example.smartparking.repository.PartitionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.parking.partitions.maintenance-enabled=false")
+@ActiveProfiles("local")
+class PartitionMaintenanceJobTest {
+
+    private static final String OLD_PARTITION = "payment_2001_01";
+    private static final String DETACHED_MONTH = "payment_2001_02";
+
+    @Autowired
+    PartitionRepository partitionRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path archiveDir;
+
+    @AfterEach
+    void dropOldPartition() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + OLD_PARTITION);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + DETACHED_MONTH);
+    }
+
+    @Test
+    void creates_months_ahead_and_archives_months_past_retention() throws IOException {
+        jdbcTemplate.execute("CREATE TABLE " + OLD_PARTITION
+                + " PARTITION OF payment FOR VALUES FROM ('2001-01-01T00:00Z') TO ('2001-02-01T00:00Z')");
+        UUID paymentId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO payment (id, ticket_id, ticket_entry_at, amount_minor, currency, method, status, paid_at, created_at)
+                VALUES (?, ?, '2001-01-15T08:00Z', 1500, 'INR', 'CASH', 'SUCCESS', '2001-01-15T10:00Z', '2001-01-15T10:00Z')
+                """, paymentId, UUID.randomUUID());
+
+        PartitionProperties properties = new PartitionProperties();
+        properties.setRetiredPartitionMode(RetiredPartitionMode.ARCHIVE);
+        properties.setArchiveDir(archiveDir.toString());
+        new PartitionMaintenanceJob(partitionRepository, properties, new SimpleMeterRegistry()).maintain();
+
+        YearMonth ahead = YearMonth.now(ZoneOffset.UTC).plusMonths(properties.getMonthsAhead());
+        String aheadSuffix = String.format("_%04d_%02d", ahead.getYear(), ahead.getMonthValue());
+        assertTrue(partitionExists("ticket_closed" + aheadSuffix));
+        assertTrue(partitionExists("payment" + aheadSuffix));
+
+        assertFalse(partitionExists(OLD_PARTITION));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM payment WHERE id = ?", Integer.class, paymentId));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archiveDir.resolve(OLD_PARTITION + ".csv.gz")))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(csv.startsWith("id,ticket_id,"));
+            assertTrue(csv.contains(paymentId.toString()));
+        }
+    }
+
+    @Test
+    void archives_a_month_left_detached_by_a_failed_export() throws IOException {
+        // What a run leaves behind when the export fails after the detach committed
+        jdbcTemplate.execute("CREATE TABLE " + DETACHED_MONTH + " (LIKE payment INCLUDING DEFAULTS)");
+        UUID paymentId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO %s (id, ticket_id, ticket_entry_at, amount_minor, currency, method, status, paid_at, created_at)
+                VALUES (?, ?, '2001-02-03T08:00Z', 900, 'INR', 'CASH', 'SUCCESS', '2001-02-03T10:00Z', '2001-02-03T10:00Z')
+                """.formatted(DETACHED_MONTH), paymentId, UUID.randomUUID());
+
+        PartitionProperties properties = new PartitionProperties();
+        properties.setRetiredPartitionMode(RetiredPartitionMode.ARCHIVE);
+        properties.setArchiveDir(archiveDir.toString());
+        new PartitionMaintenanceJob(partitionRepository, properties, new SimpleMeterRegistry()).maintain();
+
+        assertFalse(partitionExists(DETACHED_MONTH));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archiveDir.resolve(DETACHED_MONTH + ".csv.gz")))) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains(paymentId.toString()));
+        }
+    }
+
+    private boolean partitionExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+}
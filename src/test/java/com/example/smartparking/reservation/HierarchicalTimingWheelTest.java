@@ -0,0 +1,66 @@
+package com.example.smartparking.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    // 10 ms ticks, 4 slots per level, 3 levels: level 0 spans 40 ms, level 1 160 ms, level 2 640 ms
+    private final HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(10, 4, 3, 0);
+
+    @Test
+    void deadlines_fire_on_first_tick_at_or_after_them_across_levels() {
+        UUID soon = UUID.randomUUID();
+        UUID middle = UUID.randomUUID();
+        UUID far = UUID.randomUUID();
+        wheel.schedule(soon, 25);
+        wheel.schedule(middle, 95);
+        wheel.schedule(far, 415);
+
+        assertEquals(List.of(), wheel.advance(20));
+        assertEquals(List.of(soon), wheel.advance(30));
+        assertEquals(List.of(), wheel.advance(90));
+        assertEquals(List.of(middle), wheel.advance(100));
+        assertEquals(List.of(), wheel.advance(410));
+        assertEquals(List.of(far), wheel.advance(420));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlines_beyond_the_top_level_are_re_placed_until_due() {
+        UUID beyond = UUID.randomUUID();
+        wheel.schedule(beyond, 1_500);
+
+        assertEquals(List.of(), wheel.advance(1_490));
+        assertEquals(List.of(beyond), wheel.advance(1_500));
+    }
+
+    @Test
+    void cancelled_and_rescheduled_ids_fire_at_most_once() {
+        UUID cancelled = UUID.randomUUID();
+        UUID moved = UUID.randomUUID();
+        wheel.schedule(cancelled, 50);
+        wheel.schedule(moved, 50);
+        wheel.schedule(moved, 200);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(List.of(), wheel.advance(100));
+        assertEquals(List.of(moved), wheel.advance(250));
+        assertEquals(List.of(), wheel.advance(1_000));
+    }
+
+    @Test
+    void past_deadlines_fire_on_the_next_tick() {
+        wheel.advance(100);
+        UUID late = UUID.randomUUID();
+        wheel.schedule(late, 10);
+
+        assertEquals(List.of(), wheel.advance(105));
+        assertEquals(List.of(late), wheel.advance(110));
+    }
+}
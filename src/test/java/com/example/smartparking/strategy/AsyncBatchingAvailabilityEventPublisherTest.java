@@ -0,0 +1,196 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.config.AvailabilityEventProperties;
+import com.example.smartparking.config.AvailabilityEventProperties.BackPressure;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.AvailabilityEvent;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.EventType;
+import com.example.smartparking.domain.strategy.AvailabilityEventSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncBatchingAvailabilityEventPublisherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<AvailabilityEvent> delivered = new CopyOnWriteArrayList<>();
+    private final AvailabilityEventSink sink = delivered::addAll;
+
+    @Test
+    void consumer_thread_delivers_published_events_in_batches() throws Exception {
+        AsyncBatchingAvailabilityEventPublisher publisher = publisher(BackPressure.BLOCK, 64);
+        publisher.start();
+        UUID spotId = UUID.randomUUID();
+
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(event(spotId, i % 2 == 0 ? EventType.SPOT_OCCUPIED : EventType.SPOT_RELEASED));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (delivered.size() < 10 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        publisher.stop();
+        assertEquals(10, delivered.size());
+        assertEquals(10.0, registry.get("parking.availability.events.published").counter().count());
+        assertEquals(0.0, registry.get("parking.availability.queue.depth").gauge().value());
+    }
+
+    @Test
+    void drop_oldest_evicts_queued_events_when_full() {
+        AsyncBatchingAvailabilityEventPublisher publisher = publisher(BackPressure.DROP_OLDEST, 4);
+        List<AvailabilityEvent> published = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            AvailabilityEvent event = event(UUID.randomUUID(), EventType.SPOT_OCCUPIED);
+            published.add(event);
+            publisher.enqueue(event);
+        }
+
+        assertEquals(4, publisher.queueDepth());
+        assertEquals(2.0, registry.get("parking.availability.events.dropped").counter().count());
+
+        publisher.deliverNextBatch(new ArrayList<>());
+        assertEquals(published.subList(2, 6), delivered);
+    }
+
+    @Test
+    void coalesce_keeps_latest_event_per_spot_after_queued_ones() {
+        AsyncBatchingAvailabilityEventPublisher publisher = publisher(BackPressure.COALESCE, 2);
+        UUID busySpot = UUID.randomUUID();
+        publisher.enqueue(event(UUID.randomUUID(), EventType.SPOT_OCCUPIED));
+        publisher.enqueue(event(UUID.randomUUID(), EventType.SPOT_OCCUPIED));
+
+        publisher.enqueue(event(busySpot, EventType.SPOT_OCCUPIED));
+        publisher.enqueue(event(busySpot, EventType.SPOT_RELEASED));
+        AvailabilityEvent latest = event(busySpot, EventType.SPOT_OCCUPIED);
+        publisher.enqueue(latest);
+
+        assertEquals(3, publisher.queueDepth());
+        assertEquals(2.0, registry.get("parking.availability.events.coalesced").counter().count());
+        assertEquals(0.0, registry.get("parking.availability.events.dropped").counter().count());
+
+        assertEquals(3, publisher.deliverNextBatch(new ArrayList<>()));
+        assertSame(latest, delivered.get(2));
+        assertEquals(0, publisher.queueDepth());
+    }
+
+    @Test
+    void coalesce_merges_by_spot_and_sends_other_spots_through_the_ring() {
+        AsyncBatchingAvailabilityEventPublisher publisher = publisher(BackPressure.COALESCE, 2, 1);
+        UUID busySpot = UUID.randomUUID();
+        AvailabilityEvent first = event(UUID.randomUUID(), EventType.SPOT_OCCUPIED);
+        AvailabilityEvent second = event(UUID.randomUUID(), EventType.SPOT_OCCUPIED);
+        publisher.enqueue(first);
+        publisher.enqueue(second);
+        publisher.enqueue(event(busySpot, EventType.SPOT_OCCUPIED));
+        publisher.deliverNextBatch(new ArrayList<>());
+
+        // the ring has room again, but the busy spot keeps its newer event in the overflow
+        AvailabilityEvent other = event(UUID.randomUUID(), EventType.SPOT_OCCUPIED);
+        publisher.enqueue(other);
+        AvailabilityEvent latest = event(busySpot, EventType.SPOT_RELEASED);
+        publisher.enqueue(latest);
+
+        assertEquals(3, publisher.queueDepth());
+        assertEquals(1.0, registry.get("parking.availability.events.coalesced").counter().count());
+        for (int i = 0; i < 3; i++) {
+            publisher.deliverNextBatch(new ArrayList<>());
+        }
+        // the busy spot waits for the events queued before it, then takes its turn ahead of later ones
+        assertEquals(List.of(first, second, latest, other), delivered);
+    }
+
+    @Test
+    void coalesced_events_are_delivered_while_the_ring_keeps_filling() {
+        AsyncBatchingAvailabilityEventPublisher publisher = publisher(BackPressure.COALESCE, 4, 2);
+        for (int i = 0; i < 4; i++) {
+            publisher.enqueue(event(UUID.randomUUID(), EventType.SPOT_OCCUPIED));
+        }
+        AvailabilityEvent overflowed = event(UUID.randomUUID(), EventType.SPOT_RELEASED);
+        publisher.enqueue(overflowed);
+
+        // every batch frees room that new events fill straight away
+        for (int round = 0; round < 3 && !delivered.contains(overflowed); round++) {
+            publisher.deliverNextBatch(new ArrayList<>());
+            publisher.enqueue(event(UUID.randomUUID(), EventType.SPOT_OCCUPIED));
+            publisher.enqueue(event(UUID.randomUUID(), EventType.SPOT_OCCUPIED));
+        }
+
+        // in the first batch after the four events queued before it were taken
+        assertEquals(5, delivered.indexOf(overflowed));
+        assertEquals(0.0, registry.get("parking.availability.events.dropped").counter().count());
+    }
+
+    @Test
+    void block_gives_up_after_the_timeout_and_counts_only_accepted_events() throws Exception {
+        CountDownLatch inSink = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AvailabilityEventSink stuck = batch -> {
+            inSink.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AvailabilityEventProperties properties = new AvailabilityEventProperties();
+        properties.setBackPressure(BackPressure.BLOCK);
+        properties.setCapacity(2);
+        properties.setBlockTimeout(Duration.ofMillis(20));
+        AsyncBatchingAvailabilityEventPublisher publisher =
+                new AsyncBatchingAvailabilityEventPublisher(List.of(stuck), properties, registry);
+        publisher.start();
+
+        publisher.enqueue(event(UUID.randomUUID(), EventType.SPOT_OCCUPIED));
+        assertTrue(inSink.await(5, TimeUnit.SECONDS));
+        // the consumer is stuck in the sink, so the third event finds the ring full
+        for (int i = 0; i < 3; i++) {
+            publisher.enqueue(event(UUID.randomUUID(), EventType.SPOT_OCCUPIED));
+        }
+        release.countDown();
+        publisher.stop();
+
+        assertEquals(3.0, registry.get("parking.availability.events.published").counter().count());
+        assertEquals(1.0, registry.get("parking.availability.events.dropped").counter().count());
+    }
+
+    @Test
+    void failing_sink_does_not_stop_other_sinks() {
+        AvailabilityEventProperties properties = new AvailabilityEventProperties();
+        AvailabilityEventSink failing = batch -> { throw new IllegalStateException("down"); };
+        AsyncBatchingAvailabilityEventPublisher publisher =
+                new AsyncBatchingAvailabilityEventPublisher(List.of(failing, sink), properties, registry);
+
+        publisher.enqueue(event(UUID.randomUUID(), EventType.SPOT_OCCUPIED));
+        publisher.deliverNextBatch(new ArrayList<>());
+
+        assertEquals(1, delivered.size());
+        assertEquals(1.0, registry.get("parking.availability.sink.failures").counter().count());
+    }
+
+    private AsyncBatchingAvailabilityEventPublisher publisher(BackPressure backPressure, int capacity) {
+        return publisher(backPressure, capacity, new AvailabilityEventProperties().getBatchSize());
+    }
+
+    private AsyncBatchingAvailabilityEventPublisher publisher(BackPressure backPressure, int capacity, int batchSize) {
+        AvailabilityEventProperties properties = new AvailabilityEventProperties();
+        properties.setBackPressure(backPressure);
+        properties.setCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        return new AsyncBatchingAvailabilityEventPublisher(List.of(sink), properties, registry);
+    }
+
+    private AvailabilityEvent event(UUID spotId, EventType type) {
+        return new AvailabilityEvent(type, UUID.randomUUID(), UUID.randomUUID(), spotId,
+                "A1", "MEDIUM", type == EventType.SPOT_RELEASED ? "AVAILABLE" : "OCCUPIED", Instant.now());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.AvailabilityEvent;
+import com.example.smartparking.domain.strategy.AvailabilityEventPublisher.EventType;
+import com.example.smartparking.domain.strategy.AvailabilityEventSink;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.parking.availability-strategy=OUTBOX",
+        "app.parking.outbox.batch-size=2",
+        "app.parking.outbox.poll-interval-ms=3600000"
+})
+@ActiveProfiles("local")
+class AvailabilityOutboxRelayTest {
+
+    static final List<AvailabilityEvent> delivered = new CopyOnWriteArrayList<>();
+    static final AtomicBoolean failNext = new AtomicBoolean();
+    // Outbox rows of the dispatched events still leased while the sink runs
+    static final AtomicInteger leasedDuringDispatch = new AtomicInteger(-1);
+
+    @TestConfiguration
+    static class CapturingSink {
+        @Bean
+        AvailabilityEventSink capturingSink(JdbcTemplate jdbcTemplate) {
+            return batch -> {
+                leasedDuringDispatch.set(jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM availability_outbox WHERE spot_id = ? AND claimed_until > NOW()",
+                        Integer.class, batch.get(0).spotId()));
+                if (failNext.getAndSet(false)) {
+                    throw new IllegalStateException("sink down");
+                }
+                delivered.addAll(batch);
+            };
+        }
+    }
+
+    @Autowired
+    AvailabilityEventPublisher publisher;
+
+    @Autowired
+    AvailabilityOutboxRelay relay;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void relays_committed_events_at_least_once_and_drops_rolled_back_ones() {
+        UUID lotId = UUID.randomUUID();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<AvailabilityEvent> committed = List.of(event(lotId), event(lotId), event(lotId));
+        tx.executeWithoutResult(status -> committed.forEach(publisher::publish));
+        tx.executeWithoutResult(status -> {
+            publisher.publish(event(lotId));
+            status.setRollbackOnly();
+        });
+        assertEquals(3, outboxRows(lotId));
+        List<Long> ids = outboxIds(lotId);
+
+        failNext.set(true);
+        relay.relay();
+        // released unchanged: same rows, same order, no lease left
+        assertEquals(ids, outboxIds(lotId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM availability_outbox WHERE lot_id = ? AND claimed_by IS NOT NULL",
+                Integer.class, lotId));
+
+        relay.relay();
+        assertEquals(0, outboxRows(lotId));
+        // the rows stay in the outbox, leased, until the sinks accepted them
+        assertEquals(1, leasedDuringDispatch.get());
+        List<AvailabilityEvent> forLot = delivered.stream().filter(e -> lotId.equals(e.lotId())).toList();
+        assertEquals(Set.copyOf(committed), Set.copyOf(forLot));
+        assertEquals(3, forLot.size());
+    }
+
+    @Test
+    void rows_of_a_relay_whose_lease_ran_out_are_delivered_by_another() {
+        UUID lotId = UUID.randomUUID();
+        AvailabilityEvent event = event(lotId);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> publisher.publish(event));
+        // claimed by a relay that died before deleting them
+        jdbcTemplate.update("""
+                UPDATE availability_outbox
+                   SET claimed_by = 'relay-gone', claimed_until = NOW() - INTERVAL '1 second'
+                 WHERE lot_id = ?
+                """, lotId);
+
+        relay.relay();
+
+        assertEquals(0, outboxRows(lotId));
+        assertTrue(delivered.contains(event));
+    }
+
+    private List<Long> outboxIds(UUID lotId) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM availability_outbox WHERE lot_id = ? ORDER BY id", Long.class, lotId);
+    }
+
+    private int outboxRows(UUID lotId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM availability_outbox WHERE lot_id = ?", Integer.class, lotId);
+    }
+
+    private static AvailabilityEvent event(UUID lotId) {
+        // millisecond precision survives the TIMESTAMPTZ round trip
+        return new AvailabilityEvent(EventType.SPOT_OCCUPIED, lotId, UUID.randomUUID(), UUID.randomUUID(),
+                "G-M1", "MEDIUM", "OCCUPIED", Instant.ofEpochMilli(System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.smartparking.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedRingBufferTest {
+
+    @Test
+    void capacity_rounds_up_and_full_buffer_rejects_offers() {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(5);
+        assertEquals(8, buffer.capacity());
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(8));
+        assertEquals(8, buffer.size());
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(8));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(8, buffer.drainTo(drained, 100));
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8), drained);
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void concurrent_producers_lose_nothing() throws Exception {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+            Integer item = buffer.poll();
+            if (item != null) {
+                assertTrue(seen.add(item), "duplicate " + item);
+            }
+        }
+        pool.shutdown();
+        assertEquals(producers * perProducer, seen.size());
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.smartparking.strategy;
 
+import com.example.smartparking.availability.SpotAvailabilityIndex;
 import com.example.smartparking.domain.Floor;
 import com.example.smartparking.domain.Spot;
 import com.example.smartparking.domain.SpotSize;
 import com.example.smartparking.domain.SpotStatus;
 import com.example.smartparking.domain.strategy.SpotAllocationStrategy.AllocationRequest;
 import com.example.smartparking.domain.strategy.SpotAllocationStrategy.AllocationResult;
+import com.example.smartparking.observability.ParkingMetrics;
+import com.example.smartparking.repository.EntranceRepository;
 import com.example.smartparking.repository.FloorRepository;
 import com.example.smartparking.repository.SpotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
@@ -22,9 +26,14 @@ class EntranceNearestSpotAllocationStrategyTest {
 
     private final FloorRepository floorRepository = mock(FloorRepository.class);
     private final SpotRepository spotRepository = mock(SpotRepository.class);
+    private final EntranceRepository entranceRepository = mock(EntranceRepository.class);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
 
     private final EntranceNearestSpotAllocationStrategy strategy =
-            new EntranceNearestSpotAllocationStrategy(floorRepository, spotRepository);
+            new EntranceNearestSpotAllocationStrategy(
+                    new SpotAvailabilityIndex(floorRepository, spotRepository, entranceRepository, 0L),
+                    new ParkingMetrics(registry));
 
     @Test
     void allocate_returns_first_available_spot_across_floors() {
@@ -41,6 +50,9 @@ class EntranceNearestSpotAllocationStrategyTest {
         Floor floor1 = new Floor(UUID.randomUUID(), lotId, "G", 1);
         Floor floor2 = new Floor(UUID.randomUUID(), lotId, "B1", 2);
 
+        Spot takenOnFloor1 = new Spot(
+                UUID.randomUUID(), floor1.getId(), "G-01", SpotSize.MEDIUM, SpotStatus.OCCUPIED
+        );
         Spot spotOnFloor2 = new Spot(
                 UUID.randomUUID(), floor2.getId(), "B1-01", SpotSize.MEDIUM, SpotStatus.AVAILABLE
         );
@@ -48,13 +60,11 @@ class EntranceNearestSpotAllocationStrategyTest {
         when(floorRepository.findByLotIdOrderByOrderingAsc(lotId))
                 .thenReturn(List.of(floor1, floor2));
 
-        when(spotRepository.findFirstByFloorIdAndSizeAndStatusOrderByCodeAsc(
-                floor1.getId(), SpotSize.MEDIUM, SpotStatus.AVAILABLE))
-                .thenReturn(Optional.empty());
+        when(spotRepository.findByFloorId(floor1.getId()))
+                .thenReturn(List.of(takenOnFloor1));
 
-        when(spotRepository.findFirstByFloorIdAndSizeAndStatusOrderByCodeAsc(
-                floor2.getId(), SpotSize.MEDIUM, SpotStatus.AVAILABLE))
-                .thenReturn(Optional.of(spotOnFloor2));
+        when(spotRepository.findByFloorId(floor2.getId()))
+                .thenReturn(List.of(spotOnFloor2));
 
         Optional<AllocationResult> resOpt = strategy.allocateSpot(req);
         assertTrue(resOpt.isPresent());
@@ -64,6 +74,7 @@ class EntranceNearestSpotAllocationStrategyTest {
         assertEquals(floor2.getId(), res.floorId());
         assertFalse(res.reservedSpot());
         assertEquals("nearest_by_floor_order", res.reason());
+        assertEquals(2.0, registry.get("parking.allocation.floors.scanned").summary().totalAmount());
     }
 
     @Test
@@ -82,9 +93,9 @@ class EntranceNearestSpotAllocationStrategyTest {
         when(floorRepository.findByLotIdOrderByOrderingAsc(lotId))
                 .thenReturn(List.of(floor1));
 
-        when(spotRepository.findFirstByFloorIdAndSizeAndStatusOrderByCodeAsc(
-                floor1.getId(), SpotSize.SMALL, SpotStatus.AVAILABLE))
-                .thenReturn(Optional.empty());
+        when(spotRepository.findByFloorId(floor1.getId()))
+                .thenReturn(List.of(new Spot(
+                        UUID.randomUUID(), floor1.getId(), "G-M1", SpotSize.MEDIUM, SpotStatus.AVAILABLE)));
 
         Optional<AllocationResult> resOpt = strategy.allocateSpot(req);
         assertTrue(resOpt.isEmpty());
@@ -0,0 +1,187 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.domain.BusinessRuleException;
+import com.example.smartparking.domain.RateCard;
+import com.example.smartparking.domain.RateRule;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.strategy.FeeCalculationStrategy.FeeBreakdown;
+import com.example.smartparking.domain.strategy.FeeCalculationStrategy.FeeRequest;
+import com.example.smartparking.repository.RateCardRepository;
+import com.example.smartparking.repository.RateRuleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateCardFeeStrategyTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T10:00:00Z");
+
+    private final RateCardRepository rateCardRepository = mock(RateCardRepository.class);
+    private final RateRuleRepository rateRuleRepository = mock(RateRuleRepository.class);
+    private final MutableClock clock = new MutableClock(NOW);
+    private final RateCardFeeStrategy strategy =
+            new RateCardFeeStrategy(rateCardRepository, rateRuleRepository, clock);
+
+    private final UUID lotId = UUID.randomUUID();
+    private final UUID floorId = UUID.randomUUID();
+
+    @Test
+    void banded_lot_card_matches_seeded_rules() {
+        RateCard lotCard = card("Default Lot Rates", NOW.minusSeconds(86400), null, lotId, null, null,
+                new RateRule(0, 60, 3000, RateRule.Unit.HOUR),
+                new RateRule(60, 240, 2000, RateRule.Unit.HOUR),
+                new RateRule(240, null, 5000, RateRule.Unit.FLAT));
+        when(rateCardRepository.findAll()).thenReturn(List.of(lotCard));
+
+        assertEquals(0L, fee(0, SpotSize.MEDIUM).totalAmountMinor());
+        assertEquals(3000L, fee(30, SpotSize.MEDIUM).totalAmountMinor());
+        assertEquals(3000L, fee(60, SpotSize.MEDIUM).totalAmountMinor());
+        assertEquals(5000L, fee(61, SpotSize.MEDIUM).totalAmountMinor());
+        assertEquals(9000L, fee(240, SpotSize.MEDIUM).totalAmountMinor());
+        assertEquals(14000L, fee(241, SpotSize.MEDIUM).totalAmountMinor());
+        assertEquals(14000L, fee(24 * 60, SpotSize.MEDIUM).totalAmountMinor());
+        assertEquals("rate_card:Default Lot Rates", fee(30, SpotSize.MEDIUM).description());
+
+        // compiled once and reused
+        verify(rateCardRepository, times(1)).findAll();
+    }
+
+    @Test
+    void most_specific_card_wins() {
+        RateCard lotCard = card("Lot", NOW.minusSeconds(3600), null, lotId, null, null,
+                new RateRule(0, null, 100, RateRule.Unit.MINUTE));
+        RateCard evCard = card("Lot EV", NOW.minusSeconds(3600), null, lotId, null, SpotSize.EV,
+                new RateRule(0, null, 200, RateRule.Unit.MINUTE));
+        RateCard floorCard = card("Floor", NOW.minusSeconds(3600), null, lotId, floorId, null,
+                new RateRule(0, null, 300, RateRule.Unit.MINUTE));
+        when(rateCardRepository.findAll()).thenReturn(List.of(lotCard, evCard, floorCard));
+
+        assertEquals(1000L, strategy.calculate(request(UUID.randomUUID(), SpotSize.SMALL, 10)).totalAmountMinor());
+        assertEquals(2000L, strategy.calculate(request(UUID.randomUUID(), SpotSize.EV, 10)).totalAmountMinor());
+        assertEquals(3000L, strategy.calculate(request(floorId, SpotSize.EV, 10)).totalAmountMinor());
+        assertEquals(1000L, strategy.calculate(
+                new FeeRequest(lotId, UUID.randomUUID(), NOW.minusSeconds(600), NOW, "INR")).totalAmountMinor());
+    }
+
+    @Test
+    void tables_swap_when_effective_window_ends() {
+        Instant switchAt = NOW.plusSeconds(3600);
+        RateCard oldCard = card("Old", NOW.minusSeconds(86400), switchAt, lotId, null, null,
+                new RateRule(0, null, 1000, RateRule.Unit.FLAT));
+        RateCard newCard = card("New", switchAt, null, lotId, null, null,
+                new RateRule(0, null, 2000, RateRule.Unit.FLAT));
+        when(rateCardRepository.findAll()).thenReturn(List.of(oldCard, newCard));
+
+        assertEquals(1000L, fee(30, SpotSize.SMALL).totalAmountMinor());
+
+        clock.set(switchAt.plusSeconds(60));
+        assertEquals(2000L, fee(30, SpotSize.SMALL).totalAmountMinor());
+        assertEquals(2000L, fee(45, SpotSize.SMALL).totalAmountMinor());
+        verify(rateCardRepository, times(2)).findAll();
+    }
+
+    @Test
+    void backdated_exits_compile_their_window_once_and_use_its_currency() {
+        Instant switchAt = NOW.minusSeconds(86400);
+        RateCard oldCard = card("Old", switchAt.minusSeconds(86400), switchAt, lotId, null, null,
+                new RateRule(0, null, 700, RateRule.Unit.FLAT));
+        RateCard euroCard = new RateCard(UUID.randomUUID(), "Old EUR", "EUR", switchAt.minusSeconds(86400), switchAt);
+        euroCard.scopeToLot(lotId);
+        euroCard.scopeToSize(SpotSize.EV);
+        when(rateRuleRepository.findByRateCardIdOrderByStartMinuteAsc(euroCard.getId()))
+                .thenReturn(List.of(new RateRule(0, null, 900, RateRule.Unit.FLAT)));
+        RateCard newCard = card("New", switchAt, null, lotId, null, null,
+                new RateRule(0, null, 2000, RateRule.Unit.FLAT));
+        when(rateCardRepository.findAll()).thenReturn(List.of(oldCard, euroCard, newCard));
+
+        Instant backdatedExit = switchAt.minusSeconds(3600);
+        FeeBreakdown old = strategy.calculate(new FeeRequest(
+                lotId, UUID.randomUUID(), backdatedExit.minusSeconds(600), backdatedExit, "INR", floorId, SpotSize.EV));
+        strategy.calculate(new FeeRequest(
+                lotId, UUID.randomUUID(), backdatedExit.minusSeconds(900), backdatedExit, "INR", floorId, SpotSize.SMALL));
+
+        assertEquals(900L, old.totalAmountMinor());
+        assertEquals("EUR", old.currency());
+        assertEquals("INR", fee(30, SpotSize.SMALL).currency());
+        // the live window, then the backdated one once
+        verify(rateCardRepository, times(2)).findAll();
+    }
+
+    @Test
+    void missing_card_is_a_business_rule_violation() {
+        when(rateCardRepository.findAll()).thenReturn(List.of());
+
+        BusinessRuleException ex = assertThrows(BusinessRuleException.class, () -> fee(30, SpotSize.SMALL));
+        assertEquals("no_rate_card", ex.errorCode());
+    }
+
+    @Test
+    void card_without_rules_falls_through_to_the_next_scope() {
+        RateCard lotCard = card("Lot", NOW.minusSeconds(3600), null, lotId, null, null,
+                new RateRule(0, null, 100, RateRule.Unit.MINUTE));
+        RateCard emptyFloorCard = card("Floor draft", NOW.minusSeconds(3600), null, lotId, floorId, null);
+        when(rateCardRepository.findAll()).thenReturn(List.of(lotCard, emptyFloorCard));
+
+        assertEquals(1000L, fee(10, SpotSize.SMALL).totalAmountMinor());
+
+        when(rateCardRepository.findAll()).thenReturn(List.of(emptyFloorCard));
+        strategy.refresh();
+        BusinessRuleException ex = assertThrows(BusinessRuleException.class, () -> fee(10, SpotSize.SMALL));
+        assertEquals("no_rate_card", ex.errorCode());
+    }
+
+    private FeeBreakdown fee(long minutes, SpotSize size) {
+        Instant exit = clock.instant();
+        return strategy.calculate(new FeeRequest(
+                lotId, UUID.randomUUID(), exit.minusSeconds(minutes * 60), exit, "INR", floorId, size));
+    }
+
+    private FeeRequest request(UUID floor, SpotSize size, long minutes) {
+        return new FeeRequest(lotId, UUID.randomUUID(), NOW.minusSeconds(minutes * 60), NOW, "INR", floor, size);
+    }
+
+    private RateCard card(String name, Instant from, Instant to, UUID lot, UUID floor, SpotSize size,
+                          RateRule... rules) {
+        RateCard card = new RateCard(UUID.randomUUID(), name, "INR", from, to);
+        card.scopeToLot(lot);
+        card.scopeToFloor(floor);
+        card.scopeToSize(size);
+        when(rateRuleRepository.findByRateCardIdOrderByStartMinuteAsc(card.getId())).thenReturn(List.of(rules));
+        return card;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.smartparking.strategy;
+
+import com.example.smartparking.availability.SpotAvailabilityIndex;
+import com.example.smartparking.domain.Entrance;
+import com.example.smartparking.domain.Floor;
+import com.example.smartparking.domain.Spot;
+import com.example.smartparking.domain.SpotSize;
+import com.example.smartparking.domain.SpotStatus;
+import com.example.smartparking.domain.strategy.SpotAllocationStrategy.AllocationRequest;
+import com.example.smartparking.domain.strategy.SpotAllocationStrategy.AllocationResult;
+import com.example.smartparking.observability.ParkingMetrics;
+import com.example.smartparking.repository.EntranceRepository;
+import com.example.smartparking.repository.EntranceRepository.SpotDistance;
+import com.example.smartparking.repository.FloorRepository;
+import com.example.smartparking.repository.SpotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SizeFallbackScoredAllocationStrategyTest {
+
+    private final FloorRepository floorRepository = mock(FloorRepository.class);
+    private final SpotRepository spotRepository = mock(SpotRepository.class);
+    private final EntranceRepository entranceRepository = mock(EntranceRepository.class);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // floor weight 1, upsize penalty 2 per step, premium spot penalty 3
+    private final SizeFallbackScoredAllocationStrategy strategy =
+            new SizeFallbackScoredAllocationStrategy(
+                    new SpotAvailabilityIndex(floorRepository, spotRepository, entranceRepository, 0L),
+                    new ParkingMetrics(registry),
+                    1, 2, 3);
+
+    private final UUID lotId = UUID.randomUUID();
+    private final Floor ground = new Floor(UUID.randomUUID(), lotId, "G", 1);
+    private final Floor basement1 = new Floor(UUID.randomUUID(), lotId, "B1", 2);
+    private final Floor basement2 = new Floor(UUID.randomUUID(), lotId, "B2", 3);
+    private final Floor basement3 = new Floor(UUID.randomUUID(), lotId, "B3", 4);
+
+    @Test
+    void allocate_prefers_a_larger_spot_close_to_the_entrance_over_an_exact_fit_far_away() {
+        Spot medium = spot(ground, "G-M1", SpotSize.MEDIUM);
+        Spot large = spot(ground, "G-L1", SpotSize.LARGE);
+        Spot small = spot(basement3, "B3-S1", SpotSize.SMALL);
+        lot(List.of(medium, large), List.of(), List.of(), List.of(small));
+
+        AllocationResult res = strategy.allocateSpot(request(SpotSize.SMALL)).orElseThrow();
+
+        // MEDIUM on G scores 0 + 2, SMALL on B3 scores 3, LARGE on G scores 0 + 4 + 3
+        assertEquals(medium.getId(), res.spotId());
+        assertEquals(ground.getId(), res.floorId());
+        assertEquals("size_fallback_scored", res.reason());
+        assertEquals(1.0, registry.get("parking.allocation.size.fallbacks").counter().count());
+    }
+
+    @Test
+    void allocate_keeps_the_exact_size_over_a_nearer_large_spot_and_never_takes_ev() {
+        Spot large = spot(ground, "G-L1", SpotSize.LARGE);
+        Spot ev = spot(ground, "G-E1", SpotSize.EV);
+        Spot medium = spot(basement2, "B2-M1", SpotSize.MEDIUM);
+        lot(List.of(large, ev), List.of(), List.of(medium), List.of());
+
+        AllocationResult res = strategy.allocateSpot(request(SpotSize.MEDIUM)).orElseThrow();
+
+        // MEDIUM on B2 scores 2, LARGE on G scores 0 + 2 + 3
+        assertEquals(medium.getId(), res.spotId());
+        assertEquals("nearest_by_floor_order", res.reason());
+        assertEquals(0.0, registry.get("parking.allocation.size.fallbacks").counter().count());
+        assertEquals(3.0, registry.get("parking.allocation.floors.scanned").summary().totalAmount());
+
+        // The next MEDIUM vehicle falls back to LARGE; the EV spot never serves a LARGE vehicle
+        assertEquals(large.getId(), strategy.allocateSpot(request(SpotSize.MEDIUM)).orElseThrow().spotId());
+        assertTrue(strategy.allocateSpot(request(SpotSize.LARGE)).isEmpty());
+    }
+
+    @Test
+    void allocate_scores_candidates_nearest_to_a_known_entrance() {
+        Spot medium = spot(ground, "G-M1", SpotSize.MEDIUM);
+        Spot farSmall = spot(basement3, "B3-S1", SpotSize.SMALL);
+        Spot nearSmall = spot(basement3, "B3-S2", SpotSize.SMALL);
+        lot(List.of(medium), List.of(), List.of(), List.of(farSmall, nearSmall));
+        Entrance gate = new Entrance(UUID.randomUUID(), lotId, basement3.getId(), "B3-GATE");
+        when(entranceRepository.findByLotId(lotId)).thenReturn(List.of(gate));
+        when(entranceRepository.findDistancesByLotId(lotId)).thenReturn(List.of(
+                new Distance(gate.getId(), farSmall.getId(), 40),
+                new Distance(gate.getId(), nearSmall.getId(), 5),
+                new Distance(gate.getId(), medium.getId(), 90)));
+
+        AllocationResult res = strategy.allocateSpot(
+                new AllocationRequest(lotId, gate.getId(), SpotSize.SMALL, Optional.empty(), Instant.now())).orElseThrow();
+
+        // From the B3 gate: SMALL on B3 scores 0, MEDIUM on G scores 3 + 2
+        assertEquals(nearSmall.getId(), res.spotId());
+        assertEquals("nearest_to_entrance", res.reason());
+
+        // Without the entrance the same lot goes by floor ordering: MEDIUM on G scores 2
+        assertEquals(medium.getId(), strategy.allocateSpot(request(SpotSize.SMALL)).orElseThrow().spotId());
+    }
+
+    private void lot(List<Spot> g, List<Spot> b1, List<Spot> b2, List<Spot> b3) {
+        when(floorRepository.findByLotIdOrderByOrderingAsc(lotId))
+                .thenReturn(List.of(ground, basement1, basement2, basement3));
+        when(spotRepository.findByFloorId(ground.getId())).thenReturn(g);
+        when(spotRepository.findByFloorId(basement1.getId())).thenReturn(b1);
+        when(spotRepository.findByFloorId(basement2.getId())).thenReturn(b2);
+        when(spotRepository.findByFloorId(basement3.getId())).thenReturn(b3);
+    }
+
+    private AllocationRequest request(SpotSize size) {
+        return new AllocationRequest(lotId, UUID.randomUUID(), size, Optional.empty(), Instant.now());
+    }
+
+    private record Distance(UUID getEntranceId, UUID getSpotId, int getDistance) implements SpotDistance {}
+
+    private static Spot spot(Floor floor, String code, SpotSize size) {
+        return new Spot(UUID.randomUUID(), floor.getId(), code, size, SpotStatus.AVAILABLE);
+    }
+}
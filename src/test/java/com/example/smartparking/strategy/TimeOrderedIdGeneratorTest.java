@@ -0,0 +1,102 @@
+package com.example.smartparking.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+    @Test
+    void ids_are_version_7_and_carry_the_millisecond() {
+        long now = 1_760_000_000_000L;
+        UUID id = generator.next(now);
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(now, id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void ids_strictly_increase_within_a_millisecond_and_when_the_clock_goes_back() {
+        long now = 1_770_000_000_000L;
+        UUID previous = generator.next(now);
+        // more ids than the 12-bit counter holds, so the generator borrows the following milliseconds
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = generator.next(i < 5_000 ? now : now - 1_000);
+            assertTrue(compareUnsigned(previous, next) < 0, "ids must increase");
+            previous = next;
+        }
+        assertTrue((previous.getMostSignificantBits() >>> 16) > now);
+    }
+
+    @Test
+    void ids_increase_across_threads_in_the_order_they_were_handed_out() throws Exception {
+        long now = 1_775_000_000_000L;
+        UUID first = onThread(() -> generator.next(now + 5));
+        // a thread whose clock lags still orders after the id another thread already got
+        UUID second = onThread(() -> generator.next(now));
+
+        assertTrue(compareUnsigned(first, second) < 0);
+
+        ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<List<UUID>>> batches = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                batches.add(threads.submit(() -> {
+                    List<UUID> ids = new ArrayList<>();
+                    for (int i = 0; i < 1_000; i++) {
+                        ids.add(generator.next(now));
+                    }
+                    return ids;
+                }));
+            }
+            Set<UUID> unique = new HashSet<>();
+            for (Future<List<UUID>> batch : batches) {
+                List<UUID> ids = batch.get();
+                for (int i = 1; i < ids.size(); i++) {
+                    assertTrue(compareUnsigned(ids.get(i - 1), ids.get(i)) < 0);
+                }
+                unique.addAll(ids);
+            }
+            assertEquals(8_000, unique.size());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void random_bits_keep_changing() {
+        Set<Long> randomBits = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            randomBits.add(generator.next(1_780_000_000_000L).getLeastSignificantBits());
+        }
+        assertEquals(100, randomBits.size());
+    }
+
+    private static UUID onThread(Callable<UUID> task) throws Exception {
+        ExecutorService thread = Executors.newSingleThreadExecutor();
+        try {
+            return thread.submit(task).get();
+        } finally {
+            thread.shutdownNow();
+        }
+    }
+
+    // UUID.compareTo compares signed longs; database order is unsigned
+    private static int compareUnsigned(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}